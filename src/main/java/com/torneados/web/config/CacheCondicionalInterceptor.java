@@ -0,0 +1,131 @@
+package com.torneados.web.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.torneados.web.service.VersionesRecursos;
+import com.torneados.web.service.VersionesRecursos.Version;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * GET condicionales (ETag y Last-Modified) para las lecturas públicas de torneos,
+ * partidos y deportes, a partir de {@link VersionesRecursos}.
+ *
+ * Antes de ejecutar un GET se calcula la versión del recurso; si el cliente ya la tiene se responde
+ * 304 sin llegar al controlador. Las respuestas llevan "Cache-Control: no-cache" para que navegadores
+ * y CDN las guarden pero pregunten siempre si siguen vigentes. Como los listados también se sirven
+ * en Smile o CBOR, el ETag incluye el formato pedido en Accept y se añade "Vary: Accept".
+ *
+ * Con la compresión activada (perfil prod) el ETag debe ser débil: Tomcat no comprime las respuestas
+ * con ETag fuerte, porque el cuerpo comprimido ya no es idéntico byte a byte.
+ *
+ * Las versiones las suben los servicios al confirmarse cada escritura, antes de que el controlador
+ * responda: un cliente que lee justo después de su propia escritura nunca recibe un 304 con los
+ * datos anteriores.
+ *
+ * El 304 se responde antes de ejecutar el servicio, así que solo se registra (en WebConfig) para
+ * lecturas públicas cuyo servicio no comprueba permisos ni visibilidad: si alguna empieza a
+ * comprobarlos, hay que quitarla de esa lista.
+ */
+@Component
+public class CacheCondicionalInterceptor implements HandlerInterceptor {
+
+    private final VersionesRecursos versiones;
+    private final boolean etagDebil;
+
+    public CacheCondicionalInterceptor(VersionesRecursos versiones,
+                                       @Value("${torneados.cache-http.etag-debil:false}") boolean etagDebil) {
+        this.versiones = versiones;
+        this.etagDebil = etagDebil;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String metodo = request.getMethod();
+        if (!HttpMethod.GET.matches(metodo) && !HttpMethod.HEAD.matches(metodo)) {
+            return true;
+        }
+
+        Long idTorneo = resolverTorneo(request);
+        Version version;
+        if (idTorneo != null) {
+            version = versiones.getVersionTorneo(idTorneo);
+        } else if (request.getRequestURI().startsWith(request.getContextPath() + "/api/v1/deportes")) {
+            version = versiones.getVersionGeneral();
+        } else {
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String etag = (etagDebil ? "W/\"" : "\"") + version.etiqueta() + formatoPedido(request) + "\"";
+        return !new ServletWebRequest(request, response).checkNotModified(etag, version.ultimoCambio());
+    }
+
+    /**
+     * Sufijo del formato binario que se servirá según Accept (el primero aceptable que aparezca),
+     * o vacío para JSON.
+     */
+    private static String formatoPedido(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return "";
+        }
+        try {
+            for (MediaType tipo : MediaType.parseMediaTypes(accept)) {
+                if (tipo.getQualityValue() == 0) {
+                    continue;
+                }
+                if (ConversorBinarioListados.SMILE.isCompatibleWith(tipo) && !tipo.isWildcardType()) {
+                    return "-smile";
+                }
+                if (MediaType.APPLICATION_CBOR.isCompatibleWith(tipo) && !tipo.isWildcardType()) {
+                    return "-cbor";
+                }
+                if (MediaType.APPLICATION_JSON.isCompatibleWith(tipo)) {
+                    return "";
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // El controlador responderá al Accept inválido
+        }
+        return "";
+    }
+
+    /**
+     * Torneo al que se refiere la ruta: /torneos/{id}/..., /admin/torneos/{idTorneo}/...
+     * o /partidos/{idPartido}/... (el de ese partido). Null si la ruta no es de un torneo.
+     */
+    @SuppressWarnings("unchecked")
+    private Long resolverTorneo(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(
+            HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null) {
+            return null;
+        }
+        try {
+            String idTorneo = variables.get("idTorneo");
+            if (idTorneo == null && request.getRequestURI().startsWith(request.getContextPath() + "/api/v1/torneos/")) {
+                idTorneo = variables.get("id");
+            }
+            if (idTorneo != null) {
+                return Long.valueOf(idTorneo);
+            }
+            String idPartido = variables.get("idPartido");
+            return idPartido != null ? versiones.getTorneoDePartido(Long.valueOf(idPartido)) : null;
+        } catch (NumberFormatException e) {
+            // El controlador responderá 400 al convertir la variable
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.torneados.web.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Registro de consultas lentas (ver {@link DataSourceConsultasLentas}). Se activa al definir
+ * torneados.sql-lento.umbral; torneados.sql-lento.muestreo es la fracción de conexiones vigiladas.
+ */
+@Configuration
+@ConditionalOnProperty("torneados.sql-lento.umbral")
+public class ConsultasLentasConfig {
+
+    // Estático para que no obligue a crear antes de tiempo el resto de la configuración
+    @Bean
+    public static BeanPostProcessor consultasLentasPostProcessor(Environment entorno) {
+        Duration umbral = entorno.getRequiredProperty("torneados.sql-lento.umbral", Duration.class);
+        double muestreo = entorno.getProperty("torneados.sql-lento.muestreo", Double.class, 1.0);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceConsultasLentas)) {
+                    return new DataSourceConsultasLentas(dataSource, umbral, muestreo);
+                }
+                return bean;
+            }
+        };
+    }
+}
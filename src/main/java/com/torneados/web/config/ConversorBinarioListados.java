@@ -0,0 +1,60 @@
+package com.torneados.web.config;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.torneados.web.dto.ClasificacionDTO;
+import com.torneados.web.dto.EquipoTorneoResumenDTO;
+import com.torneados.web.dto.PartidoResumenDTO;
+import com.torneados.web.entities.Partido;
+import com.torneados.web.entities.PartidoEquipos;
+import com.torneados.web.entities.TorneoEquipos;
+
+/**
+ * Respuestas en un formato binario de Jackson (Smile o CBOR) para los listados de partidos y de
+ * clasificación, que son los que más ocupan y más se consultan durante un torneo.
+ *
+ * Solo se usa si el cliente lo pide en Accept; cualquier otra respuesta pedida en estos formatos
+ * recibe 406. Solo escribe: los cuerpos de las peticiones siguen siendo JSON.
+ */
+class ConversorBinarioListados extends AbstractJackson2HttpMessageConverter {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private static final Set<Class<?>> ELEMENTOS = Set.of(
+        Partido.class, PartidoResumenDTO.class, PartidoEquipos.class,
+        ClasificacionDTO.class, TorneoEquipos.class, EquipoTorneoResumenDTO.class);
+
+    ConversorBinarioListados(ObjectMapper objectMapper, MediaType formato) {
+        super(objectMapper, formato);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return esListado(type) && super.canWrite(clazz, mediaType);
+    }
+
+    private static boolean esListado(Type tipo) {
+        return tipo instanceof ParameterizedType parametrizado
+            && parametrizado.getRawType() instanceof Class<?> contenedor
+            && Collection.class.isAssignableFrom(contenedor)
+            && parametrizado.getActualTypeArguments()[0] instanceof Class<?> elemento
+            && ELEMENTOS.contains(elemento);
+    }
+}
@@ -0,0 +1,194 @@
+package com.torneados.web.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource que registra las sentencias SQL lentas con sus valores.
+ *
+ * Solo se vigila una muestra de las conexiones: al obtener cada una del pool se decide al azar si
+ * entra. Las que no entran se devuelven tal cual, sin proxy ni ningún coste añadido; en las que
+ * entran se envuelven todas sus sentencias para guardar los valores que se les asignan y medir cada
+ * ejecución. Si una ejecución supera el umbral se registra en WARN con la duración, el SQL y los
+ * valores (los textos largos, recortados).
+ */
+class DataSourceConsultasLentas extends DelegatingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(DataSourceConsultasLentas.class);
+
+    private static final int MAX_LONGITUD_VALOR = 200;
+
+    private final long umbralNanos;
+    private final double muestreo;
+
+    DataSourceConsultasLentas(DataSource destino, Duration umbral, double muestreo) {
+        super(destino);
+        this.umbralNanos = umbral.toNanos();
+        this.muestreo = muestreo;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return envolver(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return envolver(super.getConnection(username, password));
+    }
+
+    private Connection envolver(Connection conexion) {
+        if (!enMuestra()) {
+            return conexion;
+        }
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {Connection.class}, new Conexion(conexion));
+    }
+
+    private boolean enMuestra() {
+        return muestreo >= 1 || ThreadLocalRandom.current().nextDouble() < muestreo;
+    }
+
+    /**
+     * Spring y Hibernate guardan las conexiones y sentencias en mapas y las comparan: cada proxy
+     * solo es igual a sí mismo.
+     */
+    private static boolean esIdentidad(Method metodo) {
+        return metodo.getDeclaringClass() == Object.class
+            && (metodo.getName().equals("equals") || metodo.getName().equals("hashCode"));
+    }
+
+    private static Object identidad(Object proxy, Method metodo, Object[] args) {
+        return metodo.getName().equals("equals") ? proxy == args[0] : System.identityHashCode(proxy);
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Envuelve todas las sentencias que se crean desde una conexión de la muestra. */
+    private class Conexion implements InvocationHandler {
+
+        private final Connection destino;
+
+        Conexion(Connection destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (esIdentidad(metodo)) {
+                return identidad(proxy, metodo, args);
+            }
+            Object resultado = invocar(destino, metodo, args);
+            if (!(resultado instanceof Statement sentencia)) {
+                return resultado;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String texto ? texto : null;
+            Class<?> tipo = sentencia instanceof CallableStatement ? CallableStatement.class
+                : sentencia instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+            return Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {tipo}, new Sentencia(sentencia, sql));
+        }
+    }
+
+    /** Guarda los valores asignados a la sentencia y mide sus ejecuciones. */
+    private class Sentencia implements InvocationHandler {
+
+        private final Statement destino;
+        private final String sql;
+        private final Map<Integer, Object> valores = new TreeMap<>();
+        private int lotes;
+
+        Sentencia(Statement destino, String sql) {
+            this.destino = destino;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (esIdentidad(metodo)) {
+                return identidad(proxy, metodo, args);
+            }
+            String nombre = metodo.getName();
+            if (nombre.startsWith("execute")) {
+                long inicio = System.nanoTime();
+                try {
+                    return invocar(destino, metodo, args);
+                } finally {
+                    long duracion = System.nanoTime() - inicio;
+                    if (duracion >= umbralNanos) {
+                        registrar(duracion, args != null && args.length > 0 && args[0] instanceof String texto ? texto : sql);
+                    }
+                    if (nombre.endsWith("Batch")) {
+                        lotes = 0;
+                    }
+                }
+            }
+            if (nombre.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                valores.put(indice, nombre.equals("setNull") ? null : args[1]);
+            } else if (nombre.equals("clearParameters")) {
+                valores.clear();
+            } else if (nombre.equals("addBatch")) {
+                lotes++;
+            }
+            return invocar(destino, metodo, args);
+        }
+
+        private void registrar(long duracionNanos, String sqlEjecutado) {
+            if (!log.isWarnEnabled()) {
+                return;
+            }
+            long duracionMs = duracionNanos / 1_000_000;
+            String texto = valores.isEmpty() ? "" : valoresLegibles();
+            // Los pares clave-valor van como campos propios en los logs JSON
+            log.atWarn()
+                .addKeyValue("duracion_ms", duracionMs)
+                .addKeyValue("sql", sqlEjecutado)
+                .addKeyValue("valores", texto)
+                .addKeyValue("lotes", lotes)
+                .log("Consulta lenta ({} ms): {} {}", duracionMs, sqlEjecutado, texto);
+        }
+
+        private String valoresLegibles() {
+            StringBuilder texto = new StringBuilder("[");
+            valores.forEach((indice, valor) -> {
+                if (texto.length() > 1) {
+                    texto.append(", ");
+                }
+                texto.append(indice).append('=').append(legible(valor));
+            });
+            return texto.append(']').toString();
+        }
+
+        private static String legible(Object valor) {
+            if (valor instanceof byte[] bytes) {
+                return "<" + bytes.length + " bytes>";
+            }
+            String texto = String.valueOf(valor);
+            return texto.length() > MAX_LONGITUD_VALOR ? texto.substring(0, MAX_LONGITUD_VALOR) + "..." : texto;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.torneados.web.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuración del modo con hilos virtuales (spring.threads.virtual.enabled=true). En ese modo
+ * Spring Boot atiende las peticiones de Tomcat y las tareas @Async en hilos virtuales; aquí se añade
+ * el límite de peticiones concurrentes a la API (ver {@link LimiteConexionesFilter}).
+ *
+ * Con hilos de plataforma el límite lo pone el propio pool de Tomcat.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class HilosVirtualesConfig {
+
+    /**
+     * Permisos: torneados.limite-bd.permisos o, si no se define, los que caben en el pool de Hikari
+     * sin agotarlo. Una petición puede tener dos conexiones a la vez (la de su transacción y la
+     * REQUIRES_NEW con la que SecuenciaIdRepository o el generador de IDs de Partido reservan
+     * bloques de IDs), y los hilos de los sorteos (torneados.trabajos.hilos) también, sin pasar por
+     * este filtro. Se reservan dos conexiones por hilo de sorteo y se deja una libre: aunque todas
+     * las peticiones admitidas tengan una conexión y esperen la segunda, alguna puede terminar.
+     */
+    @Bean
+    public FilterRegistrationBean<LimiteConexionesFilter> limiteConexionesFilter(
+            @Value("${torneados.limite-bd.permisos:#{null}}") Integer permisos,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int tamanoPool,
+            @Value("${torneados.trabajos.hilos:2}") int hilosSorteo,
+            @Value("${torneados.limite-bd.espera:2s}") Duration espera) {
+        if (permisos == null) {
+            permisos = Math.max(1, tamanoPool - 2 * hilosSorteo - 1);
+        }
+        FilterRegistrationBean<LimiteConexionesFilter> registro =
+            new FilterRegistrationBean<>(new LimiteConexionesFilter(permisos, espera));
+        registro.addUrlPatterns("/api/v1/*");
+        // Antes que la seguridad: una petición rechazada no llega a validar su token
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registro;
+    }
+}
@@ -0,0 +1,65 @@
+package com.torneados.web.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Limita las peticiones a la API que se atienden a la vez, para que no agoten el pool de conexiones
+ * (el número de permisos se calcula en {@link HilosVirtualesConfig}).
+ *
+ * Con hilos virtuales Tomcat ya no tiene un máximo de hilos: en un pico de sorteos miles de
+ * peticiones llegarían a la vez a Hikari y esperarían allí una conexión hasta agotar su timeout,
+ * reteniendo memoria y sesiones. Las que no consiguen permiso en el tiempo de espera reciben 503
+ * con Retry-After en lugar de encolarse sin límite.
+ *
+ * Los streams de eventos no pasan por el límite: duran minutos y no usan la base de datos.
+ */
+class LimiteConexionesFilter extends OncePerRequestFilter {
+
+    private final Semaphore permisos;
+    private final long esperaNanos;
+
+    LimiteConexionesFilter(int permisos, Duration espera) {
+        this.permisos = new Semaphore(permisos, true);
+        this.esperaNanos = espera.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/eventos");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean concedido;
+        try {
+            concedido = permisos.tryAcquire(esperaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            concedido = false;
+        }
+        if (!concedido) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Servidor ocupado, vuelve a intentarlo\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permisos.release();
+        }
+    }
+}
@@ -1,14 +1,33 @@
 package com.torneados.web.config;
 
+import java.util.List;
+
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final CacheCondicionalInterceptor cacheCondicionalInterceptor;
+    private final Jackson2ObjectMapperBuilder jacksonBuilder;
+
+    public WebConfig(CacheCondicionalInterceptor cacheCondicionalInterceptor, Jackson2ObjectMapperBuilder jacksonBuilder) {
+        this.cacheCondicionalInterceptor = cacheCondicionalInterceptor;
+        this.jacksonBuilder = jacksonBuilder;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -18,6 +37,35 @@ public class WebConfig implements WebMvcConfigurer {
             .allowCredentials(true);
     }
 
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Solo lecturas públicas sin comprobaciones de permisos en el servicio: el 304 se responde antes
+        // de llegar a él. Quedan fuera las solicitudes de inscripción y los streams de eventos en directo
+        registry.addInterceptor(cacheCondicionalInterceptor)
+            .addPathPatterns(
+                "/api/v1/deportes",
+                "/api/v1/torneos/*",
+                "/api/v1/torneos/*/equipos", "/api/v1/torneos/*/equipos/*",
+                "/api/v1/torneos/*/partidos", "/api/v1/torneos/*/partidos/resumen",
+                "/api/v1/torneos/*/clasificacion",
+                "/api/v1/torneos/*/jugadores", "/api/v1/torneos/*/jugadores/ranking",
+                "/api/v1/partidos/*/equipos", "/api/v1/partidos/*/jugadores");
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Con jackson-dataformat-smile y -cbor en el classpath Spring registra sus conversores, que
+        // leen y escriben cualquier tipo: se quitan para que solo se usen los de los listados
+        converters.removeIf(c -> c instanceof MappingJackson2SmileHttpMessageConverter
+            || c instanceof MappingJackson2CborHttpMessageConverter);
+        // Después del de JSON, que sigue siendo el formato por defecto. El builder de Spring Boot
+        // aplica las mismas opciones spring.jackson.* que al JSON (por ejemplo, omitir los null)
+        converters.add(new ConversorBinarioListados(
+            jacksonBuilder.factory(new SmileFactory()).build(), ConversorBinarioListados.SMILE));
+        converters.add(new ConversorBinarioListados(
+            jacksonBuilder.factory(new CBORFactory()).build(), MediaType.APPLICATION_CBOR));
+    }
+
     @Override
     public void configurePathMatch(PathMatchConfigurer configurer) {
         // Solo añade “/api/v1” a las clases anotadas con @RestController
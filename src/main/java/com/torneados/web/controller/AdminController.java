@@ -0,0 +1,82 @@
+package com.torneados.web.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.entities.TorneoJugadores;
+import com.torneados.web.service.TorneoEquiposService;
+import com.torneados.web.service.TorneoJugadoresService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+/**
+ * Operaciones de mantenimiento reservadas a administradores (/admin/** exige ROLE_ADMINISTRADOR).
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final TorneoEquiposService torneoEquiposService;
+    private final TorneoJugadoresService torneoJugadoresService;
+
+    public AdminController(TorneoEquiposService torneoEquiposService, TorneoJugadoresService torneoJugadoresService) {
+        this.torneoEquiposService = torneoEquiposService;
+        this.torneoJugadoresService = torneoJugadoresService;
+    }
+
+    /*
+     * Recalcula desde cero la clasificación de un equipo en un torneo
+     */
+    @Operation(summary = "Recalcular desde cero la clasificación de un equipo en un torneo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Clasificación recalculada correctamente", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Bad Request: El equipo no pertenece al torneo", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Falta de permisos", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo o equipo no encontrado", content = @Content)
+    })
+    @PostMapping("/torneos/{idTorneo}/equipos/{idEquipo}/recalcular")
+    public ResponseEntity<TorneoEquipos> recalcularEquipo(@PathVariable Long idTorneo, @PathVariable Long idEquipo) {
+        TorneoEquipos recalculado = torneoEquiposService.updateEquipoDataInTorneo(idTorneo, idEquipo);
+        return ResponseEntity.ok(recalculado);
+    }
+
+    /*
+     * Recalcula desde cero la clasificación de todos los equipos de un torneo
+     */
+    @Operation(summary = "Recalcular desde cero la clasificación de todos los equipos de un torneo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Clasificación recalculada correctamente", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Falta de permisos", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content)
+    })
+    @PostMapping("/torneos/{idTorneo}/equipos/recalcular")
+    public ResponseEntity<List<TorneoEquipos>> recalcularTorneo(@PathVariable Long idTorneo) {
+        List<TorneoEquipos> recalculados = torneoEquiposService.getAllEquiposByTorneo(idTorneo).stream()
+            .map(te -> torneoEquiposService.updateEquipoDataInTorneo(idTorneo, te.getId().getEquipo().getIdEquipo()))
+            .toList();
+        return ResponseEntity.ok(recalculados);
+    }
+
+    /*
+     * Recalcula desde cero las estadisticas de todos los jugadores de un torneo
+     */
+    @Operation(summary = "Recalcular desde cero las estadísticas de los jugadores de un torneo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Estadísticas recalculadas correctamente", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Falta de permisos", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content)
+    })
+    @PostMapping("/torneos/{idTorneo}/jugadores/recalcular")
+    public ResponseEntity<List<TorneoJugadores>> recalcularJugadores(@PathVariable Long idTorneo) {
+        return ResponseEntity.ok(torneoJugadoresService.recalcularEstadisticas(idTorneo));
+    }
+}
@@ -0,0 +1,39 @@
+package com.torneados.web.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.torneados.web.dto.ClasificacionDTO;
+import com.torneados.web.service.ClasificacionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+@RestController
+@RequestMapping("/torneos/{idTorneo}/clasificacion")
+public class ClasificacionController {
+
+    private final ClasificacionService clasificacionService;
+
+    public ClasificacionController(ClasificacionService clasificacionService) {
+        this.clasificacionService = clasificacionService;
+    }
+
+    /*
+     * Obtener la clasificación de un torneo, una tabla ordenada por grupo
+     */
+    @Operation(summary = "Obtener la clasificación de un torneo por grupos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Clasificación obtenida correctamente", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content)
+    })
+    @GetMapping
+    public ResponseEntity<List<ClasificacionDTO>> getClasificacion(@PathVariable Long idTorneo) {
+        List<ClasificacionDTO> clasificacion = clasificacionService.getClasificacion(idTorneo);
+        return ResponseEntity.ok(clasificacion);
+    }
+}
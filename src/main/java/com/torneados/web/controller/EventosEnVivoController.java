@@ -0,0 +1,53 @@
+package com.torneados.web.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.torneados.web.service.EventosEnVivoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+@RestController
+public class EventosEnVivoController {
+
+    private final EventosEnVivoService eventosEnVivoService;
+
+    public EventosEnVivoController(EventosEnVivoService eventosEnVivoService) {
+        this.eventosEnVivoService = eventosEnVivoService;
+    }
+
+    /**
+     * Stream (Server-Sent Events) con los cambios de un torneo: eventos "marcador" y "estadisticas"
+     * de todos sus partidos y "clasificacion" con la diferencia de cada equipo.
+     * Endpoint: GET /torneos/{idTorneo}/eventos
+     */
+    @Operation(summary = "Seguir en directo los marcadores y la clasificación de un torneo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Stream de eventos abierto", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content),
+        @ApiResponse(responseCode = "503", description = "Service Unavailable: Demasiados seguidores en directo", content = @Content)
+    })
+    @GetMapping(value = "/torneos/{idTorneo}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter seguirTorneo(@PathVariable Long idTorneo) {
+        return eventosEnVivoService.suscribirTorneo(idTorneo);
+    }
+
+    /**
+     * Stream (Server-Sent Events) con los eventos "marcador" y "estadisticas" de un partido.
+     * Endpoint: GET /partidos/{idPartido}/eventos
+     */
+    @Operation(summary = "Seguir en directo los marcadores y estadísticas de un partido")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Stream de eventos abierto", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Partido no encontrado", content = @Content),
+        @ApiResponse(responseCode = "503", description = "Service Unavailable: Demasiados seguidores en directo", content = @Content)
+    })
+    @GetMapping(value = "/partidos/{idPartido}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter seguirPartido(@PathVariable Long idPartido) {
+        return eventosEnVivoService.suscribirPartido(idPartido);
+    }
+}
@@ -7,9 +7,13 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.torneados.web.dto.CalendarioDTO;
+import com.torneados.web.dto.PartidoResumenDTO;
 import com.torneados.web.entities.Partido;
 import com.torneados.web.service.PartidoService;
 
+import jakarta.validation.Valid;
+
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -60,6 +64,20 @@ public class PartidoController {
         return ResponseEntity.ok(partidos);
     }
 
+    /**
+     * Obtiene el listado resumido de los partidos de un torneo (equipos y marcadores).
+     * Endpoint: GET /torneos/{idTorneo}/partidos/resumen
+     */
+    @Operation(summary = "Obtener el listado resumido de los partidos de un torneo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Partidos obtenidos correctamente", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content)
+    })
+    @GetMapping("/resumen")
+    public ResponseEntity<List<PartidoResumenDTO>> getResumenPartidos(@PathVariable("idTorneo") Long idTorneo) {
+        return ResponseEntity.ok(partidoService.getResumenPartidos(idTorneo));
+    }
+
     /**
      * Actualiza la fecha de un partido.
      * Endpoint: PUT /torneos/{idTorneo}/partidos/{idPartido}
@@ -80,6 +98,41 @@ public class PartidoController {
     }
     
 
+    /**
+     * Programa automáticamente las fechas de todos los partidos pendientes del torneo.
+     * Endpoint: POST /torneos/{idTorneo}/partidos/calendario
+     */
+    @Operation(summary = "Programar el calendario de los partidos de un torneo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Fechas asignadas a todos los partidos pendientes", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Bad Request: Parámetros inválidos o huecos insuficientes", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Sin permisos sobre el torneo", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content)
+    })
+    @PostMapping("/calendario")
+    public ResponseEntity<List<PartidoResumenDTO>> programarCalendario(@PathVariable Long idTorneo,
+            @Valid @RequestBody CalendarioDTO parametros) {
+        return ResponseEntity.ok(partidoService.programarCalendario(idTorneo, parametros));
+    }
+
+    /**
+     * Finaliza un partido de eliminatoria: el ganador pasa al partido siguiente y el perdedor queda eliminado.
+     * Endpoint: POST /torneos/{idTorneo}/partidos/{idPartido}/finalizar
+     */
+    @Operation(summary = "Finalizar un partido de eliminatoria")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Partido finalizado y ganador clasificado", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Bad Request: Partido ya finalizado, sin dos equipos o empatado", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Sin permisos para modificar el partido", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Partido no encontrado", content = @Content)
+    })
+    @PostMapping("/{idPartido}/finalizar")
+    public ResponseEntity<Partido> finalizarPartido(@PathVariable Long idTorneo, @PathVariable Long idPartido) {
+        return ResponseEntity.ok(partidoService.finalizarPartido(idPartido, idTorneo));
+    }
+
     /**
      * Elimina un partido.
      * Endpoint: DELETE /torneos/{idTorneo}/partidos/{idPartido}
@@ -0,0 +1,44 @@
+package com.torneados.web.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.torneados.web.dto.ResultadosDTO;
+import com.torneados.web.service.ResultadosService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/torneos/{idTorneo}/resultados")
+public class ResultadosController {
+
+    private final ResultadosService resultadosService;
+
+    public ResultadosController(ResultadosService resultadosService) {
+        this.resultadosService = resultadosService;
+    }
+
+    /**
+     * Registra de una vez los resultados de varios partidos del torneo: puntos por set
+     * de cada equipo y estadísticas de cada jugador.
+     * Endpoint: POST /torneos/{idTorneo}/resultados
+     */
+    @Operation(summary = "Registrar los resultados de varios partidos de un torneo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "No Content: Resultados registrados correctamente", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Bad Request: Algún resultado es inválido; no se guarda ninguno", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Sin permisos sobre el torneo", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo o partido no encontrado", content = @Content)
+    })
+    @PostMapping
+    public ResponseEntity<Void> registrarResultados(@PathVariable Long idTorneo,
+            @Valid @RequestBody ResultadosDTO resultados) {
+        resultadosService.registrarResultados(idTorneo, resultados);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -11,6 +11,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.torneados.web.dto.PaginaCursorDTO;
+import com.torneados.web.dto.TorneoResumenDTO;
+import com.torneados.web.dto.TrabajoSorteoDTO;
 import com.torneados.web.entities.*;
 import com.torneados.web.entities.SolicitudInscripcion.Estado;
 import com.torneados.web.entities.ids.SolicitudInscripcionId;
@@ -77,6 +80,34 @@ public class TorneoController {
         }
     }
 
+    @Operation(summary = "Obtener el listado resumido de torneos (paginado y filtrado)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Torneos obtenidos correctamente", content = @Content)
+    })
+    @GetMapping("/resumen")
+    public Page<TorneoResumenDTO> getResumenTorneos(
+            @RequestParam(name = "nombre", required = false) String nombre,
+            @RequestParam(name = "lugar", required = false) String lugar,
+            @RequestParam(name = "deporte", required = false) String deporte,
+            @PageableDefault(size = 20) Pageable pageable
+    ) {
+        return torneoService.getResumenTorneos(nombre, lugar, deporte, pageable);
+    }
+
+    @Operation(summary = "Obtener torneos paginados por cursor (scroll infinito, sin count)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Torneos obtenidos correctamente", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Bad Request: Cursor, tamaño u orden inválidos", content = @Content)
+    })
+    @GetMapping("/cursor")
+    public PaginaCursorDTO<Torneo> getTorneosCursor(
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "orden", defaultValue = "id") String orden
+    ) {
+        return torneoService.getTorneosCursor(after, size, orden);
+    }
+
     @Operation(summary = "Obtener un torneo por id")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "OK: Torneo obtenido correctamente", content = @Content),
@@ -187,32 +218,41 @@ public class TorneoController {
         return ResponseEntity.ok().build();
     }
 
-    @Operation(summary = "Sortear fase de grupos de un torneo")
+    @Operation(summary = "Sortear fase de grupos de un torneo (en segundo plano)")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "204", description = "No Content: Grupos sorteados correctamente", content = @Content),
-        @ApiResponse(responseCode = "400", description = "Bad Request: No se puede sortear la fase de grupos", content = @Content),
+        @ApiResponse(responseCode = "202", description = "Accepted: Sorteo iniciado; su progreso se consulta en /jobs/{idTrabajo}"),
+        @ApiResponse(responseCode = "400", description = "Bad Request: No se puede sortear la fase de grupos o ya hay un sorteo en curso", content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
         @ApiResponse(responseCode = "403", description = "Forbidden: Falta de permisos", content = @Content),
         @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content)
     })
     @PostMapping("/{idTorneo}/sortear/grupos")
-    public ResponseEntity<Void> sortearGrupos(@PathVariable Long idTorneo) {
-        torneoService.sortearGrupos(idTorneo);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<TrabajoSorteoDTO> sortearGrupos(@PathVariable Long idTorneo) {
+        return aceptado(torneoService.sortearGrupos(idTorneo));
     }
 
-    @Operation(summary = "Sortear fase eliminatoria de un torneo")
+    @Operation(summary = "Sortear fase eliminatoria de un torneo (en segundo plano)")
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "204", description = "No Content: Eliminatoria sorteada correctamente", content = @Content),
-        @ApiResponse(responseCode = "400", description = "Bad Request: No se puede sortear la eliminatoria", content = @Content),
+        @ApiResponse(responseCode = "202", description = "Accepted: Sorteo iniciado; su progreso se consulta en /jobs/{idTrabajo}"),
+        @ApiResponse(responseCode = "400", description = "Bad Request: No se puede sortear la eliminatoria o ya hay un sorteo en curso", content = @Content),
         @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
         @ApiResponse(responseCode = "403", description = "Forbidden: Falta de permisos", content = @Content),
         @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content)
     })
     @PostMapping("/{idTorneo}/sortear/eliminatoria")
-    public ResponseEntity<Void> sortearEliminatoria(@PathVariable Long idTorneo) {
-        torneoService.sortearEliminatoria(idTorneo);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<TrabajoSorteoDTO> sortearEliminatoria(@PathVariable Long idTorneo) {
+        return aceptado(torneoService.sortearEliminatoria(idTorneo));
+    }
+
+    /**
+     * Respuesta 202 con el trabajo del sorteo y su URL en la cabecera Location.
+     */
+    private static ResponseEntity<TrabajoSorteoDTO> aceptado(TrabajoSorteoDTO trabajo) {
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/jobs/{id}")
+                .buildAndExpand(trabajo.getIdTrabajo())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(trabajo);
     }
 
 }
@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.torneados.web.dto.EquipoTorneoResumenDTO;
 import com.torneados.web.entities.TorneoEquipos;
 import com.torneados.web.service.TorneoEquiposService;
 
@@ -65,6 +66,19 @@ public class TorneoEquiposController {
         return ResponseEntity.ok(equipos);
     }
 
+    /*
+     * Obtener el listado resumido de los equipos de un torneo
+     */
+    @Operation(summary = "Obtener el listado resumido de los equipos de un torneo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Equipos obtenidos correctamente", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado", content = @Content),
+    })
+    @GetMapping("/resumen")
+    public ResponseEntity<List<EquipoTorneoResumenDTO>> getResumenEquiposByTorneo(@PathVariable Long idTorneo) {
+        return ResponseEntity.ok(torneoEquiposService.getResumenEquiposByTorneo(idTorneo));
+    }
+
     /*
      * Obtener los datos de un equipo de un torneo
      */
@@ -81,23 +95,6 @@ public class TorneoEquiposController {
     }
 
 
-    /*
-     * Actualiza los datos de un equipo en un torneo
-     */
-    @Operation(summary = "Actualizar los datos de un equipo en un torneo")
-    @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "OK: Equipo actualizado correctamente", content = @Content),
-        @ApiResponse(responseCode = "400", description = "Bad Request: Datos inválidos o lógicos", content = @Content),
-        @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
-        @ApiResponse(responseCode = "403", description = "Forbidden: Falta de permisos", content = @Content),
-        @ApiResponse(responseCode = "404", description = "Not Found: Torneo o equipo no encontrado", content = @Content)
-    })
-    @PutMapping("/{idEquipo}")
-    public ResponseEntity<TorneoEquipos> updateEquipoInTorneo(@PathVariable Long idTorneo, @PathVariable Long idEquipo) {
-        TorneoEquipos updatedTorneoEquipos = torneoEquiposService.updateEquipoDataInTorneo(idTorneo, idEquipo);
-        return ResponseEntity.ok(updatedTorneoEquipos);
-    }
-
     /*
      * Eliminar un equipo de un torneo
      */
@@ -7,7 +7,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.torneados.web.dto.FilaRankingDTO;
 import com.torneados.web.entities.TorneoJugadores;
+import com.torneados.web.exceptions.BadRequestException;
+import com.torneados.web.service.RankingJugadoresService;
 import com.torneados.web.service.TorneoJugadoresService;
 
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -18,9 +21,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 public class TorneoJugadoresController {
     
     private final TorneoJugadoresService torneoJugadoresService;
+    private final RankingJugadoresService rankingJugadoresService;
 
-    public TorneoJugadoresController(TorneoJugadoresService torneoJugadoresService) {
+    public TorneoJugadoresController(TorneoJugadoresService torneoJugadoresService, RankingJugadoresService rankingJugadoresService) {
         this.torneoJugadoresService = torneoJugadoresService;
+        this.rankingJugadoresService = rankingJugadoresService;
     }
 
     /*
@@ -57,7 +62,29 @@ public class TorneoJugadoresController {
     }
 
     /*
-     * Actualizar las estadisticas de un jugador en un torneo
+     * Obtener el ranking de jugadores de un torneo (o de un grupo) por puntos, tarjetas amarillas o rojas
+     */
+    @GetMapping("/ranking")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Ranking obtenido correctamente"),
+        @ApiResponse(responseCode = "400", description = "Bad Request: Criterio, límite o grupo inválidos"),
+        @ApiResponse(responseCode = "404", description = "Not Found: Torneo no encontrado")
+    })
+    public ResponseEntity<List<FilaRankingDTO>> getRanking(@PathVariable Long idTorneo,
+            @RequestParam(defaultValue = "puntos") String criterio,
+            @RequestParam(required = false) String grupo,
+            @RequestParam(defaultValue = "20") int limite) {
+        RankingJugadoresService.Criterio orden;
+        try {
+            orden = RankingJugadoresService.Criterio.valueOf(criterio.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Criterio no válido: usa puntos, amarillas o rojas.");
+        }
+        return ResponseEntity.ok(rankingJugadoresService.getRanking(idTorneo, orden, grupo, limite));
+    }
+
+    /*
+     * Corregir las estadisticas de un jugador en un torneo (valores absolutos, no incrementos)
      */
     @PutMapping("/{idJugador}")
     @ApiResponses(value = {
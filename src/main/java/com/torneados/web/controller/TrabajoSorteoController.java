@@ -0,0 +1,39 @@
+package com.torneados.web.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.torneados.web.dto.TrabajoSorteoDTO;
+import com.torneados.web.service.TrabajosSorteoService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+
+@RestController
+@RequestMapping("/jobs")
+public class TrabajoSorteoController {
+
+    private final TrabajosSorteoService trabajosSorteoService;
+
+    public TrabajoSorteoController(TrabajosSorteoService trabajosSorteoService) {
+        this.trabajosSorteoService = trabajosSorteoService;
+    }
+
+    /**
+     * Estado y progreso (tramos guardados de los totales) de un sorteo en segundo plano.
+     * Endpoint: GET /jobs/{idTrabajo}
+     */
+    @Operation(summary = "Consultar el progreso de un sorteo en segundo plano")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK: Estado del sorteo"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized: Falta de autenticación", content = @Content),
+        @ApiResponse(responseCode = "403", description = "Forbidden: Falta de permisos", content = @Content),
+        @ApiResponse(responseCode = "404", description = "Not Found: Trabajo no encontrado", content = @Content)
+    })
+    @GetMapping("/{idTrabajo}")
+    public ResponseEntity<TrabajoSorteoDTO> getTrabajo(@PathVariable Long idTrabajo) {
+        return ResponseEntity.ok(trabajosSorteoService.getTrabajo(idTrabajo));
+    }
+}
@@ -1,5 +1,7 @@
 package com.torneados.web.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -12,6 +14,8 @@ import java.util.UUID;
 @RequestMapping("/upload")
 public class UploadController {
 
+    private static final Logger log = LoggerFactory.getLogger(UploadController.class);
+
     private static final String UPLOAD_DIR = "src/main/resources/static/uploads/";
 
     @PostMapping
@@ -23,7 +27,7 @@ public class UploadController {
 
             return ResponseEntity.ok("/uploads/" + nombreArchivo);
         } catch (IOException e) {
-            e.printStackTrace();
+            log.error("Error al guardar la imagen subida", e);
             return ResponseEntity.internalServerError().body("Error al subir la imagen.");
         }
     }
@@ -0,0 +1,32 @@
+package com.torneados.web.dto;
+
+import java.time.LocalTime;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Parámetros para programar automáticamente los partidos de un torneo
+ * entre su fecha de comienzo y su fecha de fin.
+ */
+@Data
+@NoArgsConstructor
+public class CalendarioDTO {
+
+    @Min(value = 1, message = "Debe haber al menos un campo")
+    private int campos = 1;                 // Partidos que pueden jugarse a la vez
+
+    @NotNull(message = "La hora de inicio es obligatoria")
+    private LocalTime horaInicio;           // Hora del primer partido de cada día
+
+    @NotNull(message = "La hora de fin es obligatoria")
+    private LocalTime horaFin;              // Ningún partido termina después de esta hora
+
+    @Min(value = 1, message = "La duración debe ser de al menos un minuto")
+    private int duracionMinutos = 90;       // Duración de cada partido
+
+    @Min(value = 0, message = "El descanso no puede ser negativo")
+    private int descansoMinutos = 0;        // Descanso mínimo de un equipo entre dos partidos
+}
@@ -0,0 +1,15 @@
+package com.torneados.web.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClasificacionDTO {
+    private String grupo;                      // Letra del grupo (null si aún no se ha sorteado)
+    private List<FilaClasificacionDTO> equipos; // Equipos ya ordenados por posición
+}
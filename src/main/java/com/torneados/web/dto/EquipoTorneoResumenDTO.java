@@ -0,0 +1,24 @@
+package com.torneados.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Datos de un equipo inscrito en un torneo para los listados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EquipoTorneoResumenDTO {
+    private Long idEquipo;
+    private String nombre;
+    private String logoUrl;
+    private String grupo;
+    private boolean eliminado;
+    private int partidosGanados;
+    private int partidosEmpatados;
+    private int partidosPerdidos;
+    private int golesFavor;
+    private int golesContra;
+}
@@ -0,0 +1,53 @@
+package com.torneados.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contenido de los eventos que se envían en directo a quien sigue un torneo o un partido.
+ * Cada evento lleva solo lo que ha cambiado; el estado inicial se obtiene de los GET habituales.
+ */
+public final class EventosEnVivoDTO {
+
+    private EventosEnVivoDTO() {
+    }
+
+    /** Evento "marcador": puntos actuales de un equipo en un set. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Marcador {
+        private Long idPartido;
+        private Long idEquipo;
+        private int numSet;
+        private int puntos;
+    }
+
+    /** Evento "estadisticas": valores actuales de un jugador en un set (puntos y tarjetas). */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EstadisticasJugador {
+        private Long idPartido;
+        private Long idJugador;
+        private int numSet;
+        private boolean jugado;
+        private int puntos;
+        private int tarjetasAmarillas;
+        private int tarjetasRojas;
+    }
+
+    /** Evento "clasificacion": diferencia (no el total) que se suma a la fila de un equipo. */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CambioClasificacion {
+        private Long idEquipo;
+        private int golesFavor;
+        private int golesContra;
+        private int partidosGanados;
+        private int partidosEmpatados;
+        private int partidosPerdidos;
+    }
+}
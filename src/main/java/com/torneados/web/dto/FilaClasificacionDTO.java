@@ -0,0 +1,24 @@
+package com.torneados.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaClasificacionDTO {
+    private int posicion;           // Posición dentro del grupo (1 = primero)
+    private Long idEquipo;
+    private String nombre;
+    private String logoUrl;
+    private int puntos;             // 3 por victoria, 1 por empate
+    private int partidosJugados;
+    private int partidosGanados;
+    private int partidosEmpatados;
+    private int partidosPerdidos;
+    private int golesFavor;
+    private int golesContra;
+    private int diferenciaGoles;
+    private boolean eliminado;
+}
@@ -0,0 +1,19 @@
+package com.torneados.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FilaRankingDTO {
+    private Long idJugador;
+    private String nombre;
+    private Long idEquipo;
+    private String nombreEquipo;
+    private String grupo;           // Grupo del equipo en el torneo (null si no hay grupos)
+    private int puntos;
+    private int tarjetasAmarillas;
+    private int tarjetasRojas;
+}
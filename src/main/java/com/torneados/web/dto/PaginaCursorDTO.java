@@ -0,0 +1,16 @@
+package com.torneados.web.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDTO<T> {
+    private List<T> contenido;      // Elementos de la página
+    private String siguienteCursor; // Valor para ?after= de la siguiente página (null si no hay más)
+    private boolean hayMas;         // Indica si existen más elementos tras esta página
+}
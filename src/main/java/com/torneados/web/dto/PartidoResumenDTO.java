@@ -0,0 +1,30 @@
+package com.torneados.web.dto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Datos de un partido para los listados: equipos y marcador de cada set.
+ */
+@Data
+@NoArgsConstructor
+public class PartidoResumenDTO {
+    private Long idPartido;
+    private LocalDateTime fechaComienzo;
+    private Integer jornada;
+    private Integer ronda;
+
+    private Long idEquipoLocal;           // null si aún no está decidido
+    private String nombreLocal;
+    private String logoLocal;
+    private List<Integer> puntosLocal = new ArrayList<>();      // Puntos por set, en orden
+
+    private Long idEquipoVisitante;       // null si aún no está decidido
+    private String nombreVisitante;
+    private String logoVisitante;
+    private List<Integer> puntosVisitante = new ArrayList<>();  // Puntos por set, en orden
+}
@@ -0,0 +1,75 @@
+package com.torneados.web.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resultados de varios partidos de un torneo enviados de una sola vez
+ * (por ejemplo, una jornada completa). Cada marcador y cada estadística
+ * sustituye al valor guardado para ese set.
+ */
+@Data
+@NoArgsConstructor
+public class ResultadosDTO {
+
+    @NotEmpty(message = "Debe enviarse al menos un partido")
+    @Valid
+    private List<ResultadoPartido> partidos = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    public static class ResultadoPartido {
+
+        @NotNull(message = "El ID del partido es obligatorio")
+        private Long idPartido;
+
+        @Valid
+        private List<MarcadorSet> sets = new ArrayList<>();             // Puntos de cada equipo por set
+
+        @Valid
+        private List<EstadisticaJugador> jugadores = new ArrayList<>(); // Estadísticas de cada jugador por set
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class MarcadorSet {
+
+        @NotNull(message = "El ID del equipo es obligatorio")
+        private Long idEquipo;
+
+        @Min(value = 1, message = "El número de set debe ser al menos 1")
+        private int numSet = 1;
+
+        @Min(value = 0, message = "Los puntos no pueden ser negativos")
+        private int puntos;
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class EstadisticaJugador {
+
+        @NotNull(message = "El ID del jugador es obligatorio")
+        private Long idJugador;
+
+        @Min(value = 1, message = "El número de set debe ser al menos 1")
+        private int numSet = 1;
+
+        private boolean jugado = true;
+
+        @Min(value = 0, message = "Los puntos no pueden ser negativos")
+        private int puntos;
+
+        @Min(value = 0, message = "Las tarjetas amarillas no pueden ser negativas")
+        private int tarjetasAmarillas;
+
+        @Min(value = 0, message = "Las tarjetas rojas no pueden ser negativas")
+        private int tarjetasRojas;
+    }
+}
@@ -0,0 +1,27 @@
+package com.torneados.web.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Datos de un torneo para los listados (sin creador ni contacto).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TorneoResumenDTO {
+    private Long idTorneo;
+    private String nombre;
+    private String lugar;
+    private String deporte;               // Nombre del deporte
+    private LocalDateTime fechaComienzo;
+    private LocalDateTime fechaFin;
+    private boolean esPublico;
+    private int fase;
+    private boolean liga;
+    private boolean grupos;
+    private boolean eliminatoria;
+}
@@ -0,0 +1,27 @@
+package com.torneados.web.dto;
+
+import java.time.LocalDateTime;
+
+import com.torneados.web.entities.TrabajoSorteo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estado y progreso de un sorteo en segundo plano.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrabajoSorteoDTO {
+    private Long idTrabajo;
+    private Long idTorneo;
+    private TrabajoSorteo.Tipo tipo;
+    private TrabajoSorteo.Estado estado;
+    private int tramosTotales;            // 0 mientras no ha empezado
+    private int tramosCompletados;
+    private String error;                 // Solo si ha fallado
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaActualizacion;
+}
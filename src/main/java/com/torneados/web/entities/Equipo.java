@@ -1,5 +1,7 @@
 package com.torneados.web.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
@@ -10,6 +12,8 @@ import org.hibernate.annotations.OnDeleteAction;
 
 
 @Entity
+// Campos internos de los proxies LAZY de Hibernate, que no deben serializarse
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 public class Equipo {
@@ -18,7 +22,7 @@ public class Equipo {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long idEquipo;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_creador", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Usuario creador;
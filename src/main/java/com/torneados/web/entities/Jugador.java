@@ -1,5 +1,7 @@
 package com.torneados.web.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
@@ -11,6 +13,8 @@ import org.hibernate.annotations.OnDeleteAction;
 
 
 @Entity
+// Campos internos de los proxies LAZY de Hibernate, que no deben serializarse
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 public class Jugador {
@@ -19,7 +23,7 @@ public class Jugador {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long idJugador;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_equipo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Equipo equipo;
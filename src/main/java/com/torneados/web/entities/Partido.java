@@ -2,6 +2,8 @@ package com.torneados.web.entities;
 
 import java.time.LocalDateTime;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -9,15 +11,26 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
+// Campos internos de los proxies LAZY de Hibernate, que no deben serializarse
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Data
 @NoArgsConstructor
 public class Partido {
 
+    /**
+     * IDs reservados de una vez en la tabla SecuenciaId (optimizador pooled-lo).
+     * A diferencia de IDENTITY, permite a Hibernate agrupar los INSERT en lotes.
+     */
+    public static final int BLOQUE_IDS = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "secuencia_partido")
+    @TableGenerator(name = "secuencia_partido", table = "SecuenciaId",
+                    pkColumnName = "entidad", valueColumnName = "siguiente", pkColumnValue = "Partido",
+                    allocationSize = BLOQUE_IDS)
     private Long idPartido;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_torneo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Torneo torneo;
@@ -35,4 +48,21 @@ public class Partido {
      * Puede ser null si no aplica (por ejemplo en liga o grupos).
      */
     private Integer ronda;
+
+    /**
+     * Partido de la ronda siguiente al que pasa el ganador (solo para eliminatoria).
+     * Es null en la final y en los partidos de liga o grupos.
+     */
+    private Long idPartidoSiguiente;
+
+    /**
+     * Si el ganador ocupa el hueco de local (true) o de visitante (false) en el partido siguiente.
+     */
+    private Boolean esLocalEnSiguiente;
+
+    /**
+     * Si el resultado es definitivo. En eliminatoria, al finalizar el partido el ganador
+     * pasa al partido siguiente y el perdedor queda eliminado.
+     */
+    private boolean finalizado = false;
 }
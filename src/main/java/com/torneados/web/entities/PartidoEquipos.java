@@ -16,17 +16,26 @@ public class PartidoEquipos {
     private PartidoEquiposId id;
 
     @MapsId("partido")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_partido", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Partido partido;
 
     @MapsId("equipo")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_equipo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Equipo equipo;
 
+    /** Puntos del equipo en el set; null mientras el set no tenga marcador (por ejemplo, recién sorteado). */
     private Integer puntos;
     private boolean esLocal;
+
+    /**
+     * Versión para el bloqueo optimista: dos escrituras concurrentes sobre la fila no se pisan,
+     * la segunda falla y se reintenta. Las actualizaciones en SQL nativo también la incrementan.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -17,13 +17,13 @@ public class PartidoJugadores {
     private PartidoJugadoresId id;  // compuesto por partido, jugador y numSet
 
     @MapsId("partido")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_partido", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Partido partido;
 
     @MapsId("jugador")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_jugador", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Jugador jugador;
@@ -32,4 +32,9 @@ public class PartidoJugadores {
     private int puntos = 0;
     private int tarjetasAmarillas = 0;
     private int tarjetasRojas = 0;
+
+    /** Versión para el bloqueo optimista, como en PartidoEquipos. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -22,13 +22,13 @@ public class SolicitudInscripcion {
     private SolicitudInscripcionId id;
 
     @MapsId("torneo")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_torneo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Torneo torneo;
 
     @MapsId("equipo")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_equipo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Equipo equipo;
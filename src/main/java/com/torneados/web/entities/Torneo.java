@@ -6,6 +6,8 @@ import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 import org.hibernate.validator.constraints.URL;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -15,6 +17,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+// Campos internos de los proxies LAZY de Hibernate, que no deben serializarse
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Table(indexes = @Index(name = "idx_torneo_fecha_id", columnList = "fechaComienzo, idTorneo"))
 @Data
 @NoArgsConstructor
 public class Torneo {
@@ -35,7 +40,7 @@ public class Torneo {
     private String lugar;
 
     @NotNull(message = "El deporte es obligatorio")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_deporte", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Deporte deporte;
@@ -61,7 +66,7 @@ public class Torneo {
     @Column(nullable = false)
     private int fase = 0;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_creador")
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Usuario creador;
@@ -17,13 +17,13 @@ public class TorneoEquipos {
     private TorneoEquiposId id;  // compuesto por torneo + equipo
 
     @MapsId("torneo")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_torneo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Torneo torneo;
 
     @MapsId("equipo")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_equipo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Equipo equipo;
@@ -36,4 +36,12 @@ public class TorneoEquipos {
 
     private boolean eliminado = false;
     private String grupo = null;
+
+    /**
+     * Versión para el bloqueo optimista. Los incrementos atómicos de la clasificación
+     * (sumarEstadisticas) también la suben, así que un guardado que leyó antes de ellos falla y se reintenta.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
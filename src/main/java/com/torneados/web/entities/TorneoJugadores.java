@@ -1,29 +1,38 @@
 package com.torneados.web.entities;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.torneados.web.entities.ids.TorneoJugadoresId;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
 import org.hibernate.annotations.OnDelete;
 import org.hibernate.annotations.OnDeleteAction;
 
 @Entity
+// Índices para los rankings: las primeras filas de un torneo por cada estadística se leen del índice sin ordenar
+@Table(indexes = {
+    @Index(name = "idx_torneojugadores_puntos", columnList = "id_torneo, puntos DESC, id_jugador"),
+    @Index(name = "idx_torneojugadores_amarillas", columnList = "id_torneo, tarjetasAmarillas DESC, id_jugador"),
+    @Index(name = "idx_torneojugadores_rojas", columnList = "id_torneo, tarjetasRojas DESC, id_jugador")
+})
 @Data
 @NoArgsConstructor
-public class TorneoJugadores {
+public class TorneoJugadores implements Persistable<TorneoJugadoresId> {
 
     @EmbeddedId
     private TorneoJugadoresId id;  // compuesto por torneo + jugador
 
     @MapsId("torneo")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_torneo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Torneo torneo;
 
     @MapsId("jugador")
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_jugador", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Jugador jugador;
@@ -32,4 +41,31 @@ public class TorneoJugadores {
     private int puntos = 0;
     private int tarjetasAmarillas = 0;
     private int tarjetasRojas = 0;
+
+    /** Versión para el bloqueo optimista, como en TorneoEquipos. */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * La clave es compuesta y se asigna antes de guardar, así que Spring Data no puede saber por
+     * el ID si la fila es nueva: sin esta marca haría merge (un SELECT por fila) en lugar de persist,
+     * y las inscripciones de una plantilla no se agruparían en un único lote de INSERT.
+     */
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    private boolean nuevo = true;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return nuevo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarGuardado() {
+        nuevo = false;
+    }
 }
@@ -0,0 +1,89 @@
+package com.torneados.web.entities;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sorteo de un torneo que se ejecuta en segundo plano (ver TrabajosSorteoService).
+ *
+ * El sorteo se divide en tramos que se guardan cada uno en su propia transacción, junto con el
+ * avance de {@code tramosCompletados}. La semilla fija el resultado del sorteo: si la aplicación se
+ * reinicia a medias, al reanudarlo se vuelve a planificar exactamente igual y se continúa por el
+ * primer tramo no guardado.
+ */
+@Entity
+@Table(
+    indexes = @Index(name = "idx_trabajo_estado", columnList = "estado"),
+    // activo es true mientras el trabajo está pendiente o en curso y null al terminar: la base de
+    // datos impide así dos sorteos activos a la vez sobre el mismo torneo
+    uniqueConstraints = @UniqueConstraint(name = "uk_trabajo_activo", columnNames = {"id_torneo", "activo"})
+)
+@Data
+@NoArgsConstructor
+public class TrabajoSorteo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idTrabajo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_torneo", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Torneo torneo;
+
+    /** Usuario que lanzó el sorteo. */
+    private Long idUsuario;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Tipo tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Estado estado = Estado.PENDIENTE;
+
+    private long semilla;
+
+    /**
+     * IDs de los equipos que entran en el sorteo, separados por comas y en el orden en que se
+     * sortean, fijados al crear el trabajo para que al reanudarlo se planifique exactamente igual.
+     */
+    @Column(columnDefinition = "TEXT")
+    private String equipos;
+
+    private Boolean activo = true;
+
+    /** Número de tramos del sorteo; 0 hasta que empieza a ejecutarse. */
+    private int tramosTotales;
+
+    private int tramosCompletados;
+
+    /** Primer partido guardado por el trabajo; los IDs de Partido son crecientes (ver SecuenciaIdRepository). */
+    private Long idPrimerPartido;
+
+    /** Motivo del fallo, si el estado es FALLIDO. */
+    @Column(length = 500)
+    private String error;
+
+    private LocalDateTime fechaCreacion = LocalDateTime.now();
+
+    private LocalDateTime fechaActualizacion = LocalDateTime.now();
+
+    public enum Tipo {
+        GRUPOS,
+        ELIMINATORIA
+    }
+
+    public enum Estado {
+        PENDIENTE,
+        EN_CURSO,
+        COMPLETADO,
+        FALLIDO
+    }
+}
@@ -18,12 +18,12 @@ import org.hibernate.annotations.OnDeleteAction;
 @Embeddable
 public class EquipoJugadoresId implements Serializable {
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_equipo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Equipo equipo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_jugador", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Jugador jugador;
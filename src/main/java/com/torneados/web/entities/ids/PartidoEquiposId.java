@@ -17,12 +17,12 @@ import org.hibernate.annotations.OnDeleteAction;
 @Embeddable
 public class PartidoEquiposId implements Serializable {
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_partido", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Partido partido;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_equipo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Equipo equipo;
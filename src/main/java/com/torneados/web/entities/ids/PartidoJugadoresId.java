@@ -17,12 +17,12 @@ import org.hibernate.annotations.OnDeleteAction;
 @Embeddable
 public class PartidoJugadoresId implements Serializable {
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_partido", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Partido partido;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_jugador", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Jugador jugador;
@@ -17,12 +17,12 @@ import org.hibernate.annotations.OnDeleteAction;
 @Embeddable
 public class TorneoJugadoresId implements Serializable {
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_torneo", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Torneo torneo;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_jugador", nullable = false)
     @OnDelete(action = OnDeleteAction.CASCADE)
     private Jugador jugador;
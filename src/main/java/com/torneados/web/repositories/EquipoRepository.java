@@ -1,13 +1,25 @@
 package com.torneados.web.repositories;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.List;
+import java.util.Optional;
 import com.torneados.web.entities.Equipo;
 import com.torneados.web.entities.Usuario;
 
 public interface EquipoRepository extends JpaRepository<Equipo, Long> {
+
+    @Override
+    @EntityGraph(attributePaths = {"creador"})
+    Optional<Equipo> findById(Long id);
+
     
     // Obtiene todos los equipos creados por un usuario específico.
+    @EntityGraph(attributePaths = {"creador"})
     List<Equipo> findByCreador(Usuario creador);
+
+    // Igual que findByCreador, pero filtrando por el ID del creador (sin cargar el usuario).
+    @EntityGraph(attributePaths = {"creador"})
+    List<Equipo> findByCreadorIdUsuario(Long idUsuario);
     
 }
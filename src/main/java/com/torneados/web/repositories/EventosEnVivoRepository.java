@@ -0,0 +1,29 @@
+package com.torneados.web.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Comprobaciones para abrir un stream de eventos en directo. Van por JDBC y no por JPA: con la
+ * sesión abierta durante la petición (open-in-view), una consulta de JPA retendría su conexión
+ * mientras dure el stream; aquí la conexión vuelve al pool al terminar la consulta.
+ */
+@Repository
+public class EventosEnVivoRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventosEnVivoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean existeTorneo(Long idTorneo) {
+        return !jdbcTemplate.queryForList(
+            "SELECT 1 FROM Torneo WHERE idTorneo = ?", Integer.class, idTorneo).isEmpty();
+    }
+
+    public boolean existePartido(Long idPartido) {
+        return !jdbcTemplate.queryForList(
+            "SELECT 1 FROM Partido WHERE idPartido = ?", Integer.class, idPartido).isEmpty();
+    }
+}
@@ -1,17 +1,39 @@
 package com.torneados.web.repositories;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import com.torneados.web.entities.Jugador;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 
 public interface JugadorRepository extends JpaRepository<Jugador, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"equipo.creador"})
+    Optional<Jugador> findById(Long id);
+
+    @EntityGraph(attributePaths = {"equipo.creador"})
     Optional<Jugador> findByDni(String dni);
     
     boolean existsByDni(String dni);
 
+    @EntityGraph(attributePaths = {"equipo.creador"})
     List<Jugador> findByEquipoIdEquipo(Long idEquipo);
 
+    /**
+     * Plantillas de varios equipos en una sola consulta.
+     * Cada fila es [idEquipo, idJugador].
+     */
+    @Query("""
+      SELECT j.equipo.idEquipo, j.idJugador
+        FROM Jugador j
+       WHERE j.equipo.idEquipo IN :idsEquipo
+    """)
+    List<Object[]> findIdsJugadoresPorEquipo(@Param("idsEquipo") Collection<Long> idsEquipo);
+
 }
@@ -0,0 +1,220 @@
+package com.torneados.web.repositories;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Escritura masiva de partidos para los sorteos.
+ *
+ * Inserta Partido, PartidoEquipos y PartidoJugadores con sentencias JDBC en lote,
+ * de forma que el coste del sorteo depende del número de filas y no del número
+ * de viajes a la base de datos. Participa en la transacción JPA en curso.
+ */
+@Repository
+public class PartidoBatchRepository {
+
+    private static final int TAMANO_LOTE = 500;
+
+    private static final String INSERT_PARTIDO =
+        "INSERT INTO Partido (idPartido, id_torneo, fechaComienzo, jornada, ronda, idPartidoSiguiente, esLocalEnSiguiente, finalizado) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, false)";
+
+    private static final String UPDATE_FECHA_PARTIDO =
+        "UPDATE Partido SET fechaComienzo = ? WHERE idPartido = ?";
+
+    private static final String INSERT_PARTIDO_EQUIPO =
+        "INSERT INTO PartidoEquipos (id_partido, id_equipo, numSet, puntos, esLocal, version) VALUES (?, ?, ?, NULL, ?, 0)";
+
+    private static final String INSERT_PARTIDO_JUGADOR =
+        "INSERT INTO PartidoJugadores (id_partido, id_jugador, numSet, jugado, puntos, tarjetasAmarillas, tarjetasRojas, version) "
+            + "VALUES (?, ?, ?, false, 0, 0, 0, 0)";
+
+    private static final String UPSERT_MARCADOR =
+        "INSERT INTO PartidoEquipos (id_partido, id_equipo, numSet, puntos, esLocal, version) VALUES (?, ?, ?, ?, ?, 0) "
+            + "ON DUPLICATE KEY UPDATE puntos = VALUES(puntos), version = version + 1";
+
+    private static final String UPSERT_ESTADISTICA_JUGADOR =
+        "INSERT INTO PartidoJugadores (id_partido, id_jugador, numSet, jugado, puntos, tarjetasAmarillas, tarjetasRojas, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0) "
+            + "ON DUPLICATE KEY UPDATE jugado = VALUES(jugado), puntos = VALUES(puntos), "
+            + "tarjetasAmarillas = VALUES(tarjetasAmarillas), tarjetasRojas = VALUES(tarjetasRojas), version = version + 1";
+
+    /**
+     * Partido planificado en memoria antes de persistirse.
+     * Cualquiera de los dos equipos puede ser null (ronda aún sin decidir).
+     * En eliminatoria, {@code indiceSiguiente} es la posición en la misma lista del partido
+     * al que pasa el ganador; es null en la final y en liga o grupos.
+     */
+    public record PartidoPlan(Integer jornada, Integer ronda, Long idEquipoLocal, Long idEquipoVisitante,
+                              Integer indiceSiguiente, Boolean esLocalEnSiguiente) {
+
+        public PartidoPlan(Integer jornada, Integer ronda, Long idEquipoLocal, Long idEquipoVisitante) {
+            this(jornada, ronda, idEquipoLocal, idEquipoVisitante, null, null);
+        }
+    }
+
+    /** Puntos de un equipo en un set de un partido. */
+    public record MarcadorSet(Long idPartido, Long idEquipo, int numSet, int puntos, boolean esLocal) {}
+
+    /** Estadísticas de un jugador en un set de un partido. */
+    public record EstadisticaJugador(Long idPartido, Long idJugador, int numSet, boolean jugado,
+                                     int puntos, int tarjetasAmarillas, int tarjetasRojas) {}
+
+    private record FilaEquipo(Long idPartido, Long idEquipo, boolean esLocal) {}
+
+    private record FilaJugador(Long idPartido, Long idJugador) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecuenciaIdRepository secuenciaIdRepository;
+
+    public PartidoBatchRepository(JdbcTemplate jdbcTemplate, SecuenciaIdRepository secuenciaIdRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.secuenciaIdRepository = secuenciaIdRepository;
+    }
+
+    /**
+     * Inserta todos los partidos planificados junto con sus equipos y jugadores (set 1).
+     *
+     * @param idTorneo           Torneo al que pertenecen los partidos.
+     * @param planes             Partidos a crear, en orden.
+     * @param jugadoresPorEquipo IDs de jugadores de cada equipo, precargados en una sola consulta.
+     * @return IDs generados de los partidos, en el mismo orden que {@code planes}.
+     */
+    public List<Long> insertarPartidos(Long idTorneo, List<PartidoPlan> planes, Map<Long, List<Long>> jugadoresPorEquipo) {
+        List<Long> ids = insertarFilasPartido(idTorneo, planes);
+
+        List<FilaEquipo> equipos = new ArrayList<>();
+        List<FilaJugador> jugadores = new ArrayList<>();
+        for (int i = 0; i < planes.size(); i++) {
+            PartidoPlan plan = planes.get(i);
+            Long idPartido = ids.get(i);
+            if (plan.idEquipoLocal() != null) {
+                equipos.add(new FilaEquipo(idPartido, plan.idEquipoLocal(), true));
+                jugadoresPorEquipo.getOrDefault(plan.idEquipoLocal(), List.of())
+                    .forEach(idJugador -> jugadores.add(new FilaJugador(idPartido, idJugador)));
+            }
+            if (plan.idEquipoVisitante() != null) {
+                equipos.add(new FilaEquipo(idPartido, plan.idEquipoVisitante(), false));
+                jugadoresPorEquipo.getOrDefault(plan.idEquipoVisitante(), List.of())
+                    .forEach(idJugador -> jugadores.add(new FilaJugador(idPartido, idJugador)));
+            }
+        }
+
+        insertarParticipantes(equipos, jugadores);
+        return ids;
+    }
+
+    /**
+     * Actualiza en lote la fecha de comienzo de varios partidos.
+     *
+     * @param fechas Fecha de comienzo de cada ID de partido.
+     */
+    public void asignarFechas(Map<Long, LocalDateTime> fechas) {
+        jdbcTemplate.batchUpdate(UPDATE_FECHA_PARTIDO, new ArrayList<>(fechas.entrySet()), TAMANO_LOTE, (ps, fila) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(fila.getValue()));
+            ps.setLong(2, fila.getKey());
+        });
+    }
+
+    /**
+     * Guarda en lote los puntos de varios equipos por set; los sets que aún no existen se crean.
+     *
+     * @param marcadores Puntos de cada equipo en cada set.
+     */
+    public void guardarMarcadores(List<MarcadorSet> marcadores) {
+        jdbcTemplate.batchUpdate(UPSERT_MARCADOR, marcadores, TAMANO_LOTE, (ps, fila) -> {
+            ps.setLong(1, fila.idPartido());
+            ps.setLong(2, fila.idEquipo());
+            ps.setInt(3, fila.numSet());
+            ps.setInt(4, fila.puntos());
+            ps.setBoolean(5, fila.esLocal());
+        });
+    }
+
+    /**
+     * Guarda en lote las estadísticas de varios jugadores por set; los sets que aún no existen se crean.
+     *
+     * @param estadisticas Estadísticas de cada jugador en cada set.
+     */
+    public void guardarEstadisticasJugadores(List<EstadisticaJugador> estadisticas) {
+        jdbcTemplate.batchUpdate(UPSERT_ESTADISTICA_JUGADOR, estadisticas, TAMANO_LOTE, (ps, fila) -> {
+            ps.setLong(1, fila.idPartido());
+            ps.setLong(2, fila.idJugador());
+            ps.setInt(3, fila.numSet());
+            ps.setBoolean(4, fila.jugado());
+            ps.setInt(5, fila.puntos());
+            ps.setInt(6, fila.tarjetasAmarillas());
+            ps.setInt(7, fila.tarjetasRojas());
+        });
+    }
+
+    /**
+     * Coloca un equipo en un hueco libre de un partido ya creado, con su plantilla (set 1).
+     *
+     * @param idPartido  Partido destino.
+     * @param idEquipo   Equipo a colocar.
+     * @param esLocal    Hueco que ocupa.
+     * @param idsJugador Jugadores del equipo.
+     */
+    public void asignarEquipo(Long idPartido, Long idEquipo, boolean esLocal, List<Long> idsJugador) {
+        List<FilaJugador> jugadores = new ArrayList<>(idsJugador.size());
+        idsJugador.forEach(idJugador -> jugadores.add(new FilaJugador(idPartido, idJugador)));
+        insertarParticipantes(List.of(new FilaEquipo(idPartido, idEquipo, esLocal)), jugadores);
+    }
+
+    private void insertarParticipantes(List<FilaEquipo> equipos, List<FilaJugador> jugadores) {
+        jdbcTemplate.batchUpdate(INSERT_PARTIDO_EQUIPO, equipos, TAMANO_LOTE, (ps, fila) -> {
+            ps.setLong(1, fila.idPartido());
+            ps.setLong(2, fila.idEquipo());
+            ps.setInt(3, 1);
+            ps.setBoolean(4, fila.esLocal());
+        });
+        jdbcTemplate.batchUpdate(INSERT_PARTIDO_JUGADOR, jugadores, TAMANO_LOTE, (ps, fila) -> {
+            ps.setLong(1, fila.idPartido());
+            ps.setLong(2, fila.idJugador());
+            ps.setInt(3, 1);
+        });
+    }
+
+    /**
+     * Inserta las filas de Partido en lotes con IDs reservados de antemano en SecuenciaId,
+     * por lo que no hace falta recuperar claves generadas.
+     */
+    private List<Long> insertarFilasPartido(Long idTorneo, List<PartidoPlan> planes) {
+        long primero = secuenciaIdRepository.reservar(SecuenciaIdRepository.PARTIDO, planes.size());
+        List<Long> ids = new ArrayList<>(planes.size());
+        for (int i = 0; i < planes.size(); i++) {
+            ids.add(primero + i);
+        }
+
+        List<Integer> indices = IntStream.range(0, planes.size()).boxed().toList();
+        jdbcTemplate.batchUpdate(INSERT_PARTIDO, indices, TAMANO_LOTE, (ps, i) -> {
+            PartidoPlan plan = planes.get(i);
+            ps.setLong(1, ids.get(i));
+            ps.setLong(2, idTorneo);
+            ps.setNull(3, Types.TIMESTAMP);
+            if (plan.jornada() != null) {
+                ps.setInt(4, plan.jornada());
+            } else {
+                ps.setNull(4, Types.INTEGER);
+            }
+            ps.setInt(5, plan.ronda() != null ? plan.ronda() : 0);
+            if (plan.indiceSiguiente() != null) {
+                ps.setLong(6, ids.get(plan.indiceSiguiente()));
+                ps.setBoolean(7, plan.esLocalEnSiguiente());
+            } else {
+                ps.setNull(6, Types.BIGINT);
+                ps.setNull(7, Types.BOOLEAN);
+            }
+        });
+        return ids;
+    }
+}
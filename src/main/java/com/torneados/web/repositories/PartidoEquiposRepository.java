@@ -1,35 +1,108 @@
 package com.torneados.web.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.torneados.web.entities.PartidoEquipos;
 import com.torneados.web.entities.ids.PartidoEquiposId;
 
+import jakarta.persistence.LockModeType;
+
 public interface PartidoEquiposRepository extends JpaRepository<PartidoEquipos, PartidoEquiposId> {
 
+    @Override
+    @EntityGraph(attributePaths = {"partido.torneo.creador", "partido.torneo.deporte", "equipo.creador"})
+    Optional<PartidoEquipos> findById(PartidoEquiposId id);
+
+
     /**
      * Todos los sets de un partido
      */
+    @EntityGraph(attributePaths = {"partido.torneo.creador", "partido.torneo.deporte", "equipo.creador"})
     List<PartidoEquipos> findByIdPartidoIdPartido(Long idPartido);
 
     /**
-     * Para cada partido de este torneo en el que jugó idEquipo,
+     * Todos los marcadores anotados de un torneo, sin cargar entidades ni los sets sin marcador.
+     * Cada fila es [idPartido, numSet, idEquipo, puntos].
+     */
+    @Query("""
+      SELECT pe.id.partido.idPartido, pe.id.numSet, pe.id.equipo.idEquipo, pe.puntos
+        FROM PartidoEquipos pe
+       WHERE pe.id.partido.torneo.idTorneo = :idTorneo
+         AND pe.puntos IS NOT NULL
+    """)
+    List<Object[]> findMarcadoresByTorneo(@Param("idTorneo") Long idTorneo);
+
+    /**
+     * Marcadores de un partido, sin cargar entidades.
+     * Cada fila es [numSet, idEquipo, puntos].
+     */
+    @Query("""
+      SELECT pe.id.numSet, pe.id.equipo.idEquipo, pe.puntos
+        FROM PartidoEquipos pe
+       WHERE pe.id.partido.idPartido = :idPartido
+    """)
+    List<Object[]> findMarcadoresByPartido(@Param("idPartido") Long idPartido);
+
+    /**
+     * Marcadores de varios partidos, sin cargar entidades.
+     * Cada fila es [idPartido, numSet, idEquipo, puntos, esLocal].
+     * Bloquea las filas hasta el final de la transacción (siempre en el mismo orden, para no
+     * interbloquearse con otro envío) porque la clasificación se actualiza a partir de estos valores.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+      SELECT pe.id.partido.idPartido, pe.id.numSet, pe.id.equipo.idEquipo, pe.puntos, pe.esLocal
+        FROM PartidoEquipos pe
+       WHERE pe.id.partido.idPartido IN :ids
+       ORDER BY pe.id.partido.idPartido, pe.id.numSet, pe.id.equipo.idEquipo
+    """)
+    List<Object[]> findMarcadoresByPartidos(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Registro(s) del rival de idEquipo en el mismo set de un partido.
+     * Sube su versión al confirmar, para que dos cambios simultáneos de los dos marcadores del set
+     * no calculen cada uno su diferencia sobre el marcador anterior del otro.
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("""
+      SELECT r
+        FROM PartidoEquipos r
+       WHERE r.id.partido.idPartido = :idPartido
+         AND r.id.numSet            = :numSet
+         AND r.id.equipo.idEquipo  <> :idEquipo
+    """)
+    List<PartidoEquipos> findRivales(
+      @Param("idPartido") Long idPartido,
+      @Param("idEquipo") Long idEquipo,
+      @Param("numSet") int numSet
+    );
+
+    /**
+     * Para cada set de este torneo en el que jugó idEquipo con marcador de ambos equipos,
      * devuelve un array [pe, rival], donde:
      *  - pe    = registro de idEquipo,
-     *  - rival = registro del otro equipo
+     *  - rival = registro del otro equipo en el mismo set
+     * Los sets sin marcador no cuentan, igual que en la clasificación incremental.
      */
     @Query("""
       SELECT pe, r
         FROM PartidoEquipos pe
         JOIN PartidoEquipos r
           ON r.id.partido.idPartido = pe.id.partido.idPartido
+         AND r.id.numSet            = pe.id.numSet
          AND r.id.equipo.idEquipo <> pe.id.equipo.idEquipo
        WHERE pe.id.partido.torneo.idTorneo = :idTorneo
          AND pe.id.equipo.idEquipo           = :idEquipo
+         AND pe.puntos IS NOT NULL
+         AND r.puntos  IS NOT NULL
     """)
     List<Object[]> findPartidosConRival(
       @Param("idTorneo") Long idTorneo,
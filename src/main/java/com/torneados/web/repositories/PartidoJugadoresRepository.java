@@ -1,12 +1,69 @@
 package com.torneados.web.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import com.torneados.web.entities.PartidoJugadores;
 import com.torneados.web.entities.ids.PartidoJugadoresId;
 
+import jakarta.persistence.LockModeType;
+
 public interface PartidoJugadoresRepository extends JpaRepository<PartidoJugadores, PartidoJugadoresId> {
+
+    @Override
+    @EntityGraph(attributePaths = {"partido.torneo.creador", "partido.torneo.deporte", "jugador.equipo.creador"})
+    Optional<PartidoJugadores> findById(PartidoJugadoresId id);
+
+    @EntityGraph(attributePaths = {"partido.torneo.creador", "partido.torneo.deporte", "jugador.equipo.creador"})
     List<PartidoJugadores> findByIdPartidoIdPartido(Long idPartido);
 
+    /**
+     * Todos los sets de un jugador en un partido, bloqueados hasta el final de la transacción
+     * para que dos anotadores simultáneos no calculen la diferencia sobre el mismo valor anterior.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @EntityGraph(attributePaths = {"partido.torneo.creador", "partido.torneo.deporte", "jugador.equipo.creador"})
+    @Query("""
+      SELECT pj
+        FROM PartidoJugadores pj
+       WHERE pj.id.partido.idPartido = :idPartido
+         AND pj.id.jugador.idJugador = :idJugador
+       ORDER BY pj.id.numSet
+    """)
+    List<PartidoJugadores> bloquearSets(@Param("idPartido") Long idPartido, @Param("idJugador") Long idJugador);
+
+    /**
+     * Estadísticas de los jugadores en varios partidos, sin cargar entidades, bloqueadas como
+     * en {@link #bloquearSets}. Cada fila es [idPartido, idJugador, numSet, jugado, puntos,
+     * tarjetasAmarillas, tarjetasRojas].
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+      SELECT pj.id.partido.idPartido, pj.id.jugador.idJugador, pj.id.numSet,
+             pj.jugado, pj.puntos, pj.tarjetasAmarillas, pj.tarjetasRojas
+        FROM PartidoJugadores pj
+       WHERE pj.id.partido.idPartido IN :ids
+       ORDER BY pj.id.partido.idPartido, pj.id.jugador.idJugador, pj.id.numSet
+    """)
+    List<Object[]> findEstadisticasByPartidos(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Elimina en una sola sentencia todos los sets de un jugador en un partido.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+      DELETE FROM PartidoJugadores pj
+       WHERE pj.id.partido.idPartido = :idPartido
+         AND pj.id.jugador.idJugador = :idJugador
+    """)
+    int deleteSets(@Param("idPartido") Long idPartido, @Param("idJugador") Long idJugador);
+
 }
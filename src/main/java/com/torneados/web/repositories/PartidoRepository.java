@@ -1,10 +1,98 @@
 package com.torneados.web.repositories;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import com.torneados.web.entities.Partido;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PartidoRepository extends JpaRepository<Partido, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte"})
+    Optional<Partido> findById(Long id);
+
+
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte"})
     List<Partido> findByTorneoIdTorneo(Long idTorneo);
+
+    /**
+     * Partido bloqueado hasta el final de la transacción (solo su fila), para que dos finalizaciones
+     * simultáneas no vean ambas el partido sin finalizar.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Partido p WHERE p.idPartido = :idPartido")
+    Optional<Partido> findByIdParaActualizar(@Param("idPartido") Long idPartido);
+
+    /**
+     * Partidos de un torneo con sus equipos y marcadores, en una sola consulta y sin cargar entidades.
+     * Cada fila es [idPartido, fechaComienzo, jornada, ronda, numSet, esLocal, puntos, idEquipo, nombre, logoUrl];
+     * los partidos sin equipos aparecen una vez con las columnas del equipo a null.
+     */
+    @Query("""
+      SELECT p.idPartido, p.fechaComienzo, p.jornada, p.ronda,
+             pe.id.numSet, pe.esLocal, pe.puntos, e.idEquipo, e.nombre, e.logoUrl
+        FROM Partido p
+        LEFT JOIN PartidoEquipos pe ON pe.id.partido = p
+        LEFT JOIN pe.id.equipo e
+       WHERE p.torneo.idTorneo = :idTorneo
+       ORDER BY p.idPartido, pe.id.numSet
+    """)
+    List<Object[]> findResumenesByTorneo(@Param("idTorneo") Long idTorneo);
+
+    /**
+     * Partidos pendientes de un torneo con los equipos del primer set, para el calendario.
+     * Un partido está pendiente si no está finalizado y aún no tiene ningún marcador: los de liga
+     * y grupos no se finalizan nunca, así que el marcador es lo que indica que ya se han jugado.
+     * Cada fila es [idPartido, jornada, ronda, esLocal, idEquipo]; los partidos sin equipos
+     * aparecen una vez con las columnas del equipo a null.
+     */
+    @Query("""
+      SELECT p.idPartido, p.jornada, p.ronda, pe.esLocal, pe.id.equipo.idEquipo
+        FROM Partido p
+        LEFT JOIN PartidoEquipos pe ON pe.id.partido = p AND pe.id.numSet = 1
+       WHERE p.torneo.idTorneo = :idTorneo
+         AND p.finalizado = false
+         AND NOT EXISTS (
+               SELECT 1 FROM PartidoEquipos r
+                WHERE r.id.partido = p AND r.puntos IS NOT NULL)
+       ORDER BY p.idPartido
+    """)
+    List<Object[]> findPendientesParaCalendario(@Param("idTorneo") Long idTorneo);
+
+    /**
+     * Torneo y estado de varios partidos, sin cargar entidades.
+     * Cada fila es [idPartido, idTorneo, finalizado].
+     * Bloquea los partidos hasta el final de la transacción, en orden de ID, como
+     * {@link #findByIdParaActualizar}: una finalización simultánea espera o ve el resultado ya registrado.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+      SELECT p.idPartido, p.torneo.idTorneo, p.finalizado
+        FROM Partido p
+       WHERE p.idPartido IN :ids
+       ORDER BY p.idPartido
+    """)
+    List<Object[]> findEstadoByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Torneo al que pertenece un partido, sin cargar la entidad.
+     */
+    @Query("SELECT p.torneo.idTorneo FROM Partido p WHERE p.idPartido = :idPartido")
+    Optional<Long> findIdTorneoByIdPartido(@Param("idPartido") Long idPartido);
+
+    /**
+     * Borra los partidos de un torneo a partir de un ID, sin cargarlos (los que guardó un sorteo
+     * que no ha podido terminar). Sus equipos y jugadores se borran en cascada en la base de datos.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM Partido WHERE id_torneo = :idTorneo AND idPartido >= :desde", nativeQuery = true)
+    int deleteByTorneoDesde(@Param("idTorneo") Long idTorneo, @Param("desde") Long desde);
 }
@@ -0,0 +1,64 @@
+package com.torneados.web.repositories;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Acceso a la tabla SecuenciaId, de la que Hibernate toma los IDs de Partido por bloques.
+ *
+ * Cada fila guarda el siguiente ID libre de una entidad. Reservar un bloque consiste en leer
+ * ese valor y avanzarlo, igual que hace el optimizador pooled-lo de Hibernate, de modo que las
+ * inserciones JDBC de los sorteos y las de JPA comparten la misma numeración sin solaparse.
+ */
+@Repository
+@DependsOn("entityManagerFactory") // la tabla la crea Hibernate (ddl-auto) al arrancar
+public class SecuenciaIdRepository {
+
+    public static final String PARTIDO = "Partido";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate nuevaTransaccion;
+
+    public SecuenciaIdRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nuevaTransaccion = new TransactionTemplate(transactionManager);
+        this.nuevaTransaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Crea la fila de Partido si no existe y la sitúa por encima del mayor ID guardado,
+     * para que las bases de datos creadas con IDENTITY sigan numerando sin colisiones.
+     */
+    @PostConstruct
+    public void inicializar() {
+        jdbcTemplate.update("INSERT IGNORE INTO SecuenciaId (entidad, siguiente) VALUES (?, 1)", PARTIDO);
+        jdbcTemplate.update(
+            "UPDATE SecuenciaId SET siguiente = GREATEST(siguiente, "
+                + "(SELECT COALESCE(MAX(idPartido), 0) + 1 FROM Partido)) WHERE entidad = ?",
+            PARTIDO);
+    }
+
+    /**
+     * Reserva {@code cantidad} IDs consecutivos en una transacción propia, para no mantener
+     * bloqueada la fila de la secuencia mientras dura la transacción que los usa.
+     *
+     * @param entidad  Nombre de la entidad (fila de SecuenciaId).
+     * @param cantidad Número de IDs a reservar.
+     * @return Primer ID del bloque; el bloque es [primero, primero + cantidad).
+     */
+    public long reservar(String entidad, int cantidad) {
+        Long primero = nuevaTransaccion.execute(estado -> {
+            Long siguiente = jdbcTemplate.queryForObject(
+                "SELECT siguiente FROM SecuenciaId WHERE entidad = ? FOR UPDATE", Long.class, entidad);
+            jdbcTemplate.update("UPDATE SecuenciaId SET siguiente = ? WHERE entidad = ?", siguiente + cantidad, entidad);
+            return siguiente;
+        });
+        return primero;
+    }
+}
@@ -9,19 +9,28 @@ import com.torneados.web.entities.SolicitudInscripcion.Estado;
 import com.torneados.web.entities.Torneo;
 import com.torneados.web.entities.Equipo;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SolicitudInscripcionRepository extends JpaRepository<SolicitudInscripcion, SolicitudInscripcionId> {
 
+    @Override
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "equipo.creador"})
+    Optional<SolicitudInscripcion> findById(SolicitudInscripcionId id);
+
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "equipo.creador"})
     List<SolicitudInscripcion> findByIdTorneo(Torneo torneo);
 
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "equipo.creador"})
     List<SolicitudInscripcion> findByIdTorneoAndEstado(Torneo torneo, Estado estado);
 
     boolean existsById(@NonNull SolicitudInscripcionId id);
 
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "equipo.creador"})
     List<SolicitudInscripcion> findByIdEquipo(Equipo equipo);
 }
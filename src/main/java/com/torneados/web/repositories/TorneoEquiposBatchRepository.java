@@ -0,0 +1,61 @@
+package com.torneados.web.repositories;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Escritura masiva sobre TorneoEquipos para los sorteos.
+ *
+ * Participa en la transacción JPA en curso.
+ */
+@Repository
+public class TorneoEquiposBatchRepository {
+
+    /** Equipos por sentencia, para no generar UPDATE con miles de parámetros. */
+    private static final int TAMANO_LOTE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TorneoEquiposBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Asigna el grupo de cada equipo con un único UPDATE ... CASE por bloque de equipos.
+     * No descarta la clasificación ni los rankings de jugadores guardados en memoria, que
+     * dependen del grupo: usar {@code TorneoEquiposService.asignarGrupos}, que lo hace.
+     *
+     * @param idTorneo        Torneo de los equipos.
+     * @param grupoPorEquipo  Letra de grupo de cada ID de equipo.
+     * @return Número de filas actualizadas.
+     */
+    public int asignarGrupos(Long idTorneo, Map<Long, String> grupoPorEquipo) {
+        List<Map.Entry<Long, String>> filas = new ArrayList<>(grupoPorEquipo.entrySet());
+        int actualizadas = 0;
+        for (int desde = 0; desde < filas.size(); desde += TAMANO_LOTE) {
+            List<Map.Entry<Long, String>> lote = filas.subList(desde, Math.min(desde + TAMANO_LOTE, filas.size()));
+
+            StringBuilder sql = new StringBuilder("UPDATE TorneoEquipos SET grupo = CASE id_equipo");
+            List<Object> parametros = new ArrayList<>(lote.size() * 3 + 1);
+            for (Map.Entry<Long, String> fila : lote) {
+                sql.append(" WHEN ? THEN ?");
+                parametros.add(fila.getKey());
+                parametros.add(fila.getValue());
+            }
+            sql.append(" END, version = version + 1 WHERE id_torneo = ? AND id_equipo IN (");
+            parametros.add(idTorneo);
+            for (int i = 0; i < lote.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                parametros.add(lote.get(i).getKey());
+            }
+            sql.append(')');
+
+            actualizadas += jdbcTemplate.update(sql.toString(), parametros.toArray());
+        }
+        return actualizadas;
+    }
+}
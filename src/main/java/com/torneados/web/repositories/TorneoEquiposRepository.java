@@ -1,17 +1,108 @@
 package com.torneados.web.repositories;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.torneados.web.dto.EquipoTorneoResumenDTO;
 import com.torneados.web.entities.TorneoEquipos;
 import com.torneados.web.entities.ids.TorneoEquiposId;
 
 public interface TorneoEquiposRepository extends JpaRepository<TorneoEquipos, TorneoEquiposId> {
 
+    @Override
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "equipo.creador"})
+    Optional<TorneoEquipos> findById(TorneoEquiposId id);
+
+
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "equipo.creador"})
     List<TorneoEquipos> findByIdTorneoIdTorneo(Long idTorneo);
 
+    /**
+     * Grupos de un torneo (los que tiene al menos un equipo), sin cargar entidades.
+     */
+    @Query("""
+      SELECT DISTINCT te.grupo
+        FROM TorneoEquipos te
+       WHERE te.id.torneo.idTorneo = :idTorneo
+         AND te.grupo IS NOT NULL
+    """)
+    List<String> findGruposByTorneo(@Param("idTorneo") Long idTorneo);
+
     //Equipos en un torneo que no han sido eliminados
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "equipo.creador"})
     List<TorneoEquipos> findByIdTorneoIdTorneoAndEliminadoFalse(Long idTorneo);
 
-}
+    /**
+     * Equipos de un torneo para los listados, sin cargar Torneo ni el creador del Equipo.
+     */
+    @Query("""
+      SELECT new com.torneados.web.dto.EquipoTorneoResumenDTO(
+             e.idEquipo, e.nombre, e.logoUrl, te.grupo, te.eliminado,
+             te.partidosGanados, te.partidosEmpatados, te.partidosPerdidos,
+             te.golesFavor, te.golesContra)
+        FROM TorneoEquipos te
+        JOIN te.id.equipo e
+       WHERE te.id.torneo.idTorneo = :idTorneo
+       ORDER BY te.grupo, e.nombre
+    """)
+    List<EquipoTorneoResumenDTO> findResumenesByTorneo(@Param("idTorneo") Long idTorneo);
+
+    /**
+     * Suma (o resta, con valores negativos) un incremento a la clasificación de un equipo
+     * en un único UPDATE atómico, sin leer antes la fila.
+     * No vacía el contexto de persistencia: el rival bloqueado con OPTIMISTIC_FORCE_INCREMENT en
+     * PartidoEquiposRepository.findRivales tiene que seguir gestionado para que su versión suba al confirmar.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+      UPDATE TorneoEquipos
+         SET golesFavor        = golesFavor        + :golesFavor,
+             golesContra       = golesContra       + :golesContra,
+             partidosGanados   = partidosGanados   + :ganados,
+             partidosEmpatados = partidosEmpatados + :empatados,
+             partidosPerdidos  = partidosPerdidos  + :perdidos,
+             version           = version + 1
+       WHERE id_torneo = :idTorneo
+         AND id_equipo = :idEquipo
+    """, nativeQuery = true)
+    int sumarEstadisticas(
+      @Param("idTorneo") Long idTorneo,
+      @Param("idEquipo") Long idEquipo,
+      @Param("golesFavor") int golesFavor,
+      @Param("golesContra") int golesContra,
+      @Param("ganados") int ganados,
+      @Param("empatados") int empatados,
+      @Param("perdidos") int perdidos
+    );
 
+    /**
+     * Marca un equipo como eliminado del torneo sin leer antes la fila.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+      UPDATE TorneoEquipos
+         SET eliminado = true,
+             version   = version + 1
+       WHERE id_torneo = :idTorneo
+         AND id_equipo = :idEquipo
+    """, nativeQuery = true)
+    int marcarEliminado(@Param("idTorneo") Long idTorneo, @Param("idEquipo") Long idEquipo);
+
+    /**
+     * Deja sin grupo a todos los equipos de un torneo sin leer antes las filas.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+      UPDATE TorneoEquipos
+         SET grupo   = NULL,
+             version = version + 1
+       WHERE id_torneo = :idTorneo
+    """, nativeQuery = true)
+    int quitarGrupos(@Param("idTorneo") Long idTorneo);
+}
@@ -0,0 +1,48 @@
+package com.torneados.web.repositories;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Escritura masiva sobre TorneoJugadores.
+ *
+ * Participa en la transacción JPA en curso.
+ */
+@Repository
+public class TorneoJugadoresBatchRepository {
+
+    private static final int TAMANO_LOTE = 500;
+
+    private static final String SUMAR_ESTADISTICAS =
+        "UPDATE TorneoJugadores SET partidos = partidos + ?, puntos = puntos + ?, "
+            + "tarjetasAmarillas = tarjetasAmarillas + ?, tarjetasRojas = tarjetasRojas + ?, version = version + 1 "
+            + "WHERE id_torneo = ? AND id_jugador = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TorneoJugadoresBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Suma a cada jugador su diferencia de estadísticas en un lote de UPDATE ... SET x = x + ?,
+     * sin leer antes las filas.
+     *
+     * @param idTorneo          Torneo de los jugadores.
+     * @param deltaPorJugador   Diferencia [partidos, puntos, tarjetasAmarillas, tarjetasRojas] de cada ID de jugador.
+     */
+    public void sumarEstadisticas(Long idTorneo, Map<Long, int[]> deltaPorJugador) {
+        jdbcTemplate.batchUpdate(SUMAR_ESTADISTICAS, new ArrayList<>(deltaPorJugador.entrySet()), TAMANO_LOTE, (ps, fila) -> {
+            int[] delta = fila.getValue();
+            ps.setInt(1, delta[0]);
+            ps.setInt(2, delta[1]);
+            ps.setInt(3, delta[2]);
+            ps.setInt(4, delta[3]);
+            ps.setLong(5, idTorneo);
+            ps.setLong(6, fila.getKey());
+        });
+    }
+}
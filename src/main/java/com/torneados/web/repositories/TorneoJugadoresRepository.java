@@ -1,15 +1,116 @@
 package com.torneados.web.repositories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.torneados.web.dto.FilaRankingDTO;
 import com.torneados.web.entities.TorneoJugadores;
 import com.torneados.web.entities.ids.TorneoJugadoresId;
 
 public interface TorneoJugadoresRepository extends JpaRepository<TorneoJugadores, TorneoJugadoresId> {
+
+    @Override
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "jugador.equipo.creador"})
+    Optional<TorneoJugadores> findById(TorneoJugadoresId id);
+
     
+    @EntityGraph(attributePaths = {"torneo.creador", "torneo.deporte", "jugador.equipo.creador"})
     List<TorneoJugadores> findByIdTorneoIdTorneo(Long idTorneo);
 
-    
+    /**
+     * Filas de ranking de un torneo (o de uno de sus grupos si {@code grupo} no es null),
+     * en el orden que indique {@code pagina}. Con el orden por una estadística descendente y
+     * el ID de jugador ascendente, MySQL recorre solo las primeras entradas del índice
+     * (id_torneo, estadística DESC, id_jugador) de TorneoJugadores.
+     */
+    @Query("""
+      SELECT new com.torneados.web.dto.FilaRankingDTO(
+             j.idJugador, j.nombre, e.idEquipo, e.nombre, te.grupo,
+             tj.puntos, tj.tarjetasAmarillas, tj.tarjetasRojas)
+        FROM TorneoJugadores tj
+        JOIN tj.jugador j
+        JOIN j.equipo e
+        LEFT JOIN TorneoEquipos te ON te.id.torneo = tj.torneo AND te.id.equipo = e
+       WHERE tj.torneo.idTorneo = :idTorneo
+         AND (:grupo IS NULL OR te.grupo = :grupo)
+    """)
+    List<FilaRankingDTO> findRanking(@Param("idTorneo") Long idTorneo, @Param("grupo") String grupo, Pageable pagina);
+
+    /**
+     * Filas de ranking de varios jugadores de un torneo (o de uno de sus grupos), por clave primaria.
+     */
+    @Query("""
+      SELECT new com.torneados.web.dto.FilaRankingDTO(
+             j.idJugador, j.nombre, e.idEquipo, e.nombre, te.grupo,
+             tj.puntos, tj.tarjetasAmarillas, tj.tarjetasRojas)
+        FROM TorneoJugadores tj
+        JOIN tj.jugador j
+        JOIN j.equipo e
+        LEFT JOIN TorneoEquipos te ON te.id.torneo = tj.torneo AND te.id.equipo = e
+       WHERE tj.torneo.idTorneo = :idTorneo
+         AND tj.id.jugador.idJugador IN :ids
+         AND (:grupo IS NULL OR te.grupo = :grupo)
+    """)
+    List<FilaRankingDTO> findRankingByJugadores(@Param("idTorneo") Long idTorneo, @Param("grupo") String grupo,
+                                                @Param("ids") Collection<Long> ids);
+
+    /**
+     * Suma (o resta, con valores negativos) la diferencia de estadísticas de un jugador en un torneo
+     * en un único UPDATE atómico, sin leer antes la fila.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+      UPDATE TorneoJugadores
+         SET partidos          = partidos          + :partidos,
+             puntos            = puntos            + :puntos,
+             tarjetasAmarillas = tarjetasAmarillas + :amarillas,
+             tarjetasRojas     = tarjetasRojas     + :rojas,
+             version           = version + 1
+       WHERE id_torneo  = :idTorneo
+         AND id_jugador = :idJugador
+    """, nativeQuery = true)
+    int sumarEstadisticas(
+      @Param("idTorneo") Long idTorneo,
+      @Param("idJugador") Long idJugador,
+      @Param("partidos") int partidos,
+      @Param("puntos") int puntos,
+      @Param("amarillas") int amarillas,
+      @Param("rojas") int rojas
+    );
+
+    /**
+     * Recalcula desde PartidoJugadores las estadísticas de todos los jugadores de un torneo
+     * con una sola sentencia. Un jugador suma un partido si ha jugado en alguno de sus sets;
+     * los jugadores sin estadísticas quedan a cero.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+      UPDATE TorneoJugadores tj
+        LEFT JOIN (
+             SELECT pj.id_jugador,
+                    COUNT(DISTINCT CASE WHEN pj.jugado THEN pj.id_partido END) AS partidos,
+                    SUM(pj.puntos)            AS puntos,
+                    SUM(pj.tarjetasAmarillas) AS amarillas,
+                    SUM(pj.tarjetasRojas)     AS rojas
+               FROM PartidoJugadores pj
+               JOIN Partido p ON p.idPartido = pj.id_partido
+              WHERE p.id_torneo = :idTorneo
+              GROUP BY pj.id_jugador
+        ) s ON s.id_jugador = tj.id_jugador
+         SET tj.partidos          = COALESCE(s.partidos, 0),
+             tj.puntos            = COALESCE(s.puntos, 0),
+             tj.tarjetasAmarillas = COALESCE(s.amarillas, 0),
+             tj.tarjetasRojas     = COALESCE(s.rojas, 0),
+             tj.version           = tj.version + 1
+       WHERE tj.id_torneo = :idTorneo
+    """, nativeQuery = true)
+    int recalcularEstadisticas(@Param("idTorneo") Long idTorneo);
 }
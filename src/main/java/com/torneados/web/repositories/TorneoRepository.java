@@ -1,32 +1,127 @@
 package com.torneados.web.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.torneados.web.dto.TorneoResumenDTO;
 import com.torneados.web.entities.Torneo;
 import com.torneados.web.entities.Usuario;
 
 public interface TorneoRepository extends JpaRepository<Torneo, Long> {
 
+    // Las asociaciones son LAZY: cada consulta que devuelve torneos a la API trae en la
+    // misma SELECT lo que se serializa (creador y deporte).
+    @Override
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    Optional<Torneo> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    List<Torneo> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    Page<Torneo> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    List<Torneo> findAllById(Iterable<Long> ids);
+
+
     // Si necesitas también paginar por creador, puedes añadir este método:
+    @EntityGraph(attributePaths = {"creador", "deporte"})
     Page<Torneo> findByCreador(Usuario creador, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"creador", "deporte"})
     List<Torneo> findAllByCreador(Usuario creador);
 
-    // Búsqueda paginada sólo por nombre
-    Page<Torneo> findByNombreContainingIgnoreCase(String nombre, Pageable pageable);
-    
-    // Búsqueda paginada por nombre + lugar
-    Page<Torneo> findByNombreContainingIgnoreCaseAndLugarContainingIgnoreCase(
-        String nombre, String lugar, Pageable pageable);
-    
-    // Búsqueda paginada por nombre + deporte
-    Page<Torneo> findByNombreContainingIgnoreCaseAndDeporte_DeporteContainingIgnoreCase(
-        String nombre, String deporte, Pageable pageable);
-    
-    // Búsqueda paginada por nombre + lugar + deporte
-    Page<Torneo> findByNombreContainingIgnoreCaseAndLugarContainingIgnoreCaseAndDeporte_DeporteContainingIgnoreCase(
-        String nombre, String lugar, String deporte, Pageable pageable);
+    // Igual que findAllByCreador, pero filtrando por el ID del creador (sin cargar el usuario).
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    List<Torneo> findAllByCreadorIdUsuario(Long idUsuario);
+
+    // Paginación por cursor (keyset): devuelven Slice, por lo que no ejecutan count(*)
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    Slice<Torneo> findAllByOrderByIdTorneoAsc(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    Slice<Torneo> findByIdTorneoGreaterThanOrderByIdTorneoAsc(Long idTorneo, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    Slice<Torneo> findAllByOrderByFechaComienzoAscIdTorneoAsc(Pageable pageable);
+
+    @Query("SELECT t FROM Torneo t WHERE t.fechaComienzo > :fecha "
+         + "OR (t.fechaComienzo = :fecha AND t.idTorneo > :idTorneo) "
+         + "ORDER BY t.fechaComienzo ASC, t.idTorneo ASC")
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    Slice<Torneo> findSiguientesPorFecha(@Param("fecha") LocalDateTime fecha,
+                                         @Param("idTorneo") Long idTorneo,
+                                         Pageable pageable);
+
+    // Listados: sólo las columnas que necesita la vista, en una única consulta
+    @Query(value = """
+      SELECT new com.torneados.web.dto.TorneoResumenDTO(
+             t.idTorneo, t.nombre, t.lugar, d.deporte, t.fechaComienzo, t.fechaFin,
+             t.esPublico, t.fase, t.liga, t.grupos, t.eliminatoria)
+        FROM Torneo t
+        JOIN t.deporte d
+    """, countQuery = "SELECT COUNT(t) FROM Torneo t")
+    Page<TorneoResumenDTO> findResumenes(Pageable pageable);
+
+    @Query("""
+      SELECT new com.torneados.web.dto.TorneoResumenDTO(
+             t.idTorneo, t.nombre, t.lugar, d.deporte, t.fechaComienzo, t.fechaFin,
+             t.esPublico, t.fase, t.liga, t.grupos, t.eliminatoria)
+        FROM Torneo t
+        JOIN t.deporte d
+       WHERE t.idTorneo IN :ids
+    """)
+    List<TorneoResumenDTO> findResumenesByIds(@Param("ids") Collection<Long> ids);
+
+    // Búsqueda por nombre, lugar y deporte en la base de datos (los textos vacíos no filtran), para
+    // los órdenes que no admite IndiceBusquedaTorneos; el orden y la página los aplica la consulta
+    @Query(value = """
+      SELECT t
+        FROM Torneo t
+        JOIN t.deporte d
+       WHERE (:nombre  = '' OR LOWER(t.nombre)  LIKE LOWER(CONCAT('%', :nombre, '%')))
+         AND (:lugar   = '' OR LOWER(t.lugar)   LIKE LOWER(CONCAT('%', :lugar, '%')))
+         AND (:deporte = '' OR LOWER(d.deporte) LIKE LOWER(CONCAT('%', :deporte, '%')))
+    """)
+    @EntityGraph(attributePaths = {"creador", "deporte"})
+    Page<Torneo> buscar(@Param("nombre") String nombre, @Param("lugar") String lugar,
+                        @Param("deporte") String deporte, Pageable pageable);
+
+    @Query(value = """
+      SELECT new com.torneados.web.dto.TorneoResumenDTO(
+             t.idTorneo, t.nombre, t.lugar, d.deporte, t.fechaComienzo, t.fechaFin,
+             t.esPublico, t.fase, t.liga, t.grupos, t.eliminatoria)
+        FROM Torneo t
+        JOIN t.deporte d
+       WHERE (:nombre  = '' OR LOWER(t.nombre)  LIKE LOWER(CONCAT('%', :nombre, '%')))
+         AND (:lugar   = '' OR LOWER(t.lugar)   LIKE LOWER(CONCAT('%', :lugar, '%')))
+         AND (:deporte = '' OR LOWER(d.deporte) LIKE LOWER(CONCAT('%', :deporte, '%')))
+    """, countQuery = """
+      SELECT COUNT(t)
+        FROM Torneo t
+        JOIN t.deporte d
+       WHERE (:nombre  = '' OR LOWER(t.nombre)  LIKE LOWER(CONCAT('%', :nombre, '%')))
+         AND (:lugar   = '' OR LOWER(t.lugar)   LIKE LOWER(CONCAT('%', :lugar, '%')))
+         AND (:deporte = '' OR LOWER(d.deporte) LIKE LOWER(CONCAT('%', :deporte, '%')))
+    """)
+    Page<TorneoResumenDTO> buscarResumenes(@Param("nombre") String nombre, @Param("lugar") String lugar,
+                                           @Param("deporte") String deporte, Pageable pageable);
+
+    // Datos para el índice de búsqueda: [idTorneo, nombre, lugar, idDeporte, fechaComienzo]
+    @Query("SELECT t.idTorneo, t.nombre, t.lugar, t.deporte.idDeporte, t.fechaComienzo FROM Torneo t")
+    List<Object[]> findDatosBusqueda();
 }
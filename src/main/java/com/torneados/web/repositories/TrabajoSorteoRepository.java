@@ -0,0 +1,42 @@
+package com.torneados.web.repositories;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.torneados.web.entities.TrabajoSorteo;
+
+public interface TrabajoSorteoRepository extends JpaRepository<TrabajoSorteo, Long> {
+
+    boolean existsByTorneoIdTorneoAndEstadoIn(Long idTorneo, Collection<TrabajoSorteo.Estado> estados);
+
+    @Query("SELECT t.idTrabajo FROM TrabajoSorteo t WHERE t.estado IN :estados ORDER BY t.idTrabajo")
+    List<Long> findIdsByEstadoIn(@Param("estados") Collection<TrabajoSorteo.Estado> estados);
+
+    /**
+     * Anota un tramo más como completado, solo si el trabajo sigue en curso y nadie lo ha hecho ya
+     * (por ejemplo, otra instancia que reanudó el mismo trabajo).
+     *
+     * @return 1 si se ha anotado; 0 si el tramo ya lo había guardado otro.
+     */
+    @Modifying
+    @Query("UPDATE TrabajoSorteo t SET t.tramosCompletados = t.tramosCompletados + 1, t.fechaActualizacion = :ahora "
+         + "WHERE t.idTrabajo = :idTrabajo AND t.tramosCompletados = :completados AND t.estado = :estado")
+    int avanzarTramo(@Param("idTrabajo") Long idTrabajo,
+                     @Param("completados") int completados,
+                     @Param("estado") TrabajoSorteo.Estado estado,
+                     @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Anota el primer partido guardado por el trabajo, si aún no lo estaba.
+     */
+    @Modifying
+    @Query("UPDATE TrabajoSorteo t SET t.idPrimerPartido = COALESCE(t.idPrimerPartido, :idPartido) "
+         + "WHERE t.idTrabajo = :idTrabajo")
+    int anotarPrimerPartido(@Param("idTrabajo") Long idTrabajo, @Param("idPartido") Long idPartido);
+}
@@ -7,18 +7,23 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+
+import com.torneados.web.entities.Usuario;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -28,20 +33,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String token = request.getHeader("Authorization");
 
         if (token != null && token.startsWith("Bearer ")) {
-            System.out.println("Token JWT detectado: " + token);
-
             try {
                 token = token.substring(7); // Remover "Bearer "
                 Claims claims = JwtUtil.validateToken(token); // Validar token JWT
 
                 String googleId = claims.getSubject(); // Google ID
                 String role = claims.get("role", String.class); // Rol del usuario
+                // ID interno; null en tokens antiguos (AuthService lo resuelve entonces desde la BD)
+                Long idUsuario = claims.get(JwtUtil.CLAIM_ID_USUARIO, Long.class);
+
+                log.debug("Usuario autenticado con ID: {} y rol: {}", googleId, role);
 
-                System.out.println("Usuario autenticado con ID: " + googleId + " y rol: " + role);
+                if (role == null) {
+                    throw new IllegalArgumentException("El token no incluye el rol");
+                }
 
-                // Crear objeto User con roles
-                User user = new User(googleId, "",
-                        Collections.singleton(() -> "ROLE_" + role));
+                // Crear el principal con ID y rol, sin consultar la base de datos
+                UsuarioPrincipal user = new UsuarioPrincipal(googleId, idUsuario, Usuario.Rol.valueOf(role));
 
                 // Crear autenticación en el contexto de Spring Security
                 UsernamePasswordAuthenticationToken authentication =
@@ -52,20 +60,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
 
             } catch (ExpiredJwtException e) {
-                System.out.println("Token expirado: " + e.getMessage());
+                log.debug("Token expirado: {}", e.getMessage());
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json");
                 response.getWriter().write("{\"error\": \"Token expirado\"}");
                 return;
-            } catch (JwtException e) {
-                System.out.println("Token inválido: " + e.getMessage());
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Token inválido: {}", e.getMessage());
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.setContentType("application/json");
                 response.getWriter().write("{\"error\": \"Token inválido\"}");
                 return;
             }
-        } else {
-            System.out.println("No se recibió ningún token JWT en la cabecera Authorization");
         }
 
         chain.doFilter(request, response);
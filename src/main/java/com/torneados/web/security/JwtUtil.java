@@ -2,45 +2,138 @@ package com.torneados.web.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JwtUtil {
 
     private static final long EXPIRATION_TIME = 3600000; // 1 hora
 
-    // Creamos la Key a partir de la variable de entorno:
-    private static final Key key;
-    static {
-        String secretBase64 = System.getenv("JWT_SECRET_KEY_BASE64");
-        if (secretBase64 == null || secretBase64.isEmpty()) {
-            throw new IllegalStateException("Falta la variable de entorno JWT_SECRET_KEY_BASE64");
+    // Claim con el ID interno del usuario (idUsuario)
+    public static final String CLAIM_ID_USUARIO = "uid";
+
+    // Máximo de tokens ya verificados que se recuerdan
+    private static final int MAX_TOKENS_VERIFICADOS = 10_000;
+
+    /**
+     * Clave de firma y su parser, que es inmutable y seguro entre hilos: se construye una sola vez.
+     */
+    private record Firma(Key key, JwtParser parser) {
+        Firma(Key key) {
+            this(key, Jwts.parserBuilder().setSigningKey(key).build());
         }
-        key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secretBase64));
     }
 
+    // Se crea a partir de la variable de entorno al usarse por primera vez, salvo que se haya
+    // definido antes con configurarClave
+    private static volatile Firma firma;
+
+    /**
+     * Token ya verificado: sus claims y el instante (ms) en que caduca.
+     */
+    private record TokenVerificado(Claims claims, long caducaEn) {}
+
+    // Tokens verificados recientemente, por SHA-256 del token
+    private static final Map<ByteBuffer, TokenVerificado> verificados = new ConcurrentHashMap<>();
+
     /**
-     * Genera un JWT con el Google ID y el rol del usuario.
+     * Define la clave con la que se firman y validan los tokens en lugar de la de
+     * JWT_SECRET_KEY_BASE64 (p. ej. en benchmarks). Olvida los tokens verificados con la anterior.
      */
-    public static String generateToken(String googleId, String role) {
+    public static synchronized void configurarClave(Key key) {
+        firma = new Firma(key);
+        verificados.clear();
+    }
+
+    private static Firma firma() {
+        Firma actual = firma;
+        if (actual != null) {
+            return actual;
+        }
+        synchronized (JwtUtil.class) {
+            if (firma == null) {
+                String secretBase64 = System.getenv("JWT_SECRET_KEY_BASE64");
+                if (secretBase64 == null || secretBase64.isEmpty()) {
+                    throw new IllegalStateException("Falta la variable de entorno JWT_SECRET_KEY_BASE64");
+                }
+                firma = new Firma(Keys.hmacShaKeyFor(Base64.getDecoder().decode(secretBase64)));
+            }
+            return firma;
+        }
+    }
+
+    /**
+     * Genera un JWT con el Google ID, el ID interno y el rol del usuario.
+     */
+    public static String generateToken(String googleId, Long idUsuario, String role) {
         return Jwts.builder()
                    .setSubject(googleId)
+                   .claim(CLAIM_ID_USUARIO, idUsuario)
                    .claim("role", role)
                    .setIssuedAt(new Date())
                    .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                   .signWith(key, SignatureAlgorithm.HS256)
+                   .signWith(firma().key(), SignatureAlgorithm.HS256)
                    .compact();
     }
 
     /**
      * Valida el token y devuelve los claims.
+     * Los tokens ya verificados y aún vigentes se sirven desde memoria, sin repetir
+     * la comprobación de la firma ni el parseo del JSON. Los claims devueltos son
+     * compartidos y no deben modificarse.
      */
     public static Claims validateToken(String token) throws JwtException {
-        return Jwts.parserBuilder()
-                   .setSigningKey(key)
-                   .build()
-                   .parseClaimsJws(token)
-                   .getBody();
+        ByteBuffer hash = sha256(token);
+        long ahora = System.currentTimeMillis();
+
+        TokenVerificado enCache = verificados.get(hash);
+        if (enCache != null) {
+            if (ahora < enCache.caducaEn()) {
+                return enCache.claims();
+            }
+            // Caducado: se descarta y el parser lanzará ExpiredJwtException
+            verificados.remove(hash);
+        }
+
+        Claims claims = firma().parser().parseClaimsJws(token).getBody();
+
+        Date expiracion = claims.getExpiration();
+        if (expiracion != null && expiracion.getTime() > ahora) {
+            if (verificados.size() >= MAX_TOKENS_VERIFICADOS) {
+                liberarEspacio(ahora);
+            }
+            verificados.put(hash, new TokenVerificado(claims, expiracion.getTime()));
+        }
+        return claims;
+    }
+
+    /**
+     * Elimina los tokens caducados y, si sigue lleno, descarta entradas hasta dejar sitio.
+     */
+    private static void liberarEspacio(long ahora) {
+        verificados.values().removeIf(t -> t.caducaEn() <= ahora);
+        Iterator<ByteBuffer> it = verificados.keySet().iterator();
+        while (verificados.size() >= MAX_TOKENS_VERIFICADOS && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static ByteBuffer sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
     }
 }
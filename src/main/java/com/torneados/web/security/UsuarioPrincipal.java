@@ -0,0 +1,53 @@
+package com.torneados.web.security;
+
+import java.util.Collections;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import com.torneados.web.entities.Usuario;
+
+/**
+ * Principal construido a partir del JWT: además del Google ID (username) lleva
+ * el ID interno y el rol del usuario, de modo que las comprobaciones de permisos
+ * no necesitan cargar el {@link Usuario} de la base de datos.
+ */
+public class UsuarioPrincipal extends User {
+
+    private final Long idUsuario;
+    private final Usuario.Rol rol;
+
+    public UsuarioPrincipal(String googleId, Long idUsuario, Usuario.Rol rol) {
+        super(googleId, "", Collections.singleton(new SimpleGrantedAuthority("ROLE_" + rol.name())));
+        this.idUsuario = idUsuario;
+        this.rol = rol;
+    }
+
+    public String getGoogleId() {
+        return getUsername();
+    }
+
+    /**
+     * ID interno del usuario. Es null en tokens emitidos antes de incluir el claim "uid".
+     */
+    public Long getIdUsuario() {
+        return idUsuario;
+    }
+
+    public Usuario.Rol getRol() {
+        return rol;
+    }
+
+    public boolean esAdministrador() {
+        return rol == Usuario.Rol.ADMINISTRADOR;
+    }
+
+    /**
+     * Indica si el usuario es el propietario (creador) indicado o un administrador.
+     */
+    public boolean puedeGestionar(Usuario creador) {
+        return esAdministrador() || (creador != null && idUsuario != null && idUsuario.equals(creador.getIdUsuario()));
+    }
+
+    // User define equals/hashCode por username; no se redefinen aquí.
+}
@@ -5,18 +5,28 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.torneados.web.entities.Usuario;
 import com.torneados.web.repositories.UsuarioRepository;
 import com.torneados.web.security.JwtUtil;
+import com.torneados.web.security.UsuarioPrincipal;
 
 @Service
 public class AuthService {
 
+    // Atributo de la petición donde se guarda el usuario ya resuelto
+    private static final String ATRIBUTO_USUARIO = AuthService.class.getName() + ".usuario";
+
     private final UsuarioRepository usuarioRepository;
+    private final UsuarioCache usuarioCache;
 
-    public AuthService(UsuarioRepository usuarioRepository) {
+    public AuthService(UsuarioRepository usuarioRepository, UsuarioCache usuarioCache) {
         this.usuarioRepository = usuarioRepository;
+        this.usuarioCache = usuarioCache;
     }
 
     /**
@@ -42,6 +52,9 @@ public class AuthService {
 
     /**
      * Obtiene el usuario autenticado desde el contexto de seguridad.
+     * Se resuelve como mucho una vez por petición (se guarda en los atributos de la petición)
+     * y, entre peticiones, se sirve desde {@link UsuarioCache} sin consultar la base de datos.
+     * Cada petición recibe su propia copia separada, así que modificarla no afecta a otras.
      */
     public Usuario getAuthenticatedUser() {
         var authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -54,19 +67,79 @@ public class AuthService {
     
         if (principal instanceof User userDetails) {
             String googleId = userDetails.getUsername(); 
-            return usuarioRepository.findByGoogleId(googleId)
-                    .orElseThrow(() -> new AccessDeniedException("Usuario no registrado en la base de datos"));
+
+            RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+            if (peticion != null
+                    && peticion.getAttribute(ATRIBUTO_USUARIO, RequestAttributes.SCOPE_REQUEST) instanceof Usuario enPeticion
+                    && googleId.equals(enPeticion.getGoogleId())) {
+                return enPeticion;
+            }
+
+            Usuario usuario = usuarioCache.obtener(googleId, () -> usuarioRepository.findByGoogleId(googleId)
+                    .orElseThrow(() -> new AccessDeniedException("Usuario no registrado en la base de datos")))
+                .aUsuario();
+            if (peticion != null) {
+                peticion.setAttribute(ATRIBUTO_USUARIO, usuario, RequestAttributes.SCOPE_REQUEST);
+            }
+            return usuario;
         }
     
         throw new AccessDeniedException("Usuario no autenticado");
     }
     
 
+    /**
+     * Obtiene el principal del usuario autenticado (ID interno y rol) sin consultar la base de datos.
+     * Pensado para comprobaciones de propiedad en lecturas. Si el token es anterior al claim
+     * con el ID interno, se resuelve una vez mediante {@link #getAuthenticatedUser()}.
+     */
+    public UsuarioPrincipal getPrincipal() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new AccessDeniedException("Usuario no autenticado");
+        }
+
+        Object principal = authentication.getPrincipal();
+
+        if (principal instanceof UsuarioPrincipal usuarioPrincipal && usuarioPrincipal.getIdUsuario() != null) {
+            return usuarioPrincipal;
+        }
+        if (principal instanceof User) {
+            Usuario usuario = getAuthenticatedUser();
+            return new UsuarioPrincipal(usuario.getGoogleId(), usuario.getIdUsuario(), usuario.getRol());
+        }
+
+        throw new AccessDeniedException("Usuario no autenticado");
+    }
+
+    /**
+     * Descarta el usuario guardado en caché (y en la petición actual) tras modificarlo o eliminarlo.
+     * Dentro de una transacción la caché se limpia al confirmarla: si se limpiara antes, otra
+     * petición podría volver a guardar la fila antigua mientras la transacción sigue abierta.
+     */
+    public void invalidarUsuario(String googleId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    usuarioCache.invalidar(googleId);
+                }
+            });
+        } else {
+            usuarioCache.invalidar(googleId);
+        }
+        RequestAttributes peticion = RequestContextHolder.getRequestAttributes();
+        if (peticion != null) {
+            peticion.removeAttribute(ATRIBUTO_USUARIO, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
     /**
      * Genera un JWT para el usuario autenticado vía OAuth2.
      */
     public String generateJwt(OidcUser oidcUser) {
         Usuario usuario = findOrCreateUser(oidcUser);
-        return JwtUtil.generateToken(usuario.getGoogleId(), usuario.getRol().name());
+        return JwtUtil.generateToken(usuario.getGoogleId(), usuario.getIdUsuario(), usuario.getRol().name());
     }
 }
@@ -0,0 +1,291 @@
+package com.torneados.web.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.torneados.web.dto.ClasificacionDTO;
+import com.torneados.web.dto.FilaClasificacionDTO;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.exceptions.ResourceNotFoundException;
+import com.torneados.web.repositories.PartidoEquiposRepository;
+import com.torneados.web.repositories.TorneoEquiposRepository;
+import com.torneados.web.repositories.TorneoRepository;
+
+/**
+ * Clasificación de un torneo, calculada en el servidor a partir de TorneoEquipos.
+ *
+ * Orden dentro de cada grupo: puntos, diferencia de goles, goles a favor y, si persiste
+ * el empate, enfrentamientos directos entre los equipos empatados. El resultado se guarda
+ * en memoria por torneo (caché LRU acotada) y se invalida cada vez que se escribe un marcador o
+ * cambia un grupo, de modo que las lecturas repetidas no tocan la base de datos.
+ *
+ * Cada invalidación incrementa una generación (una por franja de torneos, para no guardar un
+ * contador por cada torneo): una clasificación solo se guarda si la generación de su torneo no ha
+ * cambiado mientras se calculaba, así que un cálculo anterior al cambio no puede quedarse en caché.
+ */
+@Service
+public class ClasificacionService {
+
+    private static final int PUNTOS_VICTORIA = 3;
+    private static final int PUNTOS_EMPATE = 1;
+    private static final int FRANJAS = 1024;
+
+    private final TorneoEquiposRepository torneoEquiposRepository;
+    private final PartidoEquiposRepository partidoEquiposRepository;
+    private final TorneoRepository torneoRepository;
+
+    private final int maxTorneos;
+    private final Map<Long, List<ClasificacionDTO>> cache;
+    /** Generación de cada franja de torneos; se lee y modifica con el cerrojo de {@link #cache}. */
+    private final long[] generaciones = new long[FRANJAS];
+
+    public ClasificacionService(TorneoEquiposRepository torneoEquiposRepository,
+                                PartidoEquiposRepository partidoEquiposRepository,
+                                TorneoRepository torneoRepository,
+                                @Value("${torneados.clasificacion.cache.max-torneos:1000}") int maxTorneos) {
+        this.torneoEquiposRepository = torneoEquiposRepository;
+        this.partidoEquiposRepository = partidoEquiposRepository;
+        this.torneoRepository = torneoRepository;
+        this.maxTorneos = maxTorneos;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, List<ClasificacionDTO>> eldest) {
+                return size() > ClasificacionService.this.maxTorneos;
+            }
+        };
+    }
+
+    /**
+     * Obtiene la clasificación de un torneo, una tabla ordenada por grupo.
+     *
+     * @param idTorneo ID del torneo.
+     * @return Lista de grupos (ordenados por letra) con sus equipos ordenados por posición.
+     * @throws ResourceNotFoundException Si el torneo no existe.
+     */
+    public List<ClasificacionDTO> getClasificacion(Long idTorneo) {
+        long generacion;
+        synchronized (cache) {
+            List<ClasificacionDTO> enCache = cache.get(idTorneo);
+            if (enCache != null) {
+                return enCache;
+            }
+            generacion = generaciones[franja(idTorneo)];
+        }
+        List<ClasificacionDTO> calculada = calcular(idTorneo);
+        synchronized (cache) {
+            // Si se ha invalidado mientras se calculaba, el resultado puede ser anterior al cambio
+            if (maxTorneos > 0 && generaciones[franja(idTorneo)] == generacion) {
+                cache.put(idTorneo, calculada);
+            }
+        }
+        return calculada;
+    }
+
+    /**
+     * Devuelve los equipos recibidos ordenados para emparejar una eliminatoria:
+     * primero todos los primeros de grupo, luego todos los segundos, etc.
+     * Los equipos que no aparezcan en la clasificación quedan al final.
+     *
+     * @param idTorneo ID del torneo.
+     * @param equipos  Equipos a ordenar (normalmente los no eliminados).
+     * @return Nueva lista ordenada por clasificación.
+     */
+    public List<TorneoEquipos> ordenarPorClasificacion(Long idTorneo, List<TorneoEquipos> equipos) {
+        Map<Long, Integer> orden = new HashMap<>();
+        List<ClasificacionDTO> grupos = getClasificacion(idTorneo);
+        int maxEquipos = grupos.stream().mapToInt(g -> g.getEquipos().size()).max().orElse(0);
+        int i = 0;
+        for (int pos = 0; pos < maxEquipos; pos++) {
+            for (ClasificacionDTO grupo : grupos) {
+                if (pos < grupo.getEquipos().size()) {
+                    orden.put(grupo.getEquipos().get(pos).getIdEquipo(), i++);
+                }
+            }
+        }
+        List<TorneoEquipos> ordenados = new ArrayList<>(equipos);
+        ordenados.sort(Comparator.comparingInt(
+            te -> orden.getOrDefault(te.getId().getEquipo().getIdEquipo(), Integer.MAX_VALUE)));
+        return ordenados;
+    }
+
+    /**
+     * Descarta la clasificación guardada de un torneo. Si hay una transacción activa,
+     * se descarta también al confirmarla, para que ninguna lectura concurrente deje
+     * en memoria datos anteriores al commit.
+     *
+     * @param idTorneo ID del torneo.
+     */
+    public void invalidar(Long idTorneo) {
+        descartar(idTorneo);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar(idTorneo);
+                }
+            });
+        }
+    }
+
+    /**
+     * Descarta todas las clasificaciones guardadas (por ejemplo, al renombrar un equipo).
+     */
+    public void invalidarTodo() {
+        synchronized (cache) {
+            cache.clear();
+            for (int i = 0; i < FRANJAS; i++) {
+                generaciones[i]++;
+            }
+        }
+    }
+
+    private void descartar(Long idTorneo) {
+        synchronized (cache) {
+            cache.remove(idTorneo);
+            generaciones[franja(idTorneo)]++;
+        }
+    }
+
+    private static int franja(Long idTorneo) {
+        return Math.floorMod(Long.hashCode(idTorneo), FRANJAS);
+    }
+
+    private List<ClasificacionDTO> calcular(Long idTorneo) {
+        List<TorneoEquipos> inscritos = torneoEquiposRepository.findByIdTorneoIdTorneo(idTorneo);
+        if (inscritos.isEmpty() && !torneoRepository.existsById(idTorneo)) {
+            throw new ResourceNotFoundException("Torneo no encontrado.");
+        }
+
+        Map<String, List<FilaClasificacionDTO>> porGrupo =
+            new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        for (TorneoEquipos te : inscritos) {
+            porGrupo.computeIfAbsent(te.getGrupo(), g -> new ArrayList<>()).add(toFila(te));
+        }
+
+        List<Enfrentamiento> enfrentamientos = cargarEnfrentamientos(idTorneo);
+
+        List<ClasificacionDTO> resultado = new ArrayList<>();
+        for (Map.Entry<String, List<FilaClasificacionDTO>> grupo : porGrupo.entrySet()) {
+            List<FilaClasificacionDTO> filas = ordenar(grupo.getValue(), enfrentamientos);
+            for (int i = 0; i < filas.size(); i++) {
+                filas.get(i).setPosicion(i + 1);
+            }
+            resultado.add(new ClasificacionDTO(grupo.getKey(), List.copyOf(filas)));
+        }
+        return List.copyOf(resultado);
+    }
+
+    private static FilaClasificacionDTO toFila(TorneoEquipos te) {
+        int ganados = te.getPartidosGanados();
+        int empatados = te.getPartidosEmpatados();
+        int perdidos = te.getPartidosPerdidos();
+        return new FilaClasificacionDTO(
+            0,
+            te.getId().getEquipo().getIdEquipo(),
+            te.getId().getEquipo().getNombre(),
+            te.getId().getEquipo().getLogoUrl(),
+            ganados * PUNTOS_VICTORIA + empatados * PUNTOS_EMPATE,
+            ganados + empatados + perdidos,
+            ganados,
+            empatados,
+            perdidos,
+            te.getGolesFavor(),
+            te.getGolesContra(),
+            te.getGolesFavor() - te.getGolesContra(),
+            te.isEliminado()
+        );
+    }
+
+    /**
+     * Ordena por puntos, diferencia de goles y goles a favor; los bloques que siguen
+     * empatados se desempatan con la liguilla entre ellos (enfrentamientos directos).
+     */
+    private static List<FilaClasificacionDTO> ordenar(List<FilaClasificacionDTO> filas, List<Enfrentamiento> enfrentamientos) {
+        Comparator<FilaClasificacionDTO> general = Comparator
+            .comparingInt(FilaClasificacionDTO::getPuntos).reversed()
+            .thenComparing(Comparator.comparingInt(FilaClasificacionDTO::getDiferenciaGoles).reversed())
+            .thenComparing(Comparator.comparingInt(FilaClasificacionDTO::getGolesFavor).reversed());
+
+        List<FilaClasificacionDTO> ordenadas = new ArrayList<>(filas);
+        ordenadas.sort(general.thenComparing(FilaClasificacionDTO::getIdEquipo));
+
+        List<FilaClasificacionDTO> resultado = new ArrayList<>(ordenadas.size());
+        int i = 0;
+        while (i < ordenadas.size()) {
+            int j = i + 1;
+            while (j < ordenadas.size() && general.compare(ordenadas.get(i), ordenadas.get(j)) == 0) {
+                j++;
+            }
+            List<FilaClasificacionDTO> bloque = ordenadas.subList(i, j);
+            if (bloque.size() > 1) {
+                resultado.addAll(desempatar(bloque, enfrentamientos));
+            } else {
+                resultado.addAll(bloque);
+            }
+            i = j;
+        }
+        return resultado;
+    }
+
+    private static List<FilaClasificacionDTO> desempatar(List<FilaClasificacionDTO> empatados, List<Enfrentamiento> enfrentamientos) {
+        Set<Long> ids = new HashSet<>();
+        empatados.forEach(f -> ids.add(f.getIdEquipo()));
+
+        // [puntos, diferencia de goles] en los partidos entre los equipos empatados
+        Map<Long, int[]> directos = new HashMap<>();
+        for (Enfrentamiento e : enfrentamientos) {
+            if (ids.contains(e.idEquipo()) && ids.contains(e.idRival())) {
+                int[] acumulado = directos.computeIfAbsent(e.idEquipo(), k -> new int[2]);
+                if      (e.puntos() >  e.puntosRival()) acumulado[0] += PUNTOS_VICTORIA;
+                else if (e.puntos() == e.puntosRival()) acumulado[0] += PUNTOS_EMPATE;
+                acumulado[1] += e.puntos() - e.puntosRival();
+            }
+        }
+
+        List<FilaClasificacionDTO> ordenados = new ArrayList<>(empatados);
+        ordenados.sort(Comparator
+            .comparingInt((FilaClasificacionDTO f) -> directos.getOrDefault(f.getIdEquipo(), new int[2])[0]).reversed()
+            .thenComparing(Comparator.comparingInt(
+                (FilaClasificacionDTO f) -> directos.getOrDefault(f.getIdEquipo(), new int[2])[1]).reversed())
+            .thenComparing(FilaClasificacionDTO::getIdEquipo));
+        return ordenados;
+    }
+
+    /**
+     * Resultado de un equipo frente a su rival en un set de un partido.
+     */
+    private record Enfrentamiento(Long idEquipo, Long idRival, int puntos, int puntosRival) {}
+
+    private List<Enfrentamiento> cargarEnfrentamientos(Long idTorneo) {
+        // Agrupar los marcadores por (partido, set) y emparejar cada equipo con su rival.
+        // Los sets sin marcador (puntos null, como los recién sorteados) no son enfrentamientos jugados
+        Map<String, List<Object[]>> porSet = new HashMap<>();
+        for (Object[] fila : partidoEquiposRepository.findMarcadoresByTorneo(idTorneo)) {
+            porSet.computeIfAbsent(fila[0] + ":" + fila[1], k -> new ArrayList<>()).add(fila);
+        }
+        List<Enfrentamiento> enfrentamientos = new ArrayList<>();
+        for (List<Object[]> filas : porSet.values()) {
+            for (Object[] a : filas) {
+                for (Object[] b : filas) {
+                    if (a != b && a[3] != null && b[3] != null) {
+                        enfrentamientos.add(new Enfrentamiento(
+                            (Long) a[2], (Long) b[2], (Integer) a[3], (Integer) b[3]));
+                    }
+                }
+            }
+        }
+        return enfrentamientos;
+    }
+}
@@ -17,10 +17,14 @@ public class DeporteService {
     
     private final DeporteRepository deporteRepository;
     private final AuthService authService;
+    private final IndiceBusquedaTorneos indiceBusquedaTorneos;
+    private final VersionesRecursos versionesRecursos;
 
-    public DeporteService(DeporteRepository deporteRepository, AuthService authService) {
+    public DeporteService(DeporteRepository deporteRepository, AuthService authService, IndiceBusquedaTorneos indiceBusquedaTorneos, VersionesRecursos versionesRecursos) {
         this.deporteRepository = deporteRepository;
         this.authService = authService;
+        this.indiceBusquedaTorneos = indiceBusquedaTorneos;
+        this.versionesRecursos = versionesRecursos;
     }
 
     /**
@@ -55,7 +59,10 @@ public class DeporteService {
         }
 
         // Guardar en la base de datos
-        return deporteRepository.save(deporte);
+        Deporte guardado = deporteRepository.save(deporte);
+        indiceBusquedaTorneos.actualizarDeporte(guardado);
+        versionesRecursos.marcarCambioGeneral();
+        return guardado;
     }
 
     /**
@@ -109,8 +116,11 @@ public class DeporteService {
         // Actualizar los campos del deporte existente
         existingDeporte.setDeporte(deporte.getDeporte());
         
-        // Guardar en la base de datos
-        return deporteRepository.save(existingDeporte);
+        // Guardar en la base de datos (el índice de búsqueda de torneos usa el nombre)
+        Deporte guardado = deporteRepository.save(existingDeporte);
+        indiceBusquedaTorneos.actualizarDeporte(guardado);
+        versionesRecursos.marcarCambioGeneral();
+        return guardado;
     }
 
 
@@ -141,5 +151,8 @@ public class DeporteService {
 
         Deporte deporte = deporteRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Deporte no encontrado."));
         deporteRepository.delete(deporte);
+        // Los torneos del deporte se borran en cascada
+        indiceBusquedaTorneos.eliminarDeporte(id);
+        versionesRecursos.marcarCambioGeneral();
     }
 }
@@ -0,0 +1,75 @@
+package com.torneados.web.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pool acotado para el cálculo en paralelo de los calendarios de un sorteo (un grupo por tarea).
+ *
+ * Solo calcula en memoria: la persistencia se hace después, en el hilo de la petición y dentro
+ * de su transacción. Si la cola se llena, la tarea se ejecuta en el hilo que la envía en lugar
+ * de rechazarse, de modo que un sorteo muy grande se ralentiza pero no falla.
+ *
+ * No se registra como bean de tipo Executor para no sustituir al ejecutor por defecto de Spring.
+ * Sus hilos son de plataforma también con spring.threads.virtual.enabled: el trabajo es de CPU y
+ * no se beneficia de hilos virtuales.
+ */
+@Component
+public class EjecutorSorteos {
+
+    private final ThreadPoolExecutor ejecutor;
+
+    public EjecutorSorteos(@Value("${torneados.sorteo.hilos:4}") int hilos,
+                           @Value("${torneados.sorteo.cola:256}") int cola) {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory hilosSorteo = tarea -> {
+            Thread hilo = new Thread(tarea, "sorteo-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(cola), hilosSorteo, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.ejecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Ejecuta las tareas en paralelo y devuelve sus resultados en el mismo orden.
+     * Si alguna falla, se relanza su excepción.
+     */
+    public <T> List<T> ejecutarTodas(List<Supplier<T>> tareas) {
+        List<CompletableFuture<T>> futuros = new ArrayList<>(tareas.size());
+        for (Supplier<T> tarea : tareas) {
+            futuros.add(CompletableFuture.supplyAsync(tarea, ejecutor));
+        }
+        List<T> resultados = new ArrayList<>(futuros.size());
+        try {
+            for (CompletableFuture<T> futuro : futuros) {
+                resultados.add(futuro.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+        return resultados;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdown();
+    }
+}
@@ -11,6 +11,7 @@ import com.torneados.web.exceptions.ResourceNotFoundException;
 import com.torneados.web.exceptions.UnauthorizedException;
 import com.torneados.web.exceptions.AccessDeniedException;
 import com.torneados.web.repositories.EquipoRepository;
+import com.torneados.web.security.UsuarioPrincipal;
 
 @Service
 public class EquipoService {
@@ -18,9 +19,15 @@ public class EquipoService {
     private final EquipoRepository equipoRepository;
     private final AuthService authService;
     private final UploadService uploadService;
+    private final ClasificacionService clasificacionService;
+    private final RankingJugadoresService rankingJugadoresService;
+    private final VersionesRecursos versionesRecursos;
 
-    public EquipoService(EquipoRepository equipoRepository, AuthService authService, UploadService uploadService) {
+    public EquipoService(EquipoRepository equipoRepository, AuthService authService, UploadService uploadService, ClasificacionService clasificacionService, RankingJugadoresService rankingJugadoresService, VersionesRecursos versionesRecursos) {
         this.uploadService = uploadService;
+        this.clasificacionService = clasificacionService;
+        this.rankingJugadoresService = rankingJugadoresService;
+        this.versionesRecursos = versionesRecursos;
         this.equipoRepository = equipoRepository;
         this.authService = authService;
     }
@@ -45,7 +52,7 @@ public class EquipoService {
     }
 
     public Equipo getEquipoById(Long id) {
-        Usuario currentUser = authService.getAuthenticatedUser();
+        UsuarioPrincipal currentUser = authService.getPrincipal();
         if (currentUser == null) {
             throw new UnauthorizedException("Falta autenticación");
         }
@@ -53,8 +60,7 @@ public class EquipoService {
         Equipo equipo = equipoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Equipo no encontrado"));
 
-        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR)
-                && (equipo.getCreador() == null || !equipo.getCreador().getIdUsuario().equals(currentUser.getIdUsuario()))) {
+        if (!currentUser.puedeGestionar(equipo.getCreador())) {
             throw new AccessDeniedException("Sin permisos para ver este equipo");
         }
 
@@ -82,7 +88,12 @@ public class EquipoService {
             equipoExistente.setLogoUrl(urlImagen);
         }
 
-        return equipoRepository.save(equipoExistente);
+        // El nombre y el logo aparecen en las clasificaciones y rankings guardados de cualquier torneo
+        clasificacionService.invalidarTodo();
+        rankingJugadoresService.invalidarTodo();
+        Equipo guardado = equipoRepository.save(equipoExistente);
+        versionesRecursos.marcarCambioGeneral();
+        return guardado;
     }
 
     public void deleteEquipo(Long idEquipo) {
@@ -100,5 +111,8 @@ public class EquipoService {
         }
 
         equipoRepository.delete(equipo);
+        clasificacionService.invalidarTodo();
+        rankingJugadoresService.invalidarTodo();
+        versionesRecursos.marcarCambioGeneral();
     }
 }
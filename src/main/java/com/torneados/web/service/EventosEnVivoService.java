@@ -0,0 +1,253 @@
+package com.torneados.web.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.torneados.web.dto.EventosEnVivoDTO.CambioClasificacion;
+import com.torneados.web.dto.EventosEnVivoDTO.EstadisticasJugador;
+import com.torneados.web.dto.EventosEnVivoDTO.Marcador;
+import com.torneados.web.exceptions.ResourceNotFoundException;
+import com.torneados.web.exceptions.ServiceUnavailableException;
+import com.torneados.web.repositories.EventosEnVivoRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reparto en directo (Server-Sent Events) de los cambios de marcadores, estadísticas de jugadores
+ * y clasificación a quien sigue un torneo o un partido, para que no tengan que consultar la API
+ * periódicamente.
+ *
+ * Los eventos se publican al confirmarse la transacción que hace el cambio, de modo que un intento
+ * deshecho o reintentado no envía nada. Cada evento se serializa una vez y se deja en la cola de
+ * cada suscriptor; un hilo virtual por suscriptor la vacía en orden, así que quien escribe nunca
+ * espera a un cliente lento. Si la cola de un cliente se llena, se le desconecta (EventSource se
+ * reconecta solo). Cuando no hay eventos se envía un comentario de latido cada cierto tiempo para
+ * detectar las conexiones cerradas.
+ *
+ * Al suscribirse solo se comprueba por JDBC que el torneo o el partido existe: con la sesión de
+ * JPA abierta durante la petición (open-in-view), una consulta de JPA retendría una conexión del
+ * pool mientras dure el stream. Cada stream ocupa una conexión HTTP, un hilo virtual y su cola, así
+ * que hay un máximo de suscriptores en total y otro por torneo o partido; por encima se responde 503.
+ */
+@Service
+public class EventosEnVivoService {
+
+    private final ObjectMapper json;
+    private final long timeoutMs;
+    private final long latidoMs;
+    private final int capacidadCola;
+    private final int maxSuscriptores;
+    private final int maxPorRecurso;
+    private final EventosEnVivoRepository eventosEnVivoRepository;
+    private final AtomicInteger suscriptores = new AtomicInteger();
+
+    private final Map<Long, Set<Suscriptor>> porTorneo = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Suscriptor>> porPartido = new ConcurrentHashMap<>();
+
+    public EventosEnVivoService(ObjectMapper objectMapper,
+                                @Value("${torneados.eventos.timeout:PT30M}") Duration timeout,
+                                @Value("${torneados.eventos.latido:PT20S}") Duration latido,
+                                @Value("${torneados.eventos.cola:256}") int capacidadCola,
+                                @Value("${torneados.eventos.max-suscriptores:10000}") int maxSuscriptores,
+                                @Value("${torneados.eventos.max-por-recurso:1000}") int maxPorRecurso,
+                                EventosEnVivoRepository eventosEnVivoRepository) {
+        // La API formatea el JSON con sangría, pero un salto de línea dentro de un evento SSE lo partiría
+        this.json = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        this.timeoutMs = timeout.toMillis();
+        this.latidoMs = latido.toMillis();
+        this.capacidadCola = capacidadCola;
+        this.maxSuscriptores = maxSuscriptores;
+        this.maxPorRecurso = maxPorRecurso;
+        this.eventosEnVivoRepository = eventosEnVivoRepository;
+    }
+
+    /**
+     * Abre un stream con los eventos de todos los partidos de un torneo y los de su clasificación.
+     *
+     * @throws ResourceNotFoundException Si el torneo no existe.
+     * @throws ServiceUnavailableException Si se ha alcanzado el máximo de suscriptores.
+     */
+    public SseEmitter suscribirTorneo(Long idTorneo) {
+        if (!eventosEnVivoRepository.existeTorneo(idTorneo)) {
+            throw new ResourceNotFoundException("Torneo no encontrado con id: " + idTorneo);
+        }
+        return suscribir(porTorneo, idTorneo);
+    }
+
+    /**
+     * Abre un stream con los eventos de marcadores y estadísticas de un partido.
+     *
+     * @throws ResourceNotFoundException Si el partido no existe.
+     * @throws ServiceUnavailableException Si se ha alcanzado el máximo de suscriptores.
+     */
+    public SseEmitter suscribirPartido(Long idPartido) {
+        if (!eventosEnVivoRepository.existePartido(idPartido)) {
+            throw new ResourceNotFoundException("Partido no encontrado con id: " + idPartido);
+        }
+        return suscribir(porPartido, idPartido);
+    }
+
+    public void publicarMarcador(Long idTorneo, Marcador marcador) {
+        publicar(idTorneo, marcador.getIdPartido(), "marcador", marcador);
+    }
+
+    public void publicarEstadisticas(Long idTorneo, EstadisticasJugador estadisticas) {
+        publicar(idTorneo, estadisticas.getIdPartido(), "estadisticas", estadisticas);
+    }
+
+    public void publicarClasificacion(Long idTorneo, List<CambioClasificacion> cambios) {
+        if (!cambios.isEmpty()) {
+            publicar(idTorneo, null, "clasificacion", cambios);
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        porTorneo.values().forEach(s -> s.forEach(Suscriptor::terminar));
+        porPartido.values().forEach(s -> s.forEach(Suscriptor::terminar));
+    }
+
+    private SseEmitter suscribir(Map<Long, Set<Suscriptor>> suscripciones, Long id) {
+        if (suscriptores.incrementAndGet() > maxSuscriptores) {
+            suscriptores.decrementAndGet();
+            throw new ServiceUnavailableException("Hay demasiados seguidores en directo. Vuelve a intentarlo más tarde.");
+        }
+
+        Suscriptor suscriptor = new Suscriptor(new SseEmitter(timeoutMs));
+        boolean[] admitido = new boolean[1];
+        suscripciones.compute(id, (k, conjunto) -> {
+            Set<Suscriptor> destino = conjunto != null ? conjunto : ConcurrentHashMap.newKeySet();
+            if (destino.size() < maxPorRecurso) {
+                admitido[0] = destino.add(suscriptor);
+            }
+            return destino.isEmpty() ? null : destino;
+        });
+        if (!admitido[0]) {
+            suscriptores.decrementAndGet();
+            throw new ServiceUnavailableException("Este directo tiene demasiados seguidores. Vuelve a intentarlo más tarde.");
+        }
+
+        // Los avisos de fin pueden llegar varios: solo el primero que lo quita descuenta el suscriptor
+        Runnable quitar = () -> {
+            suscriptor.detener();
+            suscripciones.computeIfPresent(id, (k, conjunto) -> {
+                if (conjunto.remove(suscriptor)) {
+                    suscriptores.decrementAndGet();
+                }
+                return conjunto.isEmpty() ? null : conjunto;
+            });
+        };
+        suscriptor.emitter.onCompletion(quitar);
+        suscriptor.emitter.onTimeout(quitar);
+        suscriptor.emitter.onError(e -> quitar.run());
+        suscriptor.iniciar();
+        return suscriptor.emitter;
+    }
+
+    private void publicar(Long idTorneo, Long idPartido, String nombre, Object datos) {
+        Runnable envio = () -> enviar(idTorneo, idPartido, nombre, datos);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    envio.run();
+                }
+            });
+        } else {
+            envio.run();
+        }
+    }
+
+    private void enviar(Long idTorneo, Long idPartido, String nombre, Object datos) {
+        Set<Suscriptor> delTorneo = porTorneo.get(idTorneo);
+        Set<Suscriptor> delPartido = idPartido != null ? porPartido.get(idPartido) : null;
+        if (delTorneo == null && delPartido == null) {
+            return;
+        }
+
+        String texto;
+        try {
+            texto = json.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + nombre, e);
+        }
+        // Se construye una sola vez y se comparte entre todas las colas (build() no puede repetirse)
+        Set<DataWithMediaType> evento = SseEmitter.event().name(nombre).data(texto).build();
+        if (delTorneo != null) {
+            delTorneo.forEach(s -> s.encolar(evento));
+        }
+        if (delPartido != null) {
+            delPartido.forEach(s -> s.encolar(evento));
+        }
+    }
+
+    private final class Suscriptor {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> cola = new ArrayBlockingQueue<>(capacidadCola);
+        private volatile Thread hilo;
+        private volatile boolean detenido;
+
+        private Suscriptor(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void iniciar() {
+            hilo = Thread.ofVirtual().name("sse-suscriptor").start(this::enviarPendientes);
+        }
+
+        private void encolar(Set<DataWithMediaType> evento) {
+            if (!detenido && !cola.offer(evento)) {
+                // Cliente demasiado lento: se le desconecta en lugar de acumular eventos sin límite
+                terminar();
+            }
+        }
+
+        private void enviarPendientes() {
+            try {
+                while (!detenido) {
+                    Set<DataWithMediaType> evento = cola.poll(latidoMs, TimeUnit.MILLISECONDS);
+                    emitter.send(evento != null ? evento : SseEmitter.event().comment("latido").build());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // El cliente se ha ido o el stream ya terminó: el contenedor avisa con onError/onCompletion
+                detenido = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Deja de enviar; lo llaman los avisos de fin del stream. */
+        private void detener() {
+            detenido = true;
+            Thread actual = hilo;
+            if (actual != null && actual != Thread.currentThread()) {
+                actual.interrupt();
+            }
+        }
+
+        /** Cierra el stream desde el servidor. */
+        private void terminar() {
+            detener();
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.torneados.web.service;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.torneados.web.entities.Deporte;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.exceptions.BadRequestException;
+import com.torneados.web.repositories.DeporteRepository;
+import com.torneados.web.repositories.TorneoRepository;
+
+/**
+ * Índice invertido en memoria para la búsqueda de torneos por nombre, lugar y deporte.
+ *
+ * Cada texto se normaliza (minúsculas y sin tildes) y se indexan todos sus n-gramas de
+ * longitud 1 a {@value #N}. Una búsqueda de hasta {@value #N} caracteres es una única
+ * consulta al mapa; las más largas intersecan los n-gramas y verifican la subcadena sobre
+ * los candidatos. El deporte se resuelve contra la tabla de deportes (pocas filas) y se
+ * traduce a torneos con un mapa idDeporte -> torneos.
+ *
+ * Se reconstruye desde la base de datos al arrancar y se mantiene al día desde
+ * TorneoService, DeporteService y UsuarioService. Si hay una transacción activa, los
+ * cambios se aplican al confirmarla. Los cambios que llegan mientras se reconstruye se
+ * aplican también después sobre el índice nuevo, porque la lectura de la base de datos
+ * puede ser anterior a ellos.
+ */
+@Component
+public class IndiceBusquedaTorneos {
+
+    private static final int N = 3;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Datos normalizados de un torneo tal y como están en el índice.
+     */
+    private record Documento(Long idTorneo, String nombre, String lugar, Long idDeporte,
+                             LocalDateTime fechaComienzo) {}
+
+    /** Campos por los que se puede ordenar el resultado de una búsqueda. */
+    private static final Map<String, Comparator<Documento>> ORDENES = Map.of(
+        "idTorneo", Comparator.comparing(Documento::idTorneo),
+        "nombre", Comparator.comparing(Documento::nombre),
+        "lugar", Comparator.comparing(Documento::lugar),
+        "fechaComienzo", Comparator.comparing(Documento::fechaComienzo,
+                                              Comparator.nullsLast(Comparator.naturalOrder())));
+
+    private final TorneoRepository torneoRepository;
+    private final DeporteRepository deporteRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Documento> documentos = new HashMap<>();
+    private final Map<String, Set<Long>> gramasNombre = new HashMap<>();
+    private final Map<String, Set<Long>> gramasLugar = new HashMap<>();
+    private final Map<Long, String> deportes = new HashMap<>();
+    private final Map<Long, Set<Long>> torneosPorDeporte = new HashMap<>();
+    private volatile boolean construido;
+    // Cambios aplicados durante una reconstrucción (null si no hay ninguna en curso)
+    private List<Runnable> pendientes;
+
+    public IndiceBusquedaTorneos(TorneoRepository torneoRepository, DeporteRepository deporteRepository) {
+        this.torneoRepository = torneoRepository;
+        this.deporteRepository = deporteRepository;
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de la base de datos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconstruir() {
+        lock.writeLock().lock();
+        try {
+            pendientes = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Deporte> todosDeportes;
+        List<Object[]> filas;
+        try {
+            todosDeportes = deporteRepository.findAll();
+            filas = torneoRepository.findDatosBusqueda();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendientes = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            documentos.clear();
+            gramasNombre.clear();
+            gramasLugar.clear();
+            deportes.clear();
+            torneosPorDeporte.clear();
+            for (Deporte d : todosDeportes) {
+                deportes.put(d.getIdDeporte(), normalizar(d.getDeporte()));
+            }
+            for (Object[] fila : filas) {
+                anadir(new Documento((Long) fila[0], normalizar((String) fila[1]),
+                                     normalizar((String) fila[2]), (Long) fila[3], (LocalDateTime) fila[4]));
+            }
+            // Cambios confirmados mientras se leía la base de datos: repetirlos es inocuo
+            pendientes.forEach(Runnable::run);
+            pendientes = null;
+            construido = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca torneos cuyo nombre, lugar y deporte contengan los textos indicados
+     * (los textos vacíos no filtran).
+     *
+     * @return IDs de los torneos encontrados, ordenados por relevancia.
+     */
+    public List<Long> buscar(String nombre, String lugar, String deporte) {
+        return buscar(nombre, lugar, deporte, Sort.unsorted());
+    }
+
+    /**
+     * Indica si el índice puede ordenar por todos los campos de {@code orden}
+     * (idTorneo, nombre, lugar y fechaComienzo).
+     */
+    public boolean admiteOrden(Sort orden) {
+        return orden.stream().allMatch(o -> ORDENES.containsKey(o.getProperty()));
+    }
+
+    /**
+     * Igual que {@link #buscar(String, String, String)}, pero ordenando por los campos indicados
+     * (nombre y lugar sin tildes ni mayúsculas) y después por relevancia.
+     *
+     * @throws BadRequestException Si se pide ordenar por un campo que no está en el índice
+     *                             (ver {@link #admiteOrden}).
+     */
+    public List<Long> buscar(String nombre, String lugar, String deporte, Sort orden) {
+        Comparator<Documento> criterio = null;
+        for (Sort.Order o : orden) {
+            Comparator<Documento> campo = ORDENES.get(o.getProperty());
+            if (campo == null) {
+                throw new BadRequestException("No se puede ordenar la búsqueda por '" + o.getProperty()
+                    + "': usa " + String.join(", ", new TreeSet<>(ORDENES.keySet())) + ".");
+            }
+            campo = o.isDescending() ? campo.reversed() : campo;
+            criterio = criterio == null ? campo : criterio.thenComparing(campo);
+        }
+
+        if (!construido) {
+            synchronized (this) {
+                if (!construido) {
+                    reconstruir();
+                }
+            }
+        }
+
+        String qNombre = normalizar(nombre);
+        String qLugar = normalizar(lugar);
+        String qDeporte = normalizar(deporte);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> resultado = null;
+            if (!qNombre.isEmpty()) {
+                resultado = intersecar(resultado, candidatos(gramasNombre, qNombre, Documento::nombre));
+            }
+            if (!qLugar.isEmpty()) {
+                resultado = intersecar(resultado, candidatos(gramasLugar, qLugar, Documento::lugar));
+            }
+            if (!qDeporte.isEmpty()) {
+                Set<Long> porDeporte = new HashSet<>();
+                deportes.forEach((idDeporte, texto) -> {
+                    if (texto.contains(qDeporte)) {
+                        porDeporte.addAll(torneosPorDeporte.getOrDefault(idDeporte, Set.of()));
+                    }
+                });
+                resultado = intersecar(resultado, porDeporte);
+            }
+            if (resultado == null) {
+                resultado = documentos.keySet();
+            }
+
+            List<Documento> encontrados = new ArrayList<>(resultado.size());
+            Map<Long, Integer> puntuacion = new HashMap<>();
+            for (Long id : resultado) {
+                Documento doc = documentos.get(id);
+                encontrados.add(doc);
+                puntuacion.put(id, 2 * relevancia(doc.nombre(), qNombre)
+                                 + relevancia(doc.lugar(), qLugar)
+                                 + relevancia(deportes.getOrDefault(doc.idDeporte(), ""), qDeporte));
+            }
+            Comparator<Documento> porRelevancia = Comparator
+                .comparingInt((Documento d) -> puntuacion.get(d.idTorneo())).reversed()
+                .thenComparing(Documento::nombre)
+                .thenComparing(Documento::idTorneo);
+            encontrados.sort(criterio != null ? criterio.thenComparing(porRelevancia) : porRelevancia);
+            return encontrados.stream().map(Documento::idTorneo).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Añade o actualiza un torneo en el índice.
+     */
+    public void indexar(Torneo torneo) {
+        Long idDeporte = torneo.getDeporte() != null ? torneo.getDeporte().getIdDeporte() : null;
+        Documento doc = new Documento(torneo.getIdTorneo(), normalizar(torneo.getNombre()),
+                                      normalizar(torneo.getLugar()), idDeporte, torneo.getFechaComienzo());
+        // El torneo puede llegar con un deporte que sólo trae el ID: si no se conoce, se carga
+        String textoDeporte = null;
+        if (idDeporte != null && !conoceDeporte(idDeporte)) {
+            textoDeporte = deporteRepository.findById(idDeporte)
+                .map(d -> normalizar(d.getDeporte())).orElse(null);
+        }
+        String textoDeporteFinal = textoDeporte;
+
+        alConfirmar(() -> {
+            if (textoDeporteFinal != null) {
+                deportes.put(idDeporte, textoDeporteFinal);
+            }
+            quitar(doc.idTorneo());
+            anadir(doc);
+        });
+    }
+
+    /**
+     * Elimina un torneo del índice.
+     */
+    public void eliminar(Long idTorneo) {
+        alConfirmar(() -> quitar(idTorneo));
+    }
+
+    /**
+     * Registra un deporte nuevo o renombrado.
+     */
+    public void actualizarDeporte(Deporte deporte) {
+        Long idDeporte = deporte.getIdDeporte();
+        String texto = normalizar(deporte.getDeporte());
+        alConfirmar(() -> deportes.put(idDeporte, texto));
+    }
+
+    /**
+     * Elimina un deporte y sus torneos (se borran en cascada en la base de datos).
+     */
+    public void eliminarDeporte(Long idDeporte) {
+        alConfirmar(() -> {
+            deportes.remove(idDeporte);
+            for (Long idTorneo : new ArrayList<>(torneosPorDeporte.getOrDefault(idDeporte, Set.of()))) {
+                quitar(idTorneo);
+            }
+            torneosPorDeporte.remove(idDeporte);
+        });
+    }
+
+    private boolean conoceDeporte(Long idDeporte) {
+        lock.readLock().lock();
+        try {
+            return deportes.containsKey(idDeporte);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Estructuras internas (llamar con el lock de escritura) ---
+
+    private void anadir(Documento doc) {
+        documentos.put(doc.idTorneo(), doc);
+        for (String gram : gramas(doc.nombre())) {
+            gramasNombre.computeIfAbsent(gram, g -> new HashSet<>()).add(doc.idTorneo());
+        }
+        for (String gram : gramas(doc.lugar())) {
+            gramasLugar.computeIfAbsent(gram, g -> new HashSet<>()).add(doc.idTorneo());
+        }
+        if (doc.idDeporte() != null) {
+            torneosPorDeporte.computeIfAbsent(doc.idDeporte(), d -> new HashSet<>()).add(doc.idTorneo());
+        }
+    }
+
+    private void quitar(Long idTorneo) {
+        Documento doc = documentos.remove(idTorneo);
+        if (doc == null) {
+            return;
+        }
+        for (String gram : gramas(doc.nombre())) {
+            quitarDe(gramasNombre, gram, idTorneo);
+        }
+        for (String gram : gramas(doc.lugar())) {
+            quitarDe(gramasLugar, gram, idTorneo);
+        }
+        if (doc.idDeporte() != null) {
+            quitarDe(torneosPorDeporte, doc.idDeporte(), idTorneo);
+        }
+    }
+
+    private static <K> void quitarDe(Map<K, Set<Long>> indice, K clave, Long idTorneo) {
+        Set<Long> ids = indice.get(clave);
+        if (ids != null) {
+            ids.remove(idTorneo);
+            if (ids.isEmpty()) {
+                indice.remove(clave);
+            }
+        }
+    }
+
+    // --- Consulta ---
+
+    private Set<Long> candidatos(Map<String, Set<Long>> indice, String q,
+                                 Function<Documento, String> campo) {
+        if (q.length() <= N) {
+            // Todos los n-gramas de hasta N caracteres están indexados: la respuesta es exacta
+            return indice.getOrDefault(q, Set.of());
+        }
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String gram : gramasDeLongitud(q, N)) {
+            Set<Long> ids = indice.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+        Set<Long> resultado = new HashSet<>();
+        for (Long id : listas.get(0)) {
+            boolean enTodas = true;
+            for (int i = 1; i < listas.size() && enTodas; i++) {
+                enTodas = listas.get(i).contains(id);
+            }
+            if (enTodas && campo.apply(documentos.get(id)).contains(q)) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+
+    private static Set<Long> intersecar(Set<Long> acumulado, Set<Long> nuevos) {
+        if (acumulado == null) {
+            return nuevos;
+        }
+        Set<Long> menor = acumulado.size() <= nuevos.size() ? acumulado : nuevos;
+        Set<Long> mayor = menor == acumulado ? nuevos : acumulado;
+        Set<Long> resultado = new HashSet<>();
+        for (Long id : menor) {
+            if (mayor.contains(id)) {
+                resultado.add(id);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Relevancia de un campo para una consulta: coincidencia exacta, prefijo,
+     * inicio de palabra o subcadena.
+     */
+    private static int relevancia(String texto, String q) {
+        if (q.isEmpty()) return 0;
+        if (texto.equals(q)) return 4;
+        if (texto.startsWith(q)) return 3;
+        if (texto.contains(" " + q)) return 2;
+        return 1;
+    }
+
+    // --- Texto ---
+
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT).trim();
+    }
+
+    private static Set<String> gramas(String texto) {
+        Set<String> resultado = new HashSet<>();
+        for (int n = 1; n <= N; n++) {
+            resultado.addAll(gramasDeLongitud(texto, n));
+        }
+        return resultado;
+    }
+
+    private static Set<String> gramasDeLongitud(String texto, int n) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + n <= texto.length(); i++) {
+            resultado.add(texto.substring(i, i + n));
+        }
+        return resultado;
+    }
+
+    /**
+     * Aplica un cambio con el lock de escritura al confirmarse la transacción en curso (o ya, si no
+     * hay ninguna). Si se está reconstruyendo el índice, lo guarda para repetirlo al terminar.
+     */
+    private void alConfirmar(Runnable cambio) {
+        Runnable aplicar = () -> {
+            lock.writeLock().lock();
+            try {
+                cambio.run();
+                if (pendientes != null) {
+                    pendientes.add(cambio);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar.run();
+                }
+            });
+        } else {
+            aplicar.run();
+        }
+    }
+}
@@ -14,6 +14,7 @@ import com.torneados.web.exceptions.UnauthorizedException;
 import com.torneados.web.exceptions.AccessDeniedException;
 import com.torneados.web.repositories.EquipoRepository;
 import com.torneados.web.repositories.JugadorRepository;
+import com.torneados.web.security.UsuarioPrincipal;
 
 @Service
 public class JugadorService {
@@ -21,11 +22,15 @@ public class JugadorService {
     private final JugadorRepository jugadorRepository;
     private final EquipoRepository equipoRepository;
     private final AuthService authService;
+    private final RankingJugadoresService rankingJugadoresService;
+    private final VersionesRecursos versionesRecursos;
     
-    public JugadorService(JugadorRepository jugadorRepository, EquipoRepository equipoRepository, AuthService authService) {
+    public JugadorService(JugadorRepository jugadorRepository, EquipoRepository equipoRepository, AuthService authService, RankingJugadoresService rankingJugadoresService, VersionesRecursos versionesRecursos) {
         this.jugadorRepository = jugadorRepository;
         this.equipoRepository = equipoRepository;
         this.authService = authService;
+        this.rankingJugadoresService = rankingJugadoresService;
+        this.versionesRecursos = versionesRecursos;
     }
     
     /**
@@ -61,8 +66,8 @@ public class JugadorService {
      * @return Lista de jugadores.
      */
     public List<Jugador> getJugadoresByEquipo(Long idEquipo) {
-        // Verificar autenticación
-        Usuario currentUser = authService.getAuthenticatedUser();
+        // Verificar autenticación (sin consultar el usuario: basta con el ID y el rol del token)
+        UsuarioPrincipal currentUser = authService.getPrincipal();
         if (currentUser == null) {
             throw new UnauthorizedException("Falta autenticación");
         }
@@ -72,8 +77,7 @@ public class JugadorService {
                 .orElseThrow(() -> new ResourceNotFoundException("Equipo no encontrado"));
         
         // Verificar permisos: solo el creador o un administrador pueden ver los jugadores de un equipo
-        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR)
-                && !equipo.getCreador().getIdUsuario().equals(currentUser.getIdUsuario())) {
+        if (!currentUser.puedeGestionar(equipo.getCreador())) {
             throw new AccessDeniedException("Sin permisos para ver los jugadores de este equipo");
         }
         
@@ -89,7 +93,7 @@ public class JugadorService {
      */
     public Jugador getJugadorById(Long id) {
         // Verificar autenticación
-        Usuario currentUser = authService.getAuthenticatedUser();
+        UsuarioPrincipal currentUser = authService.getPrincipal();
         if (currentUser == null) {
             throw new UnauthorizedException("Falta autenticación");
         }
@@ -144,6 +148,9 @@ public class JugadorService {
             jugador.setFechaNacimiento(jugadorActualizado.getFechaNacimiento());
         }
         
+        // El nombre aparece en los rankings guardados de cualquier torneo
+        rankingJugadoresService.invalidarTodo();
+        versionesRecursos.marcarCambioGeneral();
         return jugadorRepository.save(jugador);
     }
     
@@ -176,5 +183,7 @@ public class JugadorService {
         }
 
         jugadorRepository.delete(jugador);
+        rankingJugadoresService.invalidarTodo();
+        versionesRecursos.marcarCambioGeneral();
     }
 }
@@ -3,7 +3,9 @@ package com.torneados.web.service;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.torneados.web.dto.EventosEnVivoDTO;
 import com.torneados.web.entities.Equipo;
 import com.torneados.web.entities.Partido;
 import com.torneados.web.entities.PartidoEquipos;
@@ -21,12 +23,20 @@ public class PartidoEquiposService {
     private final PartidoRepository partidoRepository;
     private final EquipoRepository equipoRepository;
     private final AuthService authService;
+    private final TorneoEquiposService torneoEquiposService;
+    private final ReintentosConcurrencia reintentos;
+    private final EventosEnVivoService eventosEnVivoService;
+    private final VersionesRecursos versionesRecursos;
 
-    public PartidoEquiposService(PartidoEquiposRepository partidoEquiposRepository, PartidoRepository partidoRepository, EquipoRepository equipoRepository, AuthService authService) {
+    public PartidoEquiposService(PartidoEquiposRepository partidoEquiposRepository, PartidoRepository partidoRepository, EquipoRepository equipoRepository, AuthService authService, TorneoEquiposService torneoEquiposService, ReintentosConcurrencia reintentos, EventosEnVivoService eventosEnVivoService, VersionesRecursos versionesRecursos) {
         this.partidoEquiposRepository = partidoEquiposRepository;
         this.partidoRepository = partidoRepository;
         this.equipoRepository = equipoRepository;
         this.authService = authService;
+        this.torneoEquiposService = torneoEquiposService;
+        this.reintentos = reintentos;
+        this.eventosEnVivoService = eventosEnVivoService;
+        this.versionesRecursos = versionesRecursos;
     }
 
     /**
@@ -67,9 +77,12 @@ public class PartidoEquiposService {
         partidoEquiposId.setNumSet(numSet);
         PartidoEquipos partidoEquipos = new PartidoEquipos();
         partidoEquipos.setId(partidoEquiposId);
-        partidoEquipos.setPuntos(0);
+        // Sin marcador hasta que se anote: el set no cuenta en la clasificación hasta entonces
+        partidoEquipos.setPuntos(null);
         partidoEquipos.setEsLocal(esLocal);
-        return partidoEquiposRepository.save(partidoEquipos);
+        PartidoEquipos guardado = partidoEquiposRepository.save(partidoEquipos);
+        versionesRecursos.marcarCambioTorneo(partido.getTorneo().getIdTorneo());
+        return guardado;
     }
 
     /**
@@ -93,7 +106,10 @@ public class PartidoEquiposService {
     }
 
     /**
-     * Actualiza las estadisticas de un equipo en un partido
+     * Actualiza las estadisticas de un equipo en un partido y, en la misma transacción,
+     * aplica la diferencia de marcador a la clasificación de ambos equipos en el torneo.
+     * Si otro anotador cambia a la vez este marcador o el del rival, la transacción se repite
+     * con los valores nuevos (ver {@link ReintentosConcurrencia}).
      * 
      * @param idPartido ID del partido
      * @param idEquipo ID del equipo
@@ -104,7 +120,6 @@ public class PartidoEquiposService {
      * @throws BadRequestException Si los datos del partido son inválidos
      * @throws ResourceNotFoundException Si el partido o el equipo no existen
      * @throws AccessDeniedException Si el usuario no tiene permiso para crear el partido
-     * 
      */
     public PartidoEquipos updatePartidoEquipos(
     Long idPartido,
@@ -112,10 +127,32 @@ public class PartidoEquiposService {
     Integer numSet,
     PartidoEquipos partidoEquiposActualizado
     ) {
-        // … autenticación y validaciones como antes …
+        return reintentos.ejecutar(() ->
+            actualizarMarcador(idPartido, idEquipo, numSet, partidoEquiposActualizado));
+    }
 
+    private PartidoEquipos actualizarMarcador(
+    Long idPartido,
+    Long idEquipo,
+    Integer numSet,
+    PartidoEquipos partidoEquiposActualizado
+    ) {
+        // Verificar autenticación
+        Usuario currentUser = authService.getAuthenticatedUser();
+        if (currentUser == null) {
+            throw new UnauthorizedException("Falta autenticación");
+        }
+
+        // Validar que el partido existe, que el usuario tiene permiso y que el partido sigue abierto
         Partido partido = partidoRepository.findById(idPartido)
             .orElseThrow(() -> new ResourceNotFoundException("Partido no encontrado."));
+        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR) 
+            && !partido.getTorneo().getCreador().equals(currentUser)) {
+            throw new AccessDeniedException("No tienes permiso para actualizar estadisticas de este partido.");
+        }
+        if (partido.isFinalizado()) {
+            throw new BadRequestException("El partido " + idPartido + " ya está finalizado.");
+        }
         Equipo equipo = equipoRepository.findById(idEquipo)
             .orElseThrow(() -> new ResourceNotFoundException("Equipo no encontrado."));
 
@@ -130,14 +167,59 @@ public class PartidoEquiposService {
             .orElseThrow(() -> new ResourceNotFoundException(
                 "Estadísticas no encontradas para el set " + numSet));
 
-        // Actualizo sólo lo que interesa (puntos, jugado, tarjetas…)
+        if (partidoEquiposActualizado.getPuntos() == null || partidoEquiposActualizado.getPuntos() < 0) {
+            throw new BadRequestException("Los puntos deben ser un valor no negativo.");
+        }
+
+        // Actualizo el marcador; el set cuenta en la clasificación en cuanto ambos equipos tienen puntos
+        Integer puntosAntes = existing.getPuntos();
         existing.setPuntos(partidoEquiposActualizado.getPuntos());
-        // si tienes más campos: existing.setJugado(…); etc.
+        PartidoEquipos guardado = partidoEquiposRepository.save(existing);
 
-        return partidoEquiposRepository.save(existing);
+        // Aplico la diferencia de marcador a la clasificación de ambos equipos. findRivales sube la
+        // versión del rival: si otro anotador cambia su marcador a la vez, una de las dos transacciones
+        // falla y se repite, en lugar de calcular ambas la diferencia sobre el marcador anterior
+        Long idTorneo = partido.getTorneo().getIdTorneo();
+        for (PartidoEquipos rival : partidoEquiposRepository.findRivales(idPartido, idEquipo, numSet)) {
+            torneoEquiposService.aplicarCambioMarcador(
+                idTorneo, idEquipo, rival.getId().getEquipo().getIdEquipo(),
+                puntosAntes, rival.getPuntos(),
+                guardado.getPuntos(), rival.getPuntos()
+            );
+        }
+
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+        eventosEnVivoService.publicarMarcador(idTorneo,
+            new EventosEnVivoDTO.Marcador(idPartido, idEquipo, numSet, guardado.getPuntos()));
+        return guardado;
     }
 
 
+    /**
+     * Resta de la clasificación del torneo todos los resultados de un partido.
+     * Se usa antes de borrar el partido completo.
+     *
+     * @param partido Partido cuyos resultados dejan de contar
+     */
+    @Transactional
+    public void descontarDeClasificacion(Partido partido) {
+        List<PartidoEquipos> registros = partidoEquiposRepository.findByIdPartidoIdPartido(partido.getIdPartido());
+        for (PartidoEquipos a : registros) {
+            for (PartidoEquipos b : registros) {
+                Long idA = a.getId().getEquipo().getIdEquipo();
+                Long idB = b.getId().getEquipo().getIdEquipo();
+                // Cada pareja del mismo set una sola vez: aplicarCambioMarcador ya actualiza a ambos equipos
+                if (a.getId().getNumSet() == b.getId().getNumSet() && idA < idB) {
+                    torneoEquiposService.aplicarCambioMarcador(
+                        partido.getTorneo().getIdTorneo(), idA, idB,
+                        a.getPuntos(), b.getPuntos(),
+                        null, null
+                    );
+                }
+            }
+        }
+    }
+
     /**
      * Elimina las estadisticas de un equipo en un partido
      * 
@@ -150,6 +232,7 @@ public class PartidoEquiposService {
      * @throws AccessDeniedException Si el usuario no tiene permiso para crear el partido
      * 
      */
+    @Transactional
     public void deletePartidoEquipos(Long idPartido, Long idEquipo) {
         // Verificar autenticación
         Usuario currentUser = authService.getAuthenticatedUser();
@@ -165,14 +248,26 @@ public class PartidoEquiposService {
             throw new AccessDeniedException("No tienes permiso para borrar estadisticas de este partido.");
         }
 
-        // Obtener la relación entre el partido y el equipo
-        PartidoEquiposId partidoEquiposId = new PartidoEquiposId();
-        partidoEquiposId.setPartido(partido);
-        partidoEquiposId.setEquipo(equipoRepository.findById(idEquipo)
-                .orElseThrow(() -> new ResourceNotFoundException("Equipo no encontrado.")));
-        
+        Equipo equipo = equipoRepository.findById(idEquipo)
+                .orElseThrow(() -> new ResourceNotFoundException("Equipo no encontrado."));
+
+        // Quitar de la clasificación la aportación de cada set del equipo antes de borrarlo
+        List<PartidoEquipos> sets = partidoEquiposRepository.findByIdPartidoIdPartido(idPartido).stream()
+                .filter(pe -> pe.getId().getEquipo().getIdEquipo().equals(equipo.getIdEquipo()))
+                .toList();
+        for (PartidoEquipos borrado : sets) {
+            for (PartidoEquipos rival : partidoEquiposRepository.findRivales(idPartido, idEquipo, borrado.getId().getNumSet())) {
+                torneoEquiposService.aplicarCambioMarcador(
+                    partido.getTorneo().getIdTorneo(), idEquipo, rival.getId().getEquipo().getIdEquipo(),
+                    borrado.getPuntos(), rival.getPuntos(),
+                    null, null
+                );
+            }
+        }
+
         // Eliminar las estadisticas del equipo en el partido
-        partidoEquiposRepository.deleteById(partidoEquiposId);
+        partidoEquiposRepository.deleteAll(sets);
+        versionesRecursos.marcarCambioTorneo(partido.getTorneo().getIdTorneo());
     }
     
 
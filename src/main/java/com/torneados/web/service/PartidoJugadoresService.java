@@ -3,13 +3,16 @@ package com.torneados.web.service;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.torneados.web.dto.EventosEnVivoDTO;
 import com.torneados.web.entities.Jugador;
 import com.torneados.web.entities.Partido;
 import com.torneados.web.entities.PartidoJugadores;
 import com.torneados.web.entities.Usuario;
 import com.torneados.web.entities.ids.PartidoJugadoresId;
 import com.torneados.web.exceptions.AccessDeniedException;
+import com.torneados.web.exceptions.BadRequestException;
 import com.torneados.web.exceptions.ResourceNotFoundException;
 import com.torneados.web.exceptions.UnauthorizedException;
 import com.torneados.web.repositories.JugadorRepository;
@@ -23,12 +26,20 @@ public class PartidoJugadoresService {
     private final PartidoRepository partidoRepository;
     private final JugadorRepository jugadorRepository;
     private final AuthService authService;
+    private final TorneoJugadoresService torneoJugadoresService;
+    private final ReintentosConcurrencia reintentos;
+    private final EventosEnVivoService eventosEnVivoService;
+    private final VersionesRecursos versionesRecursos;
 
-    public PartidoJugadoresService(PartidoJugadoresRepository partidoJugadoresRepository, PartidoRepository partidoRepository, JugadorRepository jugadorRepository, AuthService authService) {
+    public PartidoJugadoresService(PartidoJugadoresRepository partidoJugadoresRepository, PartidoRepository partidoRepository, JugadorRepository jugadorRepository, AuthService authService, TorneoJugadoresService torneoJugadoresService, ReintentosConcurrencia reintentos, EventosEnVivoService eventosEnVivoService, VersionesRecursos versionesRecursos) {
         this.partidoJugadoresRepository = partidoJugadoresRepository;
         this.partidoRepository = partidoRepository;
         this.jugadorRepository = jugadorRepository;
         this.authService = authService;
+        this.torneoJugadoresService = torneoJugadoresService;
+        this.reintentos = reintentos;
+        this.eventosEnVivoService = eventosEnVivoService;
+        this.versionesRecursos = versionesRecursos;
     }
 
     /**
@@ -71,7 +82,9 @@ public class PartidoJugadoresService {
         partidoJugadoresId.setNumSet(numSet); 
         PartidoJugadores partidoJugadores = new PartidoJugadores();
         partidoJugadores.setId(partidoJugadoresId);
-        return partidoJugadoresRepository.save(partidoJugadores);
+        PartidoJugadores guardado = partidoJugadoresRepository.save(partidoJugadores);
+        versionesRecursos.marcarCambioTorneo(partido.getTorneo().getIdTorneo());
+        return guardado;
     }
 
     /**
@@ -91,7 +104,9 @@ public class PartidoJugadoresService {
     }
 
     /**
-     * Actualiza las estadisticas de un jugador en un partido
+     * Actualiza las estadisticas de un jugador en un set de un partido y, en la misma transacción,
+     * aplica la diferencia a sus estadisticas en el torneo. Si choca con otra escritura
+     * concurrente (interbloqueo o espera agotada), se repite desde el principio
      * 
      * @param idPartido ID del partido
      * @param idJugador ID del jugador
@@ -105,6 +120,10 @@ public class PartidoJugadoresService {
      * @throws UnauthorizedException Si el usuario no está autenticado 
      */
     public PartidoJugadores updatePartidoJugadores(Long idPartido, Long idJugador, PartidoJugadores partidoJugadores) {
+        return reintentos.ejecutar(() -> actualizarEstadisticas(idPartido, idJugador, partidoJugadores));
+    }
+
+    private PartidoJugadores actualizarEstadisticas(Long idPartido, Long idJugador, PartidoJugadores partidoJugadores) {
         // Verificar autenticación
         Usuario currentUser = authService.getAuthenticatedUser();
         if (currentUser == null) {
@@ -120,22 +139,42 @@ public class PartidoJugadoresService {
         }
 
         // Validar que el jugador existe
-        Jugador jugador = jugadorRepository.findById(idJugador)
+        jugadorRepository.findById(idJugador)
                 .orElseThrow(() -> new ResourceNotFoundException("Jugador no encontrado."));
+        if (partidoJugadores.getPuntos() < 0 || partidoJugadores.getTarjetasAmarillas() < 0
+            || partidoJugadores.getTarjetasRojas() < 0) {
+            throw new BadRequestException("Las estadisticas no pueden ser negativas.");
+        }
 
-        // Actualizar la estadistica del jugador en el partido
-        PartidoJugadoresId partidoJugadoresId = new PartidoJugadoresId();
-        partidoJugadoresId.setPartido(partido);
-        partidoJugadoresId.setJugador(jugador);
-        partidoJugadoresId.setNumSet(partidoJugadores.getId().getNumSet()); // Asignar el set correspondiente
-        partidoJugadoresRepository.findById(partidoJugadoresId)
+        // Bloquear todos los sets del jugador en el partido: la diferencia se calcula sobre ellos
+        int numSet = partidoJugadores.getId() != null ? partidoJugadores.getId().getNumSet() : 1;
+        List<PartidoJugadores> sets = partidoJugadoresRepository.bloquearSets(idPartido, idJugador);
+        PartidoJugadores existente = sets.stream()
+                .filter(s -> s.getId().getNumSet() == numSet)
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Estadisticas del jugador no encontradas."));
-        
-        return partidoJugadoresRepository.save(partidoJugadores);
+        List<PartidoJugadores> antes = sets.stream().map(PartidoJugadoresService::copia).toList();
+
+        // Actualizar la estadistica del jugador en el set
+        existente.setJugado(partidoJugadores.isJugado());
+        existente.setPuntos(partidoJugadores.getPuntos());
+        existente.setTarjetasAmarillas(partidoJugadores.getTarjetasAmarillas());
+        existente.setTarjetasRojas(partidoJugadores.getTarjetasRojas());
+        PartidoJugadores guardado = partidoJugadoresRepository.save(existente);
+
+        // Aplicar la diferencia a las estadisticas del jugador en el torneo
+        torneoJugadoresService.aplicarCambioEstadisticas(
+            partido.getTorneo().getIdTorneo(), idJugador, antes, sets);
+        versionesRecursos.marcarCambioTorneo(partido.getTorneo().getIdTorneo());
+        eventosEnVivoService.publicarEstadisticas(partido.getTorneo().getIdTorneo(),
+            new EventosEnVivoDTO.EstadisticasJugador(idPartido, idJugador, numSet, guardado.isJugado(),
+                guardado.getPuntos(), guardado.getTarjetasAmarillas(), guardado.getTarjetasRojas()));
+        return guardado;
     }
 
     /**
-     * Elimina las estadisticas de un jugador en un partido
+     * Elimina las estadisticas de un jugador en todos los sets de un partido
+     * y descuenta su aportación de las estadisticas del torneo
      * 
      * @param idPartido ID del partido
      * @param idJugador ID del jugador
@@ -145,6 +184,7 @@ public class PartidoJugadoresService {
      * @throws BadRequestException Si los datos del partido son inválidos
      * @throws UnauthorizedException Si el usuario no está autenticado 
      */
+    @Transactional
     public void deletePartidoJugadores(Long idPartido, Long idJugador) {
         // Verificar autenticación
         Usuario currentUser = authService.getAuthenticatedUser();
@@ -161,13 +201,25 @@ public class PartidoJugadoresService {
         }
 
         // Validar que el jugador existe
-        Jugador jugador = jugadorRepository.findById(idJugador)
+        jugadorRepository.findById(idJugador)
                 .orElseThrow(() -> new ResourceNotFoundException("Jugador no encontrado."));
 
-        // Eliminar la estadistica del jugador en el partido
-        PartidoJugadoresId partidoJugadoresId = new PartidoJugadoresId();
-        partidoJugadoresId.setPartido(partido);
-        partidoJugadoresId.setJugador(jugador);
-        partidoJugadoresRepository.deleteById(partidoJugadoresId);
+        // Eliminar todos sus sets con un DELETE y quitar su aportación de las estadisticas del torneo.
+        // El borrado va antes porque la actualización de totales vacía el contexto de persistencia
+        // y deleteAll sobre entidades separadas haría una consulta y un merge por set
+        List<PartidoJugadores> sets = partidoJugadoresRepository.bloquearSets(idPartido, idJugador);
+        partidoJugadoresRepository.deleteSets(idPartido, idJugador);
+        torneoJugadoresService.aplicarCambioEstadisticas(
+            partido.getTorneo().getIdTorneo(), idJugador, sets, List.of());
+        versionesRecursos.marcarCambioTorneo(partido.getTorneo().getIdTorneo());
+    }
+
+    private static PartidoJugadores copia(PartidoJugadores original) {
+        PartidoJugadores copia = new PartidoJugadores();
+        copia.setJugado(original.isJugado());
+        copia.setPuntos(original.getPuntos());
+        copia.setTarjetasAmarillas(original.getTarjetasAmarillas());
+        copia.setTarjetasRojas(original.getTarjetasRojas());
+        return copia;
     }
 }
@@ -1,14 +1,24 @@
 package com.torneados.web.service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import org.springframework.stereotype.Service; 
 import org.springframework.transaction.annotation.Transactional;
 
+import com.torneados.web.dto.CalendarioDTO;
+import com.torneados.web.dto.PartidoResumenDTO;
 import com.torneados.web.entities.Partido;
 import com.torneados.web.entities.Torneo;
 import com.torneados.web.entities.TorneoEquipos;
@@ -18,6 +28,9 @@ import com.torneados.web.exceptions.UnauthorizedException;
 import com.torneados.web.exceptions.AccessDeniedException;
 import com.torneados.web.exceptions.BadRequestException;
 import com.torneados.web.repositories.JugadorRepository;
+import com.torneados.web.repositories.PartidoBatchRepository;
+import com.torneados.web.repositories.PartidoBatchRepository.PartidoPlan;
+import com.torneados.web.repositories.PartidoEquiposRepository;
 import com.torneados.web.repositories.PartidoRepository; import com.torneados.web.repositories.TorneoRepository;
 
 @Service 
@@ -26,24 +39,33 @@ public class PartidoService {
     private final TorneoRepository torneoRepository;
     private final PartidoEquiposService partidoEquiposService;
     private final JugadorRepository jugadorRepository;
-    private final PartidoJugadoresService partidoJugadoresService;
     private final TorneoEquiposService torneoEquiposService;
     private final AuthService authService;
+    private final PartidoBatchRepository partidoBatchRepository;
+    private final PartidoEquiposRepository partidoEquiposRepository;
+    private final EjecutorSorteos ejecutorSorteos;
+    private final VersionesRecursos versionesRecursos;
 
     public PartidoService(PartidoRepository partidoRepository, 
                         TorneoRepository torneoRepository,
                         PartidoEquiposService partidoEquiposService, 
                         JugadorRepository jugadorRepository,
-                        PartidoJugadoresService partidoJugadoresService ,
                         TorneoEquiposService torneoEquiposService,
-                        AuthService authService) {
+                        AuthService authService,
+                        PartidoBatchRepository partidoBatchRepository,
+                        PartidoEquiposRepository partidoEquiposRepository,
+                        EjecutorSorteos ejecutorSorteos,
+                        VersionesRecursos versionesRecursos) {
         this.partidoRepository = partidoRepository;
         this.torneoRepository = torneoRepository;
         this.partidoEquiposService = partidoEquiposService;
         this.jugadorRepository = jugadorRepository;
-        this.partidoJugadoresService = partidoJugadoresService;
         this.torneoEquiposService = torneoEquiposService;
         this.authService = authService;
+        this.partidoBatchRepository = partidoBatchRepository;
+        this.partidoEquiposRepository = partidoEquiposRepository;
+        this.ejecutorSorteos = ejecutorSorteos;
+        this.versionesRecursos = versionesRecursos;
     }
 
     /**
@@ -66,7 +88,9 @@ public class PartidoService {
         Partido partido = new Partido();
         partido.setTorneo(torneo);
         
-        return partidoRepository.save(partido);
+        Partido guardado = partidoRepository.save(partido);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+        return guardado;
     }
 
 
@@ -85,6 +109,49 @@ public class PartidoService {
         return partidoRepository.findByTorneoIdTorneo(torneo.getIdTorneo());
     }
 
+    /**
+     * Obtiene los partidos de un torneo para los listados, con equipos y marcadores,
+     * en una única consulta y sin serializar entidades.
+     *
+     * @param idTorneo ID del torneo.
+     * @return Lista de partidos en orden de creación.
+     * @throws ResourceNotFoundException Si el torneo no existe.
+     */
+    public List<PartidoResumenDTO> getResumenPartidos(Long idTorneo) {
+        List<Object[]> filas = partidoRepository.findResumenesByTorneo(idTorneo);
+        if (filas.isEmpty() && !torneoRepository.existsById(idTorneo)) {
+            throw new ResourceNotFoundException("Torneo no encontrado");
+        }
+
+        Map<Long, PartidoResumenDTO> partidos = new LinkedHashMap<>();
+        for (Object[] fila : filas) {
+            PartidoResumenDTO dto = partidos.computeIfAbsent((Long) fila[0], id -> {
+                PartidoResumenDTO nuevo = new PartidoResumenDTO();
+                nuevo.setIdPartido(id);
+                nuevo.setFechaComienzo((LocalDateTime) fila[1]);
+                nuevo.setJornada((Integer) fila[2]);
+                nuevo.setRonda((Integer) fila[3]);
+                return nuevo;
+            });
+            if (fila[7] == null) {
+                continue; // Partido sin equipos asignados
+            }
+            // Las filas llegan ordenadas por set, así que los puntos quedan en orden
+            if ((Boolean) fila[5]) {
+                dto.setIdEquipoLocal((Long) fila[7]);
+                dto.setNombreLocal((String) fila[8]);
+                dto.setLogoLocal((String) fila[9]);
+                dto.getPuntosLocal().add((Integer) fila[6]);
+            } else {
+                dto.setIdEquipoVisitante((Long) fila[7]);
+                dto.setNombreVisitante((String) fila[8]);
+                dto.setLogoVisitante((String) fila[9]);
+                dto.getPuntosVisitante().add((Integer) fila[6]);
+            }
+        }
+        return new ArrayList<>(partidos.values());
+    }
+
     /**
      * Obtiene un partido por su ID.
      *
@@ -134,6 +201,153 @@ public class PartidoService {
         partidoExistente.setFechaComienzo(partidoActualizado.getFechaComienzo());
         
         partidoRepository.save(partidoExistente);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+    }
+
+    /**
+     * Programa automáticamente todos los partidos pendientes (sin ningún marcador anotado) de un
+     * torneo entre su fecha de comienzo y su fecha de fin (ver {@link PlanificadorCalendario}) y guarda las fechas en lote.
+     *
+     * @param idTorneo   ID del torneo.
+     * @param parametros Campos, franja horaria, duración de los partidos y descanso mínimo.
+     * @return Partidos del torneo con sus nuevas fechas.
+     * @throws BadRequestException Si los parámetros no son válidos o no hay huecos suficientes.
+     * @throws UnauthorizedException Si no hay usuario autenticado.
+     * @throws ResourceNotFoundException Si el torneo no existe.
+     * @throws AccessDeniedException Si el usuario no tiene permisos sobre el torneo.
+     */
+    @Transactional
+    public List<PartidoResumenDTO> programarCalendario(Long idTorneo, CalendarioDTO parametros) {
+        Usuario currentUser = authService.getAuthenticatedUser();
+        if (currentUser == null) {
+            throw new UnauthorizedException("Falta autenticación");
+        }
+        Torneo torneo = torneoRepository.findById(idTorneo)
+                .orElseThrow(() -> new ResourceNotFoundException("Torneo no encontrado"));
+        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR) &&
+            !torneo.getCreador().getIdUsuario().equals(currentUser.getIdUsuario())) {
+            throw new AccessDeniedException("No tienes permisos para programar los partidos de este torneo.");
+        }
+
+        // Una fila por equipo del primer set; se agrupan por partido
+        Map<Long, Long[]> equiposPorPartido = new LinkedHashMap<>();
+        Map<Long, Object[]> fasePorPartido = new HashMap<>();
+        for (Object[] fila : partidoRepository.findPendientesParaCalendario(idTorneo)) {
+            Long idPartido = (Long) fila[0];
+            fasePorPartido.putIfAbsent(idPartido, fila);
+            Long[] equipos = equiposPorPartido.computeIfAbsent(idPartido, k -> new Long[2]);
+            if (fila[4] != null) {
+                equipos[Boolean.TRUE.equals(fila[3]) ? 0 : 1] = (Long) fila[4];
+            }
+        }
+
+        List<PlanificadorCalendario.PartidoACalendarizar> pendientes = new ArrayList<>(equiposPorPartido.size());
+        for (Map.Entry<Long, Long[]> entrada : equiposPorPartido.entrySet()) {
+            Object[] fase = fasePorPartido.get(entrada.getKey());
+            pendientes.add(new PlanificadorCalendario.PartidoACalendarizar(
+                entrada.getKey(), (Integer) fase[1], (Integer) fase[2], entrada.getValue()[0], entrada.getValue()[1]));
+        }
+
+        PlanificadorCalendario planificador = new PlanificadorCalendario(
+            torneo.getFechaComienzo(),
+            torneo.getFechaFin().toLocalDate(),
+            parametros.getHoraInicio(),
+            parametros.getHoraFin(),
+            Duration.ofMinutes(parametros.getDuracionMinutos()),
+            parametros.getCampos(),
+            Duration.ofMinutes(parametros.getDescansoMinutos()));
+        partidoBatchRepository.asignarFechas(planificador.planificar(pendientes));
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+
+        return getResumenPartidos(idTorneo);
+    }
+
+    /**
+     * Finaliza un partido de eliminatoria: el ganador pasa a su hueco del partido siguiente
+     * (con su plantilla) y el perdedor queda eliminado del torneo, en la misma transacción.
+     * Gana el equipo que se lleva más sets; si empatan a sets, el que suma más puntos.
+     *
+     * @param id       ID del partido a finalizar.
+     * @param idTorneo ID del torneo al que pertenece.
+     * @return El partido finalizado.
+     * @throws BadRequestException Si no es de eliminatoria, ya está finalizado, no tiene dos equipos o está empatado.
+     * @throws UnauthorizedException Si no hay usuario autenticado.
+     * @throws ResourceNotFoundException Si el partido no existe.
+     * @throws AccessDeniedException Si el usuario no tiene permisos para modificarlo.
+     */
+    @Transactional
+    public Partido finalizarPartido(Long id, Long idTorneo) {
+        // Verificar autenticación
+        Usuario currentUser = authService.getAuthenticatedUser();
+        if (currentUser == null) {
+            throw new UnauthorizedException("Falta autenticación");
+        }
+
+        // Bloqueado hasta el final: una segunda finalización espera y ya lo ve finalizado
+        Partido partido = partidoRepository.findByIdParaActualizar(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Partido no encontrado"));
+        if (!partido.getTorneo().getIdTorneo().equals(idTorneo)) {
+            throw new BadRequestException("El partido no pertenece al torneo especificado.");
+        }
+        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR) &&
+            !partido.getTorneo().getCreador().getIdUsuario().equals(currentUser.getIdUsuario())) {
+            throw new AccessDeniedException("No tienes permisos para modificar este partido.");
+        }
+        if (partido.getRonda() == null || partido.getRonda() < 1) {
+            throw new BadRequestException("Solo se pueden finalizar partidos de eliminatoria.");
+        }
+        if (partido.isFinalizado()) {
+            throw new BadRequestException("El partido ya está finalizado.");
+        }
+
+        Long[] ganadorYPerdedor = decidirGanador(id);
+
+        partido.setFinalizado(true);
+        partidoRepository.save(partido);
+        avanzarGanador(partido, ganadorYPerdedor[0]);
+        torneoEquiposService.marcarEliminado(idTorneo, ganadorYPerdedor[1]);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+        // marcarEliminado vacía el contexto de persistencia: el partido bloqueado queda desconectado y
+        // sin su torneo cargado, así que se devuelve uno nuevo que la respuesta pueda serializar
+        return getPartidoById(id);
+    }
+
+    /**
+     * Decide el ganador de un partido a partir de sus marcadores.
+     *
+     * @return [idGanador, idPerdedor]
+     */
+    private Long[] decidirGanador(Long idPartido) {
+        // Marcadores agrupados por set: idEquipo -> puntos
+        Map<Integer, Map<Long, Integer>> porSet = new HashMap<>();
+        Map<Long, int[]> totales = new LinkedHashMap<>(); // idEquipo -> [sets ganados, puntos]
+        for (Object[] fila : partidoEquiposRepository.findMarcadoresByPartido(idPartido)) {
+            Long idEquipo = (Long) fila[1];
+            int puntos = fila[2] != null ? (Integer) fila[2] : 0;
+            porSet.computeIfAbsent((Integer) fila[0], k -> new HashMap<>()).put(idEquipo, puntos);
+            totales.computeIfAbsent(idEquipo, k -> new int[2])[1] += puntos;
+        }
+        if (totales.size() != 2) {
+            throw new BadRequestException("El partido necesita dos equipos para finalizarse.");
+        }
+
+        List<Long> equipos = new ArrayList<>(totales.keySet());
+        Long a = equipos.get(0);
+        Long b = equipos.get(1);
+        for (Map<Long, Integer> set : porSet.values()) {
+            int puntosA = set.getOrDefault(a, 0);
+            int puntosB = set.getOrDefault(b, 0);
+            if (puntosA > puntosB) totales.get(a)[0]++;
+            else if (puntosB > puntosA) totales.get(b)[0]++;
+        }
+
+        int[] ta = totales.get(a);
+        int[] tb = totales.get(b);
+        int comparacion = ta[0] != tb[0] ? Integer.compare(ta[0], tb[0]) : Integer.compare(ta[1], tb[1]);
+        if (comparacion == 0) {
+            throw new BadRequestException("El partido está empatado: no se puede decidir el ganador.");
+        }
+        return comparacion > 0 ? new Long[] {a, b} : new Long[] {b, a};
     }
 
     /**
@@ -166,81 +380,227 @@ public class PartidoService {
             !partidoExistente.getTorneo().getCreador().getIdUsuario().equals(currentUser.getIdUsuario())) {
             throw new AccessDeniedException("No tienes permisos para eliminar este partido.");
         }
+
+        // Los resultados del partido dejan de contar en la clasificación
+        partidoEquiposService.descontarDeClasificacion(partidoExistente);
         
         // Eliminar el partido
         partidoRepository.delete(partidoExistente);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
     }
     
 
     /* METODOS AUXILIARES PARA HACER SORTEO DE UN TORNEO */
 
-    @Transactional
-    public void crearGrupos(Torneo torneo, List<TorneoEquipos> inscritos, boolean idaYVuelta) {
-        Collections.shuffle(inscritos);
-        int n = inscritos.size();
+    /**
+     * Sorteo planificado en memoria: grupo de cada equipo (vacío en eliminatoria) y partidos a crear,
+     * en orden. Lo guarda TrabajosSorteoService por tramos.
+     */
+    public record PlanSorteo(Map<Long, String> grupoPorEquipo, List<PartidoPlan> partidos) {}
+
+    /**
+     * Reparte los equipos en grupos y planifica la liguilla de cada grupo.
+     *
+     * El calendario de cada grupo se calcula en paralelo en {@link EjecutorSorteos}. Con la misma
+     * semilla en {@code azar} y los equipos en el mismo orden, el resultado es siempre el mismo.
+     */
+    public PlanSorteo planificarGrupos(List<TorneoEquipos> inscritos, boolean idaYVuelta, Random azar) {
+        List<TorneoEquipos> orden = new ArrayList<>(inscritos);
+        Collections.shuffle(orden, azar);
+        int n = orden.size();
         int numGrupos = calcularNumGrupos(n);
 
         // 1) asignar letra de grupo
+        Map<String, List<TorneoEquipos>> porGrupo = new LinkedHashMap<>();
+        Map<Long, String> grupoPorEquipo = new LinkedHashMap<>();
         for (int i = 0; i < n; i++) {
-            TorneoEquipos te = inscritos.get(i);
-            String letra = String.valueOf((char)('A' + (i % numGrupos)));
-            te.setGrupo(letra);
-            TorneoEquipos patch = new TorneoEquipos();
-            patch.setGrupo(letra);
-            torneoEquiposService.updateEquipoInTorneo(
-                torneo.getIdTorneo(),
-                te.getId().getEquipo().getIdEquipo(),
-                patch
-            );
-        }
-
-        // 2) round-robin por grupo con jornadas
-        Map<String, List<TorneoEquipos>> porGrupo =
-            inscritos.stream().collect(Collectors.groupingBy(TorneoEquipos::getGrupo));
+            String letra = letraGrupo(i % numGrupos);
+            porGrupo.computeIfAbsent(letra, g -> new ArrayList<>()).add(orden.get(i));
+            grupoPorEquipo.put(idEquipo(orden.get(i)), letra);
+        }
 
+        // 2) round-robin de cada grupo en paralelo, unido en una sola lista en orden de grupo
+        List<Supplier<List<PartidoPlan>>> tareas = new ArrayList<>(porGrupo.size());
         for (List<TorneoEquipos> grupo : porGrupo.values()) {
-            List<List<int[]>> jornadas = generarRoundRobin(grupo.size());
+            tareas.add(() -> {
+                List<PartidoPlan> planesGrupo = new ArrayList<>();
+                planificarRoundRobin(grupo, idaYVuelta, planesGrupo);
+                return planesGrupo;
+            });
+        }
+        List<PartidoPlan> planes = new ArrayList<>();
+        ejecutorSorteos.ejecutarTodas(tareas).forEach(planes::addAll);
+        return new PlanSorteo(grupoPorEquipo, planes);
+    }
 
-            for (int j = 0; j < jornadas.size(); j++) {
-                for (int[] par : jornadas.get(j)) {
-                    crearPartido(grupo.get(par[0]), grupo.get(par[1]), j + 1, null);
-                }
+    /**
+     * Planifica una liga: todos los equipos en el grupo "A" y un round-robin con jornadas.
+     */
+    public PlanSorteo planificarLiga(List<TorneoEquipos> inscritos, boolean idaYVuelta, Random azar) {
+        List<TorneoEquipos> orden = new ArrayList<>(inscritos);
+        Collections.shuffle(orden, azar);
+
+        Map<Long, String> grupoPorEquipo = new LinkedHashMap<>();
+        for (TorneoEquipos te : orden) {
+            grupoPorEquipo.put(idEquipo(te), "A");
+        }
+        List<PartidoPlan> planes = new ArrayList<>();
+        planificarRoundRobin(orden, idaYVuelta, planes);
+        return new PlanSorteo(grupoPorEquipo, planes);
+    }
+
+    /**
+     * Nombre del grupo {@code i}: A..Z y, a partir del 27º, AA, AB, … (torneos con muchos grupos).
+     */
+    private static String letraGrupo(int i) {
+        StringBuilder letra = new StringBuilder();
+        for (int k = i; k >= 0; k = k / 26 - 1) {
+            letra.insert(0, (char) ('A' + k % 26));
+        }
+        return letra.toString();
+    }
+
+    /**
+     * Planifica todo el cuadro eliminatorio de un torneo en memoria.
+     *
+     * El cuadro es un árbol: el partido {@code j} de la ronda {@code r} alimenta al partido
+     * {@code j / 2} de la ronda {@code r + 1}, como local si {@code j} es par. Cada partido guarda el ID
+     * de su siguiente y el hueco que ocupa en él, de modo que el ganador avanza sin buscar nada
+     * (ver {@link #avanzarGanador}). Los byes se reparten por el cuadro según el orden de cabezas de
+     * serie y el equipo exento se coloca directamente en la segunda ronda, sin partido de primera.
+     *
+     * Los partidos se enlazan por su posición en la lista: hay que guardarlos todos juntos.
+     *
+     * @param torneo     Torneo sobre el que se generan las eliminatorias.
+     * @param inscritos  Lista de TorneoEquipos inscritos (no eliminados).
+     * @param azar       Sorteo del orden en eliminatoria directa.
+     * @throws BadRequestException Si hay menos de dos equipos.
+     */
+    public PlanSorteo planificarEliminatorias(Torneo torneo, List<TorneoEquipos> inscritos, Random azar) {
+        int n = inscritos.size();
+        if (n < 2) {
+            throw new BadRequestException("Se necesitan al menos 2 equipos para la eliminatoria.");
+        }
+        // Potencia de dos >= n y número de rondas necesarias: log2(pot2)
+        int pot2 = Integer.highestOneBit(n - 1) << 1;
+        int rondas = Integer.numberOfTrailingZeros(pot2);
+        int byes = pot2 - n;
+
+        // 'inscritos' llega ordenado por clasificación (1º, 2º, …) si venimos de liga o grupos:
+        // TrabajosSorteoService lo ordena con ClasificacionService. En eliminatoria directa se sortea.
+        List<TorneoEquipos> orden = new ArrayList<>(inscritos);
+        if (!torneo.isLiga() && !torneo.isGrupos()) {
+            Collections.shuffle(orden, azar);
+        }
+
+        // 1) Emparejamientos de primera ronda, del más fuerte al más débil:
+        //    los 'byes' mejores pasan directos y el resto juega mejor contra peor
+        List<Long[]> porFuerza = new ArrayList<>(pot2 / 2);
+        for (int i = 0; i < byes; i++) {
+            porFuerza.add(new Long[] {idEquipo(orden.get(i)), null});
+        }
+        for (int i = byes, j = n - 1; i < j; i++, j--) {
+            porFuerza.add(new Long[] {idEquipo(orden.get(i)), idEquipo(orden.get(j))});
+        }
+
+        // 2) Colocarlos en el cuadro: los más fuertes (y los byes) quedan en mitades distintas
+        int[] cabezas = ordenCabezasDeSerie(pot2 / 2);
+        Long[][] cuadro = new Long[cabezas.length][];
+        for (int hueco = 0; hueco < cabezas.length; hueco++) {
+            cuadro[hueco] = porFuerza.get(cabezas[hueco]);
+        }
+
+        // 3) Posición en 'planes' de cada partido del árbol (-1: bye de primera ronda, no se juega)
+        int[][] indice = new int[rondas + 1][];
+        int total = 0;
+        for (int r = 1; r <= rondas; r++) {
+            indice[r] = new int[pot2 >> r];
+            for (int j = 0; j < indice[r].length; j++) {
+                boolean bye = r == 1 && cuadro[j][1] == null;
+                indice[r][j] = bye ? -1 : total++;
             }
+        }
 
-            if (idaYVuelta) {
-                int offset = jornadas.size();
-                for (int j = 0; j < jornadas.size(); j++) {
-                    for (int[] par : jornadas.get(j)) {
-                        crearPartido(grupo.get(par[1]), grupo.get(par[0]), offset + j + 1, null);
-                    }
+        // 4) Planificar todos los partidos enlazados con su siguiente y guardarlos de una vez
+        List<PartidoPlan> planes = new ArrayList<>(total);
+        for (int r = 1; r <= rondas; r++) {
+            for (int j = 0; j < indice[r].length; j++) {
+                if (indice[r][j] < 0) {
+                    continue;
+                }
+                Long local = null;
+                Long visitante = null;
+                if (r == 1) {
+                    local = cuadro[j][0];
+                    visitante = cuadro[j][1];
+                } else if (r == 2) {
+                    local = exento(cuadro[2 * j]);
+                    visitante = exento(cuadro[2 * j + 1]);
                 }
+                boolean haySiguiente = r < rondas;
+                planes.add(new PartidoPlan(null, r, local, visitante,
+                    haySiguiente ? indice[r + 1][j / 2] : null,
+                    haySiguiente ? j % 2 == 0 : null));
             }
         }
+        return new PlanSorteo(Map.of(), planes);
     }
 
+    /**
+     * Coloca al ganador de un partido de eliminatoria en su hueco del partido siguiente,
+     * junto con su plantilla (set 1). No hace nada si el partido es la final.
+     *
+     * @param partido         Partido de eliminatoria ya decidido.
+     * @param idEquipoGanador ID del equipo que avanza.
+     */
+    public void avanzarGanador(Partido partido, Long idEquipoGanador) {
+        if (partido.getIdPartidoSiguiente() == null) {
+            return;
+        }
+        partidoBatchRepository.asignarEquipo(
+            partido.getIdPartidoSiguiente(),
+            idEquipoGanador,
+            Boolean.TRUE.equals(partido.getEsLocalEnSiguiente()),
+            cargarPlantillas(List.of(idEquipoGanador)).getOrDefault(idEquipoGanador, List.of()));
+    }
 
-    @Transactional
-    public void crearLiga(Torneo torneo, List<TorneoEquipos> inscritos, boolean idaYVuelta) {
-        Collections.shuffle(inscritos);
+    /**
+     * Equipo que pasa directo a segunda ronda desde un hueco de primera, o null si ese hueco se juega.
+     */
+    private static Long exento(Long[] emparejamiento) {
+        return emparejamiento[1] == null ? emparejamiento[0] : null;
+    }
 
-        // 1) Asignar todos al grupo "A"
-        for (TorneoEquipos te : inscritos) {
-            te.setGrupo("A");
-            TorneoEquipos patch = new TorneoEquipos();
-            patch.setGrupo("A");
-            torneoEquiposService.updateEquipoInTorneo(
-                torneo.getIdTorneo(),
-                te.getId().getEquipo().getIdEquipo(),
-                patch
-            );
+    /**
+     * Orden clásico de cabezas de serie en un cuadro de {@code huecos} partidos (potencia de dos):
+     * indica qué emparejamiento (0 = el más fuerte) ocupa cada hueco, de forma que el 1º y el 2º
+     * solo pueden cruzarse en la final, el 1º y el 4º en semifinales, etc.
+     */
+    private static int[] ordenCabezasDeSerie(int huecos) {
+        int[] orden = {0};
+        while (orden.length < huecos) {
+            int tam = orden.length * 2;
+            int[] siguiente = new int[tam];
+            for (int i = 0; i < orden.length; i++) {
+                siguiente[2 * i] = orden[i];
+                siguiente[2 * i + 1] = tam - 1 - orden[i];
+            }
+            orden = siguiente;
         }
+        return orden;
+    }
 
-        // 2) Round-robin con jornadas
-        List<List<int[]>> jornadas = generarRoundRobin(inscritos.size());
+
+    /**
+     * Añade a {@code destino} los partidos de un round-robin entre {@code equipos},
+     * con la vuelta (local y visitante invertidos) si {@code idaYVuelta}.
+     */
+    private void planificarRoundRobin(List<TorneoEquipos> equipos, boolean idaYVuelta, List<PartidoPlan> destino) {
+        List<List<int[]>> jornadas = generarRoundRobin(equipos.size());
 
         for (int j = 0; j < jornadas.size(); j++) {
             for (int[] par : jornadas.get(j)) {
-                crearPartido(inscritos.get(par[0]), inscritos.get(par[1]), j + 1, null);
+                destino.add(new PartidoPlan(j + 1, null, idEquipo(equipos.get(par[0])), idEquipo(equipos.get(par[1]))));
             }
         }
 
@@ -248,174 +608,55 @@ public class PartidoService {
             int offset = jornadas.size();
             for (int j = 0; j < jornadas.size(); j++) {
                 for (int[] par : jornadas.get(j)) {
-                    crearPartido(inscritos.get(par[1]), inscritos.get(par[0]), offset + j + 1, null);
+                    destino.add(new PartidoPlan(offset + j + 1, null, idEquipo(equipos.get(par[1])), idEquipo(equipos.get(par[0]))));
                 }
             }
         }
     }
 
     /**
-     * Crea todo el bracket eliminatorio para un torneo: ronda 1 (con emparejamientos te1 vs te2
-     * y posibles “bye” si es impar) y luego todas las rondas posteriores con partidos “vacíos”
-     * (sin asignar te1/te2), dejando únicamente el campo 'ronda' y el torneo.
+     * Guarda en lote los partidos planificados de un sorteo (o un tramo de ellos).
+     * La autenticación y los permisos se comprueban una sola vez en el método que inicia el sorteo.
      *
-     * @param torneo     Torneo sobre el que se generan las eliminatorias.
-     * @param inscritos  Lista de TorneoEquipos inscritos (no eliminados).
+     * @return IDs de los partidos guardados, en el orden de los planes.
      */
-    @Transactional
-    public void crearEliminatorias(Torneo torneo, List<TorneoEquipos> inscritos) {
-        int n = inscritos.size();
-        // Potencia de dos >= n
-        int pot2 = 1;
-        while (pot2 < n) pot2 <<= 1;
-        // Número de rondas necesarias: log2(pot2)
-        int rondas = (int)(Math.log(pot2) / Math.log(2));
-
-        List<TorneoEquipos> bracket = new ArrayList<>();
-
-        // 1) Si venimos de fase Liga o Grupos, emparejamos por posición
-        if (torneo.isLiga() || torneo.isGrupos()) {
-            // Se asume que 'inscritos' ya viene ordenado por clasificación (1º, 2º, …).
-            for (int i = 0; i < n / 2; i++) {
-                bracket.add(inscritos.get(i));               // mejor clasificado
-                bracket.add(inscritos.get(n - 1 - i));       // peor clasificado
-            }
-            // Si la cantidad es impar, el que queda en el medio pasa directo (“bye”)
-            if (n % 2 != 0) {
-                bracket.add(inscritos.get(n / 2));
-            }
-        } else {
-            // 2) Si es eliminatoria directa sin fase previa: mezcla aleatoria
-            Collections.shuffle(inscritos);
-            bracket.addAll(inscritos);
-        }
-
-        // 3) Rellenar con nulls hasta completar pot2: así indicamos “byes” sobrantes
-        while (bracket.size() < pot2) {
-            bracket.add(null);
-        }
-
-        // ===== RONDA 1 =====
-        // Creamos los partidos de la primera ronda:  bracket[0] vs bracket[1], bracket[2] vs bracket[3], …
-        List<Partido> rondasPrevias = new ArrayList<>();
-        for (int i = 0; i < bracket.size(); i += 2) {
-            TorneoEquipos te1 = bracket.get(i);         // puede ser null si bye
-            TorneoEquipos te2 = bracket.get(i + 1);     // puede ser null si bye
-            Partido partidoRonda1 = crearPartido(
-                torneo, te1, te2,
-                /*jornada=*/ null,
-                /*ronda=*/ 1
-            );
-            rondasPrevias.add(partidoRonda1);
-        }
-
-        // ===== RONDAS SIGUIENTES =====
-        // Para cada ronda r = 2..rondas, creamos partidos sin equipos asignados
-        for (int r = 2; r <= rondas; r++) {
-            List<Partido> siguientes = new ArrayList<>();
-            /*
-             * Cada dos partidos previos se emparejan para generar uno en la siguiente ronda.
-             * Pero en este punto no conocemos aún los ganadores, así que creamos partidos “vacíos”
-             * indicando solo la ronda y el torneo. Más adelante habrá que asignarles te1/te2.
-             */
-            for (int i = 0; i < rondasPrevias.size(); i += 2) {
-                // te1=null y te2=null: partido placeholder de ronda r
-                Partido partidoRondaR = crearPartido(
-                    torneo,
-                    /*te1=*/ null,
-                    /*te2=*/ null,
-                    /*jornada=*/ null,
-                    /*ronda=*/ r
-                );
-                siguientes.add(partidoRondaR);
-            }
-            // Preparamos para la siguiente iteración
-            rondasPrevias = siguientes;
+    public List<Long> guardarPartidos(Long idTorneo, List<PartidoPlan> planes) {
+        if (planes.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> idsEquipo = new LinkedHashSet<>();
+        for (PartidoPlan plan : planes) {
+            if (plan.idEquipoLocal() != null) idsEquipo.add(plan.idEquipoLocal());
+            if (plan.idEquipoVisitante() != null) idsEquipo.add(plan.idEquipoVisitante());
         }
+        return partidoBatchRepository.insertarPartidos(idTorneo, planes, cargarPlantillas(idsEquipo));
     }
 
-
-
-    private Partido crearPartido(TorneoEquipos te1,TorneoEquipos te2,Integer jornada, Integer ronda) {
-        // Obtenemos el torneo a partir de te1 o te2, si alguno es no-null.
-        Torneo torneo;
-        if (te1 != null) {
-            torneo = te1.getId().getTorneo();
-        } else if (te2 != null) {
-            torneo = te2.getId().getTorneo();
-        } else {
-            throw new IllegalArgumentException(
-                "No se puede crear un partido sin Torneo: te1 y te2 son ambos null"
-            );
-        }
-        return crearPartido(torneo, te1, te2, jornada, ronda);
+    /**
+     * Borra los partidos que guardó un sorteo que no ha podido terminar: los del torneo con ID
+     * igual o mayor que el primero que guardó.
+     */
+    public void borrarPartidosDesde(Long idTorneo, Long idPrimerPartido) {
+        partidoRepository.deleteByTorneoDesde(idTorneo, idPrimerPartido);
     }
 
     /**
-     * crea un Partido en la base de datos
-     * con el Torneo (obligatorio), la ronda y (opcionalmente) te1/te2.
-     * Si te1 o te2 son null, el partido queda creado sin equipos (para rondas posteriores).
-     *
-     * @param torneo   El torneo al que pertenece este partido (jamás debe ser null).
-     * @param te1      TorneoEquipos del equipo local o null si no hay equipo asignado.
-     * @param te2      TorneoEquipos del equipo visitante o null si no hay equipo asignado.
-     * @param jornada  Número de jornada (puede quedar null si no aplica).
-     * @param ronda    Número de ronda eliminatoria (1 = primera ronda, 2 = siguiente, etc.).
-     * @return Partido recién guardado en BD.
+     * Carga con una única consulta los IDs de jugadores de cada equipo.
      */
-    private Partido crearPartido(Torneo torneo,TorneoEquipos te1,TorneoEquipos te2,Integer jornada,Integer ronda) {
-        // 1) Construir y guardar la entidad Partido
-        Partido partido = new Partido();
-        partido.setTorneo(torneo);
-        partido.setJornada(jornada);
-        partido.setRonda(ronda != null ? ronda : 0);
-        partido.setFechaComienzo(null); // si quieres dejarla en null inicialmente
-
-        // Al usar @Transactional en el método superior, la entidad queda “managed” tras save()
-        final Partido pGuardado = partidoRepository.save(partido);
-
-        // 2) Si hay equipo local (te1), crear relaciones PartidoEquipos y PartidoJugadores
-        if (te1 != null) {
-            Long idEquipo1 = te1.getId().getEquipo().getIdEquipo();
-            partidoEquiposService.createPartidoEquipos(
-                pGuardado.getIdPartido(),
-                idEquipo1,
-                /*numSet=*/ 1,
-                /*esLocal=*/ true
-            );
-            // También ligamos los jugadores de ese equipo
-            jugadorRepository.findByEquipoIdEquipo(idEquipo1)
-                .forEach(j ->
-                    partidoJugadoresService.createPartidoJugadores(
-                        pGuardado.getIdPartido(),
-                        j.getIdJugador(),
-                        /*numSet=*/ 1
-                    )
-                );
-        }
-
-        // 3) Si hay equipo visitante (te2), creamos PartidoEquipos y PartidoJugadores
-        if (te2 != null) {
-            Long idEquipo2 = te2.getId().getEquipo().getIdEquipo();
-            partidoEquiposService.createPartidoEquipos(
-                pGuardado.getIdPartido(),
-                idEquipo2,
-                /*numSet=*/ 1,
-                /*esLocal=*/ false
-            );
-            jugadorRepository.findByEquipoIdEquipo(idEquipo2)
-                .forEach(j ->
-                    partidoJugadoresService.createPartidoJugadores(
-                        pGuardado.getIdPartido(),
-                        j.getIdJugador(),
-                        /*numSet=*/ 1
-                    )
-                );
-        }
-
-        return pGuardado;
+    private Map<Long, List<Long>> cargarPlantillas(Collection<Long> idsEquipo) {
+        Map<Long, List<Long>> plantillas = new HashMap<>();
+        if (idsEquipo.isEmpty()) {
+            return plantillas;
+        }
+        for (Object[] fila : jugadorRepository.findIdsJugadoresPorEquipo(idsEquipo)) {
+            plantillas.computeIfAbsent((Long) fila[0], k -> new ArrayList<>()).add((Long) fila[1]);
+        }
+        return plantillas;
     }
 
+    private static Long idEquipo(TorneoEquipos te) {
+        return te.getId().getEquipo().getIdEquipo();
+    }
 
     private List<List<int[]>> generarRoundRobin(int n) {
         List<List<int[]>> jornadas = new ArrayList<>();
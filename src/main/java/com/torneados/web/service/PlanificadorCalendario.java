@@ -0,0 +1,209 @@
+package com.torneados.web.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.torneados.web.exceptions.BadRequestException;
+
+/**
+ * Asigna fecha y hora a los partidos de un torneo con una heurística voraz.
+ *
+ * Los huecos son, para cada día entre el inicio y el fin del torneo, las franjas de
+ * {@code duracion} entre {@code horaInicio} y {@code horaFin}, con {@code campos} partidos
+ * simultáneos por franja; el primer día solo cuentan las que empiezan a la hora de comienzo del
+ * torneo o después. Los partidos se recorren por fase (jornadas de liga o grupos y después
+ * rondas de eliminatoria) y cada uno ocupa el primer hueco libre que respeta:
+ * <ul>
+ *   <li>el descanso mínimo de sus dos equipos desde que terminó su partido anterior
+ *       (lo que impide además que un equipo juegue dos veces en la misma franja), y</li>
+ *   <li>en eliminatoria, que la ronda anterior haya terminado, porque sus ganadores aún no se conocen.</li>
+ * </ul>
+ * Las franjas llenas se saltan con una estructura de "siguiente libre" (union-find), de modo que
+ * el coste total es casi lineal en el número de partidos más el de franjas.
+ *
+ * No depende de Spring ni de la base de datos.
+ */
+public class PlanificadorCalendario {
+
+    /**
+     * Partido a programar. {@code jornada} o {@code ronda} indican su fase;
+     * los equipos pueden ser null si aún no se conocen.
+     */
+    public record PartidoACalendarizar(Long idPartido, Integer jornada, Integer ronda,
+                                       Long idEquipoLocal, Long idEquipoVisitante) {}
+
+    private final LocalDateTime[] franjas;
+    private final int campos;
+    private final Duration duracion;
+    private final Duration descanso;
+
+    /**
+     * Calendario para un torneo que empieza el día {@code desde} a cualquier hora.
+     */
+    public PlanificadorCalendario(LocalDate desde, LocalDate hasta, LocalTime horaInicio, LocalTime horaFin,
+                                  Duration duracion, int campos, Duration descanso) {
+        this(desde.atStartOfDay(), hasta, horaInicio, horaFin, duracion, campos, descanso);
+    }
+
+    /**
+     * @param desde      Comienzo del torneo: ninguna franja empieza antes.
+     * @param hasta      Último día del torneo (incluido).
+     * @param horaInicio Hora de comienzo de la primera franja de cada día.
+     * @param horaFin    Hora límite: ningún partido termina después.
+     * @param duracion   Duración de cada partido (y de cada franja).
+     * @param campos     Partidos simultáneos por franja.
+     * @param descanso   Descanso mínimo de un equipo entre el final de un partido y el comienzo del siguiente.
+     * @throws BadRequestException Si los parámetros no definen ninguna franja válida.
+     */
+    public PlanificadorCalendario(LocalDateTime desde, LocalDate hasta, LocalTime horaInicio, LocalTime horaFin,
+                                  Duration duracion, int campos, Duration descanso) {
+        if (campos < 1) {
+            throw new BadRequestException("Debe haber al menos un campo.");
+        }
+        if (duracion.isNegative() || duracion.isZero()) {
+            throw new BadRequestException("La duración de los partidos debe ser positiva.");
+        }
+        if (descanso.isNegative()) {
+            throw new BadRequestException("El descanso mínimo no puede ser negativo.");
+        }
+        if (!horaInicio.plus(duracion).isAfter(horaInicio) || horaInicio.plus(duracion).isAfter(horaFin)) {
+            throw new BadRequestException("No cabe ningún partido entre la hora de inicio y la de fin.");
+        }
+        if (hasta.isBefore(desde.toLocalDate())) {
+            throw new BadRequestException("La fecha de fin del torneo es anterior a la de comienzo.");
+        }
+
+        List<LocalDateTime> lista = new ArrayList<>();
+        for (LocalDate dia = desde.toLocalDate(); !dia.isAfter(hasta); dia = dia.plusDays(1)) {
+            LocalDateTime limite = dia.atTime(horaFin);
+            for (LocalDateTime inicio = dia.atTime(horaInicio);
+                 !inicio.plus(duracion).isAfter(limite) && inicio.toLocalDate().equals(dia);
+                 inicio = inicio.plus(duracion)) {
+                if (!inicio.isBefore(desde)) {
+                    lista.add(inicio);
+                }
+            }
+        }
+        this.franjas = lista.toArray(new LocalDateTime[0]);
+        this.campos = campos;
+        this.duracion = duracion;
+        this.descanso = descanso;
+    }
+
+    /**
+     * Programa los partidos.
+     *
+     * @param partidos Partidos a programar.
+     * @return Fecha de comienzo de cada partido, por ID.
+     * @throws BadRequestException Si no hay huecos suficientes para todos los partidos.
+     */
+    public Map<Long, LocalDateTime> planificar(List<PartidoACalendarizar> partidos) {
+        List<PartidoACalendarizar> orden = new ArrayList<>(partidos);
+        orden.sort(Comparator
+            .comparingInt((PartidoACalendarizar p) -> p.ronda() != null && p.ronda() > 0 ? 1 : 0)
+            .thenComparingInt(PlanificadorCalendario::fase)
+            .thenComparingLong(PartidoACalendarizar::idPartido));
+
+        int[] ocupacion = new int[franjas.length];
+        int[] siguienteLibre = new int[franjas.length + 1];
+        for (int i = 0; i < siguienteLibre.length; i++) {
+            siguienteLibre[i] = i;
+        }
+
+        Map<Long, LocalDateTime> disponibleDesde = new HashMap<>(); // idEquipo -> fin del último partido + descanso
+        Map<Long, LocalDateTime> resultado = new LinkedHashMap<>();
+
+        // Barrera entre rondas de eliminatoria (y entre la fase de grupos y la eliminatoria)
+        LocalDateTime inicioFase = LocalDateTime.MIN;
+        LocalDateTime finFaseActual = LocalDateTime.MIN;
+        Integer rondaActual = null;
+
+        for (PartidoACalendarizar partido : orden) {
+            boolean eliminatoria = partido.ronda() != null && partido.ronda() > 0;
+            if (eliminatoria && !partido.ronda().equals(rondaActual)) {
+                inicioFase = finFaseActual.plus(descanso);
+                rondaActual = partido.ronda();
+            }
+
+            LocalDateTime minimo = inicioFase;
+            minimo = max(minimo, disponibleDesde.get(partido.idEquipoLocal()));
+            minimo = max(minimo, disponibleDesde.get(partido.idEquipoVisitante()));
+
+            int franja = buscarLibre(siguienteLibre, primeraFranjaDesde(minimo));
+            if (franja >= franjas.length) {
+                throw new BadRequestException(
+                    "No hay huecos suficientes entre las fechas del torneo para programar todos los partidos.");
+            }
+            if (++ocupacion[franja] == campos) {
+                siguienteLibre[franja] = franja + 1;
+            }
+
+            LocalDateTime inicio = franjas[franja];
+            LocalDateTime fin = inicio.plus(duracion);
+            resultado.put(partido.idPartido(), inicio);
+            if (partido.idEquipoLocal() != null) {
+                disponibleDesde.put(partido.idEquipoLocal(), fin.plus(descanso));
+            }
+            if (partido.idEquipoVisitante() != null) {
+                disponibleDesde.put(partido.idEquipoVisitante(), fin.plus(descanso));
+            }
+            if (fin.isAfter(finFaseActual)) {
+                finFaseActual = fin;
+            }
+        }
+        return resultado;
+    }
+
+    /** Número de franjas disponibles (útil para validar y medir). */
+    public int getNumeroFranjas() {
+        return franjas.length;
+    }
+
+    private static int fase(PartidoACalendarizar p) {
+        if (p.ronda() != null && p.ronda() > 0) {
+            return p.ronda();
+        }
+        return p.jornada() != null ? p.jornada() : 0;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return b != null && b.isAfter(a) ? b : a;
+    }
+
+    /** Índice de la primera franja que empieza en {@code momento} o después (búsqueda binaria). */
+    private int primeraFranjaDesde(LocalDateTime momento) {
+        int lo = 0;
+        int hi = franjas.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (franjas[mid].isBefore(momento)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Primera franja con campos libres a partir de {@code i}, comprimiendo el camino recorrido. */
+    private static int buscarLibre(int[] siguienteLibre, int i) {
+        int raiz = i;
+        while (siguienteLibre[raiz] != raiz) {
+            raiz = siguienteLibre[raiz];
+        }
+        while (siguienteLibre[i] != raiz) {
+            int siguiente = siguienteLibre[i];
+            siguienteLibre[i] = raiz;
+            i = siguiente;
+        }
+        return raiz;
+    }
+}
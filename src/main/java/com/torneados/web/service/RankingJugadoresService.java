@@ -0,0 +1,250 @@
+package com.torneados.web.service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.torneados.web.dto.FilaRankingDTO;
+import com.torneados.web.exceptions.BadRequestException;
+import com.torneados.web.exceptions.ResourceNotFoundException;
+import com.torneados.web.repositories.TorneoEquiposRepository;
+import com.torneados.web.repositories.TorneoJugadoresRepository;
+import com.torneados.web.repositories.TorneoRepository;
+
+/**
+ * Rankings de jugadores de un torneo (máximos anotadores y tarjetas), completos o por grupo.
+ *
+ * Cada ranking guarda en memoria solo sus {@link #MAXIMO} primeras filas, leídas de la base de
+ * datos con una consulta que recorre el índice de la estadística y se detiene en ese límite, de
+ * modo que un torneo grande no se lee entero. Los cambios de estadísticas marcan a los jugadores
+ * afectados al confirmarse la transacción; la siguiente lectura trae solo sus valores actuales por
+ * clave primaria y los recoloca. Los cambios de inscripciones, grupos o nombres descartan los
+ * rankings del torneo, que se vuelven a leer al pedirse.
+ *
+ * Los rankings se agrupan por torneo en una caché LRU acotada, así que marcar o descartar los de
+ * un torneo no recorre los del resto. Solo se admiten los grupos que tiene el torneo: con un grupo
+ * inventado no se guarda nada, y cada torneo guarda a lo sumo tres rankings por grupo.
+ */
+@Service
+public class RankingJugadoresService {
+
+    /** Filas guardadas por ranking y límite máximo que se puede pedir. */
+    public static final int MAXIMO = 100;
+
+    public enum Criterio {
+        PUNTOS("puntos", FilaRankingDTO::getPuntos),
+        AMARILLAS("tarjetasAmarillas", FilaRankingDTO::getTarjetasAmarillas),
+        ROJAS("tarjetasRojas", FilaRankingDTO::getTarjetasRojas);
+
+        private final String campo;
+        private final Comparator<FilaRankingDTO> orden;
+
+        Criterio(String campo, ToIntFunction<FilaRankingDTO> valor) {
+            this.campo = campo;
+            this.orden = Comparator.comparingInt(valor).reversed()
+                .thenComparing(FilaRankingDTO::getIdJugador);
+        }
+    }
+
+    private record Clave(Long idTorneo, String grupo, Criterio criterio) {}
+
+    /** Rankings guardados de un torneo y sus grupos, leídos al pedir el primero. */
+    private static final class RankingsTorneo {
+        private final Map<Clave, TopJugadores> tops = new ConcurrentHashMap<>();
+        private Set<String> grupos;
+    }
+
+    private final TorneoJugadoresRepository torneoJugadoresRepository;
+    private final TorneoEquiposRepository torneoEquiposRepository;
+    private final TorneoRepository torneoRepository;
+
+    private final int maxTorneos;
+    /** Rankings por torneo (LRU); se lee y modifica con su propio cerrojo. */
+    private final Map<Long, RankingsTorneo> rankings;
+
+    public RankingJugadoresService(TorneoJugadoresRepository torneoJugadoresRepository,
+                                   TorneoEquiposRepository torneoEquiposRepository,
+                                   TorneoRepository torneoRepository,
+                                   @Value("${torneados.ranking.cache.max-torneos:1000}") int maxTorneos) {
+        this.torneoJugadoresRepository = torneoJugadoresRepository;
+        this.torneoEquiposRepository = torneoEquiposRepository;
+        this.torneoRepository = torneoRepository;
+        this.maxTorneos = maxTorneos;
+        this.rankings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, RankingsTorneo> eldest) {
+                return size() > RankingJugadoresService.this.maxTorneos;
+            }
+        };
+    }
+
+    /**
+     * Obtiene las primeras filas de un ranking de jugadores.
+     *
+     * @param idTorneo ID del torneo.
+     * @param criterio Estadística por la que se ordena (de mayor a menor).
+     * @param grupo    Grupo del torneo, o null para el torneo completo.
+     * @param limite   Número de filas (entre 1 y {@link #MAXIMO}).
+     * @return Filas ordenadas; en caso de empate va antes el jugador con menor ID.
+     * @throws BadRequestException Si el límite no es válido o el torneo no tiene ese grupo.
+     * @throws ResourceNotFoundException Si el torneo no existe.
+     */
+    public List<FilaRankingDTO> getRanking(Long idTorneo, Criterio criterio, String grupo, int limite) {
+        if (limite < 1 || limite > MAXIMO) {
+            throw new BadRequestException("El límite debe estar entre 1 y " + MAXIMO + ".");
+        }
+        RankingsTorneo delTorneo = rankingsDe(idTorneo);
+        if (grupo != null) {
+            synchronized (delTorneo) {
+                if (delTorneo.grupos == null) {
+                    delTorneo.grupos = Set.copyOf(torneoEquiposRepository.findGruposByTorneo(idTorneo));
+                }
+            }
+            if (!delTorneo.grupos.contains(grupo)) {
+                throw new BadRequestException("El torneo no tiene el grupo " + grupo + ".");
+            }
+        }
+        // Se registra antes de leer para no perder los cambios que se confirmen durante la carga
+        Clave clave = new Clave(idTorneo, grupo, criterio);
+        TopJugadores top = delTorneo.tops.computeIfAbsent(clave, c -> new TopJugadores(MAXIMO, criterio.orden));
+
+        synchronized (top) {
+            if (!top.isCargado()) {
+                top.cargar(leerPrimeras(clave));
+            }
+            refrescarPendientes(clave, top);
+            List<FilaRankingDTO> primeras = top.primeros(limite);
+            if (primeras == null) {
+                top.cargar(leerPrimeras(clave));
+                primeras = top.primeros(limite);
+            }
+            return primeras;
+        }
+    }
+
+    /**
+     * Marca como cambiadas las estadísticas de varios jugadores de un torneo.
+     * Si hay una transacción en curso, surte efecto al confirmarse.
+     */
+    public void marcarCambio(Long idTorneo, Collection<Long> idsJugador) {
+        if (idsJugador.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = Set.copyOf(idsJugador);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    marcarPendientes(idTorneo, ids);
+                }
+            });
+        } else {
+            marcarPendientes(idTorneo, ids);
+        }
+    }
+
+    /**
+     * Descarta los rankings de un torneo (inscripciones, grupos o recálculo completo).
+     * Si hay una transacción en curso, se descartan también al terminar.
+     */
+    public void invalidar(Long idTorneo) {
+        descartar(idTorneo);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    descartar(idTorneo);
+                }
+            });
+        }
+    }
+
+    /**
+     * Descarta todos los rankings guardados (por ejemplo, al renombrar un jugador o un equipo).
+     */
+    public void invalidarTodo() {
+        synchronized (rankings) {
+            rankings.clear();
+        }
+    }
+
+    /**
+     * Rankings guardados de un torneo; se registran vacíos si aún no hay ninguno.
+     *
+     * @throws ResourceNotFoundException Si el torneo no existe.
+     */
+    private RankingsTorneo rankingsDe(Long idTorneo) {
+        synchronized (rankings) {
+            RankingsTorneo delTorneo = rankings.get(idTorneo);
+            if (delTorneo != null) {
+                return delTorneo;
+            }
+        }
+        if (!torneoRepository.existsById(idTorneo)) {
+            throw new ResourceNotFoundException("Torneo no encontrado.");
+        }
+        RankingsTorneo nuevo = new RankingsTorneo();
+        if (maxTorneos <= 0) {
+            return nuevo;
+        }
+        synchronized (rankings) {
+            RankingsTorneo existente = rankings.putIfAbsent(idTorneo, nuevo);
+            return existente != null ? existente : nuevo;
+        }
+    }
+
+    private void descartar(Long idTorneo) {
+        synchronized (rankings) {
+            rankings.remove(idTorneo);
+        }
+    }
+
+    private void marcarPendientes(Long idTorneo, Set<Long> ids) {
+        RankingsTorneo delTorneo;
+        synchronized (rankings) {
+            delTorneo = rankings.get(idTorneo);
+        }
+        if (delTorneo == null) {
+            return;
+        }
+        delTorneo.tops.values().forEach(top -> {
+            synchronized (top) {
+                top.marcarPendientes(ids);
+            }
+        });
+    }
+
+    private void refrescarPendientes(Clave clave, TopJugadores top) {
+        Set<Long> pendientes = top.tomarPendientes();
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        for (FilaRankingDTO fila : torneoJugadoresRepository.findRankingByJugadores(
+                clave.idTorneo(), clave.grupo(), pendientes)) {
+            pendientes.remove(fila.getIdJugador());
+            top.actualizar(fila);
+        }
+        // Los que no vuelven ya no pertenecen a este ranking
+        pendientes.forEach(top::quitar);
+    }
+
+    private List<FilaRankingDTO> leerPrimeras(Clave clave) {
+        Sort orden = JpaSort.unsafe(Sort.Direction.DESC, "tj." + clave.criterio().campo)
+            .andUnsafe(Sort.Direction.ASC, "tj.id.jugador.idJugador");
+        return torneoJugadoresRepository.findRanking(
+            clave.idTorneo(), clave.grupo(), PageRequest.of(0, MAXIMO, orden));
+    }
+}
@@ -0,0 +1,69 @@
+package com.torneados.web.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ejecuta una escritura en su propia transacción y la repite si choca con otra concurrente.
+ *
+ * Un conflicto es un fallo de bloqueo optimista (la fila cambió de versión entre la lectura y la
+ * escritura) o pesimista (interbloqueo o espera agotada en MySQL). En ambos casos la transacción ya
+ * se ha deshecho, así que repetirla desde el principio vuelve a leer los valores actuales. Entre
+ * intentos se espera un tiempo creciente con algo de azar para que los escritores no vuelvan a chocar.
+ *
+ * Si ya hay una transacción en curso la operación se une a ella y no se reintenta: solo puede
+ * repetirse quien abrió la transacción.
+ */
+@Component
+public class ReintentosConcurrencia {
+
+    private final TransactionTemplate transaccion;
+    private final int maxIntentos;
+    private final long esperaMs;
+
+    public ReintentosConcurrencia(PlatformTransactionManager transactionManager,
+                                  @Value("${torneados.reintentos.max-intentos:5}") int maxIntentos,
+                                  @Value("${torneados.reintentos.espera-ms:10}") long esperaMs) {
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.maxIntentos = maxIntentos;
+        this.esperaMs = esperaMs;
+    }
+
+    /**
+     * @param operacion Escritura completa (lecturas incluidas), que puede ejecutarse varias veces.
+     * @return Resultado del intento que se confirma.
+     * @throws ConcurrencyFailureException Si sigue chocando tras el último intento.
+     */
+    public <T> T ejecutar(Supplier<T> operacion) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operacion.get();
+        }
+        for (int intento = 1; ; intento++) {
+            try {
+                return transaccion.execute(estado -> operacion.get());
+            } catch (ConcurrencyFailureException e) {
+                if (intento >= maxIntentos) {
+                    throw e;
+                }
+                esperar(intento);
+            }
+        }
+    }
+
+    private void esperar(int intento) {
+        long maximo = esperaMs << Math.min(intento - 1, 6);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(maximo / 2, maximo + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido mientras se esperaba para reintentar", e);
+        }
+    }
+}
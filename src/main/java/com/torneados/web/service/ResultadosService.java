@@ -0,0 +1,298 @@
+package com.torneados.web.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.stereotype.Service;
+
+import com.torneados.web.dto.EventosEnVivoDTO;
+import com.torneados.web.dto.ResultadosDTO;
+import com.torneados.web.dto.ResultadosDTO.ResultadoPartido;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.Usuario;
+import com.torneados.web.exceptions.AccessDeniedException;
+import com.torneados.web.exceptions.BadRequestException;
+import com.torneados.web.exceptions.ResourceNotFoundException;
+import com.torneados.web.exceptions.UnauthorizedException;
+import com.torneados.web.repositories.PartidoBatchRepository;
+import com.torneados.web.repositories.PartidoBatchRepository.EstadisticaJugador;
+import com.torneados.web.repositories.PartidoBatchRepository.MarcadorSet;
+import com.torneados.web.repositories.PartidoEquiposRepository;
+import com.torneados.web.repositories.PartidoJugadoresRepository;
+import com.torneados.web.repositories.PartidoRepository;
+import com.torneados.web.repositories.TorneoJugadoresBatchRepository;
+import com.torneados.web.repositories.TorneoRepository;
+import com.torneados.web.service.TorneoEquiposService.CambioMarcador;
+
+/**
+ * Registro en bloque de los resultados de varios partidos de un torneo.
+ *
+ * Todo el envío se valida antes de escribir nada. Después, los marcadores y las estadísticas
+ * de jugadores se guardan con sentencias en lote y la clasificación y los totales de cada jugador
+ * en el torneo se actualizan una sola vez con la diferencia neta, todo en la misma transacción.
+ * Si esa transacción choca con otra escritura de los mismos partidos, se repite entera.
+ */
+@Service
+public class ResultadosService {
+
+    private final TorneoRepository torneoRepository;
+    private final PartidoRepository partidoRepository;
+    private final PartidoEquiposRepository partidoEquiposRepository;
+    private final PartidoJugadoresRepository partidoJugadoresRepository;
+    private final PartidoBatchRepository partidoBatchRepository;
+    private final TorneoJugadoresBatchRepository torneoJugadoresBatchRepository;
+    private final TorneoEquiposService torneoEquiposService;
+    private final AuthService authService;
+    private final RankingJugadoresService rankingJugadoresService;
+    private final ReintentosConcurrencia reintentos;
+    private final EventosEnVivoService eventosEnVivoService;
+    private final VersionesRecursos versionesRecursos;
+
+    public ResultadosService(TorneoRepository torneoRepository,
+                             PartidoRepository partidoRepository,
+                             PartidoEquiposRepository partidoEquiposRepository,
+                             PartidoJugadoresRepository partidoJugadoresRepository,
+                             PartidoBatchRepository partidoBatchRepository,
+                             TorneoJugadoresBatchRepository torneoJugadoresBatchRepository,
+                             TorneoEquiposService torneoEquiposService,
+                             AuthService authService,
+                             RankingJugadoresService rankingJugadoresService,
+                             ReintentosConcurrencia reintentos,
+                             EventosEnVivoService eventosEnVivoService,
+                             VersionesRecursos versionesRecursos) {
+        this.torneoRepository = torneoRepository;
+        this.partidoRepository = partidoRepository;
+        this.partidoEquiposRepository = partidoEquiposRepository;
+        this.partidoJugadoresRepository = partidoJugadoresRepository;
+        this.partidoBatchRepository = partidoBatchRepository;
+        this.torneoJugadoresBatchRepository = torneoJugadoresBatchRepository;
+        this.torneoEquiposService = torneoEquiposService;
+        this.authService = authService;
+        this.rankingJugadoresService = rankingJugadoresService;
+        this.reintentos = reintentos;
+        this.eventosEnVivoService = eventosEnVivoService;
+        this.versionesRecursos = versionesRecursos;
+    }
+
+    /**
+     * Registra los resultados de varios partidos de un torneo.
+     *
+     * @param idTorneo   ID del torneo.
+     * @param resultados Marcadores por set y estadísticas de jugadores de cada partido.
+     *
+     * @throws UnauthorizedException Si el usuario no está autenticado.
+     * @throws ResourceNotFoundException Si el torneo o algún partido no existen.
+     * @throws AccessDeniedException Si el usuario no es el creador del torneo ni administrador.
+     * @throws BadRequestException Si algún resultado no corresponde al torneo, al partido o está repetido.
+     */
+    public void registrarResultados(Long idTorneo, ResultadosDTO resultados) {
+        reintentos.ejecutar(() -> {
+            registrar(idTorneo, resultados);
+            return null;
+        });
+    }
+
+    private void registrar(Long idTorneo, ResultadosDTO resultados) {
+        // 1) Autenticación y permisos, una sola vez para todo el envío
+        Usuario currentUser = authService.getAuthenticatedUser();
+        if (currentUser == null) {
+            throw new UnauthorizedException("Falta autenticación");
+        }
+        Torneo torneo = torneoRepository.findById(idTorneo)
+            .orElseThrow(() -> new ResourceNotFoundException("Torneo no encontrado."));
+        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR)
+            && !torneo.getCreador().getIdUsuario().equals(currentUser.getIdUsuario())) {
+            throw new AccessDeniedException("No tienes permiso para registrar resultados en este torneo.");
+        }
+
+        Map<Long, ResultadoPartido> porPartido = new LinkedHashMap<>();
+        for (ResultadoPartido resultado : resultados.getPartidos()) {
+            if (porPartido.put(resultado.getIdPartido(), resultado) != null) {
+                throw new BadRequestException("El partido " + resultado.getIdPartido() + " aparece más de una vez.");
+            }
+        }
+
+        // 2) Estado actual de todos los partidos implicados, con una consulta por tabla. Como al finalizar
+        // un partido, se bloquea primero el partido y después sus marcadores y estadísticas
+        Map<Long, Object[]> estados = new HashMap<>();
+        for (Object[] fila : partidoRepository.findEstadoByIds(porPartido.keySet())) {
+            estados.put((Long) fila[0], fila);
+        }
+        for (Long idPartido : porPartido.keySet()) {
+            Object[] estado = estados.get(idPartido);
+            if (estado == null) {
+                throw new ResourceNotFoundException("Partido " + idPartido + " no encontrado.");
+            }
+            if (!idTorneo.equals(estado[1])) {
+                throw new BadRequestException("El partido " + idPartido + " no pertenece a este torneo.");
+            }
+            if (Boolean.TRUE.equals(estado[2])) {
+                throw new BadRequestException("El partido " + idPartido + " ya está finalizado.");
+            }
+        }
+
+        // idPartido -> numSet -> idEquipo -> puntos, e idPartido -> idEquipo -> esLocal
+        Map<Long, Map<Integer, Map<Long, Integer>>> marcadoresAntes = new HashMap<>();
+        Map<Long, Map<Long, Boolean>> equiposPorPartido = new HashMap<>();
+        for (Object[] fila : partidoEquiposRepository.findMarcadoresByPartidos(porPartido.keySet())) {
+            Long idPartido = (Long) fila[0];
+            marcadoresAntes.computeIfAbsent(idPartido, k -> new TreeMap<>())
+                .computeIfAbsent((Integer) fila[1], k -> new HashMap<>())
+                .put((Long) fila[2], (Integer) fila[3]);
+            equiposPorPartido.computeIfAbsent(idPartido, k -> new HashMap<>())
+                .putIfAbsent((Long) fila[2], (Boolean) fila[4]);
+        }
+
+        // idPartido -> idJugador -> numSet -> estadísticas, bloqueadas hasta el commit para que
+        // la diferencia aplicada a TorneoJugadores no se calcule dos veces sobre el mismo valor
+        Map<Long, Map<Long, Map<Integer, EstadisticaJugador>>> estadisticasAntes = new HashMap<>();
+        for (Object[] fila : partidoJugadoresRepository.findEstadisticasByPartidos(porPartido.keySet())) {
+            EstadisticaJugador e = new EstadisticaJugador((Long) fila[0], (Long) fila[1], (Integer) fila[2],
+                (Boolean) fila[3], (Integer) fila[4], (Integer) fila[5], (Integer) fila[6]);
+            estadisticasAntes.computeIfAbsent(e.idPartido(), k -> new HashMap<>())
+                .computeIfAbsent(e.idJugador(), k -> new HashMap<>())
+                .put(e.numSet(), e);
+        }
+
+        // 3) Validar todo el envío y calcular, en memoria, las filas a guardar y las diferencias netas
+        List<MarcadorSet> marcadores = new ArrayList<>();
+        List<EstadisticaJugador> estadisticas = new ArrayList<>();
+        List<CambioMarcador> cambios = new ArrayList<>();
+        Map<Long, int[]> deltaPorJugador = new LinkedHashMap<>();
+
+        for (ResultadoPartido resultado : porPartido.values()) {
+            Long idPartido = resultado.getIdPartido();
+            if (!resultado.getSets().isEmpty()) {
+                prepararMarcadores(resultado, equiposPorPartido.getOrDefault(idPartido, Map.of()),
+                    marcadoresAntes.getOrDefault(idPartido, Map.of()), marcadores, cambios);
+            }
+            if (!resultado.getJugadores().isEmpty()) {
+                prepararEstadisticas(resultado, estadisticasAntes.getOrDefault(idPartido, Map.of()),
+                    estadisticas, deltaPorJugador);
+            }
+        }
+
+        // 4) Escrituras en lote y actualización única de clasificación y totales de jugadores
+        partidoBatchRepository.guardarMarcadores(marcadores);
+        partidoBatchRepository.guardarEstadisticasJugadores(estadisticas);
+        torneoEquiposService.aplicarCambiosMarcador(idTorneo, cambios);
+        deltaPorJugador.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0 && delta[2] == 0 && delta[3] == 0);
+        torneoJugadoresBatchRepository.sumarEstadisticas(idTorneo, deltaPorJugador);
+        rankingJugadoresService.marcarCambio(idTorneo, deltaPorJugador.keySet());
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+        publicarEnVivo(idTorneo, marcadores, estadisticas);
+    }
+
+    private void publicarEnVivo(Long idTorneo, List<MarcadorSet> marcadores, List<EstadisticaJugador> estadisticas) {
+        for (MarcadorSet m : marcadores) {
+            eventosEnVivoService.publicarMarcador(idTorneo,
+                new EventosEnVivoDTO.Marcador(m.idPartido(), m.idEquipo(), m.numSet(), m.puntos()));
+        }
+        for (EstadisticaJugador e : estadisticas) {
+            eventosEnVivoService.publicarEstadisticas(idTorneo,
+                new EventosEnVivoDTO.EstadisticasJugador(e.idPartido(), e.idJugador(), e.numSet(), e.jugado(),
+                    e.puntos(), e.tarjetasAmarillas(), e.tarjetasRojas()));
+        }
+    }
+
+    /**
+     * Valida los marcadores de un partido, añade las filas a guardar y los cambios de marcador
+     * de cada pareja de equipos en cada set.
+     */
+    private static void prepararMarcadores(ResultadoPartido resultado, Map<Long, Boolean> equipos,
+                                           Map<Integer, Map<Long, Integer>> antes,
+                                           List<MarcadorSet> marcadores, List<CambioMarcador> cambios) {
+        Long idPartido = resultado.getIdPartido();
+        Map<Integer, Map<Long, Integer>> despues = new TreeMap<>();
+        antes.forEach((numSet, puntos) -> despues.put(numSet, new HashMap<>(puntos)));
+
+        Map<Integer, Map<Long, Integer>> enviados = new HashMap<>();
+        for (ResultadosDTO.MarcadorSet set : resultado.getSets()) {
+            Boolean esLocal = equipos.get(set.getIdEquipo());
+            if (esLocal == null) {
+                throw new BadRequestException("El equipo " + set.getIdEquipo() + " no juega el partido " + idPartido + ".");
+            }
+            if (enviados.computeIfAbsent(set.getNumSet(), k -> new HashMap<>())
+                    .put(set.getIdEquipo(), set.getPuntos()) != null) {
+                throw new BadRequestException("El set " + set.getNumSet() + " del equipo " + set.getIdEquipo()
+                    + " aparece más de una vez en el partido " + idPartido + ".");
+            }
+            despues.computeIfAbsent(set.getNumSet(), k -> new HashMap<>()).put(set.getIdEquipo(), set.getPuntos());
+            marcadores.add(new MarcadorSet(idPartido, set.getIdEquipo(), set.getNumSet(), set.getPuntos(), esLocal));
+        }
+
+        // Cada pareja de equipos del mismo set una sola vez, como en descontarDeClasificacion
+        for (Integer numSet : enviados.keySet()) {
+            Map<Long, Integer> setAntes = antes.getOrDefault(numSet, Map.of());
+            Map<Long, Integer> setDespues = despues.get(numSet);
+            List<Long> ids = new ArrayList<>(new TreeSet<>(setDespues.keySet()));
+            for (int i = 0; i < ids.size(); i++) {
+                for (int j = i + 1; j < ids.size(); j++) {
+                    Long a = ids.get(i);
+                    Long b = ids.get(j);
+                    if (Objects.equals(setAntes.get(a), setDespues.get(a))
+                        && Objects.equals(setAntes.get(b), setDespues.get(b))) {
+                        continue;
+                    }
+                    cambios.add(new CambioMarcador(a, b,
+                        setAntes.get(a), setAntes.get(b), setDespues.get(a), setDespues.get(b)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Valida las estadísticas de jugadores de un partido, añade las filas a guardar y acumula
+     * la diferencia [partidos, puntos, tarjetasAmarillas, tarjetasRojas] de cada jugador.
+     * Un jugador cuenta un partido jugado si ha jugado en alguno de sus sets.
+     */
+    private static void prepararEstadisticas(ResultadoPartido resultado,
+                                             Map<Long, Map<Integer, EstadisticaJugador>> antes,
+                                             List<EstadisticaJugador> estadisticas,
+                                             Map<Long, int[]> deltaPorJugador) {
+        Long idPartido = resultado.getIdPartido();
+        Map<Long, Map<Integer, EstadisticaJugador>> despues = new HashMap<>();
+        Map<Long, Set<Integer>> enviados = new HashMap<>();
+
+        for (ResultadosDTO.EstadisticaJugador enviada : resultado.getJugadores()) {
+            Map<Integer, EstadisticaJugador> setsAntes = antes.get(enviada.getIdJugador());
+            if (setsAntes == null) {
+                throw new BadRequestException("El jugador " + enviada.getIdJugador()
+                    + " no participa en el partido " + idPartido + ".");
+            }
+            EstadisticaJugador fila = new EstadisticaJugador(idPartido, enviada.getIdJugador(), enviada.getNumSet(),
+                enviada.isJugado(), enviada.getPuntos(), enviada.getTarjetasAmarillas(), enviada.getTarjetasRojas());
+            if (!enviados.computeIfAbsent(enviada.getIdJugador(), k -> new HashSet<>()).add(enviada.getNumSet())) {
+                throw new BadRequestException("El set " + enviada.getNumSet() + " del jugador " + enviada.getIdJugador()
+                    + " aparece más de una vez en el partido " + idPartido + ".");
+            }
+            despues.computeIfAbsent(enviada.getIdJugador(), k -> new HashMap<>(setsAntes))
+                .put(enviada.getNumSet(), fila);
+            estadisticas.add(fila);
+        }
+
+        despues.forEach((idJugador, setsDespues) -> {
+            int[] totalAntes = totales(antes.get(idJugador).values());
+            int[] totalDespues = totales(setsDespues.values());
+            int[] delta = deltaPorJugador.computeIfAbsent(idJugador, k -> new int[4]);
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] += totalDespues[i] - totalAntes[i];
+            }
+        });
+    }
+
+    /** Totales de un jugador en un partido, con el mismo criterio que las actualizaciones set a set. */
+    private static int[] totales(Collection<EstadisticaJugador> sets) {
+        return TorneoJugadoresService.totales(sets, EstadisticaJugador::jugado, EstadisticaJugador::puntos,
+            EstadisticaJugador::tarjetasAmarillas, EstadisticaJugador::tarjetasRojas);
+    }
+}
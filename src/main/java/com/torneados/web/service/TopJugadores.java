@@ -0,0 +1,112 @@
+package com.torneados.web.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.torneados.web.dto.FilaRankingDTO;
+
+/**
+ * Las primeras filas de un ranking de jugadores, acotadas a {@code capacidad}.
+ *
+ * Guarda siempre un prefijo exacto del orden completo: cualquier jugador que no esté dentro va
+ * detrás del último que sí está. Si se cargó el torneo entero ({@code completo}) están todos.
+ * Las escrituras solo marcan jugadores como pendientes; quien lee trae sus valores actuales y los
+ * recoloca con {@link #actualizar}. Un jugador que cae por detrás del último sale del conjunto, y si
+ * el prefijo se queda más corto de lo que se pide, {@link #primeros} devuelve null para recargarlo.
+ *
+ * No es seguro para hilos por sí mismo: quien lo usa sincroniza sobre la instancia.
+ */
+class TopJugadores {
+
+    private final int capacidad;
+    private final Comparator<FilaRankingDTO> orden;
+    private final TreeSet<FilaRankingDTO> filas;
+    private final Map<Long, FilaRankingDTO> porJugador = new HashMap<>();
+    private final Set<Long> pendientes = new HashSet<>();
+    private boolean cargado;
+    private boolean completo;
+
+    TopJugadores(int capacidad, Comparator<FilaRankingDTO> orden) {
+        this.capacidad = capacidad;
+        this.orden = orden;
+        this.filas = new TreeSet<>(orden);
+    }
+
+    boolean isCargado() {
+        return cargado;
+    }
+
+    /** Sustituye el contenido por las primeras filas leídas de la base de datos, ya ordenadas. */
+    void cargar(List<FilaRankingDTO> primeras) {
+        filas.clear();
+        porJugador.clear();
+        for (FilaRankingDTO fila : primeras) {
+            filas.add(fila);
+            porJugador.put(fila.getIdJugador(), fila);
+        }
+        completo = primeras.size() < capacidad;
+        cargado = true;
+    }
+
+    void marcarPendientes(Collection<Long> idsJugador) {
+        pendientes.addAll(idsJugador);
+    }
+
+    /** Devuelve y vacía los jugadores cuyos valores hay que volver a leer. */
+    Set<Long> tomarPendientes() {
+        Set<Long> tomados = new HashSet<>(pendientes);
+        pendientes.clear();
+        return tomados;
+    }
+
+    /**
+     * Recoloca a un jugador con sus valores actuales.
+     * Entra (o se queda) si está por delante del último o si el ranking está completo.
+     */
+    void actualizar(FilaRankingDTO fila) {
+        FilaRankingDTO anterior = porJugador.remove(fila.getIdJugador());
+        if (anterior != null) {
+            filas.remove(anterior);
+        }
+        if (!completo && (filas.isEmpty() || orden.compare(fila, filas.last()) > 0)) {
+            return;
+        }
+        filas.add(fila);
+        porJugador.put(fila.getIdJugador(), fila);
+        if (filas.size() > capacidad) {
+            porJugador.remove(filas.pollLast().getIdJugador());
+            completo = false;
+        }
+    }
+
+    /** Quita a un jugador que ya no pertenece al ranking (por ejemplo, ya no está en el grupo). */
+    void quitar(Long idJugador) {
+        FilaRankingDTO anterior = porJugador.remove(idJugador);
+        if (anterior != null) {
+            filas.remove(anterior);
+        }
+    }
+
+    /**
+     * Las {@code k} primeras filas, o null si el prefijo guardado no alcanza y hay que recargar.
+     */
+    List<FilaRankingDTO> primeros(int k) {
+        if (filas.size() < k && !completo) {
+            return null;
+        }
+        List<FilaRankingDTO> resultado = new ArrayList<>(Math.min(k, filas.size()));
+        Iterator<FilaRankingDTO> it = filas.iterator();
+        while (it.hasNext() && resultado.size() < k) {
+            resultado.add(it.next());
+        }
+        return resultado;
+    }
+}
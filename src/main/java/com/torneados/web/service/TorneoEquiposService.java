@@ -1,10 +1,15 @@
 package com.torneados.web.service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.torneados.web.dto.EquipoTorneoResumenDTO;
+import com.torneados.web.dto.EventosEnVivoDTO.CambioClasificacion;
 import com.torneados.web.entities.Equipo;
 import com.torneados.web.entities.Jugador;
 import com.torneados.web.entities.PartidoEquipos;
@@ -21,6 +26,7 @@ import com.torneados.web.exceptions.UnauthorizedException;
 import com.torneados.web.repositories.EquipoRepository;
 import com.torneados.web.repositories.JugadorRepository;
 import com.torneados.web.repositories.PartidoEquiposRepository;
+import com.torneados.web.repositories.TorneoEquiposBatchRepository;
 import com.torneados.web.repositories.TorneoEquiposRepository;
 import com.torneados.web.repositories.TorneoJugadoresRepository;
 import com.torneados.web.repositories.TorneoRepository;
@@ -35,6 +41,12 @@ public class TorneoEquiposService {
     private final TorneoJugadoresRepository torneoJugadoresRepository;
     private final PartidoEquiposRepository partidoEquiposRepository;
     private final AuthService authService;
+    private final ClasificacionService clasificacionService;
+    private final RankingJugadoresService rankingJugadoresService;
+    private final TorneoEquiposBatchRepository torneoEquiposBatchRepository;
+    private final ReintentosConcurrencia reintentos;
+    private final EventosEnVivoService eventosEnVivoService;
+    private final VersionesRecursos versionesRecursos;
 
     public TorneoEquiposService(TorneoEquiposRepository torneoEquiposRepository, 
                                 TorneoRepository torneoRepository, 
@@ -42,7 +54,13 @@ public class TorneoEquiposService {
                                 JugadorRepository jugadorRepository,
                                 TorneoJugadoresRepository torneoJugadoresRepository,
                                 PartidoEquiposRepository partidoEquiposRepository,
-                                AuthService authService) {
+                                AuthService authService,
+                                ClasificacionService clasificacionService,
+                                RankingJugadoresService rankingJugadoresService,
+                                TorneoEquiposBatchRepository torneoEquiposBatchRepository,
+                                ReintentosConcurrencia reintentos,
+                                EventosEnVivoService eventosEnVivoService,
+                                VersionesRecursos versionesRecursos) {
         this.torneoEquiposRepository = torneoEquiposRepository;
         this.torneoRepository = torneoRepository;
         this.equipoRepository = equipoRepository;
@@ -50,6 +68,12 @@ public class TorneoEquiposService {
         this.torneoJugadoresRepository = torneoJugadoresRepository;
         this.partidoEquiposRepository = partidoEquiposRepository;
         this.authService = authService;
+        this.clasificacionService = clasificacionService;
+        this.rankingJugadoresService = rankingJugadoresService;
+        this.torneoEquiposBatchRepository = torneoEquiposBatchRepository;
+        this.reintentos = reintentos;
+        this.eventosEnVivoService = eventosEnVivoService;
+        this.versionesRecursos = versionesRecursos;
     }
 
     /**
@@ -61,6 +85,7 @@ public class TorneoEquiposService {
      * @throws UnauthorizedException Si el usuario no está autenticado.
      * @throws BadRequestException Si los datos del torneo son inválidos.
      */
+    @Transactional
     public TorneoEquipos addEquipoToTorneo(Long idTorneo, Long idEquipo) {
         Usuario currentUser = authService.getAuthenticatedUser();
         if (currentUser == null) {
@@ -94,8 +119,9 @@ public class TorneoEquiposService {
 
         torneoEquiposRepository.save(torneoEquipos);
 
-        // 🚀 Inscribir todos los jugadores del equipo al torneo
+        // 🚀 Inscribir todos los jugadores del equipo al torneo (un lote de INSERT al confirmar)
         List<Jugador> jugadores = jugadorRepository.findByEquipoIdEquipo(idEquipo);
+        List<TorneoJugadores> inscripciones = new ArrayList<>(jugadores.size());
         for (Jugador jugador : jugadores) {
             TorneoJugadoresId id = new TorneoJugadoresId();
             id.setTorneo(torneo);
@@ -103,14 +129,20 @@ public class TorneoEquiposService {
 
             TorneoJugadores tj = new TorneoJugadores();
             tj.setId(id);
+            tj.setTorneo(torneo);
+            tj.setJugador(jugador);
             tj.setPartidos(0);
             tj.setPuntos(0);
             tj.setTarjetasAmarillas(0);
             tj.setTarjetasRojas(0);
 
-            torneoJugadoresRepository.save(tj);
+            inscripciones.add(tj);
         }
+        torneoJugadoresRepository.saveAll(inscripciones);
 
+        clasificacionService.invalidar(idTorneo);
+        rankingJugadoresService.invalidar(idTorneo);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
         return torneoEquipos;
     }
 
@@ -131,6 +163,20 @@ public class TorneoEquiposService {
         return torneoEquiposRepository.findByIdTorneoIdTorneo(idTorneo);
     }
 
+    /**
+     * Obtiene los equipos de un torneo para los listados (una sola consulta, sin entidades anidadas).
+     *
+     * @param idTorneo El ID del torneo.
+     * @return La lista de equipos ordenada por grupo y nombre.
+     */
+    public List<EquipoTorneoResumenDTO> getResumenEquiposByTorneo(Long idTorneo) {
+        List<EquipoTorneoResumenDTO> equipos = torneoEquiposRepository.findResumenesByTorneo(idTorneo);
+        if (equipos.isEmpty() && !torneoRepository.existsById(idTorneo)) {
+            throw new ResourceNotFoundException("Torneo no encontrado.");
+        }
+        return equipos;
+    }
+
     /**
      * Obtiene todos los equipos de un torneo que no han sido eliminados
      *
@@ -211,11 +257,18 @@ public class TorneoEquiposService {
         existingTorneoEquipos.setPartidosPerdidos(torneoEquipos.getPartidosPerdidos());
         existingTorneoEquipos.setPartidosEmpatados(torneoEquipos.getPartidosEmpatados());
 
-        return torneoEquiposRepository.save(existingTorneoEquipos);
+        clasificacionService.invalidar(idTorneo);
+        TorneoEquipos guardado = torneoEquiposRepository.save(existingTorneoEquipos);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+        return guardado;
     }
 
     /**
-     * Recalcula los datos de un equipo en un torneo
+     * Recalcula desde cero los datos de un equipo en un torneo a partir de todos sus partidos.
+     * La clasificación se mantiene de forma incremental con {@link #aplicarCambioMarcador};
+     * este recálculo completo queda como operación de reparación para administradores
+     * (POST /admin/torneos/{idTorneo}/equipos/{idEquipo}/recalcular).
+     * Si la clasificación del equipo cambia mientras se recalcula, el recálculo se repite.
      * 
      * @param idTorneo El ID del torneo.
      * @param idEquipo El ID del equipo.
@@ -223,8 +276,11 @@ public class TorneoEquiposService {
      * 
      * @return El torneo de equipos actualizado.
      */
-    @Transactional
     public TorneoEquipos updateEquipoDataInTorneo(Long idTorneo, Long idEquipo) {
+        return reintentos.ejecutar(() -> recalcularEquipo(idTorneo, idEquipo));
+    }
+
+    private TorneoEquipos recalcularEquipo(Long idTorneo, Long idEquipo) {
         // 1) Autenticación y permisos
         Usuario currentUser = authService.getAuthenticatedUser();
         if (currentUser == null) {
@@ -258,7 +314,10 @@ public class TorneoEquiposService {
             te.setPartidosGanados(0);
             te.setPartidosEmpatados(0);
             te.setPartidosPerdidos(0);
-            return torneoEquiposRepository.save(te);
+            clasificacionService.invalidar(idTorneo);
+            TorneoEquipos guardado = torneoEquiposRepository.save(te);
+            versionesRecursos.marcarCambioTorneo(idTorneo);
+            return guardado;
         }
 
         // 4) Recalcular totales
@@ -289,7 +348,147 @@ public class TorneoEquiposService {
         te.setPartidosEmpatados(empatados);
         te.setPartidosPerdidos(perdidos);
 
-        return torneoEquiposRepository.save(te);
+        clasificacionService.invalidar(idTorneo);
+        TorneoEquipos guardado = torneoEquiposRepository.save(te);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+        return guardado;
+    }
+
+    /**
+     * Aplica a la clasificación de ambos equipos el cambio de marcador de un enfrentamiento,
+     * restando la aportación del marcador anterior y sumando la del nuevo.
+     * Evita recorrer todos los partidos del equipo como hace {@link #updateEquipoDataInTorneo}.
+     *
+     * Un set solo cuenta cuando ambos equipos tienen puntos: los sets recién sorteados tienen
+     * los puntos a null, así que un marcador anterior null indica que el enfrentamiento no contaba
+     * todavía y un marcador nuevo null indica que deja de contar (por ejemplo, al borrarlo).
+     * {@link #updateEquipoDataInTorneo} sigue la misma regla al recalcular.
+     *
+     * @param idTorneo      El ID del torneo.
+     * @param idEquipo      El equipo cuyo marcador ha cambiado.
+     * @param idRival       El equipo rival en ese partido/set.
+     * @param puntosAntes   Puntos anteriores de idEquipo (o null).
+     * @param rivalAntes    Puntos anteriores del rival (o null).
+     * @param puntosDespues Puntos nuevos de idEquipo (o null).
+     * @param rivalDespues  Puntos nuevos del rival (o null).
+     */
+    @Transactional
+    public void aplicarCambioMarcador(Long idTorneo, Long idEquipo, Long idRival,
+                                      Integer puntosAntes, Integer rivalAntes,
+                                      Integer puntosDespues, Integer rivalDespues) {
+        boolean contabaAntes   = puntosAntes != null && rivalAntes != null;
+        boolean cuentaDespues  = puntosDespues != null && rivalDespues != null;
+        if (!contabaAntes && !cuentaDespues) {
+            return;
+        }
+
+        aplicarCambiosMarcador(idTorneo, List.of(
+            new CambioMarcador(idEquipo, idRival, puntosAntes, rivalAntes, puntosDespues, rivalDespues)));
+    }
+
+    /**
+     * Cambio de marcador de un enfrentamiento entre dos equipos en un set,
+     * con la misma semántica de null que {@link #aplicarCambioMarcador}.
+     */
+    public record CambioMarcador(Long idEquipo, Long idRival,
+                                 Integer puntosAntes, Integer rivalAntes,
+                                 Integer puntosDespues, Integer rivalDespues) {}
+
+    /**
+     * Aplica varios cambios de marcador a la vez: acumula en memoria la diferencia neta de cada
+     * equipo y la escribe con una sola actualización por equipo, invalidando la clasificación una vez.
+     * Las diferencias se publican también a quien sigue el torneo en directo.
+     *
+     * @param idTorneo El ID del torneo.
+     * @param cambios  Cambios de marcador de los enfrentamientos del torneo.
+     */
+    @Transactional
+    public void aplicarCambiosMarcador(Long idTorneo, List<CambioMarcador> cambios) {
+        Map<Long, int[]> deltas = new LinkedHashMap<>();
+        for (CambioMarcador cambio : cambios) {
+            int[] equipo = deltas.computeIfAbsent(cambio.idEquipo(), k -> new int[5]);
+            int[] rival  = deltas.computeIfAbsent(cambio.idRival(), k -> new int[5]);
+            if (cambio.puntosAntes() != null && cambio.rivalAntes() != null) {
+                acumular(equipo, cambio.puntosAntes(), cambio.rivalAntes(), -1);
+                acumular(rival, cambio.rivalAntes(), cambio.puntosAntes(), -1);
+            }
+            if (cambio.puntosDespues() != null && cambio.rivalDespues() != null) {
+                acumular(equipo, cambio.puntosDespues(), cambio.rivalDespues(), 1);
+                acumular(rival, cambio.rivalDespues(), cambio.puntosDespues(), 1);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<CambioClasificacion> publicados = new ArrayList<>();
+        deltas.forEach((idEquipo, delta) -> {
+            if (sumarSiCambia(idTorneo, idEquipo, delta)) {
+                publicados.add(new CambioClasificacion(idEquipo, delta[0], delta[1], delta[2], delta[3], delta[4]));
+            }
+        });
+        clasificacionService.invalidar(idTorneo);
+        eventosEnVivoService.publicarClasificacion(idTorneo, publicados);
+    }
+
+    /**
+     * Acumula en delta = [golesFavor, golesContra, ganados, empatados, perdidos]
+     * la aportación de un resultado, con signo +1 (sumar) o -1 (restar).
+     */
+    private static void acumular(int[] delta, int gf, int gc, int signo) {
+        delta[0] += signo * gf;
+        delta[1] += signo * gc;
+        if      (gf >  gc) delta[2] += signo;
+        else if (gf == gc) delta[3] += signo;
+        else               delta[4] += signo;
+    }
+
+    private boolean sumarSiCambia(Long idTorneo, Long idEquipo, int[] delta) {
+        if (delta[0] == 0 && delta[1] == 0 && delta[2] == 0 && delta[3] == 0 && delta[4] == 0) {
+            return false;
+        }
+        torneoEquiposRepository.sumarEstadisticas(
+            idTorneo, idEquipo, delta[0], delta[1], delta[2], delta[3], delta[4]);
+        return true;
+    }
+
+    /**
+     * Asigna el grupo de varios equipos de un torneo con un UPDATE masivo.
+     * La comprobación de permisos corresponde al sorteo que decide los grupos.
+     *
+     * @param idTorneo       El ID del torneo.
+     * @param grupoPorEquipo Letra de grupo de cada ID de equipo.
+     */
+    @Transactional
+    public void asignarGrupos(Long idTorneo, Map<Long, String> grupoPorEquipo) {
+        torneoEquiposBatchRepository.asignarGrupos(idTorneo, grupoPorEquipo);
+        clasificacionService.invalidar(idTorneo);
+        rankingJugadoresService.invalidar(idTorneo);
+    }
+
+    /**
+     * Deja sin grupo a todos los equipos de un torneo (al deshacer un sorteo que no ha terminado).
+     *
+     * @param idTorneo El ID del torneo.
+     */
+    @Transactional
+    public void quitarGrupos(Long idTorneo) {
+        torneoEquiposRepository.quitarGrupos(idTorneo);
+        clasificacionService.invalidar(idTorneo);
+        rankingJugadoresService.invalidar(idTorneo);
+    }
+
+    /**
+     * Marca un equipo como eliminado del torneo (por ejemplo, al perder en eliminatoria).
+     * La comprobación de permisos corresponde al método que decide la eliminación.
+     *
+     * @param idTorneo El ID del torneo.
+     * @param idEquipo El ID del equipo.
+     */
+    @Transactional
+    public void marcarEliminado(Long idTorneo, Long idEquipo) {
+        torneoEquiposRepository.marcarEliminado(idTorneo, idEquipo);
+        clasificacionService.invalidar(idTorneo);
     }
 
     /**
@@ -326,6 +525,9 @@ public class TorneoEquiposService {
         }
 
         torneoEquiposRepository.deleteById(torneoEquiposId);
+        clasificacionService.invalidar(idTorneo);
+        rankingJugadoresService.invalidar(idTorneo);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
     }
 
 
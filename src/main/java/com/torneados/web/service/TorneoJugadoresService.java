@@ -1,16 +1,22 @@
 package com.torneados.web.service;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.torneados.web.entities.Jugador;
+import com.torneados.web.entities.PartidoJugadores;
 import com.torneados.web.entities.Torneo;
 import com.torneados.web.entities.TorneoJugadores;
 import com.torneados.web.entities.Usuario;
 import com.torneados.web.entities.ids.TorneoJugadoresId;
 import com.torneados.web.exceptions.AccessDeniedException;
+import com.torneados.web.exceptions.BadRequestException;
 import com.torneados.web.exceptions.ResourceNotFoundException;
 import com.torneados.web.exceptions.UnauthorizedException;
 import com.torneados.web.repositories.JugadorRepository;
@@ -24,12 +30,16 @@ public class TorneoJugadoresService {
     private final TorneoRepository torneoRepository;
     private final JugadorRepository jugadorRepository;
     private final AuthService authService;
+    private final RankingJugadoresService rankingJugadoresService;
+    private final VersionesRecursos versionesRecursos;
 
-    public TorneoJugadoresService(TorneoJugadoresRepository torneoJugadoresRepository, TorneoRepository torneoRepository, JugadorRepository jugadorRepository, AuthService authService) {
+    public TorneoJugadoresService(TorneoJugadoresRepository torneoJugadoresRepository, TorneoRepository torneoRepository, JugadorRepository jugadorRepository, AuthService authService, RankingJugadoresService rankingJugadoresService, VersionesRecursos versionesRecursos) {
         this.torneoJugadoresRepository = torneoJugadoresRepository;
         this.torneoRepository = torneoRepository;
         this.jugadorRepository = jugadorRepository;
         this.authService = authService;
+        this.rankingJugadoresService = rankingJugadoresService;
+        this.versionesRecursos = versionesRecursos;
     }
 
     /**
@@ -70,7 +80,10 @@ public class TorneoJugadoresService {
         torneoJugadoresId.setJugador(jugador);
         TorneoJugadores torneoJugadores = new TorneoJugadores();
         torneoJugadores.setId(torneoJugadoresId);
-        return torneoJugadoresRepository.save(torneoJugadores);
+        rankingJugadoresService.invalidar(idTorneo);
+        TorneoJugadores guardado = torneoJugadoresRepository.save(torneoJugadores);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+        return guardado;
 
     }
 
@@ -90,11 +103,14 @@ public class TorneoJugadoresService {
     }
 
     /**
-     * Actualiza las estadisticas de un jugador en un torneo
+     * Corrige a mano las estadisticas de un jugador en un torneo.
+     * Los valores recibidos sustituyen a los guardados, de modo que repetir la petición no
+     * cambia el resultado. En el uso normal no hace falta: las estadisticas se derivan de
+     * PartidoJugadores con {@link #aplicarCambioEstadisticas} y {@link #recalcularEstadisticas}.
      * 
      * @param idTorneo ID del torneo
      * @param idJugador ID del jugador
-     * @param TorneoJugadores TorneoJugadores a actualizar
+     * @param TorneoJugadores Valores absolutos de las estadisticas
      * 
      * @return TorneoJugadores actualizado
      * 
@@ -131,24 +147,93 @@ public class TorneoJugadoresService {
         TorneoJugadores existente = torneoJugadoresRepository.findById(pk)
                 .orElseThrow(() -> new ResourceNotFoundException("Estadísticas no encontradas."));
 
-        // 5) Sumamos los valores del objeto recibido (deltas) a los actuales
-        existente.setPartidos(
-            existente.getPartidos() + torneoJugadores.getPartidos()
-        );
-        existente.setPuntos(
-            existente.getPuntos() + torneoJugadores.getPuntos()
-        );
-        existente.setTarjetasAmarillas(
-            existente.getTarjetasAmarillas() + torneoJugadores.getTarjetasAmarillas()
-        );
-        existente.setTarjetasRojas(
-            existente.getTarjetasRojas() + torneoJugadores.getTarjetasRojas()
-        );
+        // 5) Sustituir los valores actuales por los recibidos (idempotente ante reintentos)
+        if (torneoJugadores.getPartidos() < 0 || torneoJugadores.getPuntos() < 0
+            || torneoJugadores.getTarjetasAmarillas() < 0 || torneoJugadores.getTarjetasRojas() < 0) {
+            throw new BadRequestException("Las estadisticas no pueden ser negativas.");
+        }
+        existente.setPartidos(torneoJugadores.getPartidos());
+        existente.setPuntos(torneoJugadores.getPuntos());
+        existente.setTarjetasAmarillas(torneoJugadores.getTarjetasAmarillas());
+        existente.setTarjetasRojas(torneoJugadores.getTarjetasRojas());
+        rankingJugadoresService.marcarCambio(idTorneo, List.of(idJugador));
+        versionesRecursos.marcarCambioTorneo(idTorneo);
 
         // 6) Guardar y devolver la entidad actualizada
         return torneoJugadoresRepository.save(existente);
     }
 
+    /**
+     * Aplica a las estadisticas de un jugador en un torneo la diferencia entre sus sets de un partido
+     * antes y después de un cambio, con un UPDATE atómico. Los sets deben estar bloqueados por quien
+     * llama (ver PartidoJugadoresRepository.bloquearSets) para que la diferencia sea exacta.
+     * 
+     * @param idTorneo ID del torneo
+     * @param idJugador ID del jugador
+     * @param antes Sets del jugador en el partido antes del cambio
+     * @param despues Sets del jugador en el partido después del cambio
+     */
+    @Transactional
+    public void aplicarCambioEstadisticas(Long idTorneo, Long idJugador,
+                                          Collection<PartidoJugadores> antes, Collection<PartidoJugadores> despues) {
+        int[] totalAntes = totales(antes);
+        int[] totalDespues = totales(despues);
+        if (Arrays.equals(totalAntes, totalDespues)) {
+            return;
+        }
+        torneoJugadoresRepository.sumarEstadisticas(idTorneo, idJugador,
+            totalDespues[0] - totalAntes[0], totalDespues[1] - totalAntes[1],
+            totalDespues[2] - totalAntes[2], totalDespues[3] - totalAntes[3]);
+        rankingJugadoresService.marcarCambio(idTorneo, List.of(idJugador));
+    }
+
+    /**
+     * Totales [partidos, puntos, tarjetasAmarillas, tarjetasRojas] de un jugador en un partido:
+     * cuenta un partido si ha jugado en alguno de sus sets.
+     */
+    static int[] totales(Collection<PartidoJugadores> sets) {
+        return totales(sets, PartidoJugadores::isJugado, PartidoJugadores::getPuntos,
+            PartidoJugadores::getTarjetasAmarillas, PartidoJugadores::getTarjetasRojas);
+    }
+
+    /**
+     * Igual que {@link #totales(Collection)} para sets de cualquier tipo (p. ej. las filas
+     * del registro en bloque de ResultadosService), dadas sus estadísticas.
+     */
+    static <T> int[] totales(Collection<T> sets, Predicate<T> jugado, ToIntFunction<T> puntos,
+                             ToIntFunction<T> amarillas, ToIntFunction<T> rojas) {
+        int[] total = new int[4];
+        for (T set : sets) {
+            if (jugado.test(set)) {
+                total[0] = 1;
+            }
+            total[1] += puntos.applyAsInt(set);
+            total[2] += amarillas.applyAsInt(set);
+            total[3] += rojas.applyAsInt(set);
+        }
+        return total;
+    }
+
+    /**
+     * Recalcula desde cero, con una sola sentencia, las estadisticas de todos los jugadores
+     * de un torneo a partir de PartidoJugadores. Operación de reparación para administradores.
+     * 
+     * @param idTorneo ID del torneo
+     * 
+     * @return Estadisticas recalculadas
+     * 
+     * @throws ResourceNotFoundException Si el torneo no existe
+     */
+    @Transactional
+    public List<TorneoJugadores> recalcularEstadisticas(Long idTorneo) {
+        torneoRepository.findById(idTorneo)
+                .orElseThrow(() -> new ResourceNotFoundException("Torneo no encontrado."));
+        torneoJugadoresRepository.recalcularEstadisticas(idTorneo);
+        rankingJugadoresService.invalidar(idTorneo);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
+        return torneoJugadoresRepository.findByIdTorneoIdTorneo(idTorneo);
+    }
+
 
     /**
      * Elimina las estadisticas de un jugador en un torneo
@@ -185,6 +270,8 @@ public class TorneoJugadoresService {
         torneoJugadoresId.setTorneo(torneo);
         torneoJugadoresId.setJugador(jugador);
         torneoJugadoresRepository.deleteById(torneoJugadoresId);
+        rankingJugadoresService.invalidar(idTorneo);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
     }
 
 
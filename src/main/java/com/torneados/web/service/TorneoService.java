@@ -1,13 +1,22 @@
 package com.torneados.web.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.torneados.web.dto.PaginaCursorDTO;
+import com.torneados.web.dto.TorneoResumenDTO;
+import com.torneados.web.dto.TrabajoSorteoDTO;
 import com.torneados.web.entities.*;
 import com.torneados.web.entities.SolicitudInscripcion.Estado;
 import com.torneados.web.entities.ids.SolicitudInscripcionId;
@@ -17,27 +26,42 @@ import com.torneados.web.repositories.*;
 @Service
 public class TorneoService {
 
+    // Tamaño máximo de página en la paginación por cursor
+    private static final int TAMANO_MAXIMO_CURSOR = 100;
+
     private final TorneoRepository torneoRepository;
     private final AuthService authService;
     private final SolicitudInscripcionRepository solicitudInscripcionRepository;
     private final TorneoEquiposService torneoEquiposService;
     private final TorneoJugadoresService torneoJugadoresService;
     private final JugadorRepository jugadorRepository;
-    private final PartidoService partidoService;
+    private final TrabajosSorteoService trabajosSorteoService;
+    private final ClasificacionService clasificacionService;
+    private final RankingJugadoresService rankingJugadoresService;
+    private final IndiceBusquedaTorneos indiceBusquedaTorneos;
+    private final VersionesRecursos versionesRecursos;
 
     public TorneoService(TorneoRepository torneoRepository, AuthService authService,
                          SolicitudInscripcionRepository solicitudInscripcionRepository,
                          TorneoEquiposService torneoEquiposService,
                          TorneoJugadoresService torneoJugadoresService,
                          JugadorRepository jugadorRepository,
-                         PartidoService partidoService) {
+                         TrabajosSorteoService trabajosSorteoService,
+                         ClasificacionService clasificacionService,
+                         RankingJugadoresService rankingJugadoresService,
+                         IndiceBusquedaTorneos indiceBusquedaTorneos,
+                         VersionesRecursos versionesRecursos) {
         this.torneoRepository = torneoRepository;
         this.authService = authService;
         this.solicitudInscripcionRepository = solicitudInscripcionRepository;
         this.torneoEquiposService = torneoEquiposService;
         this.torneoJugadoresService = torneoJugadoresService;
         this.jugadorRepository = jugadorRepository;
-        this.partidoService = partidoService;
+        this.trabajosSorteoService = trabajosSorteoService;
+        this.clasificacionService = clasificacionService;
+        this.rankingJugadoresService = rankingJugadoresService;
+        this.indiceBusquedaTorneos = indiceBusquedaTorneos;
+        this.versionesRecursos = versionesRecursos;
     }
 
     /**
@@ -68,7 +92,10 @@ public class TorneoService {
         }
 
         torneo.setCreador(currentUser);
-        return torneoRepository.save(torneo);
+        Torneo guardado = torneoRepository.save(torneo);
+        indiceBusquedaTorneos.indexar(guardado);
+        versionesRecursos.marcarCambioTorneo(guardado.getIdTorneo());
+        return guardado;
     }
 
     /**
@@ -90,13 +117,79 @@ public class TorneoService {
         return torneoRepository.findAll(pageable);
     }
 
+    /**
+     * Devuelve torneos paginados por cursor (keyset), pensado para scroll infinito.
+     * Cada página filtra por la clave del último elemento de la anterior en lugar de usar
+     * OFFSET, y se devuelve un Slice, así que no se ejecuta ningún count(*): el coste
+     * por página es constante independientemente de lo profunda que sea.
+     *
+     * @param after Cursor devuelto en la página anterior (null o vacío para la primera).
+     *              Con orden "id" es el idTorneo; con orden "fechaComienzo" es "fecha_idTorneo".
+     * @param size  Número de torneos por página (1-100).
+     * @param orden "id" o "fechaComienzo" (ascendente; el ID desempata).
+     * @return Página con los torneos y el cursor de la siguiente.
+     * @throws BadRequestException Si el tamaño, el orden o el cursor no son válidos.
+     */
+    public PaginaCursorDTO<Torneo> getTorneosCursor(String after, int size, String orden) {
+        if (size < 1 || size > TAMANO_MAXIMO_CURSOR) {
+            throw new BadRequestException("El tamaño de página debe estar entre 1 y " + TAMANO_MAXIMO_CURSOR + ".");
+        }
+        boolean porFecha = "fechaComienzo".equals(orden);
+        if (!porFecha && !"id".equals(orden)) {
+            throw new BadRequestException("Orden no soportado: usa 'id' o 'fechaComienzo'.");
+        }
+
+        // Clave del último torneo de la página anterior
+        LocalDateTime fechaDesde = null;
+        Long idDesde = null;
+        if (after != null && !after.isBlank()) {
+            try {
+                if (porFecha) {
+                    int separador = after.lastIndexOf('_');
+                    fechaDesde = LocalDateTime.parse(after.substring(0, separador));
+                    idDesde = Long.parseLong(after.substring(separador + 1));
+                } else {
+                    idDesde = Long.parseLong(after);
+                }
+            } catch (RuntimeException e) {
+                throw new BadRequestException("Cursor no válido: " + after);
+            }
+        }
+
+        Pageable limite = PageRequest.of(0, size);
+        Slice<Torneo> slice;
+        if (idDesde == null) {
+            slice = porFecha
+                ? torneoRepository.findAllByOrderByFechaComienzoAscIdTorneoAsc(limite)
+                : torneoRepository.findAllByOrderByIdTorneoAsc(limite);
+        } else if (porFecha) {
+            slice = torneoRepository.findSiguientesPorFecha(fechaDesde, idDesde, limite);
+        } else {
+            slice = torneoRepository.findByIdTorneoGreaterThanOrderByIdTorneoAsc(idDesde, limite);
+        }
+
+        String siguienteCursor = null;
+        if (slice.hasNext() && slice.hasContent()) {
+            Torneo ultimo = slice.getContent().get(slice.getNumberOfElements() - 1);
+            siguienteCursor = porFecha
+                ? ultimo.getFechaComienzo() + "_" + ultimo.getIdTorneo()
+                : String.valueOf(ultimo.getIdTorneo());
+        }
+        return new PaginaCursorDTO<>(slice.getContent(), siguienteCursor, slice.hasNext());
+    }
+
     /**
      * Devuelve torneos filtrados por nombre, lugar y/o deporte, y paginados.
+     * La búsqueda se resuelve en memoria con {@link IndiceBusquedaTorneos} (sin tildes ni
+     * mayúsculas) y los resultados se ordenan por los campos de {@code sort} que admite el índice
+     * (idTorneo, nombre, lugar, fechaComienzo) y después por relevancia; sólo se cargan de la
+     * base de datos los torneos de la página pedida. Con cualquier otro orden (p. ej. fechaFin)
+     * la búsqueda, el orden y la página se resuelven con una consulta a la base de datos.
      *
      * @param filtroNombre  Cadena para filtrar por nombre (puede estar vacía).
      * @param filtroLugar   Cadena para filtrar por lugar (puede estar vacía o nula).
      * @param filtroDeporte Cadena para filtrar por deporte (puede estar vacía o nula).
-     * @param pageable      Objeto Pageable con page/size.
+     * @param pageable      Objeto Pageable con page/size/sort.
      * @return Página de torneos que cumplan esos filtros.
      */
     public Page<Torneo> getTorneosFiltrados(
@@ -105,36 +198,80 @@ public class TorneoService {
             String filtroDeporte,
             Pageable pageable
     ) {
-        boolean filtraLugar = filtroLugar != null && !filtroLugar.isEmpty();
-        boolean filtraDeporte = filtroDeporte != null && !filtroDeporte.isEmpty();
-
-        // Normalizamos filtros nulos a cadena vacía
-        String nom = (filtroNombre != null ? filtroNombre : "");
-        String lug = (filtroLugar  != null ? filtroLugar  : "");
-        String dep = (filtroDeporte != null ? filtroDeporte : "");
-
-        if (!filtraLugar && !filtraDeporte) {
-            // Solo filtrar por nombre
-            return torneoRepository.findByNombreContainingIgnoreCase(nom, pageable);
-
-        } else if (filtraLugar && !filtraDeporte) {
-            // Filtrar por nombre + lugar
-            return torneoRepository.findByNombreContainingIgnoreCaseAndLugarContainingIgnoreCase(
-                    nom, lug, pageable
-            );
+        if (!indiceBusquedaTorneos.admiteOrden(pageable.getSort())) {
+            return torneoRepository.buscar(
+                textoFiltro(filtroNombre), textoFiltro(filtroLugar), textoFiltro(filtroDeporte), pageable);
+        }
 
-        } else if (!filtraLugar && filtraDeporte) {
-            // Filtrar por nombre + deporte
-            return torneoRepository.findByNombreContainingIgnoreCaseAndDeporte_DeporteContainingIgnoreCase(
-                    nom, dep, pageable
-            );
+        List<Long> ids = indiceBusquedaTorneos.buscar(filtroNombre, filtroLugar, filtroDeporte, pageable.getSort());
 
-        } else {
-            // Filtrar por nombre + lugar + deporte
-            return torneoRepository.findByNombreContainingIgnoreCaseAndLugarContainingIgnoreCaseAndDeporte_DeporteContainingIgnoreCase(
-                    nom, lug, dep, pageable
-            );
+        List<Long> idsPagina = idsDePagina(ids, pageable);
+
+        // findAllById no respeta el orden: se recoloca según la relevancia
+        Map<Long, Torneo> porId = new HashMap<>();
+        for (Torneo t : torneoRepository.findAllById(idsPagina)) {
+            porId.put(t.getIdTorneo(), t);
         }
+        List<Torneo> contenido = ordenarPorIds(idsPagina, porId);
+        return new PageImpl<>(contenido, pageable, ids.size());
+    }
+
+    /**
+     * Igual que {@link #getAllTorneos(Pageable)} y {@link #getTorneosFiltrados}, pero devolviendo
+     * sólo las columnas que necesitan los listados (sin creador ni datos de contacto), en una
+     * única consulta por página.
+     */
+    public Page<TorneoResumenDTO> getResumenTorneos(
+            String filtroNombre,
+            String filtroLugar,
+            String filtroDeporte,
+            Pageable pageable
+    ) {
+        boolean hayFiltros = (filtroNombre != null && !filtroNombre.isEmpty())
+                        || (filtroLugar != null && !filtroLugar.isEmpty())
+                        || (filtroDeporte != null && !filtroDeporte.isEmpty());
+        if (!hayFiltros) {
+            return torneoRepository.findResumenes(pageable);
+        }
+        if (!indiceBusquedaTorneos.admiteOrden(pageable.getSort())) {
+            return torneoRepository.buscarResumenes(
+                textoFiltro(filtroNombre), textoFiltro(filtroLugar), textoFiltro(filtroDeporte), pageable);
+        }
+
+        List<Long> ids = indiceBusquedaTorneos.buscar(filtroNombre, filtroLugar, filtroDeporte, pageable.getSort());
+        List<Long> idsPagina = idsDePagina(ids, pageable);
+
+        Map<Long, TorneoResumenDTO> porId = new HashMap<>();
+        if (!idsPagina.isEmpty()) {
+            for (TorneoResumenDTO t : torneoRepository.findResumenesByIds(idsPagina)) {
+                porId.put(t.getIdTorneo(), t);
+            }
+        }
+        return new PageImpl<>(ordenarPorIds(idsPagina, porId), pageable, ids.size());
+    }
+
+    private static String textoFiltro(String filtro) {
+        return filtro != null ? filtro.trim() : "";
+    }
+
+    private static List<Long> idsDePagina(List<Long> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return ids;
+        }
+        int desde = (int) Math.min(pageable.getOffset(), ids.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ids.size());
+        return ids.subList(desde, hasta);
+    }
+
+    private static <T> List<T> ordenarPorIds(List<Long> ids, Map<Long, T> porId) {
+        List<T> ordenados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T elemento = porId.get(id);
+            if (elemento != null) {
+                ordenados.add(elemento);
+            }
+        }
+        return ordenados;
     }
 
     /**
@@ -205,7 +342,10 @@ public class TorneoService {
         existente.setEnlaceTwitter(torneo.getEnlaceTwitter());
         // NOTA: el campo 'fase' lo gestionan tus endpoints de sorteo, no se toca aquí
 
-        return torneoRepository.save(existente);
+        Torneo guardado = torneoRepository.save(existente);
+        indiceBusquedaTorneos.indexar(guardado);
+        versionesRecursos.marcarCambioTorneo(guardado.getIdTorneo());
+        return guardado;
     }
 
     /**
@@ -239,6 +379,7 @@ public class TorneoService {
         }
 
         torneo.setFase(nuevaFase);
+        versionesRecursos.marcarCambioTorneo(idTorneo);
         // Al estar en contexto @Transactional y ser 'torneo' una entidad managed,
         // se guardará automáticamente al finalizar el método.
     }
@@ -271,6 +412,10 @@ public class TorneoService {
         }
 
         torneoRepository.delete(torneo);
+        clasificacionService.invalidar(id);
+        rankingJugadoresService.invalidar(id);
+        indiceBusquedaTorneos.eliminar(id);
+        versionesRecursos.marcarCambioTorneo(id);
     }
 
     /**
@@ -369,10 +514,12 @@ public class TorneoService {
     }
 
     /**
-     * Sortear fase de grupos o liga de un torneo.
+     * Sortear fase de grupos o liga de un torneo. El sorteo se hace en segundo plano.
+     *
+     * @return El trabajo del sorteo, para consultar su progreso.
      */
-     @Transactional
-    public void sortearGrupos(Long idTorneo) {
+    @Transactional
+    public TrabajoSorteoDTO sortearGrupos(Long idTorneo) {
         // Obtener el usuario autenticado
         Usuario user = authService.getAuthenticatedUser();
         if (user == null) throw new UnauthorizedException("Debes estar autenticado.");
@@ -387,20 +534,16 @@ public class TorneoService {
         if (!t.isLiga() && !t.isGrupos())
             throw new BadRequestException("Este torneo no tiene fase de grupos/liguilla.");
 
-            
-        List<TorneoEquipos> eq = torneoEquiposService.getAllEquiposByTorneoAndNotEliminados(idTorneo);
-        if (t.isLiga()){
-            partidoService.crearLiga(t, eq, t.isIdaYVuelta());
-        }else{
-            partidoService.crearGrupos(t, eq, t.isIdaYVuelta());
-        }
+        return trabajosSorteoService.crear(t, TrabajoSorteo.Tipo.GRUPOS, user);
     }
 
     /**
-     * Sortear fase eliminatoria de un torneo.
+     * Sortear fase eliminatoria de un torneo. El sorteo se hace en segundo plano.
+     *
+     * @return El trabajo del sorteo, para consultar su progreso.
      */
     @Transactional
-    public void sortearEliminatoria(Long idTorneo) {
+    public TrabajoSorteoDTO sortearEliminatoria(Long idTorneo) {
         // Obtener el usuario autenticado
         Usuario user = authService.getAuthenticatedUser();
         if (user == null) throw new UnauthorizedException("Debes estar autenticado.");
@@ -415,9 +558,7 @@ public class TorneoService {
         if (!t.isEliminatoria())
             throw new BadRequestException("Este torneo no es de eliminatoria.");
 
-        
-        List<TorneoEquipos> eq = torneoEquiposService.getAllEquiposByTorneoAndNotEliminados(idTorneo);
-        partidoService.crearEliminatorias(t, eq);
+        return trabajosSorteoService.crear(t, TrabajoSorteo.Tipo.ELIMINATORIA, user);
     }
 
 
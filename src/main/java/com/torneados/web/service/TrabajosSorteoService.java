@@ -0,0 +1,391 @@
+package com.torneados.web.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Map;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.torneados.web.dto.TrabajoSorteoDTO;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.entities.TrabajoSorteo;
+import com.torneados.web.entities.TrabajoSorteo.Estado;
+import com.torneados.web.entities.Usuario;
+import com.torneados.web.exceptions.AccessDeniedException;
+import com.torneados.web.exceptions.BadRequestException;
+import com.torneados.web.exceptions.ResourceNotFoundException;
+import com.torneados.web.repositories.PartidoBatchRepository.PartidoPlan;
+import com.torneados.web.repositories.TorneoRepository;
+import com.torneados.web.repositories.TrabajoSorteoRepository;
+import com.torneados.web.security.UsuarioPrincipal;
+import com.torneados.web.service.PartidoService.PlanSorteo;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Sorteos en segundo plano: la petición solo registra el trabajo y un pool propio lo ejecuta.
+ *
+ * Cada trabajo se planifica entero en memoria y se guarda por tramos: la asignación de grupos y
+ * bloques de hasta {@code torneados.trabajos.partidos-por-tramo} partidos (el cuadro de una
+ * eliminatoria va en un solo tramo, porque sus partidos se enlazan entre sí). Cada tramo se guarda
+ * en su propia transacción junto con el avance del trabajo, así que o se guardan las dos cosas o
+ * ninguna.
+ *
+ * Los trabajos sin terminar se reanudan al arrancar. Como la planificación depende solo de la
+ * semilla del trabajo y de los equipos que entran en el sorteo (fijados, en su orden, al crearlo),
+ * se repite idéntica y se continúa por el primer tramo no guardado. El avance se anota con un UPDATE
+ * condicionado al tramo esperado: si dos ejecuciones coinciden sobre el mismo trabajo, solo una
+ * guarda cada tramo.
+ *
+ * Ante un error transitorio de base de datos el trabajo sigue EN_CURSO y se reanuda pasado un tiempo
+ * (hasta {@code torneados.trabajos.max-reintentos} veces). Si falla de forma definitiva, antes de
+ * marcarlo FALLIDO se deshace lo que hubiera guardado, para que al repetir el sorteo con otra
+ * semilla no queden partidos duplicados.
+ */
+@Service
+public class TrabajosSorteoService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrabajosSorteoService.class);
+
+    private static final List<Estado> ACTIVOS = List.of(Estado.PENDIENTE, Estado.EN_CURSO);
+    private static final int MAX_LONGITUD_ERROR = 500;
+    private static final long ESPERA_REINTENTO_MS = 1_000;
+
+    /** Tramos de un trabajo ya planificado, listos para guardarse. */
+    private record Ejecucion(Long idTorneo, List<Runnable> tramos, int completados) {}
+
+    private final TrabajoSorteoRepository trabajoSorteoRepository;
+    private final TorneoRepository torneoRepository;
+    private final TorneoEquiposService torneoEquiposService;
+    private final ClasificacionService clasificacionService;
+    private final PartidoService partidoService;
+    private final AuthService authService;
+    private final VersionesRecursos versionesRecursos;
+    private final ReintentosConcurrencia reintentos;
+    private final int partidosPorTramo;
+    private final int maxReintentos;
+    private final ScheduledThreadPoolExecutor ejecutor;
+
+    public TrabajosSorteoService(TrabajoSorteoRepository trabajoSorteoRepository,
+                                 TorneoRepository torneoRepository,
+                                 TorneoEquiposService torneoEquiposService,
+                                 ClasificacionService clasificacionService,
+                                 PartidoService partidoService,
+                                 AuthService authService,
+                                 VersionesRecursos versionesRecursos,
+                                 ReintentosConcurrencia reintentos,
+                                 @Value("${torneados.trabajos.hilos:2}") int hilos,
+                                 @Value("${torneados.trabajos.partidos-por-tramo:500}") int partidosPorTramo,
+                                 @Value("${torneados.trabajos.max-reintentos:5}") int maxReintentos) {
+        this.trabajoSorteoRepository = trabajoSorteoRepository;
+        this.torneoRepository = torneoRepository;
+        this.torneoEquiposService = torneoEquiposService;
+        this.clasificacionService = clasificacionService;
+        this.partidoService = partidoService;
+        this.authService = authService;
+        this.versionesRecursos = versionesRecursos;
+        this.reintentos = reintentos;
+        this.partidosPorTramo = partidosPorTramo;
+        this.maxReintentos = maxReintentos;
+
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory hilosTrabajo = tarea -> {
+            Thread hilo = new Thread(tarea, "trabajo-sorteo-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+        // Cola sin límite: los trabajos ya están guardados, la cola solo decide el orden
+        this.ejecutor = new ScheduledThreadPoolExecutor(hilos, hilosTrabajo);
+        this.ejecutor.setKeepAliveTime(60, TimeUnit.SECONDS);
+        this.ejecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registra un sorteo y lo lanza en segundo plano al confirmarse la transacción.
+     * La autenticación y los permisos los comprueba el método que inicia el sorteo.
+     * Los equipos que entran en el sorteo, y en la eliminatoria su orden por clasificación,
+     * quedan fijados en el trabajo en este momento.
+     *
+     * @throws BadRequestException Si el torneo ya tiene un sorteo sin terminar.
+     */
+    @Transactional
+    public TrabajoSorteoDTO crear(Torneo torneo, TrabajoSorteo.Tipo tipo, Usuario usuario) {
+        if (trabajoSorteoRepository.existsByTorneoIdTorneoAndEstadoIn(torneo.getIdTorneo(), ACTIVOS)) {
+            throw new BadRequestException("Este torneo ya tiene un sorteo en curso.");
+        }
+        TrabajoSorteo trabajo = new TrabajoSorteo();
+        trabajo.setTorneo(torneo);
+        trabajo.setIdUsuario(usuario.getIdUsuario());
+        trabajo.setTipo(tipo);
+        trabajo.setSemilla(ThreadLocalRandom.current().nextLong());
+        trabajo.setEquipos(equiposDelSorteo(torneo, tipo));
+        try {
+            trabajoSorteoRepository.saveAndFlush(trabajo);
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición ha registrado a la vez un sorteo del mismo torneo (uk_trabajo_activo)
+            throw new BadRequestException("Este torneo ya tiene un sorteo en curso.");
+        }
+
+        Long idTrabajo = trabajo.getIdTrabajo();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lanzar(idTrabajo);
+                }
+            });
+        } else {
+            lanzar(idTrabajo);
+        }
+        return toDTO(trabajo);
+    }
+
+    /**
+     * Obtiene el estado de un trabajo. Solo pueden verlo quien lo lanzó y los administradores.
+     *
+     * @throws ResourceNotFoundException Si no existe.
+     * @throws AccessDeniedException     Si el usuario no tiene permisos.
+     */
+    public TrabajoSorteoDTO getTrabajo(Long idTrabajo) {
+        UsuarioPrincipal usuario = authService.getPrincipal();
+        TrabajoSorteo trabajo = trabajoSorteoRepository.findById(idTrabajo)
+            .orElseThrow(() -> new ResourceNotFoundException("Trabajo no encontrado."));
+        if (!usuario.esAdministrador() && !usuario.getIdUsuario().equals(trabajo.getIdUsuario())) {
+            throw new AccessDeniedException("No tienes permisos.");
+        }
+        return toDTO(trabajo);
+    }
+
+    /**
+     * Vuelve a lanzar los trabajos que quedaron sin terminar (por ejemplo, por un reinicio).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reanudarPendientes() {
+        List<Long> pendientes = trabajoSorteoRepository.findIdsByEstadoIn(ACTIVOS);
+        if (!pendientes.isEmpty()) {
+            log.info("Reanudando {} sorteos sin terminar", pendientes.size());
+        }
+        pendientes.forEach(this::lanzar);
+    }
+
+    private void lanzar(Long idTrabajo) {
+        ejecutor.execute(() -> ejecutar(idTrabajo, 0));
+    }
+
+    private void ejecutar(Long idTrabajo, int reintento) {
+        try {
+            Ejecucion ejecucion = reintentos.ejecutar(() -> preparar(idTrabajo));
+            if (ejecucion == null) {
+                return;
+            }
+            for (int i = ejecucion.completados(); i < ejecucion.tramos().size(); i++) {
+                int tramo = i;
+                boolean guardado = reintentos.ejecutar(() -> {
+                    if (trabajoSorteoRepository.avanzarTramo(idTrabajo, tramo, Estado.EN_CURSO, LocalDateTime.now()) == 0) {
+                        return false;
+                    }
+                    ejecucion.tramos().get(tramo).run();
+                    versionesRecursos.marcarCambioTorneo(ejecucion.idTorneo());
+                    return true;
+                });
+                if (!guardado) {
+                    // Otra ejecución del mismo trabajo va por delante y lo terminará ella
+                    return;
+                }
+            }
+            terminar(idTrabajo, Estado.COMPLETADO, null);
+        } catch (RuntimeException e) {
+            if (ejecutor.isShutdown()) {
+                // La aplicación se está parando: el trabajo sigue EN_CURSO y se reanudará al arrancar
+                log.info("Sorteo {} interrumpido por el cierre de la aplicación", idTrabajo);
+                return;
+            }
+            if (esTransitorio(e) && reintento < maxReintentos) {
+                // El trabajo sigue EN_CURSO: al reanudarlo se continúa por el primer tramo no guardado
+                long espera = ESPERA_REINTENTO_MS << reintento;
+                log.warn("Error transitorio en el sorteo {}; se reanuda en {} ms", idTrabajo, espera, e);
+                ejecutor.schedule(() -> ejecutar(idTrabajo, reintento + 1), espera, TimeUnit.MILLISECONDS);
+                return;
+            }
+            String motivo;
+            if (e instanceof BadRequestException || e instanceof ResourceNotFoundException) {
+                motivo = e.getMessage();
+            } else {
+                log.error("Error en el sorteo {}", idTrabajo, e);
+                motivo = "Error inesperado al realizar el sorteo.";
+            }
+            try {
+                fallar(idTrabajo, motivo);
+            } catch (RuntimeException e2) {
+                // Sigue EN_CURSO con lo guardado hasta ahora y se reanudará al arrancar
+                log.error("No se pudo deshacer ni marcar como fallido el sorteo {}", idTrabajo, e2);
+            }
+        }
+    }
+
+    /** Errores de base de datos que pueden desaparecer al repetir (caída de conexión, bloqueos, …). */
+    private static boolean esTransitorio(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+            || e instanceof RecoverableDataAccessException
+            || e instanceof DataAccessResourceFailureException
+            || e instanceof CannotCreateTransactionException;
+    }
+
+    /**
+     * Planifica el sorteo de un trabajo activo y lo marca en curso.
+     *
+     * @return Los tramos a guardar, o null si el trabajo ya no existe o ha terminado.
+     */
+    private Ejecucion preparar(Long idTrabajo) {
+        TrabajoSorteo trabajo = trabajoSorteoRepository.findById(idTrabajo).orElse(null);
+        if (trabajo == null || !ACTIVOS.contains(trabajo.getEstado())) {
+            return null;
+        }
+        Long idTorneo = trabajo.getTorneo().getIdTorneo();
+        Torneo torneo = torneoRepository.findById(idTorneo)
+            .orElseThrow(() -> new ResourceNotFoundException("Torneo no encontrado."));
+
+        // Los equipos y el orden fijados al crear el trabajo, para que la semilla dé el mismo sorteo
+        String equipos = trabajo.getEquipos() != null ? trabajo.getEquipos() : equiposDelSorteo(torneo, trabajo.getTipo());
+        Map<Long, TorneoEquipos> porId = torneoEquiposService.getAllEquiposByTorneoAndNotEliminados(idTorneo).stream()
+            .collect(Collectors.toMap(te -> te.getId().getEquipo().getIdEquipo(), Function.identity()));
+        List<TorneoEquipos> inscritos = new ArrayList<>();
+        for (String id : equipos.split(",")) {
+            if (id.isEmpty()) {
+                continue;
+            }
+            TorneoEquipos inscrito = porId.get(Long.valueOf(id));
+            if (inscrito == null) {
+                throw new BadRequestException("Los equipos del torneo han cambiado desde que se lanzó el sorteo.");
+            }
+            inscritos.add(inscrito);
+        }
+        Random azar = new Random(trabajo.getSemilla());
+
+        List<Runnable> tramos = new ArrayList<>();
+        if (trabajo.getTipo() == TrabajoSorteo.Tipo.GRUPOS) {
+            PlanSorteo plan = torneo.isLiga()
+                ? partidoService.planificarLiga(inscritos, torneo.isIdaYVuelta(), azar)
+                : partidoService.planificarGrupos(inscritos, torneo.isIdaYVuelta(), azar);
+            tramos.add(() -> torneoEquiposService.asignarGrupos(idTorneo, plan.grupoPorEquipo()));
+            List<PartidoPlan> partidos = plan.partidos();
+            for (int desde = 0; desde < partidos.size(); desde += partidosPorTramo) {
+                List<PartidoPlan> bloque = partidos.subList(desde, Math.min(desde + partidosPorTramo, partidos.size()));
+                tramos.add(() -> anotarPartidos(idTrabajo, partidoService.guardarPartidos(idTorneo, bloque)));
+            }
+        } else {
+            PlanSorteo plan = partidoService.planificarEliminatorias(torneo, inscritos, azar);
+            tramos.add(() -> anotarPartidos(idTrabajo, partidoService.guardarPartidos(idTorneo, plan.partidos())));
+        }
+
+        trabajo.setEstado(Estado.EN_CURSO);
+        trabajo.setTramosTotales(tramos.size());
+        trabajo.setFechaActualizacion(LocalDateTime.now());
+        return new Ejecucion(idTorneo, tramos, trabajo.getTramosCompletados());
+    }
+
+    /**
+     * IDs de los equipos no eliminados que entran en el sorteo, separados por comas: por ID y, en
+     * la eliminatoria tras liga o grupos, según la clasificación de la fase anterior.
+     */
+    private String equiposDelSorteo(Torneo torneo, TrabajoSorteo.Tipo tipo) {
+        Long idTorneo = torneo.getIdTorneo();
+        List<TorneoEquipos> inscritos = new ArrayList<>(torneoEquiposService.getAllEquiposByTorneoAndNotEliminados(idTorneo));
+        inscritos.sort(Comparator.comparing(te -> te.getId().getEquipo().getIdEquipo()));
+        if (tipo == TrabajoSorteo.Tipo.ELIMINATORIA && (torneo.isLiga() || torneo.isGrupos())) {
+            // Emparejamos según la clasificación de la fase anterior (1º de grupo contra el peor clasificado, …)
+            inscritos = clasificacionService.ordenarPorClasificacion(idTorneo, inscritos);
+        }
+        return inscritos.stream()
+            .map(te -> te.getId().getEquipo().getIdEquipo().toString())
+            .collect(Collectors.joining(","));
+    }
+
+    /** Anota el primer partido guardado, para poder deshacer el sorteo si falla. */
+    private void anotarPartidos(Long idTrabajo, List<Long> idsPartido) {
+        if (!idsPartido.isEmpty()) {
+            trabajoSorteoRepository.anotarPrimerPartido(idTrabajo, idsPartido.get(0));
+        }
+    }
+
+    private void terminar(Long idTrabajo, Estado estado, String error) {
+        reintentos.ejecutar(() -> {
+            trabajoSorteoRepository.findById(idTrabajo).ifPresent(trabajo -> marcarTerminado(trabajo, estado, error));
+            return null;
+        });
+    }
+
+    /**
+     * Marca un trabajo como fallido deshaciendo antes, en la misma transacción, los tramos que
+     * hubiera guardado: los partidos desde el primero que guardó y, en un sorteo de grupos, la
+     * asignación de grupos.
+     */
+    private void fallar(Long idTrabajo, String error) {
+        reintentos.ejecutar(() -> {
+            TrabajoSorteo trabajo = trabajoSorteoRepository.findById(idTrabajo).orElse(null);
+            if (trabajo == null || !ACTIVOS.contains(trabajo.getEstado())) {
+                return null;
+            }
+            Long idTorneo = trabajo.getTorneo().getIdTorneo();
+            if (trabajo.getIdPrimerPartido() != null) {
+                partidoService.borrarPartidosDesde(idTorneo, trabajo.getIdPrimerPartido());
+            }
+            if (trabajo.getTipo() == TrabajoSorteo.Tipo.GRUPOS && trabajo.getTramosCompletados() > 0) {
+                torneoEquiposService.quitarGrupos(idTorneo);
+            }
+            if (trabajo.getTramosCompletados() > 0) {
+                versionesRecursos.marcarCambioTorneo(idTorneo);
+            }
+            trabajo.setTramosCompletados(0);
+            trabajo.setIdPrimerPartido(null);
+            marcarTerminado(trabajo, Estado.FALLIDO, error);
+            // Los borrados vacían el contexto de persistencia: el trabajo se guarda explícitamente
+            trabajoSorteoRepository.save(trabajo);
+            return null;
+        });
+    }
+
+    private static void marcarTerminado(TrabajoSorteo trabajo, Estado estado, String error) {
+        trabajo.setEstado(estado);
+        trabajo.setActivo(null);
+        trabajo.setError(error != null && error.length() > MAX_LONGITUD_ERROR
+            ? error.substring(0, MAX_LONGITUD_ERROR) : error);
+        trabajo.setFechaActualizacion(LocalDateTime.now());
+    }
+
+    private static TrabajoSorteoDTO toDTO(TrabajoSorteo trabajo) {
+        return new TrabajoSorteoDTO(trabajo.getIdTrabajo(), trabajo.getTorneo().getIdTorneo(),
+            trabajo.getTipo(), trabajo.getEstado(), trabajo.getTramosTotales(), trabajo.getTramosCompletados(),
+            trabajo.getError(), trabajo.getFechaCreacion(), trabajo.getFechaActualizacion());
+    }
+
+    /** Los trabajos a medias quedan EN_CURSO y se reanudan en el próximo arranque. */
+    @PreDestroy
+    public void cerrar() {
+        ejecutor.shutdownNow();
+    }
+}
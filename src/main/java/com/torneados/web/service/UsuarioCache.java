@@ -0,0 +1,98 @@
+package com.torneados.web.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.torneados.web.entities.Usuario;
+
+/**
+ * Caché acotada (LRU) y con caducidad de usuarios por Google ID.
+ * Evita consultar la base de datos en cada petición autenticada; se invalida
+ * desde UsuarioService cuando el usuario se modifica o se elimina.
+ * Guarda una copia inmutable de los datos del usuario, nunca la entidad, porque la
+ * misma entrada se comparte entre peticiones de hilos distintos.
+ */
+@Component
+public class UsuarioCache {
+
+    /**
+     * Datos del usuario tal y como estaban al cargarlo.
+     */
+    public record DatosUsuario(Long idUsuario, String googleId, String email, String nombre,
+                               String foto, Usuario.Rol rol, LocalDateTime fechaCreacion) {
+
+        static DatosUsuario de(Usuario usuario) {
+            return new DatosUsuario(usuario.getIdUsuario(), usuario.getGoogleId(), usuario.getEmail(),
+                usuario.getNombre(), usuario.getFoto(), usuario.getRol(), usuario.getFechaCreacion());
+        }
+
+        /**
+         * Crea una entidad Usuario nueva (separada) con estos datos, propia de quien la pide.
+         */
+        public Usuario aUsuario() {
+            Usuario usuario = new Usuario();
+            usuario.setIdUsuario(idUsuario);
+            usuario.setGoogleId(googleId);
+            usuario.setEmail(email);
+            usuario.setNombre(nombre);
+            usuario.setFoto(foto);
+            usuario.setRol(rol);
+            usuario.setFechaCreacion(fechaCreacion);
+            return usuario;
+        }
+    }
+
+    private record Entrada(DatosUsuario usuario, long caducaEn) {}
+
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final Map<String, Entrada> entradas;
+
+    public UsuarioCache(@Value("${torneados.auth.cache.max-entradas:10000}") int maxEntradas,
+                        @Value("${torneados.auth.cache.ttl:PT5M}") Duration ttl) {
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > UsuarioCache.this.maxEntradas;
+            }
+        };
+    }
+
+    /**
+     * Devuelve los datos guardados para ese Google ID o carga el usuario con {@code cargador}.
+     * Si el cargador lanza una excepción no se guarda nada.
+     */
+    public DatosUsuario obtener(String googleId, Supplier<Usuario> cargador) {
+        long ahora = System.nanoTime();
+        synchronized (entradas) {
+            Entrada entrada = entradas.get(googleId);
+            if (entrada != null && entrada.caducaEn() - ahora > 0) {
+                return entrada.usuario();
+            }
+        }
+        DatosUsuario usuario = DatosUsuario.de(cargador.get());
+        if (maxEntradas > 0 && ttlNanos > 0) {
+            synchronized (entradas) {
+                entradas.put(googleId, new Entrada(usuario, ahora + ttlNanos));
+            }
+        }
+        return usuario;
+    }
+
+    public void invalidar(String googleId) {
+        if (googleId == null) {
+            return;
+        }
+        synchronized (entradas) {
+            entradas.remove(googleId);
+        }
+    }
+}
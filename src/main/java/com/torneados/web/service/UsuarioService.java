@@ -15,6 +15,7 @@ import com.torneados.web.exceptions.BadRequestException;
 import com.torneados.web.repositories.EquipoRepository;
 import com.torneados.web.repositories.TorneoRepository;
 import com.torneados.web.repositories.UsuarioRepository;
+import com.torneados.web.security.UsuarioPrincipal;
 
 @Service
 public class UsuarioService {
@@ -23,12 +24,16 @@ public class UsuarioService {
     private final EquipoRepository equipoRepository;
     private final TorneoRepository torneoRepository; 
     private final AuthService authService;
+    private final IndiceBusquedaTorneos indiceBusquedaTorneos;
+    private final VersionesRecursos versionesRecursos;
     
-    public UsuarioService(UsuarioRepository usuarioRepository, EquipoRepository equipoRepository, TorneoRepository torneoRepository, AuthService authService) {
+    public UsuarioService(UsuarioRepository usuarioRepository, EquipoRepository equipoRepository, TorneoRepository torneoRepository, AuthService authService, IndiceBusquedaTorneos indiceBusquedaTorneos, VersionesRecursos versionesRecursos) {
         this.usuarioRepository = usuarioRepository;
         this.equipoRepository = equipoRepository;
         this.torneoRepository = torneoRepository;
         this.authService = authService;
+        this.indiceBusquedaTorneos = indiceBusquedaTorneos;
+        this.versionesRecursos = versionesRecursos;
     }
 
     public Usuario createUsuario(Usuario usuario) {
@@ -50,13 +55,13 @@ public class UsuarioService {
     
 
     public Usuario getUsuarioById(Long id) {
-        Usuario currentUser = authService.getAuthenticatedUser();
+        UsuarioPrincipal currentUser = authService.getPrincipal();
 
         if (currentUser == null) {
             throw new UnauthorizedException("Falta autenticación");
         }
         
-        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR)
+        if (!currentUser.esAdministrador()
                 && !currentUser.getIdUsuario().equals(id)) {
             throw new AccessDeniedException("Sin permisos para ver este usuario");
         }
@@ -73,20 +78,23 @@ public class UsuarioService {
      */
     public List<Equipo> getEquiposByUsuario(Long idUsuario) {
         // Verificar autenticación
-        Usuario currentUser = authService.getAuthenticatedUser();
+        UsuarioPrincipal currentUser = authService.getPrincipal();
         if (currentUser == null) {
             throw new UnauthorizedException("Falta autenticación");
         }
         
-        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR) 
+        if (!currentUser.esAdministrador() 
                 && !currentUser.getIdUsuario().equals(idUsuario)) {
             throw new AccessDeniedException("Sin permisos para acceder a los equipos de otros usuarios");
         }
         
-        Usuario usuario = usuarioRepository.findById(idUsuario)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con id: " + idUsuario));
-        
-        return equipoRepository.findByCreador(usuario);
+        // Se filtra por el ID del creador sin cargar el usuario; sólo si no hay resultados
+        // se comprueba que exista para devolver 404
+        List<Equipo> equipos = equipoRepository.findByCreadorIdUsuario(idUsuario);
+        if (equipos.isEmpty() && !usuarioRepository.existsById(idUsuario)) {
+            throw new ResourceNotFoundException("Usuario no encontrado con id: " + idUsuario);
+        }
+        return equipos;
     }
 
     /**
@@ -97,20 +105,23 @@ public class UsuarioService {
      */
     public List<Torneo> getTorneosByUsuario(Long idUsuario) {
         // Verificar autenticación
-        Usuario currentUser = authService.getAuthenticatedUser();
+        UsuarioPrincipal currentUser = authService.getPrincipal();
         if (currentUser == null) {
             throw new UnauthorizedException("Falta autenticación");
         }
         
-        if (!currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR) 
+        if (!currentUser.esAdministrador() 
                 && !currentUser.getIdUsuario().equals(idUsuario)) {
             throw new AccessDeniedException("Sin permisos para acceder a los torneos de otros usuarios");
         }
         
-        Usuario usuario = usuarioRepository.findById(idUsuario)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con id: " + idUsuario));
-        
-        return torneoRepository.findAllByCreador(usuario);
+        // Se filtra por el ID del creador sin cargar el usuario; sólo si no hay resultados
+        // se comprueba que exista para devolver 404
+        List<Torneo> torneos = torneoRepository.findAllByCreadorIdUsuario(idUsuario);
+        if (torneos.isEmpty() && !usuarioRepository.existsById(idUsuario)) {
+            throw new ResourceNotFoundException("Usuario no encontrado con id: " + idUsuario);
+        }
+        return torneos;
     }
 
     
@@ -134,22 +145,25 @@ public class UsuarioService {
             throw new BadRequestException("El nombre es obligatorio.");
         }
         
+        // Los permisos se comprueban antes de tocar la entidad gestionada
+        boolean esAdministrador = currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR);
+        // Si no es administrador y se intenta cambiar el rol, se lanza excepción
+        if (!esAdministrador && updatedUsuario.getRol() != null && !updatedUsuario.getRol().equals(user.getRol())) {
+            throw new AccessDeniedException("No tienes permisos para modificar el rol");
+        }
+
         user.setNombre(updatedUsuario.getNombre());
         user.setFoto(updatedUsuario.getFoto());
         
         // Solo el ADMINISTRADOR puede actualizar el rol
-        if (currentUser.getRol().equals(Usuario.Rol.ADMINISTRADOR)) {
-            if (updatedUsuario.getRol() != null) {
-                user.setRol(updatedUsuario.getRol());
-            }
-        } else {
-            // Si no es administrador y se intenta cambiar el rol, se lanza excepción
-            if (updatedUsuario.getRol() != null && !updatedUsuario.getRol().equals(user.getRol())) {
-                throw new AccessDeniedException("No tienes permisos para modificar el rol");
-            }
+        if (esAdministrador && updatedUsuario.getRol() != null) {
+            user.setRol(updatedUsuario.getRol());
         }
         
         usuarioRepository.save(user);
+        authService.invalidarUsuario(user.getGoogleId());
+        // El nombre del creador aparece en los torneos
+        versionesRecursos.marcarCambioGeneral();
         return user;
     }
 
@@ -167,11 +181,16 @@ public class UsuarioService {
             throw new AccessDeniedException("Sin permisos para eliminar este usuario");
         }
         
-        if (!usuarioRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Usuario no encontrado con id: " + id);
-        }
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con id: " + id));
         
+        // Sus torneos se borran en cascada: se quitan también del índice de búsqueda
+        List<Torneo> torneos = torneoRepository.findAllByCreadorIdUsuario(id);
+
         usuarioRepository.deleteById(id);
+        authService.invalidarUsuario(usuario.getGoogleId());
+        torneos.forEach(t -> indiceBusquedaTorneos.eliminar(t.getIdTorneo()));
+        versionesRecursos.marcarCambioGeneral();
     }
 
 }
@@ -0,0 +1,137 @@
+package com.torneados.web.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.torneados.web.repositories.PartidoRepository;
+
+/**
+ * Versiones en memoria de los datos públicos, para responder a los GET condicionales
+ * (If-None-Match / If-Modified-Since) sin consultar la base de datos.
+ *
+ * Cada torneo tiene un contador que sube con cada escritura que le afecta; un contador general
+ * sube con las escrituras que pueden afectar a cualquier torneo (equipos, jugadores, deportes...).
+ * El ETag de un torneo combina ambos con el instante de arranque, de modo que tras reiniciar no
+ * coincide ningún ETag anterior. Las versiones suben después de confirmarse la escritura: una
+ * lectura que se cruce con ella puede etiquetar datos nuevos con la versión vieja (y se volverán a
+ * enviar), pero nunca datos viejos con la versión nueva.
+ *
+ * Los contadores son de esta instancia: con varias instancias detrás de un balanceador cada una
+ * tendría los suyos y habría que compartirlos.
+ */
+@Service
+public class VersionesRecursos {
+
+    /** Etiqueta (sin comillas) y fecha de última modificación (ms) de un recurso. */
+    public record Version(String etiqueta, long ultimoCambio) {}
+
+    private record Estado(long numero, long instante) {}
+
+    private final PartidoRepository partidoRepository;
+    private final String arranque;
+    private final Estado inicial;
+    private final AtomicReference<Estado> general;
+    private final AtomicLong reloj;
+    private final Map<Long, Estado> porTorneo = new ConcurrentHashMap<>();
+    private final int maxPartidos;
+    private final Map<Long, Long> torneoDePartido;
+
+    public VersionesRecursos(PartidoRepository partidoRepository,
+                             @Value("${torneados.cache-http.max-partidos:100000}") int maxPartidos) {
+        this.partidoRepository = partidoRepository;
+        long ahora = System.currentTimeMillis();
+        this.arranque = Long.toString(ahora, 36);
+        this.inicial = new Estado(0, ahora);
+        this.general = new AtomicReference<>(inicial);
+        this.reloj = new AtomicLong(ahora);
+        this.maxPartidos = maxPartidos;
+        this.torneoDePartido = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+                return size() > VersionesRecursos.this.maxPartidos;
+            }
+        };
+    }
+
+    /** Versión de los datos de un torneo (el torneo, sus equipos, partidos, clasificación...). */
+    public Version getVersionTorneo(Long idTorneo) {
+        Estado g = general.get();
+        Estado t = porTorneo.getOrDefault(idTorneo, inicial);
+        return new Version(arranque + "-" + g.numero() + "-" + t.numero(),
+            Math.max(g.instante(), t.instante()));
+    }
+
+    /** Versión de los datos que no pertenecen a un torneo concreto (por ejemplo, los deportes). */
+    public Version getVersionGeneral() {
+        Estado g = general.get();
+        return new Version(arranque + "-" + g.numero(), g.instante());
+    }
+
+    /**
+     * Torneo de un partido. Se consulta una vez y se recuerda, porque no cambia.
+     *
+     * @return El ID del torneo, o null si el partido no existe.
+     */
+    public Long getTorneoDePartido(Long idPartido) {
+        synchronized (torneoDePartido) {
+            Long idTorneo = torneoDePartido.get(idPartido);
+            if (idTorneo != null) {
+                return idTorneo;
+            }
+        }
+        Long idTorneo = partidoRepository.findIdTorneoByIdPartido(idPartido).orElse(null);
+        if (idTorneo != null && maxPartidos > 0) {
+            synchronized (torneoDePartido) {
+                torneoDePartido.put(idPartido, idTorneo);
+            }
+        }
+        return idTorneo;
+    }
+
+    /**
+     * Sube la versión de un torneo. Si hay una transacción en curso, al confirmarse.
+     */
+    public void marcarCambioTorneo(Long idTorneo) {
+        despuesDeConfirmar(() -> porTorneo.compute(idTorneo,
+            (k, estado) -> siguiente(estado != null ? estado : inicial)));
+    }
+
+    /**
+     * Sube la versión general, que cambia el ETag de todos los torneos.
+     * Si hay una transacción en curso, al confirmarse.
+     */
+    public void marcarCambioGeneral() {
+        despuesDeConfirmar(() -> general.updateAndGet(this::siguiente));
+    }
+
+    /**
+     * Cada cambio recibe un instante al menos un segundo posterior al del cambio anterior, de
+     * cualquier recurso: Last-Modified tiene precisión de segundos y así dos versiones distintas
+     * nunca comparten fecha.
+     */
+    private Estado siguiente(Estado actual) {
+        long instante = reloj.updateAndGet(previo -> Math.max(System.currentTimeMillis(), previo + 1000));
+        return new Estado(actual.numero() + 1, instante);
+    }
+
+    private static void despuesDeConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
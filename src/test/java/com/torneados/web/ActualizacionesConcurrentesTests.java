@@ -0,0 +1,264 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Jugador;
+import com.torneados.web.entities.Partido;
+import com.torneados.web.entities.PartidoEquipos;
+import com.torneados.web.entities.PartidoJugadores;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.entities.TorneoJugadores;
+import com.torneados.web.entities.ids.PartidoEquiposId;
+import com.torneados.web.entities.ids.PartidoJugadoresId;
+import com.torneados.web.entities.ids.TorneoJugadoresId;
+import com.torneados.web.repositories.JugadorRepository;
+import com.torneados.web.repositories.PartidoEquiposRepository;
+import com.torneados.web.repositories.PartidoJugadoresRepository;
+import com.torneados.web.repositories.PartidoRepository;
+import com.torneados.web.repositories.TorneoEquiposRepository;
+import com.torneados.web.repositories.TorneoJugadoresRepository;
+import com.torneados.web.service.PartidoEquiposService;
+import com.torneados.web.service.PartidoJugadoresService;
+
+/**
+ * Prueba de carga de las actualizaciones de marcadores y estadísticas de jugadores.
+ *
+ * Varios hilos cambian a la vez los marcadores de los dos equipos y las estadísticas de dos
+ * jugadores en los mismos sets de un partido. Al terminar, la clasificación y los totales del
+ * torneo deben coincidir exactamente con lo que se deduce de los marcadores y estadísticas finales:
+ * si alguna diferencia se hubiera calculado sobre valores ya cambiados por otro hilo, no cuadraría.
+ */
+@SpringBootTest(properties = "torneados.reintentos.max-intentos=20")
+@ActiveProfiles("test")
+@Import(DatosPrueba.class)
+class ActualizacionesConcurrentesTests {
+
+    private static final int NUM_SETS = 4;
+    private static final int HILOS = 8;
+    private static final int CAMBIOS_POR_HILO = 40;
+
+    @Autowired private DatosPrueba datos;
+    @Autowired private JugadorRepository jugadorRepository;
+    @Autowired private TorneoEquiposRepository torneoEquiposRepository;
+    @Autowired private TorneoJugadoresRepository torneoJugadoresRepository;
+    @Autowired private PartidoRepository partidoRepository;
+    @Autowired private PartidoEquiposRepository partidoEquiposRepository;
+    @Autowired private PartidoJugadoresRepository partidoJugadoresRepository;
+    @Autowired private PartidoEquiposService partidoEquiposService;
+    @Autowired private PartidoJugadoresService partidoJugadoresService;
+
+    private Torneo torneo;
+    private Partido partido;
+    private final List<Equipo> equipos = new ArrayList<>();
+    private final List<Jugador> jugadores = new ArrayList<>();
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+
+        partido = new Partido();
+        partido.setTorneo(torneo);
+        partido.setJornada(1);
+        partido = partidoRepository.save(partido);
+
+        for (int i = 0; i < 2; i++) {
+            // Como tras el sorteo: los sets sin marcador y la clasificación a cero
+            Equipo equipo = datos.inscribirEquipo(torneo, "Equipo " + i, null);
+            equipos.add(equipo);
+
+            Jugador jugador = new Jugador();
+            jugador.setNombre("Jugador " + i);
+            jugador.setEquipo(equipo);
+            jugador = jugadorRepository.save(jugador);
+            jugadores.add(jugador);
+
+            TorneoJugadores totales = new TorneoJugadores();
+            TorneoJugadoresId idTotales = new TorneoJugadoresId();
+            idTotales.setTorneo(torneo);
+            idTotales.setJugador(jugador);
+            totales.setId(idTotales);
+            totales.setTorneo(torneo);
+            totales.setJugador(jugador);
+            torneoJugadoresRepository.save(totales);
+
+            for (int set = 1; set <= NUM_SETS; set++) {
+                guardarMarcador(equipo, set, i == 0);
+                guardarEstadisticas(jugador, set);
+            }
+        }
+    }
+
+    private void guardarMarcador(Equipo equipo, int numSet, boolean esLocal) {
+        PartidoEquipos marcador = new PartidoEquipos();
+        PartidoEquiposId id = new PartidoEquiposId();
+        id.setPartido(partido);
+        id.setEquipo(equipo);
+        id.setNumSet(numSet);
+        marcador.setId(id);
+        marcador.setPartido(partido);
+        marcador.setEquipo(equipo);
+        marcador.setEsLocal(esLocal);
+        partidoEquiposRepository.save(marcador);
+    }
+
+    private void guardarEstadisticas(Jugador jugador, int numSet) {
+        PartidoJugadores estadisticas = new PartidoJugadores();
+        PartidoJugadoresId id = new PartidoJugadoresId();
+        id.setPartido(partido);
+        id.setJugador(jugador);
+        id.setNumSet(numSet);
+        estadisticas.setId(id);
+        estadisticas.setPartido(partido);
+        estadisticas.setJugador(jugador);
+        partidoJugadoresRepository.save(estadisticas);
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void noSePierdenActualizacionesConcurrentes() throws Exception {
+        AtomicInteger conflictos = new AtomicInteger();
+        CountDownLatch salida = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(pool.submit(() -> {
+                datos.autenticarCreador(torneo);
+                salida.await();
+                ThreadLocalRandom azar = ThreadLocalRandom.current();
+                for (int i = 0; i < CAMBIOS_POR_HILO; i++) {
+                    int lado = azar.nextInt(2);
+                    int set = 1 + azar.nextInt(NUM_SETS);
+                    try {
+                        if (azar.nextBoolean()) {
+                            cambiarMarcador(lado, set, azar.nextInt(6));
+                        } else {
+                            cambiarEstadisticas(lado, set, azar);
+                        }
+                    } catch (ConcurrencyFailureException e) {
+                        // Agotó los reintentos: la transacción se deshizo entera y no debe dejar rastro
+                        conflictos.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        salida.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        assertThat(conflictos.get())
+            .as("Cambios que agotaron los reintentos")
+            .isLessThan(HILOS * CAMBIOS_POR_HILO / 10);
+        comprobarClasificacion();
+        comprobarTotalesJugadores();
+    }
+
+    private void cambiarMarcador(int lado, int set, int puntos) {
+        PartidoEquipos cambio = new PartidoEquipos();
+        cambio.setPuntos(puntos);
+        partidoEquiposService.updatePartidoEquipos(
+            partido.getIdPartido(), equipos.get(lado).getIdEquipo(), set, cambio);
+    }
+
+    private void cambiarEstadisticas(int lado, int set, ThreadLocalRandom azar) {
+        PartidoJugadores cambio = new PartidoJugadores();
+        PartidoJugadoresId id = new PartidoJugadoresId();
+        id.setNumSet(set);
+        cambio.setId(id);
+        cambio.setJugado(azar.nextBoolean());
+        cambio.setPuntos(azar.nextInt(4));
+        cambio.setTarjetasAmarillas(azar.nextInt(2));
+        cambio.setTarjetasRojas(azar.nextInt(2));
+        partidoJugadoresService.updatePartidoJugadores(
+            partido.getIdPartido(), jugadores.get(lado).getIdJugador(), cambio);
+    }
+
+    private void comprobarClasificacion() {
+        Integer[][] puntos = new Integer[2][NUM_SETS + 1];
+        for (PartidoEquipos marcador : partidoEquiposRepository.findByIdPartidoIdPartido(partido.getIdPartido())) {
+            int lado = marcador.getId().getEquipo().getIdEquipo().equals(equipos.get(0).getIdEquipo()) ? 0 : 1;
+            puntos[lado][marcador.getId().getNumSet()] = marcador.getPuntos();
+        }
+
+        for (int lado = 0; lado < 2; lado++) {
+            int golesFavor = 0, golesContra = 0, ganados = 0, empatados = 0, perdidos = 0;
+            for (int set = 1; set <= NUM_SETS; set++) {
+                // Un set solo cuenta cuando ambos equipos tienen marcador
+                if (puntos[lado][set] == null || puntos[1 - lado][set] == null) {
+                    continue;
+                }
+                int gf = puntos[lado][set];
+                int gc = puntos[1 - lado][set];
+                golesFavor += gf;
+                golesContra += gc;
+                if (gf > gc) ganados++;
+                else if (gf == gc) empatados++;
+                else perdidos++;
+            }
+
+            Long idEquipo = equipos.get(lado).getIdEquipo();
+            TorneoEquipos te = torneoEquiposRepository.findByIdTorneoIdTorneo(torneo.getIdTorneo()).stream()
+                .filter(t -> t.getId().getEquipo().getIdEquipo().equals(idEquipo))
+                .findFirst()
+                .orElseThrow();
+            String equipo = "Equipo " + lado;
+            assertThat(te.getGolesFavor()).as("Goles a favor de %s", equipo).isEqualTo(golesFavor);
+            assertThat(te.getGolesContra()).as("Goles en contra de %s", equipo).isEqualTo(golesContra);
+            assertThat(te.getPartidosGanados()).as("Ganados de %s", equipo).isEqualTo(ganados);
+            assertThat(te.getPartidosEmpatados()).as("Empatados de %s", equipo).isEqualTo(empatados);
+            assertThat(te.getPartidosPerdidos()).as("Perdidos de %s", equipo).isEqualTo(perdidos);
+        }
+    }
+
+    private void comprobarTotalesJugadores() {
+        for (Jugador jugador : jugadores) {
+            boolean jugo = false;
+            int puntos = 0, amarillas = 0, rojas = 0;
+            for (PartidoJugadores set : partidoJugadoresRepository.findByIdPartidoIdPartido(partido.getIdPartido())) {
+                if (!set.getId().getJugador().getIdJugador().equals(jugador.getIdJugador())) {
+                    continue;
+                }
+                jugo |= set.isJugado();
+                puntos += set.getPuntos();
+                amarillas += set.getTarjetasAmarillas();
+                rojas += set.getTarjetasRojas();
+            }
+
+            TorneoJugadores tj = torneoJugadoresRepository.findByIdTorneoIdTorneo(torneo.getIdTorneo()).stream()
+                .filter(t -> t.getId().getJugador().getIdJugador().equals(jugador.getIdJugador()))
+                .findFirst()
+                .orElseThrow();
+            assertThat(tj.getPartidos()).as("Partidos de %s", jugador.getNombre()).isEqualTo(jugo ? 1 : 0);
+            assertThat(tj.getPuntos()).as("Puntos de %s", jugador.getNombre()).isEqualTo(puntos);
+            assertThat(tj.getTarjetasAmarillas()).as("Amarillas de %s", jugador.getNombre()).isEqualTo(amarillas);
+            assertThat(tj.getTarjetasRojas()).as("Rojas de %s", jugador.getNombre()).isEqualTo(rojas);
+        }
+    }
+}
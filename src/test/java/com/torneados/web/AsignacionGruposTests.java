@@ -0,0 +1,135 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.torneados.web.dto.ClasificacionDTO;
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.entities.ids.TorneoEquiposId;
+import com.torneados.web.repositories.TorneoEquiposRepository;
+import com.torneados.web.service.ClasificacionService;
+import com.torneados.web.service.PartidoService;
+import com.torneados.web.service.PartidoService.PlanSorteo;
+import com.torneados.web.service.TorneoEquiposService;
+
+/**
+ * Asignación de grupos del sorteo: un UPDATE ... CASE que solo toca los equipos del torneo y descarta
+ * la clasificación guardada, y nombres de grupo a partir del 27º (AA, AB, …).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(DatosPrueba.class)
+class AsignacionGruposTests {
+
+    @Autowired private DatosPrueba datos;
+    @Autowired private TorneoEquiposRepository torneoEquiposRepository;
+    @Autowired private TorneoEquiposService torneoEquiposService;
+    @Autowired private ClasificacionService clasificacionService;
+    @Autowired private PartidoService partidoService;
+
+    private Torneo torneo;
+    private Torneo otroTorneo;
+    private final List<Equipo> equipos = new ArrayList<>();
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        for (int i = 0; i < 4; i++) {
+            equipos.add(datos.inscribirEquipo(torneo, "Equipo " + i, null));
+        }
+        otroTorneo = datos.crearTorneo();
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+        datos.borrar(otroTorneo);
+    }
+
+    @Test
+    void asignaLosGruposDelTorneoYDescartaLaClasificacion() {
+        Equipo ajeno = datos.inscribirEquipo(otroTorneo, "Ajeno", null);
+        assertThat(clasificacionService.getClasificacion(torneo.getIdTorneo()))
+            .extracting(ClasificacionDTO::getGrupo)
+            .containsExactly((String) null);
+
+        Map<Long, String> grupoPorEquipo = new LinkedHashMap<>();
+        grupoPorEquipo.put(equipos.get(0).getIdEquipo(), "A");
+        grupoPorEquipo.put(equipos.get(1).getIdEquipo(), "A");
+        grupoPorEquipo.put(equipos.get(2).getIdEquipo(), "AA");
+        grupoPorEquipo.put(equipos.get(3).getIdEquipo(), "AA");
+        grupoPorEquipo.put(ajeno.getIdEquipo(), "B");
+        torneoEquiposService.asignarGrupos(torneo.getIdTorneo(), grupoPorEquipo);
+
+        assertThat(gruposEnBaseDeDatos(torneo)).containsExactlyInAnyOrderEntriesOf(Map.of(
+            equipos.get(0).getIdEquipo(), "A", equipos.get(1).getIdEquipo(), "A",
+            equipos.get(2).getIdEquipo(), "AA", equipos.get(3).getIdEquipo(), "AA"));
+        assertThat(torneoEquiposRepository.findByIdTorneoIdTorneo(otroTorneo.getIdTorneo()))
+            .extracting(TorneoEquipos::getGrupo)
+            .containsOnlyNulls();
+
+        // La clasificación guardada antes del sorteo ya no se sirve
+        assertThat(clasificacionService.getClasificacion(torneo.getIdTorneo()))
+            .extracting(ClasificacionDTO::getGrupo)
+            .containsExactly("A", "AA");
+    }
+
+    @Test
+    void nombraLosGruposMasAllaDeLaZ() {
+        // 112 equipos: 28 grupos de 4
+        List<TorneoEquipos> inscritos = new ArrayList<>();
+        for (long id = 1; id <= 112; id++) {
+            inscritos.add(inscritoEnMemoria(id));
+        }
+
+        PlanSorteo plan = partidoService.planificarGrupos(inscritos, false, new Random(7));
+
+        Map<String, Long> equiposPorGrupo = new TreeMap<>(plan.grupoPorEquipo().values().stream()
+            .collect(Collectors.groupingBy(g -> g, Collectors.counting())));
+        List<String> esperados = new ArrayList<>();
+        for (char c = 'A'; c <= 'Z'; c++) {
+            esperados.add(String.valueOf(c));
+        }
+        esperados.add("AA");
+        esperados.add("AB");
+        assertThat(equiposPorGrupo.keySet()).containsExactlyInAnyOrderElementsOf(esperados);
+        assertThat(equiposPorGrupo.values()).containsOnly(4L);
+        assertThat(plan.partidos()).hasSize(28 * 6);
+    }
+
+    private Map<Long, String> gruposEnBaseDeDatos(Torneo t) {
+        Map<Long, String> grupos = new TreeMap<>();
+        for (TorneoEquipos te : torneoEquiposRepository.findByIdTorneoIdTorneo(t.getIdTorneo())) {
+            grupos.put(te.getId().getEquipo().getIdEquipo(), te.getGrupo());
+        }
+        return grupos;
+    }
+
+    private static TorneoEquipos inscritoEnMemoria(Long idEquipo) {
+        Equipo equipo = new Equipo();
+        equipo.setIdEquipo(idEquipo);
+        TorneoEquiposId id = new TorneoEquiposId();
+        id.setEquipo(equipo);
+        TorneoEquipos te = new TorneoEquipos();
+        te.setId(id);
+        te.setEquipo(equipo);
+        return te;
+    }
+}
@@ -0,0 +1,103 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.security.JwtUtil;
+import com.torneados.web.service.VersionesRecursos;
+
+/**
+ * GET condicionales de las lecturas públicas: mientras la versión del torneo en VersionesRecursos no
+ * cambia se responde 304 sin cuerpo, y en cuanto una escritura la sube se vuelve a enviar la respuesta
+ * completa con el ETag nuevo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Import(DatosPrueba.class)
+class CacheCondicionalTests {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private DatosPrueba datos;
+    @Autowired private VersionesRecursos versionesRecursos;
+
+    private Torneo torneo;
+    private String clasificacion;
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        datos.inscribirEquipo(torneo, "Equipo", null);
+        clasificacion = "/api/v1/torneos/" + torneo.getIdTorneo() + "/clasificacion";
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void respondeNoModificadoSiElClienteTieneLaVersion() throws Exception {
+        MvcResult primera = mockMvc.perform(get(clasificacion))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(header().string(HttpHeaders.ETAG, etagActual()))
+            .andReturn();
+
+        mockMvc.perform(get(clasificacion)
+                .header(HttpHeaders.IF_NONE_MATCH, primera.getResponse().getHeader(HttpHeaders.ETAG)))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void unaEscrituraDelTorneoCambiaElEtag() throws Exception {
+        String anterior = mockMvc.perform(get(clasificacion)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        String token = JwtUtil.generateToken(torneo.getCreador().getGoogleId(),
+            torneo.getCreador().getIdUsuario(), "USUARIO");
+        mockMvc.perform(post("/api/v1/torneos/" + torneo.getIdTorneo() + "/partidos")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isCreated());
+
+        String nuevo = mockMvc.perform(get(clasificacion).header(HttpHeaders.IF_NONE_MATCH, anterior))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(nuevo).isNotEqualTo(anterior).isEqualTo(etagActual());
+    }
+
+    @Test
+    void usaLaFechaDeLaVersionParaIfModifiedSince() throws Exception {
+        String ultimoCambio = mockMvc.perform(get(clasificacion))
+            .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+
+        mockMvc.perform(get(clasificacion).header(HttpHeaders.IF_MODIFIED_SINCE, ultimoCambio))
+            .andExpect(status().isNotModified());
+
+        // Un cambio general (equipos, jugadores, deportes...) afecta a todos los torneos
+        versionesRecursos.marcarCambioGeneral();
+        mockMvc.perform(get(clasificacion).header(HttpHeaders.IF_MODIFIED_SINCE, ultimoCambio))
+            .andExpect(status().isOk());
+    }
+
+    private String etagActual() {
+        return "\"" + versionesRecursos.getVersionTorneo(torneo.getIdTorneo()).etiqueta() + "\"";
+    }
+}
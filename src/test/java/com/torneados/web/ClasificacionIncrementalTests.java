@@ -0,0 +1,111 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.PartidoEquipos;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.repositories.PartidoBatchRepository;
+import com.torneados.web.repositories.PartidoBatchRepository.PartidoPlan;
+import com.torneados.web.service.PartidoEquiposService;
+import com.torneados.web.service.TorneoEquiposService;
+
+/**
+ * Clasificación incremental a partir de un partido recién sorteado: sus sets no tienen marcador,
+ * así que no cuentan hasta que ambos equipos tienen puntos, y el recálculo completo coincide
+ * en cada paso con lo acumulado.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(DatosPrueba.class)
+class ClasificacionIncrementalTests {
+
+    @Autowired private DatosPrueba datos;
+    @Autowired private PartidoBatchRepository partidoBatchRepository;
+    @Autowired private PartidoEquiposService partidoEquiposService;
+    @Autowired private TorneoEquiposService torneoEquiposService;
+
+    private Torneo torneo;
+    private Long idPartido;
+    private final List<Equipo> equipos = new ArrayList<>();
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        for (int i = 0; i < 2; i++) {
+            equipos.add(datos.inscribirEquipo(torneo, "Equipo " + i, null));
+        }
+
+        // El partido se inserta igual que en el sorteo
+        idPartido = partidoBatchRepository.insertarPartidos(torneo.getIdTorneo(),
+            List.of(new PartidoPlan(1, 0, equipos.get(0).getIdEquipo(), equipos.get(1).getIdEquipo())),
+            Map.of()).get(0);
+
+        datos.autenticarCreador(torneo);
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void losSetsSorteadosNoCuentanHastaTenerMarcadorDeAmbos() {
+        assertThat(partidoEquiposService.getPartidoEquipos(idPartido))
+            .extracting(PartidoEquipos::getPuntos)
+            .containsOnlyNulls();
+
+        // Solo un equipo con puntos: el set aún no cuenta
+        anotar(0, 3);
+        comprobar(0, 0, 0, 0, 0, 0);
+        comprobar(1, 0, 0, 0, 0, 0);
+
+        // Con ambos marcadores cuenta una sola vez, sin empates fantasma del 0-0 inicial
+        anotar(1, 2);
+        comprobar(0, 3, 2, 1, 0, 0);
+        comprobar(1, 2, 3, 0, 0, 1);
+
+        anotar(1, 3);
+        comprobar(0, 3, 3, 0, 1, 0);
+        comprobar(1, 3, 3, 0, 1, 0);
+
+        // Al borrar el marcador de un equipo el set deja de contar
+        partidoEquiposService.deletePartidoEquipos(idPartido, equipos.get(1).getIdEquipo());
+        comprobar(0, 0, 0, 0, 0, 0);
+        comprobar(1, 0, 0, 0, 0, 0);
+    }
+
+    private void anotar(int lado, int puntos) {
+        PartidoEquipos cambio = new PartidoEquipos();
+        cambio.setPuntos(puntos);
+        partidoEquiposService.updatePartidoEquipos(idPartido, equipos.get(lado).getIdEquipo(), 1, cambio);
+    }
+
+    /** Comprueba la fila acumulada del equipo y que el recálculo completo da lo mismo. */
+    private void comprobar(int lado, int golesFavor, int golesContra, int ganados, int empatados, int perdidos) {
+        Long idEquipo = equipos.get(lado).getIdEquipo();
+        TorneoEquipos acumulado = torneoEquiposService.getEquipoById(torneo.getIdTorneo(), idEquipo);
+        TorneoEquipos recalculado = torneoEquiposService.updateEquipoDataInTorneo(torneo.getIdTorneo(), idEquipo);
+        for (TorneoEquipos te : List.of(acumulado, recalculado)) {
+            String equipo = "Equipo " + lado;
+            assertThat(te.getGolesFavor()).as("Goles a favor de %s", equipo).isEqualTo(golesFavor);
+            assertThat(te.getGolesContra()).as("Goles en contra de %s", equipo).isEqualTo(golesContra);
+            assertThat(te.getPartidosGanados()).as("Ganados de %s", equipo).isEqualTo(ganados);
+            assertThat(te.getPartidosEmpatados()).as("Empatados de %s", equipo).isEqualTo(empatados);
+            assertThat(te.getPartidosPerdidos()).as("Perdidos de %s", equipo).isEqualTo(perdidos);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Partido;
+import com.torneados.web.entities.PartidoEquipos;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.ids.PartidoEquiposId;
+import com.torneados.web.repositories.PartidoEquiposRepository;
+import com.torneados.web.repositories.PartidoRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Presupuesto de sentencias SQL por endpoint de lectura.
+ *
+ * Las asociaciones de las entidades son LAZY; si un endpoint serializa una asociación
+ * que su repositorio no carga, Hibernate lanza una consulta por fila (N+1) y el
+ * número de sentencias supera el presupuesto.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Import(DatosPrueba.class)
+class ConsultasPorEndpointTests {
+
+    private static final int NUM_EQUIPOS = 8;
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private DatosPrueba datos;
+    @Autowired private PartidoRepository partidoRepository;
+    @Autowired private PartidoEquiposRepository partidoEquiposRepository;
+
+    private Torneo torneo;
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        List<Equipo> equipos = new ArrayList<>();
+        for (int i = 0; i < NUM_EQUIPOS; i++) {
+            equipos.add(datos.inscribirEquipo(torneo, "Equipo " + i, "A"));
+        }
+
+        for (int i = 0; i < NUM_EQUIPOS; i += 2) {
+            Partido partido = new Partido();
+            partido.setTorneo(torneo);
+            partido.setJornada(1);
+            partido = partidoRepository.save(partido);
+            guardarMarcador(partido, equipos.get(i), true, 2);
+            guardarMarcador(partido, equipos.get(i + 1), false, 1);
+        }
+    }
+
+    private void guardarMarcador(Partido partido, Equipo equipo, boolean esLocal, int puntos) {
+        PartidoEquipos marcador = new PartidoEquipos();
+        PartidoEquiposId id = new PartidoEquiposId();
+        id.setPartido(partido);
+        id.setEquipo(equipo);
+        id.setNumSet(1);
+        marcador.setId(id);
+        marcador.setPartido(partido);
+        marcador.setEquipo(equipo);
+        marcador.setEsLocal(esLocal);
+        marcador.setPuntos(puntos);
+        partidoEquiposRepository.save(marcador);
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void detalleDeTorneo() throws Exception {
+        assertPresupuesto("/api/v1/torneos/" + torneo.getIdTorneo(), 1);
+    }
+
+    @Test
+    void listadoDeTorneos() throws Exception {
+        // Página + count(*)
+        assertPresupuesto("/api/v1/torneos?size=20", 2);
+    }
+
+    @Test
+    void equiposDeTorneo() throws Exception {
+        // Validación del torneo + equipos con su creador
+        assertPresupuesto("/api/v1/torneos/" + torneo.getIdTorneo() + "/equipos", 2);
+    }
+
+    @Test
+    void partidosDeTorneo() throws Exception {
+        assertPresupuesto("/api/v1/torneos/" + torneo.getIdTorneo() + "/partidos", 2);
+    }
+
+    @Test
+    void resumenes() throws Exception {
+        assertPresupuesto("/api/v1/torneos/" + torneo.getIdTorneo() + "/equipos/resumen", 1);
+        assertPresupuesto("/api/v1/torneos/" + torneo.getIdTorneo() + "/partidos/resumen", 1);
+    }
+
+    @Test
+    void clasificacion() throws Exception {
+        // Inscritos + marcadores
+        assertPresupuesto("/api/v1/torneos/" + torneo.getIdTorneo() + "/clasificacion", 2);
+    }
+
+    private void assertPresupuesto(String url, int maxSentencias) throws Exception {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+
+        assertThat(estadisticas.getPrepareStatementCount())
+            .as("Sentencias SQL de GET %s", url)
+            .isLessThanOrEqualTo(maxSentencias);
+    }
+}
@@ -0,0 +1,118 @@
+package com.torneados.web;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.test.context.TestComponent;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import com.torneados.web.entities.Deporte;
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.entities.Usuario;
+import com.torneados.web.entities.ids.TorneoEquiposId;
+import com.torneados.web.repositories.DeporteRepository;
+import com.torneados.web.repositories.EquipoRepository;
+import com.torneados.web.repositories.TorneoEquiposRepository;
+import com.torneados.web.repositories.TorneoRepository;
+import com.torneados.web.repositories.UsuarioRepository;
+
+/**
+ * Datos de prueba en el esquema del perfil "test": un torneo de liga con su creador y su deporte,
+ * con nombres únicos para que las pruebas no choquen entre sí aunque el esquema se reutilice.
+ * Se añade a cada prueba con {@code @Import(DatosPrueba.class)} y se borra con {@link #borrar}.
+ */
+@TestComponent
+public class DatosPrueba {
+
+    private final UsuarioRepository usuarioRepository;
+    private final DeporteRepository deporteRepository;
+    private final TorneoRepository torneoRepository;
+    private final EquipoRepository equipoRepository;
+    private final TorneoEquiposRepository torneoEquiposRepository;
+
+    public DatosPrueba(UsuarioRepository usuarioRepository, DeporteRepository deporteRepository,
+                       TorneoRepository torneoRepository, EquipoRepository equipoRepository,
+                       TorneoEquiposRepository torneoEquiposRepository) {
+        this.usuarioRepository = usuarioRepository;
+        this.deporteRepository = deporteRepository;
+        this.torneoRepository = torneoRepository;
+        this.equipoRepository = equipoRepository;
+        this.torneoEquiposRepository = torneoEquiposRepository;
+    }
+
+    /**
+     * Crea un usuario, un deporte y un torneo de liga suyo que empieza mañana.
+     * El creador y el deporte se obtienen del torneo devuelto.
+     */
+    public Torneo crearTorneo() {
+        String sufijo = UUID.randomUUID().toString().substring(0, 8);
+
+        Usuario creador = new Usuario();
+        creador.setGoogleId("test-" + sufijo);
+        creador.setEmail("test-" + sufijo + "@torneados.com");
+        creador.setNombre("Creador " + sufijo);
+        creador.setRol(Usuario.Rol.USUARIO);
+        creador = usuarioRepository.save(creador);
+
+        Deporte deporte = new Deporte();
+        deporte.setDeporte("Deporte " + sufijo);
+        deporte = deporteRepository.save(deporte);
+
+        Torneo torneo = new Torneo();
+        torneo.setNombre("Torneo " + sufijo);
+        torneo.setLugar("Sevilla");
+        torneo.setDeporte(deporte);
+        torneo.setCreador(creador);
+        torneo.setLiga(true);
+        torneo.setFechaComienzo(LocalDateTime.now().plusDays(1));
+        torneo.setFechaFin(LocalDateTime.now().plusDays(30));
+        return torneoRepository.save(torneo);
+    }
+
+    /**
+     * Crea un equipo del creador del torneo y lo inscribe, con la clasificación a cero.
+     *
+     * @param grupo Grupo del equipo en el torneo, o null si no tiene.
+     */
+    public Equipo inscribirEquipo(Torneo torneo, String nombre, String grupo) {
+        Equipo equipo = new Equipo();
+        equipo.setNombre(nombre);
+        equipo.setCreador(torneo.getCreador());
+        equipo = equipoRepository.save(equipo);
+
+        TorneoEquipos inscrito = new TorneoEquipos();
+        TorneoEquiposId id = new TorneoEquiposId();
+        id.setTorneo(torneo);
+        id.setEquipo(equipo);
+        inscrito.setId(id);
+        inscrito.setTorneo(torneo);
+        inscrito.setEquipo(equipo);
+        inscrito.setGrupo(grupo);
+        torneoEquiposRepository.save(inscrito);
+        return equipo;
+    }
+
+    /**
+     * Autentica al creador del torneo en el hilo actual.
+     */
+    public void autenticarCreador(Torneo torneo) {
+        User principal = new User(torneo.getCreador().getGoogleId(), "", List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    /**
+     * Borra el creador y el deporte del torneo; el borrado en cascada de la base de datos
+     * elimina el torneo y sus equipos, jugadores, partidos y trabajos.
+     */
+    public void borrar(Torneo torneo) {
+        SecurityContextHolder.clearContext();
+        usuarioRepository.deleteById(torneo.getCreador().getIdUsuario());
+        deporteRepository.deleteById(torneo.getDeporte().getIdDeporte());
+    }
+}
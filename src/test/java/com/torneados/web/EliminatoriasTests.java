@@ -0,0 +1,140 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Jugador;
+import com.torneados.web.entities.Partido;
+import com.torneados.web.entities.PartidoEquipos;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.exceptions.BadRequestException;
+import com.torneados.web.repositories.JugadorRepository;
+import com.torneados.web.repositories.PartidoBatchRepository.PartidoPlan;
+import com.torneados.web.repositories.PartidoEquiposRepository;
+import com.torneados.web.repositories.PartidoJugadoresRepository;
+import com.torneados.web.repositories.PartidoRepository;
+import com.torneados.web.repositories.TorneoEquiposRepository;
+import com.torneados.web.service.PartidoService;
+import com.torneados.web.service.PartidoService.PlanSorteo;
+
+/**
+ * Cuadro eliminatorio de 6 equipos que vienen de liga (ya ordenados por clasificación): 2 byes para
+ * los dos primeros, que pasan directos a segunda ronda, y 5 partidos guardados en lote y enlazados
+ * con su siguiente por ID.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(DatosPrueba.class)
+class EliminatoriasTests {
+
+    private static final int EQUIPOS = 6;
+
+    @Autowired private DatosPrueba datos;
+    @Autowired private JugadorRepository jugadorRepository;
+    @Autowired private PartidoRepository partidoRepository;
+    @Autowired private PartidoEquiposRepository partidoEquiposRepository;
+    @Autowired private PartidoJugadoresRepository partidoJugadoresRepository;
+    @Autowired private TorneoEquiposRepository torneoEquiposRepository;
+    @Autowired private PartidoService partidoService;
+
+    private Torneo torneo;
+    private final List<Equipo> equipos = new ArrayList<>();
+    private List<TorneoEquipos> inscritos;
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        for (int i = 0; i < EQUIPOS; i++) {
+            Equipo equipo = datos.inscribirEquipo(torneo, "Equipo " + i, null);
+            equipos.add(equipo);
+
+            Jugador jugador = new Jugador();
+            jugador.setNombre("Jugador " + i);
+            jugador.setEquipo(equipo);
+            jugadorRepository.save(jugador);
+        }
+        // Orden de clasificación: el equipo 0 es el 1º
+        inscritos = new ArrayList<>(torneoEquiposRepository.findByIdTorneoIdTorneo(torneo.getIdTorneo()));
+        inscritos.sort(Comparator.comparing(te -> te.getId().getEquipo().getIdEquipo()));
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void planificaElCuadroConByesYEnlaces() {
+        List<PartidoPlan> planes = partidoService.planificarEliminatorias(torneo, inscritos, new Random(1)).partidos();
+
+        // Primera ronda: 4º-5º y 3º-6º; los exentos (1º y 2º) esperan en segunda ronda
+        assertThat(planes).containsExactly(
+            new PartidoPlan(null, 1, equipo(3), equipo(4), 2, false),
+            new PartidoPlan(null, 1, equipo(2), equipo(5), 3, false),
+            new PartidoPlan(null, 2, equipo(0), null, 4, true),
+            new PartidoPlan(null, 2, equipo(1), null, 4, false),
+            new PartidoPlan(null, 3, null, null, null, null));
+    }
+
+    @Test
+    void guardaElCuadroEnLoteYElGanadorAvanzaASuHueco() {
+        PlanSorteo plan = partidoService.planificarEliminatorias(torneo, inscritos, new Random(1));
+        List<Long> ids = partidoService.guardarPartidos(torneo.getIdTorneo(), plan.partidos());
+
+        assertThat(ids).hasSize(EQUIPOS - 1);
+        List<Partido> guardados = ids.stream().map(id -> partidoRepository.findById(id).orElseThrow()).toList();
+        assertThat(guardados).extracting(Partido::getIdPartidoSiguiente)
+            .containsExactly(ids.get(2), ids.get(3), ids.get(4), ids.get(4), null);
+        assertThat(guardados).extracting(Partido::getEsLocalEnSiguiente)
+            .containsExactly(false, false, true, false, null);
+
+        // Cada equipo colocado tiene su fila de set 1 y la de su jugador; la final está vacía
+        assertThat(equiposDe(ids.get(0))).containsExactlyInAnyOrder(equipo(3), equipo(4));
+        assertThat(equiposDe(ids.get(2))).containsExactly(equipo(0));
+        assertThat(equiposDe(ids.get(4))).isEmpty();
+        assertThat(partidoJugadoresRepository.findByIdPartidoIdPartido(ids.get(0))).hasSize(2);
+        assertThat(partidoJugadoresRepository.findByIdPartidoIdPartido(ids.get(2))).hasSize(1);
+
+        partidoService.avanzarGanador(guardados.get(0), equipo(4));
+
+        List<PartidoEquipos> segundaRonda = partidoEquiposRepository.findByIdPartidoIdPartido(ids.get(2));
+        assertThat(segundaRonda)
+            .extracting(pe -> pe.getId().getEquipo().getIdEquipo(), PartidoEquipos::isEsLocal)
+            .containsExactlyInAnyOrder(
+                tuple(equipo(0), true),
+                tuple(equipo(4), false));
+        assertThat(partidoJugadoresRepository.findByIdPartidoIdPartido(ids.get(2))).hasSize(2);
+    }
+
+    @Test
+    void rechazaCuadrosDeMenosDeDosEquipos() {
+        assertThrows(BadRequestException.class,
+            () -> partidoService.planificarEliminatorias(torneo, inscritos.subList(0, 1), new Random(1)));
+    }
+
+    private List<Long> equiposDe(Long idPartido) {
+        return partidoEquiposRepository.findByIdPartidoIdPartido(idPartido).stream()
+            .map(pe -> pe.getId().getEquipo().getIdEquipo())
+            .toList();
+    }
+
+    private Long equipo(int i) {
+        return equipos.get(i).getIdEquipo();
+    }
+}
@@ -0,0 +1,155 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Jugador;
+import com.torneados.web.entities.Partido;
+import com.torneados.web.entities.PartidoJugadores;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoJugadores;
+import com.torneados.web.entities.ids.PartidoJugadoresId;
+import com.torneados.web.entities.ids.TorneoJugadoresId;
+import com.torneados.web.repositories.JugadorRepository;
+import com.torneados.web.repositories.PartidoJugadoresRepository;
+import com.torneados.web.repositories.PartidoRepository;
+import com.torneados.web.repositories.TorneoJugadoresRepository;
+import com.torneados.web.service.PartidoJugadoresService;
+import com.torneados.web.service.TorneoJugadoresService;
+
+/**
+ * Las estadísticas de los jugadores en el torneo se derivan de sus sets: al borrar los sets de un
+ * jugador se descuenta su aportación, y recalcularEstadisticas las reconstruye desde cero.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(DatosPrueba.class)
+class EstadisticasJugadoresTests {
+
+    @Autowired private DatosPrueba datos;
+    @Autowired private JugadorRepository jugadorRepository;
+    @Autowired private PartidoRepository partidoRepository;
+    @Autowired private PartidoJugadoresRepository partidoJugadoresRepository;
+    @Autowired private TorneoJugadoresRepository torneoJugadoresRepository;
+    @Autowired private PartidoJugadoresService partidoJugadoresService;
+    @Autowired private TorneoJugadoresService torneoJugadoresService;
+
+    private Torneo torneo;
+    private Partido partido;
+    private final List<Jugador> jugadores = new ArrayList<>();
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        Equipo equipo = datos.inscribirEquipo(torneo, "Equipo", null);
+
+        partido = new Partido();
+        partido.setTorneo(torneo);
+        partido.setJornada(1);
+        partido = partidoRepository.save(partido);
+
+        for (int i = 0; i < 2; i++) {
+            Jugador jugador = new Jugador();
+            jugador.setNombre("Jugador " + i);
+            jugador.setEquipo(equipo);
+            jugador = jugadorRepository.save(jugador);
+            jugadores.add(jugador);
+
+            TorneoJugadores totales = new TorneoJugadores();
+            TorneoJugadoresId id = new TorneoJugadoresId();
+            id.setTorneo(torneo);
+            id.setJugador(jugador);
+            totales.setId(id);
+            totales.setTorneo(torneo);
+            totales.setJugador(jugador);
+            torneoJugadoresRepository.save(totales);
+
+            for (int set = 1; set <= 2; set++) {
+                PartidoJugadores estadisticas = new PartidoJugadores();
+                PartidoJugadoresId idSet = new PartidoJugadoresId();
+                idSet.setPartido(partido);
+                idSet.setJugador(jugador);
+                idSet.setNumSet(set);
+                estadisticas.setId(idSet);
+                estadisticas.setPartido(partido);
+                estadisticas.setJugador(jugador);
+                partidoJugadoresRepository.save(estadisticas);
+            }
+        }
+        datos.autenticarCreador(torneo);
+
+        // El jugador 0 juega los dos sets; el 1 solo ve una tarjeta desde el banquillo
+        anotar(0, 1, true, 2, 1, 0);
+        anotar(0, 2, true, 1, 0, 1);
+        anotar(1, 2, false, 0, 1, 0);
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void borrarLosSetsDescuentaSuAportacion() {
+        assertThat(totales(0)).containsExactly(1, 3, 1, 1);
+
+        partidoJugadoresService.deletePartidoJugadores(partido.getIdPartido(), jugadores.get(0).getIdJugador());
+
+        assertThat(partidoJugadoresRepository.findByIdPartidoIdPartido(partido.getIdPartido()))
+            .extracting(pj -> pj.getId().getJugador().getIdJugador())
+            .containsOnly(jugadores.get(1).getIdJugador());
+        assertThat(totales(0)).containsExactly(0, 0, 0, 0);
+        assertThat(totales(1)).containsExactly(0, 0, 1, 0);
+    }
+
+    @Test
+    void recalcularReconstruyeLosTotalesDesdeLosSets() {
+        // Totales corrompidos a mano, como tras una corrección errónea
+        for (TorneoJugadores tj : torneoJugadoresRepository.findByIdTorneoIdTorneo(torneo.getIdTorneo())) {
+            tj.setPartidos(7);
+            tj.setPuntos(99);
+            tj.setTarjetasAmarillas(5);
+            tj.setTarjetasRojas(5);
+            torneoJugadoresRepository.save(tj);
+        }
+
+        torneoJugadoresService.recalcularEstadisticas(torneo.getIdTorneo());
+
+        assertThat(totales(0)).containsExactly(1, 3, 1, 1);
+        assertThat(totales(1)).containsExactly(0, 0, 1, 0);
+    }
+
+    private void anotar(int jugador, int numSet, boolean jugado, int puntos, int amarillas, int rojas) {
+        PartidoJugadores cambio = new PartidoJugadores();
+        PartidoJugadoresId id = new PartidoJugadoresId();
+        id.setNumSet(numSet);
+        cambio.setId(id);
+        cambio.setJugado(jugado);
+        cambio.setPuntos(puntos);
+        cambio.setTarjetasAmarillas(amarillas);
+        cambio.setTarjetasRojas(rojas);
+        partidoJugadoresService.updatePartidoJugadores(
+            partido.getIdPartido(), jugadores.get(jugador).getIdJugador(), cambio);
+    }
+
+    /** [partidos, puntos, tarjetasAmarillas, tarjetasRojas] del jugador en el torneo. */
+    private List<Integer> totales(int jugador) {
+        Long idJugador = jugadores.get(jugador).getIdJugador();
+        TorneoJugadores tj = torneoJugadoresRepository.findByIdTorneoIdTorneo(torneo.getIdTorneo()).stream()
+            .filter(t -> t.getId().getJugador().getIdJugador().equals(idJugador))
+            .findFirst()
+            .orElseThrow();
+        return List.of(tj.getPartidos(), tj.getPuntos(), tj.getTarjetasAmarillas(), tj.getTarjetasRojas());
+    }
+}
@@ -0,0 +1,78 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.torneados.web.entities.Partido;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.exceptions.ResourceNotFoundException;
+import com.torneados.web.exceptions.ServiceUnavailableException;
+import com.torneados.web.repositories.PartidoRepository;
+import com.torneados.web.service.EventosEnVivoService;
+
+/**
+ * Suscripciones a los eventos en directo con un máximo de 3 streams en total y 2 por torneo o
+ * partido: por encima se rechaza sin ocupar hueco, igual que un torneo o partido que no existe.
+ * El latido es largo para que los streams, que no llegan a conectarse a ninguna respuesta, no
+ * acumulen envíos pendientes.
+ */
+@SpringBootTest(properties = {
+    "torneados.eventos.max-suscriptores=3",
+    "torneados.eventos.max-por-recurso=2",
+    "torneados.eventos.latido=PT1H"
+})
+@ActiveProfiles("test")
+@Import(DatosPrueba.class)
+class EventosEnVivoTests {
+
+    @Autowired private DatosPrueba datos;
+    @Autowired private PartidoRepository partidoRepository;
+    @Autowired private EventosEnVivoService eventosEnVivoService;
+
+    private Torneo torneo;
+    private Partido partido;
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        partido = new Partido();
+        partido.setTorneo(torneo);
+        partido.setJornada(1);
+        partido = partidoRepository.save(partido);
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        eventosEnVivoService.cerrar();
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void rechazaTorneosYPartidosQueNoExisten() {
+        assertThrows(ResourceNotFoundException.class, () -> eventosEnVivoService.suscribirTorneo(-1L));
+        assertThrows(ResourceNotFoundException.class, () -> eventosEnVivoService.suscribirPartido(-1L));
+    }
+
+    @Test
+    void respetaLosMaximosPorRecursoYEnTotal() {
+        Long idTorneo = torneo.getIdTorneo();
+        assertThat(eventosEnVivoService.suscribirTorneo(idTorneo)).isNotNull();
+        assertThat(eventosEnVivoService.suscribirTorneo(idTorneo)).isNotNull();
+
+        // Tercero del mismo torneo: lleno por recurso, y no debe quedarse con un hueco del total
+        assertThrows(ServiceUnavailableException.class, () -> eventosEnVivoService.suscribirTorneo(idTorneo));
+        assertThat(eventosEnVivoService.suscribirPartido(partido.getIdPartido())).isNotNull();
+
+        // Tres abiertos: lleno en total aunque el partido admite otro
+        assertThrows(ServiceUnavailableException.class,
+            () -> eventosEnVivoService.suscribirPartido(partido.getIdPartido()));
+    }
+}
@@ -0,0 +1,103 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.repositories.PartidoBatchRepository;
+import com.torneados.web.repositories.PartidoBatchRepository.MarcadorSet;
+import com.torneados.web.repositories.PartidoBatchRepository.PartidoPlan;
+import com.torneados.web.repositories.PartidoEquiposRepository;
+import com.torneados.web.repositories.TorneoEquiposRepository;
+import com.torneados.web.security.JwtUtil;
+
+/**
+ * Finalizar una semifinal por la API: el ganador ocupa su hueco en la final, el perdedor queda
+ * eliminado y la respuesta incluye el partido con su torneo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Import(DatosPrueba.class)
+class FinalizarPartidoTests {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private DatosPrueba datos;
+    @Autowired private PartidoBatchRepository partidoBatchRepository;
+    @Autowired private PartidoEquiposRepository partidoEquiposRepository;
+    @Autowired private TorneoEquiposRepository torneoEquiposRepository;
+
+    private Torneo torneo;
+    private final List<Equipo> equipos = new ArrayList<>();
+    private Long semifinal;
+    private Long partidoFinal;
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        for (int i = 0; i < 4; i++) {
+            equipos.add(datos.inscribirEquipo(torneo, "Equipo " + i, null));
+        }
+
+        // Dos semifinales cuyos ganadores pasan a la final, como las deja el sorteo
+        List<Long> ids = partidoBatchRepository.insertarPartidos(torneo.getIdTorneo(), List.of(
+            new PartidoPlan(null, 1, id(0), id(1), 2, true),
+            new PartidoPlan(null, 1, id(2), id(3), 2, false),
+            new PartidoPlan(null, 2, null, null)), Map.of());
+        semifinal = ids.get(0);
+        partidoFinal = ids.get(2);
+
+        partidoBatchRepository.guardarMarcadores(List.of(
+            new MarcadorSet(semifinal, id(0), 1, 1, true),
+            new MarcadorSet(semifinal, id(1), 1, 3, false)));
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void elGanadorPasaALaFinalYElPerdedorQuedaEliminado() throws Exception {
+        String token = JwtUtil.generateToken(torneo.getCreador().getGoogleId(),
+            torneo.getCreador().getIdUsuario(), "USUARIO");
+
+        mockMvc.perform(post("/api/v1/torneos/" + torneo.getIdTorneo() + "/partidos/" + semifinal + "/finalizar")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.idPartido").value(semifinal))
+            .andExpect(jsonPath("$.finalizado").value(true))
+            .andExpect(jsonPath("$.torneo.idTorneo").value(torneo.getIdTorneo()));
+
+        assertThat(partidoEquiposRepository.findMarcadoresByPartido(partidoFinal))
+            .extracting(fila -> fila[1])
+            .containsExactly(id(1));
+        assertThat(torneoEquiposRepository.findByIdTorneoIdTorneo(torneo.getIdTorneo()))
+            .filteredOn(TorneoEquipos::isEliminado)
+            .extracting(te -> te.getId().getEquipo().getIdEquipo())
+            .containsExactly(id(0));
+    }
+
+    private Long id(int equipo) {
+        return equipos.get(equipo).getIdEquipo();
+    }
+}
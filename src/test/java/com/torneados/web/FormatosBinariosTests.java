@@ -0,0 +1,46 @@
+package com.torneados.web;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.torneados.web.security.JwtUtil;
+
+/**
+ * Smile y CBOR solo se sirven para los listados que los admiten: ninguna petición se lee en esos
+ * formatos y el resto de respuestas no se escriben en ellos.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class FormatosBinariosTests {
+
+    private static final String SMILE = "application/x-jackson-smile";
+
+    @Autowired private MockMvc mockMvc;
+
+    @Test
+    void noLeePeticionesEnSmile() throws Exception {
+        // El token basta para pasar la seguridad: el 415 se decide antes de llegar al servicio
+        String token = JwtUtil.generateToken("test-formatos", 1L, "USUARIO");
+        mockMvc.perform(post("/api/v1/deportes")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(SMILE)
+                .content(new byte[] {':', ')', '\n', 0x00}))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void noEscribeEnSmileLoQueNoEsUnListado() throws Exception {
+        mockMvc.perform(get("/api/v1/deportes").header(HttpHeaders.ACCEPT, SMILE))
+            .andExpect(status().isNotAcceptable());
+    }
+}
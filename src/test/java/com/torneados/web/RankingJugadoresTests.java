@@ -0,0 +1,66 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.exceptions.BadRequestException;
+import com.torneados.web.service.RankingJugadoresService;
+import com.torneados.web.service.RankingJugadoresService.Criterio;
+import com.torneados.web.service.TorneoEquiposService;
+
+/**
+ * El ranking por grupo solo admite los grupos del torneo, y deja de admitir uno que desaparece al
+ * deshacer el sorteo.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(DatosPrueba.class)
+class RankingJugadoresTests {
+
+    @Autowired private DatosPrueba datos;
+    @Autowired private RankingJugadoresService rankingJugadoresService;
+    @Autowired private TorneoEquiposService torneoEquiposService;
+
+    private Torneo torneo;
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        datos.inscribirEquipo(torneo, "Equipo A", "A");
+        datos.inscribirEquipo(torneo, "Equipo B", "B");
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void soloAdmiteLosGruposDelTorneo() {
+        assertThat(rankingJugadoresService.getRanking(torneo.getIdTorneo(), Criterio.PUNTOS, "A", 10)).isEmpty();
+        assertThat(rankingJugadoresService.getRanking(torneo.getIdTorneo(), Criterio.PUNTOS, null, 10)).isEmpty();
+
+        assertThatThrownBy(() -> rankingJugadoresService.getRanking(torneo.getIdTorneo(), Criterio.PUNTOS, "C", 10))
+            .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void alCambiarLosGruposSeVuelvenALeer() {
+        rankingJugadoresService.getRanking(torneo.getIdTorneo(), Criterio.ROJAS, "B", 10);
+
+        // Como al deshacer un sorteo sin terminar: los equipos se quedan sin grupo
+        torneoEquiposService.quitarGrupos(torneo.getIdTorneo());
+
+        assertThatThrownBy(() -> rankingJugadoresService.getRanking(torneo.getIdTorneo(), Criterio.ROJAS, "B", 10))
+            .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,190 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Jugador;
+import com.torneados.web.entities.Partido;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TorneoEquipos;
+import com.torneados.web.entities.TorneoJugadores;
+import com.torneados.web.entities.ids.TorneoJugadoresId;
+import com.torneados.web.repositories.JugadorRepository;
+import com.torneados.web.repositories.PartidoBatchRepository;
+import com.torneados.web.repositories.PartidoBatchRepository.PartidoPlan;
+import com.torneados.web.repositories.PartidoEquiposRepository;
+import com.torneados.web.repositories.PartidoRepository;
+import com.torneados.web.repositories.TorneoEquiposRepository;
+import com.torneados.web.repositories.TorneoJugadoresRepository;
+import com.torneados.web.security.JwtUtil;
+
+/**
+ * Registro en bloque de una jornada (POST /torneos/{idTorneo}/resultados): guarda los marcadores y
+ * las estadísticas de todos los partidos y actualiza la clasificación y los totales de los jugadores;
+ * si algún resultado es inválido no se guarda ninguno.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Import(DatosPrueba.class)
+class ResultadosEnBloqueTests {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private DatosPrueba datos;
+    @Autowired private JugadorRepository jugadorRepository;
+    @Autowired private PartidoBatchRepository partidoBatchRepository;
+    @Autowired private PartidoRepository partidoRepository;
+    @Autowired private PartidoEquiposRepository partidoEquiposRepository;
+    @Autowired private TorneoEquiposRepository torneoEquiposRepository;
+    @Autowired private TorneoJugadoresRepository torneoJugadoresRepository;
+
+    private Torneo torneo;
+    private final List<Equipo> equipos = new ArrayList<>();
+    private final List<Jugador> jugadores = new ArrayList<>();
+    private List<Long> partidos;
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        for (int i = 0; i < 4; i++) {
+            Equipo equipo = datos.inscribirEquipo(torneo, "Equipo " + i, null);
+            equipos.add(equipo);
+
+            Jugador jugador = new Jugador();
+            jugador.setNombre("Jugador " + i);
+            jugador.setEquipo(equipo);
+            jugador = jugadorRepository.save(jugador);
+            jugadores.add(jugador);
+
+            TorneoJugadores totales = new TorneoJugadores();
+            TorneoJugadoresId id = new TorneoJugadoresId();
+            id.setTorneo(torneo);
+            id.setJugador(jugador);
+            totales.setId(id);
+            totales.setTorneo(torneo);
+            totales.setJugador(jugador);
+            torneoJugadoresRepository.save(totales);
+        }
+
+        // Una jornada de liga con dos partidos, como la deja el sorteo
+        partidos = partidoBatchRepository.insertarPartidos(torneo.getIdTorneo(), List.of(
+            new PartidoPlan(1, null, equipo(0), equipo(1)),
+            new PartidoPlan(1, null, equipo(2), equipo(3))),
+            Map.of(equipo(0), List.of(jugador(0)), equipo(1), List.of(jugador(1)),
+                   equipo(2), List.of(jugador(2)), equipo(3), List.of(jugador(3))));
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void registraLaJornadaYActualizaClasificacionYJugadores() throws Exception {
+        enviar("""
+            {"partidos": [
+              {"idPartido": %d,
+               "sets": [{"idEquipo": %d, "puntos": 3}, {"idEquipo": %d, "puntos": 1}],
+               "jugadores": [{"idJugador": %d, "puntos": 2, "tarjetasAmarillas": 1}]},
+              {"idPartido": %d,
+               "sets": [{"idEquipo": %d, "puntos": 2}, {"idEquipo": %d, "puntos": 2}]}
+            ]}
+            """.formatted(partidos.get(0), equipo(0), equipo(1), jugador(0),
+                          partidos.get(1), equipo(2), equipo(3)))
+            .andExpect(status().isNoContent());
+
+        // [ganados, empatados, perdidos, golesFavor, golesContra]
+        assertThat(clasificacion(0)).containsExactly(1, 0, 0, 3, 1);
+        assertThat(clasificacion(1)).containsExactly(0, 0, 1, 1, 3);
+        assertThat(clasificacion(2)).containsExactly(0, 1, 0, 2, 2);
+        assertThat(clasificacion(3)).containsExactly(0, 1, 0, 2, 2);
+
+        // [partidos, puntos, tarjetasAmarillas, tarjetasRojas]
+        assertThat(totalesJugador(0)).containsExactly(1, 2, 1, 0);
+        assertThat(totalesJugador(1)).containsExactly(0, 0, 0, 0);
+    }
+
+    @Test
+    void unResultadoInvalidoDescartaTodoElEnvio() throws Exception {
+        // El equipo 0 no juega el segundo partido
+        enviar("""
+            {"partidos": [
+              {"idPartido": %d, "sets": [{"idEquipo": %d, "puntos": 3}, {"idEquipo": %d, "puntos": 1}]},
+              {"idPartido": %d, "sets": [{"idEquipo": %d, "puntos": 2}]}
+            ]}
+            """.formatted(partidos.get(0), equipo(0), equipo(1), partidos.get(1), equipo(0)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(partidoEquiposRepository.findMarcadoresByPartido(partidos.get(0)))
+            .extracting(fila -> fila[2])
+            .containsOnlyNulls();
+        assertThat(clasificacion(0)).containsExactly(0, 0, 0, 0, 0);
+    }
+
+    @Test
+    void rechazaPartidosFinalizados() throws Exception {
+        Partido finalizado = partidoRepository.findById(partidos.get(1)).orElseThrow();
+        finalizado.setFinalizado(true);
+        partidoRepository.save(finalizado);
+
+        enviar("""
+            {"partidos": [{"idPartido": %d, "sets": [{"idEquipo": %d, "puntos": 1}]}]}
+            """.formatted(partidos.get(1), equipo(2)))
+            .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions enviar(String json) throws Exception {
+        String token = JwtUtil.generateToken(torneo.getCreador().getGoogleId(),
+            torneo.getCreador().getIdUsuario(), "USUARIO");
+        return mockMvc.perform(post("/api/v1/torneos/" + torneo.getIdTorneo() + "/resultados")
+            .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(json));
+    }
+
+    private List<Integer> clasificacion(int equipo) {
+        Long idEquipo = equipo(equipo);
+        TorneoEquipos te = torneoEquiposRepository.findByIdTorneoIdTorneo(torneo.getIdTorneo()).stream()
+            .filter(t -> t.getId().getEquipo().getIdEquipo().equals(idEquipo))
+            .findFirst()
+            .orElseThrow();
+        return List.of(te.getPartidosGanados(), te.getPartidosEmpatados(), te.getPartidosPerdidos(),
+            te.getGolesFavor(), te.getGolesContra());
+    }
+
+    private List<Integer> totalesJugador(int jugador) {
+        Long idJugador = jugador(jugador);
+        TorneoJugadores tj = torneoJugadoresRepository.findByIdTorneoIdTorneo(torneo.getIdTorneo()).stream()
+            .filter(t -> t.getId().getJugador().getIdJugador().equals(idJugador))
+            .findFirst()
+            .orElseThrow();
+        return List.of(tj.getPartidos(), tj.getPuntos(), tj.getTarjetasAmarillas(), tj.getTarjetasRojas());
+    }
+
+    private Long equipo(int i) {
+        return equipos.get(i).getIdEquipo();
+    }
+
+    private Long jugador(int i) {
+        return jugadores.get(i).getIdJugador();
+    }
+}
@@ -0,0 +1,126 @@
+package com.torneados.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.torneados.web.dto.TrabajoSorteoDTO;
+import com.torneados.web.entities.Equipo;
+import com.torneados.web.entities.Torneo;
+import com.torneados.web.entities.TrabajoSorteo;
+import com.torneados.web.repositories.PartidoRepository;
+import com.torneados.web.repositories.TrabajoSorteoRepository;
+import com.torneados.web.service.TorneoService;
+import com.torneados.web.service.TrabajosSorteoService;
+
+/**
+ * Sorteo de una liga de 6 equipos (15 partidos) en tramos de 5 partidos: la asignación de grupos
+ * y tres tramos de partidos. Al reanudar un trabajo a medias se continúa por el primer tramo no
+ * guardado y el resultado es el mismo que sin interrupción.
+ */
+@SpringBootTest(properties = "torneados.trabajos.partidos-por-tramo=5")
+@ActiveProfiles("test")
+@Import(DatosPrueba.class)
+class TrabajosSorteoTests {
+
+    private static final int EQUIPOS = 6;
+    private static final int PARTIDOS = EQUIPOS * (EQUIPOS - 1) / 2;
+    private static final int PARTIDOS_POR_TRAMO = 5;
+
+    @Autowired private DatosPrueba datos;
+    @Autowired private PartidoRepository partidoRepository;
+    @Autowired private TrabajoSorteoRepository trabajoSorteoRepository;
+    @Autowired private TorneoService torneoService;
+    @Autowired private TrabajosSorteoService trabajosSorteoService;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Torneo torneo;
+
+    @BeforeEach
+    void crearDatos() {
+        torneo = datos.crearTorneo();
+        for (int i = 0; i < EQUIPOS; i++) {
+            datos.inscribirEquipo(torneo, "Equipo " + i, null);
+        }
+        datos.autenticarCreador(torneo);
+    }
+
+    @AfterEach
+    void borrarDatos() {
+        datos.borrar(torneo);
+    }
+
+    @Test
+    void guardaElSorteoPorTramos() throws Exception {
+        TrabajoSorteoDTO lanzado = torneoService.sortearGrupos(torneo.getIdTorneo());
+        TrabajoSorteo trabajo = esperarFin(lanzado.getIdTrabajo());
+
+        assertThat(trabajo.getEstado()).isEqualTo(TrabajoSorteo.Estado.COMPLETADO);
+        assertThat(trabajo.getTramosTotales()).isEqualTo(1 + PARTIDOS / PARTIDOS_POR_TRAMO);
+        assertThat(trabajo.getTramosCompletados()).isEqualTo(trabajo.getTramosTotales());
+        assertThat(partidos()).hasSize(PARTIDOS);
+    }
+
+    @Test
+    void alReanudarContinuaPorElPrimerTramoNoGuardado() throws Exception {
+        TrabajoSorteoDTO lanzado = torneoService.sortearGrupos(torneo.getIdTorneo());
+        TrabajoSorteo trabajo = esperarFin(lanzado.getIdTrabajo());
+        Map<Long, String> completo = partidos();
+
+        // Simula una caída tras guardar los grupos y el primer tramo de partidos
+        List<Long> ids = new ArrayList<>(completo.keySet());
+        transactionTemplate.executeWithoutResult(estado ->
+            partidoRepository.deleteByTorneoDesde(torneo.getIdTorneo(), ids.get(PARTIDOS_POR_TRAMO)));
+        trabajo.setEstado(TrabajoSorteo.Estado.EN_CURSO);
+        trabajo.setActivo(true);
+        trabajo.setTramosCompletados(2);
+        trabajoSorteoRepository.save(trabajo);
+
+        trabajosSorteoService.reanudarPendientes();
+        trabajo = esperarFin(trabajo.getIdTrabajo());
+
+        assertThat(trabajo.getEstado()).isEqualTo(TrabajoSorteo.Estado.COMPLETADO);
+        assertThat(partidos().values())
+            .as("Mismos partidos que sin interrupción y ninguno repetido")
+            .containsExactlyInAnyOrderElementsOf(completo.values());
+    }
+
+    /** Partidos del torneo por ID, descritos como "jornada: local-visitante". */
+    private Map<Long, String> partidos() {
+        Map<Long, String[]> equipos = new TreeMap<>();
+        for (Object[] fila : partidoRepository.findResumenesByTorneo(torneo.getIdTorneo())) {
+            String[] partido = equipos.computeIfAbsent((Long) fila[0], k -> new String[] {String.valueOf(fila[2]), "", ""});
+            if (fila[7] != null) {
+                partido[Boolean.TRUE.equals(fila[5]) ? 1 : 2] = String.valueOf(fila[7]);
+            }
+        }
+        Map<Long, String> descritos = new TreeMap<>();
+        equipos.forEach((id, p) -> descritos.put(id, p[0] + ": " + p[1] + "-" + p[2]));
+        return descritos;
+    }
+
+    private TrabajoSorteo esperarFin(Long idTrabajo) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 30_000;
+        while (true) {
+            TrabajoSorteo trabajo = trabajoSorteoRepository.findById(idTrabajo).orElseThrow();
+            if (trabajo.getEstado() == TrabajoSorteo.Estado.COMPLETADO
+                || trabajo.getEstado() == TrabajoSorteo.Estado.FALLIDO
+                || System.currentTimeMillis() > limite) {
+                return trabajo;
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.torneados.web.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Prueba de carga HTTP contra una instancia en marcha, para comparar el modo con hilos de plataforma
+ * y el de hilos virtuales (HILOS_VIRTUALES=true). Se arranca la aplicación en un modo, se lanza esta
+ * prueba, y se repite con el otro; cada ejecución imprime peticiones por segundo y latencias
+ * (p50, p99, máximo) por escenario, además de los códigos de respuesta (503 = rechazadas por el límite
+ * de peticiones a la vez).
+ *
+ * Escenarios, todos a la vez con sus propios clientes:
+ * - GET /api/v1/torneos: listado público.
+ * - POST /api/v1/torneos/{id}/sortear/grupos: sorteos repetidos sobre los torneos indicados
+ *   (requiere un token de su creador o de un administrador).
+ *
+ * Propiedades (-D): carga.url (http://localhost:8080), carga.clientes-lectura (200),
+ * carga.clientes-sorteo (20), carga.duracion (PT60S), carga.calentamiento (PT10S),
+ * carga.token y carga.torneos (IDs separados por comas; sin ellos no se sortea).
+ */
+public class CargaHttpBenchmark {
+
+    private static final HttpClient CLIENTE = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    /** Latencias (µs) y códigos de respuesta de un escenario. */
+    private static class Resultados {
+        private final String nombre;
+        private final List<long[]> latenciasPorCliente = new ArrayList<>();
+        private final Map<Integer, LongAdder> codigos = new ConcurrentHashMap<>();
+        private final LongAdder errores = new LongAdder();
+
+        Resultados(String nombre) {
+            this.nombre = nombre;
+        }
+
+        synchronized void anadir(Registro registro) {
+            latenciasPorCliente.add(Arrays.copyOf(registro.latencias, registro.total));
+        }
+
+        void imprimir(Duration duracion) {
+            long[] todas = latenciasPorCliente.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            double segundos = duracion.toMillis() / 1000.0;
+            Map<Integer, Long> porCodigo = new TreeMap<>();
+            codigos.forEach((codigo, cuenta) -> porCodigo.put(codigo, cuenta.sum()));
+            System.out.printf("%-16s %10.1f pet/s   p50 %8.1f ms   p99 %8.1f ms   max %8.1f ms   codigos %s   errores %d%n",
+                nombre, todas.length / segundos,
+                percentil(todas, 0.50) / 1000.0, percentil(todas, 0.99) / 1000.0,
+                todas.length > 0 ? todas[todas.length - 1] / 1000.0 : 0.0,
+                porCodigo, errores.sum());
+        }
+    }
+
+    /** Latencias de un cliente, sin sincronizar mientras dura la prueba. */
+    private static class Registro {
+        private long[] latencias = new long[1024];
+        private int total;
+
+        void anotar(long micros) {
+            if (total == latencias.length) {
+                latencias = Arrays.copyOf(latencias, total * 2);
+            }
+            latencias[total++] = micros;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("carga.url", "http://localhost:8080");
+        int clientesLectura = Integer.getInteger("carga.clientes-lectura", 200);
+        int clientesSorteo = Integer.getInteger("carga.clientes-sorteo", 20);
+        Duration duracion = Duration.parse(System.getProperty("carga.duracion", "PT60S"));
+        Duration calentamiento = Duration.parse(System.getProperty("carga.calentamiento", "PT10S"));
+        String token = System.getProperty("carga.token");
+        long[] torneos = Arrays.stream(System.getProperty("carga.torneos", "").split(","))
+            .map(String::trim).filter(id -> !id.isEmpty()).mapToLong(Long::parseLong).toArray();
+        boolean sortear = token != null && torneos.length > 0;
+
+        HttpRequest lectura = HttpRequest.newBuilder(URI.create(url + "/api/v1/torneos"))
+            .timeout(Duration.ofSeconds(30)).GET().build();
+        AtomicInteger siguienteTorneo = new AtomicInteger();
+
+        Resultados resultadosLectura = new Resultados("GET torneos");
+        Resultados resultadosSorteo = new Resultados("POST sortear");
+
+        System.out.printf("Calentando %s...%n", calentamiento);
+        ejecutar(calentamiento, clientesLectura, new Resultados("calentamiento"), () -> lectura);
+
+        System.out.printf("Midiendo %s: %d clientes de lectura, %d de sorteo%n",
+            duracion, clientesLectura, sortear ? clientesSorteo : 0);
+        Thread hiloSorteo = Thread.ofPlatform().start(() -> {
+            if (sortear) {
+                ejecutar(duracion, clientesSorteo, resultadosSorteo, () -> {
+                    long idTorneo = torneos[Math.floorMod(siguienteTorneo.getAndIncrement(), torneos.length)];
+                    return HttpRequest.newBuilder(URI.create(url + "/api/v1/torneos/" + idTorneo + "/sortear/grupos"))
+                        .timeout(Duration.ofSeconds(60))
+                        .header("Authorization", "Bearer " + token)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+                });
+            }
+        });
+        ejecutar(duracion, clientesLectura, resultadosLectura, () -> lectura);
+        hiloSorteo.join();
+
+        resultadosLectura.imprimir(duracion);
+        if (sortear) {
+            resultadosSorteo.imprimir(duracion);
+        }
+    }
+
+    /**
+     * Cada cliente (un hilo virtual) lanza su siguiente petición en cuanto recibe la respuesta
+     * anterior, hasta que acaba el tiempo.
+     */
+    private static void ejecutar(Duration duracion, int clientes, Resultados resultados,
+                                 Supplier<HttpRequest> peticiones) {
+        long fin = System.nanoTime() + duracion.toNanos();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clientes; i++) {
+                hilos.submit(() -> {
+                    Registro registro = new Registro();
+                    while (System.nanoTime() < fin) {
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = CLIENTE.send(peticiones.get(), HttpResponse.BodyHandlers.discarding());
+                            registro.anotar((System.nanoTime() - inicio) / 1000);
+                            resultados.codigos.computeIfAbsent(respuesta.statusCode(), c -> new LongAdder()).increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        } catch (Exception e) {
+                            resultados.errores.increment();
+                        }
+                    }
+                    resultados.anadir(registro);
+                });
+            }
+        }
+    }
+
+    private static long percentil(long[] ordenadas, double fraccion) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(fraccion * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))];
+    }
+}
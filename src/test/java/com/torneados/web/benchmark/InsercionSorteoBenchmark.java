@@ -0,0 +1,150 @@
+package com.torneados.web.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmark JMH de la inserción de los partidos de un sorteo contra MySQL.
+ *
+ * - porFila: comportamiento anterior con IDENTITY, un INSERT y un viaje a la base de datos por partido
+ *   para recuperar la clave generada.
+ * - enLote: IDs reservados de una vez en la tabla de secuencia (como SecuenciaIdRepository)
+ *   e INSERT agrupados en lotes, que el driver reescribe en sentencias multi-fila.
+ *
+ * Usa tablas temporales, así que no modifica datos. La conexión se toma de
+ * {@code -Dtorneados.benchmark.url} (por defecto la base de datos local) y de DB_USER / DB_PASSWORD.
+ * Ejecutar con {@code mvn test-compile} y lanzando {@link #main(String[])} con el classpath de test.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsercionSorteoBenchmark {
+
+    private static final String URL_POR_DEFECTO =
+        "jdbc:mysql://localhost:3306/torneados?rewriteBatchedStatements=true";
+
+    private static final int TAMANO_LOTE = 500;
+
+    /** Partidos del sorteo: liga de 16 equipos a ida y vuelta, y eliminatoria de 128 con rondas vacías. */
+    @Param({"240", "127"})
+    public int partidos;
+
+    private Connection conexion;
+
+    @Setup(Level.Trial)
+    public void conectar() throws SQLException {
+        conexion = DriverManager.getConnection(
+            System.getProperty("torneados.benchmark.url", URL_POR_DEFECTO),
+            System.getenv("DB_USER"),
+            System.getenv("DB_PASSWORD"));
+        conexion.setAutoCommit(false);
+        try (Statement st = conexion.createStatement()) {
+            st.execute("CREATE TEMPORARY TABLE PartidoBenchmark ("
+                + "idPartido BIGINT AUTO_INCREMENT PRIMARY KEY, id_torneo BIGINT NOT NULL, "
+                + "fechaComienzo DATETIME(6), jornada INT, ronda INT)");
+            st.execute("CREATE TEMPORARY TABLE SecuenciaIdBenchmark ("
+                + "entidad VARCHAR(255) PRIMARY KEY, siguiente BIGINT)");
+            st.execute("INSERT INTO SecuenciaIdBenchmark VALUES ('Partido', 1)");
+        }
+        conexion.commit();
+    }
+
+    @TearDown(Level.Invocation)
+    public void vaciar() throws SQLException {
+        try (Statement st = conexion.createStatement()) {
+            st.execute("TRUNCATE TABLE PartidoBenchmark");
+        }
+        conexion.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void desconectar() throws SQLException {
+        conexion.close();
+    }
+
+    @Benchmark
+    public long porFila() throws SQLException {
+        long suma = 0;
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "INSERT INTO PartidoBenchmark (id_torneo, fechaComienzo, jornada, ronda) VALUES (?, NULL, ?, ?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < partidos; i++) {
+                ps.setLong(1, 1L);
+                ps.setInt(2, i / 8 + 1);
+                ps.setInt(3, 0);
+                ps.executeUpdate();
+                try (ResultSet rs = ps.getGeneratedKeys()) {
+                    rs.next();
+                    suma += rs.getLong(1);
+                }
+            }
+        }
+        conexion.commit();
+        return suma;
+    }
+
+    @Benchmark
+    public long enLote() throws SQLException {
+        long primero;
+        try (PreparedStatement sel = conexion.prepareStatement(
+                 "SELECT siguiente FROM SecuenciaIdBenchmark WHERE entidad = 'Partido' FOR UPDATE");
+             PreparedStatement upd = conexion.prepareStatement(
+                 "UPDATE SecuenciaIdBenchmark SET siguiente = ? WHERE entidad = 'Partido'");
+             ResultSet rs = sel.executeQuery()) {
+            rs.next();
+            primero = rs.getLong(1);
+            upd.setLong(1, primero + partidos);
+            upd.executeUpdate();
+        }
+
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "INSERT INTO PartidoBenchmark (idPartido, id_torneo, fechaComienzo, jornada, ronda) VALUES (?, ?, NULL, ?, ?)")) {
+            for (int i = 0; i < partidos; i++) {
+                ps.setLong(1, primero + i);
+                ps.setLong(2, 1L);
+                ps.setInt(3, i / 8 + 1);
+                ps.setInt(4, 0);
+                ps.addBatch();
+                if ((i + 1) % TAMANO_LOTE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        conexion.commit();
+        return primero;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+            .include(InsercionSorteoBenchmark.class.getSimpleName())
+            .build();
+        new Runner(opciones).run();
+    }
+}
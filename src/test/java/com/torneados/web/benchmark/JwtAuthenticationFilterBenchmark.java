@@ -0,0 +1,142 @@
+package com.torneados.web.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.torneados.web.security.JwtAuthenticationFilter;
+import com.torneados.web.security.JwtUtil;
+
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+
+/**
+ * Benchmark JMH de JwtAuthenticationFilter completo (lectura de la cabecera, validación del token,
+ * principal y contexto de seguridad) con 1, 8 y 64 hilos, sobre peticiones y cadenas de filtros simuladas.
+ *
+ * - tokenNuevo: cada petición trae un token que no se ha visto antes, así que se verifica la firma,
+ *   se parsea y se guarda en la caché de JwtUtil (el coste que había antes en todas las peticiones).
+ * - tokenEnCache: el mismo token en todas las peticiones, servido desde la caché de tokens verificados.
+ *
+ * La clave de firma se define con {@link JwtUtil#configurarClave}, sin necesitar JWT_SECRET_KEY_BASE64.
+ * Ejecutar con {@code mvn test-compile} y lanzando {@link #main(String[])} con el classpath de test.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final Key CLAVE = Keys.hmacShaKeyFor(
+        "clave-de-benchmark-de-al-menos-256-bits!!".getBytes(StandardCharsets.US_ASCII));
+
+    // Sufijo del Google ID para que cada token nuevo sea distinto aunque se emita en el mismo segundo
+    private static final AtomicLong usuarios = new AtomicLong();
+
+    /**
+     * Filtro con la clave de benchmark y sin trazas DEBUG (fuera de Spring Logback registra todo por consola).
+     * Las peticiones lo reciben en su setup para que la clave esté definida antes de generar sus tokens.
+     */
+    @State(Scope.Benchmark)
+    public static class Filtro {
+        JwtAuthenticationFilter filtro;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            JwtUtil.configurarClave(CLAVE);
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(JwtAuthenticationFilter.class))
+                .setLevel(ch.qos.logback.classic.Level.INFO);
+            filtro = new JwtAuthenticationFilter();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PeticionTokenNuevo {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        // Fuera de la medida: la firma del token no forma parte del coste del filtro
+        @Setup(Level.Invocation)
+        public void setup(Filtro filtro) {
+            request = peticion(JwtUtil.generateToken("google-benchmark-" + usuarios.incrementAndGet(), 1L, "USUARIO"));
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PeticionTokenEnCache {
+        MockHttpServletRequest request;
+        MockHttpServletResponse response;
+
+        @Setup(Level.Trial)
+        public void setup(Filtro filtro) {
+            String token = JwtUtil.generateToken("google-benchmark-" + usuarios.incrementAndGet(), 1L, "USUARIO");
+            JwtUtil.validateToken(token);
+            request = peticion(token);
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public Authentication tokenNuevo(Filtro filtro, PeticionTokenNuevo peticion) throws ServletException, IOException {
+        return filtrar(filtro, peticion.request, peticion.response);
+    }
+
+    @Benchmark
+    public Authentication tokenEnCache(Filtro filtro, PeticionTokenEnCache peticion) throws ServletException, IOException {
+        return filtrar(filtro, peticion.request, peticion.response);
+    }
+
+    private static Authentication filtrar(Filtro filtro, MockHttpServletRequest request, MockHttpServletResponse response)
+            throws ServletException, IOException {
+        filtro.filtro.doFilter(request, response, new MockFilterChain());
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        if (autenticacion == null) {
+            throw new IllegalStateException("El filtro no ha autenticado la petición: " + response.getStatus());
+        }
+        return autenticacion;
+    }
+
+    private static MockHttpServletRequest peticion(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/torneos");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int hilos : new int[] {1, 8, 64}) {
+            Options opciones = new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .threads(hilos)
+                .build();
+            new Runner(opciones).run();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.torneados.web.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.torneados.web.service.PlanificadorCalendario;
+import com.torneados.web.service.PlanificadorCalendario.PartidoACalendarizar;
+
+/**
+ * Benchmark JMH de PlanificadorCalendario con ligas a ida y vuelta de más de 500 partidos,
+ * en una temporada de septiembre a junio con 4 campos y 20 horas de descanso entre partidos.
+ * Las restricciones del calendario resultante se comprueban en PlanificadorCalendarioTests.
+ *
+ * Ejecutar con {@code mvn test-compile} y lanzando {@link #main(String[])} con el classpath de test.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanificadorCalendarioBenchmark {
+
+    /** Equipos de la liga: 552 y 1122 partidos. */
+    @Param({"24", "34"})
+    public int equipos;
+
+    private List<PartidoACalendarizar> partidos;
+    private PlanificadorCalendario planificador;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        partidos = new ArrayList<>();
+        long id = 1;
+        for (int i = 0; i < equipos; i++) {
+            for (int j = i + 1; j < equipos; j++) {
+                partidos.add(new PartidoACalendarizar(id++, i + 1, null, (long) i, (long) j));
+                partidos.add(new PartidoACalendarizar(id++, i + 1 + equipos, null, (long) j, (long) i));
+            }
+        }
+        planificador = new PlanificadorCalendario(
+            LocalDate.of(2025, 9, 1), LocalDate.of(2026, 6, 30),
+            LocalTime.of(9, 0), LocalTime.of(22, 0), Duration.ofMinutes(90), 4, Duration.ofHours(20));
+    }
+
+    @Benchmark
+    public Map<Long, LocalDateTime> planificar() {
+        return planificador.planificar(partidos);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opciones = new OptionsBuilder()
+            .include(PlanificadorCalendarioBenchmark.class.getSimpleName())
+            .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,189 @@
+package com.torneados.web.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.torneados.web.dto.ClasificacionDTO;
+import com.torneados.web.dto.FilaClasificacionDTO;
+import com.torneados.web.dto.PartidoResumenDTO;
+
+/**
+ * Benchmark JMH de la serialización de los listados de un torneo de 500 partidos (3 sets cada uno)
+ * y de su clasificación (32 equipos en 4 grupos), en cada formato que puede servir la API:
+ *
+ * - json-sangrado: perfil por defecto (INDENT_OUTPUT, con los null).
+ * - json: perfil prod (sin sangrado, sin los null).
+ * - smile / cbor: formatos binarios pedidos por Accept, con las opciones del perfil prod.
+ *
+ * Mide la CPU de serializar y la de serializar y comprimir con gzip (lo que hace Tomcat con
+ * server.compression). {@link #main(String[])} imprime antes los bytes que viajan en cada caso.
+ *
+ * Ejecutar con {@code mvn test-compile} y lanzando {@link #main(String[])} con el classpath de test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacionListadosBenchmark {
+
+    private static final int PARTIDOS = 500;
+    private static final int SETS = 3;
+    private static final int GRUPOS = 4;
+    private static final int EQUIPOS_POR_GRUPO = 8;
+
+    @Param({"json-sangrado", "json", "smile", "cbor"})
+    private String formato;
+
+    private ObjectMapper mapper;
+    private List<PartidoResumenDTO> partidos;
+    private List<ClasificacionDTO> clasificacion;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        mapper = crearMapper(formato);
+        partidos = crearPartidos();
+        clasificacion = crearClasificacion();
+    }
+
+    @Benchmark
+    public byte[] partidos() throws IOException {
+        return mapper.writeValueAsBytes(partidos);
+    }
+
+    @Benchmark
+    public byte[] partidosGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(partidos));
+    }
+
+    @Benchmark
+    public byte[] clasificacion() throws IOException {
+        return mapper.writeValueAsBytes(clasificacion);
+    }
+
+    @Benchmark
+    public byte[] clasificacionGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(clasificacion));
+    }
+
+    private static ObjectMapper crearMapper(String formato) {
+        return switch (formato) {
+            case "json-sangrado" -> Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.INDENT_OUTPUT)
+                .build();
+            case "json" -> Jackson2ObjectMapperBuilder.json()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor()
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+            default -> throw new IllegalArgumentException("Formato desconocido: " + formato);
+        };
+    }
+
+    /** Liga de 32 equipos: los partidos de eliminatoria aún sin decidir no tienen visitante ni logos. */
+    private static List<PartidoResumenDTO> crearPartidos() {
+        List<PartidoResumenDTO> lista = new ArrayList<>(PARTIDOS);
+        LocalDateTime inicio = LocalDateTime.of(2025, 6, 1, 10, 0);
+        int equipos = GRUPOS * EQUIPOS_POR_GRUPO;
+        for (int i = 0; i < PARTIDOS; i++) {
+            PartidoResumenDTO partido = new PartidoResumenDTO();
+            partido.setIdPartido(10_000L + i);
+            partido.setFechaComienzo(inicio.plusHours(i));
+            partido.setJornada(i / 16 + 1);
+            partido.setIdEquipoLocal((long) (i % equipos) + 1);
+            partido.setNombreLocal("Equipo " + (i % equipos + 1));
+            if (i % 5 != 0) {
+                partido.setLogoLocal("https://cdn.torneados.com/logos/" + (i % equipos + 1) + ".png");
+            }
+            if (i < PARTIDOS - 16) {
+                long visitante = (i * 7 + 3) % equipos + 1;
+                partido.setIdEquipoVisitante(visitante);
+                partido.setNombreVisitante("Equipo " + visitante);
+                for (int set = 0; set < SETS; set++) {
+                    partido.getPuntosLocal().add((i + set * 3) % 26);
+                    partido.getPuntosVisitante().add((i * 3 + set) % 26);
+                }
+            } else {
+                partido.setRonda(1);
+            }
+            lista.add(partido);
+        }
+        return lista;
+    }
+
+    private static List<ClasificacionDTO> crearClasificacion() {
+        List<ClasificacionDTO> lista = new ArrayList<>(GRUPOS);
+        for (int g = 0; g < GRUPOS; g++) {
+            List<FilaClasificacionDTO> filas = new ArrayList<>(EQUIPOS_POR_GRUPO);
+            for (int p = 0; p < EQUIPOS_POR_GRUPO; p++) {
+                long idEquipo = (long) g * EQUIPOS_POR_GRUPO + p + 1;
+                int ganados = EQUIPOS_POR_GRUPO - p;
+                int perdidos = p;
+                filas.add(new FilaClasificacionDTO(p + 1, idEquipo, "Equipo " + idEquipo,
+                    p % 3 == 0 ? null : "https://cdn.torneados.com/logos/" + idEquipo + ".png",
+                    ganados * 3, ganados + perdidos, ganados, 0, perdidos,
+                    ganados * 20, perdidos * 20, (ganados - perdidos) * 20, p >= 4));
+            }
+            lista.add(new ClasificacionDTO(String.valueOf((char) ('A' + g)), filas));
+        }
+        return lista;
+    }
+
+    private static byte[] gzip(byte[] datos) throws IOException {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        }
+        return salida.toByteArray();
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        List<PartidoResumenDTO> partidos = crearPartidos();
+        List<ClasificacionDTO> clasificacion = crearClasificacion();
+        System.out.printf("%-14s %12s %12s %14s %14s%n",
+            "formato", "partidos", "gzip", "clasificacion", "gzip");
+        for (String formato : new String[] {"json-sangrado", "json", "smile", "cbor"}) {
+            ObjectMapper mapper = crearMapper(formato);
+            byte[] p = mapper.writeValueAsBytes(partidos);
+            byte[] c = mapper.writeValueAsBytes(clasificacion);
+            System.out.printf("%-14s %12d %12d %14d %14d%n",
+                formato, p.length, gzip(p).length, c.length, gzip(c).length);
+        }
+
+        Options opciones = new OptionsBuilder()
+            .include(SerializacionListadosBenchmark.class.getSimpleName())
+            .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,90 @@
+package com.torneados.web.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+class ConsultasLentasTests {
+
+    private static final Duration UMBRAL = Duration.ofMillis(50);
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(DataSourceConsultasLentas.class);
+    private final ListAppender<ILoggingEvent> registrados = new ListAppender<>();
+
+    // Conexión simulada: las sentencias que contienen "SLEEP" tardan el doble del umbral
+    private final Connection conexion = conexionSimulada();
+    private final DataSource destino = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] {DataSource.class},
+        (proxy, metodo, args) -> metodo.getName().equals("getConnection") ? conexion : null);
+
+    @BeforeEach
+    void capturarLog() {
+        registrados.start();
+        logger.addAppender(registrados);
+    }
+
+    @AfterEach
+    void soltarLog() {
+        logger.detachAppender(registrados);
+    }
+
+    @Test
+    void registraLaSentenciaLentaConSusValores() throws Exception {
+        DataSource dataSource = new DataSourceConsultasLentas(destino, UMBRAL, 1.0);
+
+        try (Connection c = dataSource.getConnection()) {
+            PreparedStatement lenta = c.prepareStatement("SELECT SLEEP(?)");
+            lenta.setInt(1, 7);
+            lenta.executeQuery();
+
+            PreparedStatement rapida = c.prepareStatement("SELECT 1 FROM Torneo WHERE idTorneo = ?");
+            rapida.setLong(1, 3L);
+            rapida.executeQuery();
+        }
+
+        assertEquals(1, registrados.list.size());
+        String mensaje = registrados.list.get(0).getFormattedMessage();
+        assertTrue(mensaje.contains("SELECT SLEEP(?)"), mensaje);
+        assertTrue(mensaje.contains("[1=7]"), mensaje);
+    }
+
+    @Test
+    void lasConexionesFueraDeLaMuestraNoSeEnvuelven() throws Exception {
+        DataSource dataSource = new DataSourceConsultasLentas(destino, UMBRAL, 0.0);
+
+        assertSame(conexion, dataSource.getConnection());
+    }
+
+    private static Connection conexionSimulada() {
+        return (Connection) Proxy.newProxyInstance(ConsultasLentasTests.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, (proxy, metodo, args) -> {
+                if (!metodo.getName().equals("prepareStatement")) {
+                    return metodo.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                }
+                boolean lenta = ((String) args[0]).contains("SLEEP");
+                return Proxy.newProxyInstance(ConsultasLentasTests.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (sentencia, m, a) -> {
+                        if (m.getName().startsWith("execute") && lenta) {
+                            Thread.sleep(UMBRAL.toMillis() * 2);
+                        }
+                        return m.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                    });
+            });
+    }
+}
@@ -0,0 +1,145 @@
+package com.torneados.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.torneados.web.exceptions.BadRequestException;
+import com.torneados.web.service.PlanificadorCalendario.PartidoACalendarizar;
+
+class PlanificadorCalendarioTests {
+
+    private static final Duration DURACION = Duration.ofMinutes(90);
+    private static final Duration DESCANSO = Duration.ofHours(20);
+
+    @Test
+    void respetaDescansoYCamposEnLigaGrande() {
+        // Liga de 34 equipos a ida y vuelta: 1122 partidos (el tiempo se mide en PlanificadorCalendarioBenchmark)
+        List<PartidoACalendarizar> partidos = liga(34, true);
+        LocalDate desde = LocalDate.of(2025, 9, 1);
+        LocalDate hasta = LocalDate.of(2026, 6, 30);
+        LocalTime horaInicio = LocalTime.of(9, 0);
+        LocalTime horaFin = LocalTime.of(22, 0);
+        PlanificadorCalendario planificador = new PlanificadorCalendario(
+            desde, hasta, horaInicio, horaFin, DURACION, 4, DESCANSO);
+
+        Map<Long, LocalDateTime> fechas = planificador.planificar(partidos);
+
+        assertEquals(partidos.size(), fechas.size());
+        comprobarRestricciones(partidos, fechas, 4);
+        for (LocalDateTime inicio : fechas.values()) {
+            LocalDateTime fin = inicio.plus(DURACION);
+            assertFalse(inicio.toLocalDate().isBefore(desde) || fin.toLocalDate().isAfter(hasta),
+                "Partido fuera de las fechas del torneo: " + inicio);
+            assertFalse(inicio.toLocalTime().isBefore(horaInicio) || fin.toLocalTime().isAfter(horaFin),
+                "Partido fuera del horario: " + inicio);
+        }
+    }
+
+    @Test
+    void cadaRondaEmpiezaCuandoTerminaLaAnterior() {
+        List<PartidoACalendarizar> partidos = new ArrayList<>();
+        long id = 1;
+        for (int r = 1, enRonda = 8; enRonda >= 1; r++, enRonda /= 2) {
+            for (int i = 0; i < enRonda; i++) {
+                Long local = r == 1 ? (long) (2 * i) : null;
+                Long visitante = r == 1 ? (long) (2 * i + 1) : null;
+                partidos.add(new PartidoACalendarizar(id++, null, r, local, visitante));
+            }
+        }
+        PlanificadorCalendario planificador = new PlanificadorCalendario(
+            LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 10),
+            LocalTime.of(10, 0), LocalTime.of(20, 0), DURACION, 3, Duration.ofHours(2));
+
+        Map<Long, LocalDateTime> fechas = planificador.planificar(partidos);
+
+        Map<Integer, LocalDateTime> primerInicio = new HashMap<>();
+        Map<Integer, LocalDateTime> ultimoFin = new HashMap<>();
+        for (PartidoACalendarizar p : partidos) {
+            LocalDateTime inicio = fechas.get(p.idPartido());
+            primerInicio.merge(p.ronda(), inicio, (a, b) -> a.isBefore(b) ? a : b);
+            ultimoFin.merge(p.ronda(), inicio.plus(DURACION), (a, b) -> a.isAfter(b) ? a : b);
+        }
+        for (int r = 2; r <= 4; r++) {
+            assertFalse(primerInicio.get(r).isBefore(ultimoFin.get(r - 1).plusHours(2)),
+                "La ronda " + r + " empieza antes de que termine la anterior");
+        }
+    }
+
+    @Test
+    void fallaSiNoHayHuecos() {
+        PlanificadorCalendario planificador = new PlanificadorCalendario(
+            LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 1),
+            LocalTime.of(10, 0), LocalTime.of(13, 0), DURACION, 1, DESCANSO);
+
+        assertEquals(2, planificador.getNumeroFranjas());
+        assertThrows(BadRequestException.class, () -> planificador.planificar(liga(4, false)));
+    }
+
+    @Test
+    void noProgramaAntesDeLaHoraDeComienzoDelTorneo() {
+        // Franjas de 10:00, 11:30, 13:00...: el torneo empieza a las 11:45
+        PlanificadorCalendario planificador = new PlanificadorCalendario(
+            LocalDateTime.of(2025, 6, 1, 11, 45), LocalDate.of(2025, 6, 2),
+            LocalTime.of(10, 0), LocalTime.of(16, 0), DURACION, 1, DESCANSO);
+
+        Map<Long, LocalDateTime> fechas = planificador.planificar(liga(2, false));
+
+        assertEquals(6, planificador.getNumeroFranjas());
+        assertEquals(LocalDateTime.of(2025, 6, 1, 13, 0), fechas.get(1L));
+    }
+
+    private static List<PartidoACalendarizar> liga(int equipos, boolean idaYVuelta) {
+        List<PartidoACalendarizar> partidos = new ArrayList<>();
+        long id = 1;
+        int jornada = 1;
+        for (int i = 0; i < equipos; i++) {
+            for (int j = i + 1; j < equipos; j++) {
+                partidos.add(new PartidoACalendarizar(id++, jornada, null, (long) i, (long) j));
+                if (idaYVuelta) {
+                    partidos.add(new PartidoACalendarizar(id++, jornada + equipos, null, (long) j, (long) i));
+                }
+            }
+            jornada++;
+        }
+        return partidos;
+    }
+
+    private static void comprobarRestricciones(List<PartidoACalendarizar> partidos,
+                                               Map<Long, LocalDateTime> fechas, int campos) {
+        Map<LocalDateTime, Integer> porFranja = new HashMap<>();
+        Map<LocalDateTime, Set<Long>> equiposPorFranja = new HashMap<>();
+        Map<Long, List<LocalDateTime>> porEquipo = new HashMap<>();
+        for (PartidoACalendarizar p : partidos) {
+            LocalDateTime inicio = fechas.get(p.idPartido());
+            porFranja.merge(inicio, 1, Integer::sum);
+            Set<Long> enFranja = equiposPorFranja.computeIfAbsent(inicio, k -> new HashSet<>());
+            assertTrue(enFranja.add(p.idEquipoLocal()) && enFranja.add(p.idEquipoVisitante()),
+                "Un equipo juega dos partidos en la franja " + inicio);
+            porEquipo.computeIfAbsent(p.idEquipoLocal(), k -> new ArrayList<>()).add(inicio);
+            porEquipo.computeIfAbsent(p.idEquipoVisitante(), k -> new ArrayList<>()).add(inicio);
+        }
+        porFranja.values().forEach(n -> assertTrue(n <= campos, "Más partidos que campos en una franja"));
+        for (List<LocalDateTime> inicios : porEquipo.values()) {
+            inicios.sort(null);
+            for (int i = 1; i < inicios.size(); i++) {
+                assertFalse(inicios.get(i).isBefore(inicios.get(i - 1).plus(DURACION).plus(DESCANSO)),
+                    "Un equipo juega sin el descanso mínimo");
+            }
+        }
+    }
+}
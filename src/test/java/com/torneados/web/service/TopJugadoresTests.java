@@ -0,0 +1,75 @@
+package com.torneados.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.torneados.web.dto.FilaRankingDTO;
+
+class TopJugadoresTests {
+
+    private static final Comparator<FilaRankingDTO> POR_PUNTOS =
+        Comparator.comparingInt(FilaRankingDTO::getPuntos).reversed().thenComparing(FilaRankingDTO::getIdJugador);
+
+    @Test
+    void coincideConOrdenarTodoTrasCambiosAleatorios() {
+        int jugadores = 500;
+        int[] puntos = new int[jugadores];
+        Random random = new Random(42);
+        TopJugadores top = new TopJugadores(20, POR_PUNTOS);
+        top.cargar(primeras(puntos, 20));
+
+        for (int paso = 0; paso < 5_000; paso++) {
+            // Escritura: cambia un jugador (a veces a la baja, como al corregir un acta)
+            int j = random.nextInt(jugadores);
+            puntos[j] = Math.max(0, puntos[j] + random.nextInt(7) - 2);
+            top.marcarPendientes(List.of((long) j));
+
+            // Lectura: recoloca los pendientes con su valor actual y recarga si el prefijo no alcanza
+            if (paso % 10 == 0) {
+                for (Long id : top.tomarPendientes()) {
+                    top.actualizar(fila(id, puntos[id.intValue()]));
+                }
+                List<FilaRankingDTO> leidas = top.primeros(10);
+                if (leidas == null) {
+                    top.cargar(primeras(puntos, 20));
+                    leidas = top.primeros(10);
+                }
+                assertEquals(primeras(puntos, 10), leidas);
+            }
+        }
+    }
+
+    @Test
+    void pideRecargaSiElPrefijoSeQuedaCorto() {
+        TopJugadores top = new TopJugadores(3, POR_PUNTOS);
+        top.cargar(List.of(fila(1L, 9), fila(2L, 8), fila(3L, 7)));
+
+        // El primero baja por detrás del último guardado: ya no se sabe quién es el tercero
+        top.marcarPendientes(Set.of(1L));
+        top.tomarPendientes().forEach(id -> top.actualizar(fila(id, 0)));
+
+        assertEquals(List.of(fila(2L, 8), fila(3L, 7)), top.primeros(2));
+        assertNull(top.primeros(3));
+    }
+
+    private static List<FilaRankingDTO> primeras(int[] puntos, int k) {
+        List<FilaRankingDTO> todas = new ArrayList<>();
+        for (int i = 0; i < puntos.length; i++) {
+            todas.add(fila((long) i, puntos[i]));
+        }
+        todas.sort(POR_PUNTOS);
+        return todas.subList(0, k);
+    }
+
+    private static FilaRankingDTO fila(Long idJugador, int puntos) {
+        return new FilaRankingDTO(idJugador, "Jugador " + idJugador, 1L, "Equipo", null, puntos, 0, 0);
+    }
+}
@@ -0,0 +1,38 @@
+package com.torneados.web.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.torneados.web.entities.PartidoJugadores;
+
+class TotalesJugadorTests {
+
+    @Test
+    void sumaLosSetsYCuentaUnSoloPartido() {
+        List<PartidoJugadores> sets = List.of(
+            set(true, 2, 1, 0),
+            set(false, 0, 0, 1),
+            set(true, 3, 1, 0));
+
+        assertArrayEquals(new int[] {1, 5, 2, 1}, TorneoJugadoresService.totales(sets));
+    }
+
+    @Test
+    void sinJugarNoCuentaPartidoPeroSiTarjetas() {
+        // Una tarjeta desde el banquillo cuenta aunque no haya jugado ningún set
+        assertArrayEquals(new int[] {0, 0, 1, 0}, TorneoJugadoresService.totales(List.of(set(false, 0, 1, 0))));
+        assertArrayEquals(new int[] {0, 0, 0, 0}, TorneoJugadoresService.totales(List.of()));
+    }
+
+    private static PartidoJugadores set(boolean jugado, int puntos, int amarillas, int rojas) {
+        PartidoJugadores set = new PartidoJugadores();
+        set.setJugado(jugado);
+        set.setPuntos(puntos);
+        set.setTarjetasAmarillas(amarillas);
+        set.setTarjetasRojas(rojas);
+        return set;
+    }
+}